@@ -36,11 +36,18 @@ public abstract class ExporterTask {
 	
 	/*final*/ public void execute() {
 	
-		Exporter exporter = configureExporter(createExporter() );
+		Exporter exporter = createConfiguredExporter();
 		exporter.start();
 		
 	}
 	
+	/**
+	 * @return the exporter this task runs, ready to start
+	 */
+	public Exporter createConfiguredExporter() {
+		return configureExporter(createExporter() );
+	}
+	
 	protected abstract Exporter createExporter();
 
 	public File getDestdir() {
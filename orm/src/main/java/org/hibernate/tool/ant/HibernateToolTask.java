@@ -19,6 +19,7 @@ import org.apache.tools.ant.types.Path;
 import org.apache.tools.ant.types.PropertySet;
 import org.hibernate.boot.MappingNotFoundException;
 import org.hibernate.boot.jaxb.Origin;
+import org.hibernate.tool.api.export.ExporterPipeline;
 import org.hibernate.tool.api.metadata.MetadataDescriptor;
 import org.hibernate.tool.internal.util.StringUtil;
 
@@ -37,6 +38,7 @@ public class HibernateToolTask extends Task {
 	private Path classPath;
 	private Path templatePath;
 	private Properties properties = new Properties(); 	
+	private int threads = 1;
 	
 	private void checkConfiguration() {
 		if(configurationTask!=null) {
@@ -161,7 +163,8 @@ public class HibernateToolTask extends Task {
 		
 		AntClassLoader loader = getProject().createClassLoader(classPath);
 		
-		ExporterTask generatorTask = null;
+		ExporterPipeline pipeline = new ExporterPipeline();
+		pipeline.setThreads(threads);
 		int count = 1;
 		try {
 			ClassLoader classLoader = this.getClass().getClassLoader();
@@ -169,12 +172,24 @@ public class HibernateToolTask extends Task {
 			loader.setThreadContextLoader();
 			
 			while (iterator.hasNext() ) {				
-				generatorTask = iterator.next();
+				ExporterTask generatorTask = iterator.next();
 				log(count++ + ". task: " + generatorTask.getName() );
-				generatorTask.execute();			
+				pipeline.addExporter(generatorTask.getName(), generatorTask.createConfiguredExporter());
 			}
+			pipeline.run();
+			log("Timings:\n" + pipeline.getReport());
 		} catch (RuntimeException re) {
-			reportException(re, count, generatorTask);
+			if(pipeline.getReport()==null) {
+				// the exporter being configured
+				int failed = Math.max(0, count - 2);
+				reportException(re, failed + 1, generators.get(failed));
+			} else if(pipeline.getReport().getFailedIndex() < 0) {
+				// no exporter ran since building the metadata failed
+				reportException(re, "An exception occurred while building the metadata");
+			} else {
+				int failed = pipeline.getReport().getFailedIndex();
+				reportException(re, failed + 1, generators.get(failed));
+			}
 		} 
 		finally {
 			if (loader != null) {
@@ -185,7 +200,11 @@ public class HibernateToolTask extends Task {
 	}
 
 	private void reportException(Throwable re, int count, ExporterTask generatorTask) {
-		log("An exception occurred while running exporter #" + count + ":" + generatorTask.getName(), Project.MSG_ERR);
+		reportException(re, "An exception occurred while running exporter #" + count + ":" + generatorTask.getName());
+	}
+
+	private void reportException(Throwable re, String message) {
+		log(message, Project.MSG_ERR);
 		log("To get the full stack trace run ant with -verbose", Project.MSG_ERR);
 		
 		log(re.toString(), Project.MSG_ERR);
@@ -264,6 +283,17 @@ public class HibernateToolTask extends Task {
 		}
 	}
 
+	public int getThreads() {
+		return threads;
+	}
+	
+	/**
+	 * @param threads the number of exporters to run at once, which then must not depend on each other's output
+	 */
+	public void setThreads(int threads) {
+		this.threads = threads;
+	}
+
 	/**
 	 * @return
 	 */
@@ -10,19 +10,25 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.apache.tools.ant.BuildException;
 import org.apache.tools.ant.DirectoryScanner;
 import org.apache.tools.ant.Project;
 import org.apache.tools.ant.Task;
 import org.apache.tools.ant.types.FileSet;
-import org.hibernate.tool.api.java.Formatter;
+import org.hibernate.tool.api.java.ConcurrentFormatter;
 
 public class JavaFormatterTask extends Task {
 	
 	private List<FileSet> fileSets = new ArrayList<FileSet>();
 	private boolean failOnError;
 	private File configurationFile;
+	private int threads = Runtime.getRuntime().availableProcessors();
 	
 	public void addConfiguredFileSet(FileSet fileSet) {
 		fileSets.add(fileSet);
@@ -32,6 +38,13 @@ public class JavaFormatterTask extends Task {
 		this.configurationFile = configurationFile;
 	}
 	
+	/**
+	 * Number of files formatted at the same time, defaults to the number of processors.
+	 */
+	public void setThreads(int threads) {
+		this.threads = Math.max(1, threads);
+	}
+	
 	private Properties readConfig(File cfgfile) throws IOException {
 		BufferedInputStream stream = null;
 		try {
@@ -71,32 +84,64 @@ public class JavaFormatterTask extends Task {
 	
 		if(files.length>0) {
 			
-			Formatter formatter = new Formatter(settings);
-			for (int i = 0; i < files.length; i++) {
-				File file = files[i];			
-				try {
-					boolean ok = formatter.formatFile( file );
-					if(!ok) {
+			final ConcurrentFormatter formatter = new ConcurrentFormatter(settings);
+			ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, files.length));
+			try {
+				List<Future<Boolean>> results = new ArrayList<Future<Boolean>>(files.length);
+				for (int i = 0; i < files.length; i++) {
+					final File file = files[i];
+					results.add(executor.submit(new Callable<Boolean>() {
+						public Boolean call() {
+							return Boolean.valueOf(formatter.formatFile( file ));
+						}
+					}));
+				}
+				// report in the order of the files, from the thread running the task
+				for (int i = 0; i < files.length; i++) {
+					File file = files[i];			
+					try {
+						boolean ok = waitFor( results.get(i) );
+						if(!ok) {
+							failed++;
+							getProject().log(this, "Formatting failed - skipping " + file, Project.MSG_WARN);						
+						} else {
+							getProject().log(this, "Formatted " + file, Project.MSG_VERBOSE);
+						}
+					} catch(RuntimeException ee) {
 						failed++;
-						getProject().log(this, "Formatting failed - skipping " + file, Project.MSG_WARN);						
-					} else {
-						getProject().log(this, "Formatted " + file, Project.MSG_VERBOSE);
-					}
-				} catch(RuntimeException ee) {
-					failed++;
-					if(failOnError) {
-						throw new BuildException("Java formatting failed on " + file, ee);
-					} else {
-						getProject().log(this, "Java formatting failed on " + file + ", " + ee.getLocalizedMessage(), Project.MSG_ERR);
+						if(failOnError) {
+							throw new BuildException("Java formatting failed on " + file, ee);
+						} else {
+							getProject().log(this, "Java formatting failed on " + file + ", " + ee.getLocalizedMessage(), Project.MSG_ERR);
+						}
 					}
 				}
-			}			
+			} finally {
+				executor.shutdownNow();
+			}
 		}
 		
 		getProject().log( this, "Java formatting of " + files.length + " files completed. Skipped " + failed + " file(s).", Project.MSG_INFO );
 		
 	}
 
+	private boolean waitFor(Future<Boolean> result) {
+		try {
+			return result.get().booleanValue();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new BuildException("Interrupted while formatting", e);
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if(cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			} else if(cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new RuntimeException(cause);
+		}
+	}
+
 	private File[] getFiles() {
 
 		List<File> files = new LinkedList<File>();
@@ -84,9 +84,9 @@ public class QueryExporterTask extends ExporterTask {
 		this.filename = filename;
 	}
 	 
-	public void execute() {
+	public Exporter createConfiguredExporter() {
 		parent.log("Executing: [" + query + "]");
-		super.execute();
+		return super.createConfiguredExporter();
 	}
 	public String getName() {
 		return "query (Executes queries)";
@@ -0,0 +1,52 @@
+package org.hibernate.tool.api.dialect;
+
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Optional extension of {@link MetaDataDialect} for databases that can return the metadata
+ * of all tables in a catalog/schema with a single query per category instead of one query per table.
+ *
+ * The returned elements have the same keys as the corresponding per table methods of {@link MetaDataDialect}
+ * and the rows of each table are returned in the order the per table method would return them.
+ *
+ */
+public interface BulkMetaDataDialect extends MetaDataDialect {
+
+	/**
+	 * Return iterator over the columns of all tables in catalog and schema
+	 *
+	 * @param catalog name or null
+	 * @param schema name or null
+	 * @return iterator with the same map elements as {@link MetaDataDialect#getColumns(String, String, String, String)}
+	 */
+	Iterator<Map<String, Object>> getSchemaColumns(String catalog, String schema);
+
+	/**
+	 * Return iterator over the primary key columns of all tables in catalog and schema
+	 *
+	 * @param catalog name or null
+	 * @param schema name or null
+	 * @return iterator with the same map elements as {@link MetaDataDialect#getPrimaryKeys(String, String, String)}
+	 */
+	Iterator<Map<String, Object>> getSchemaPrimaryKeys(String catalog, String schema);
+
+	/**
+	 * Return iterator over the indexes of all tables in catalog and schema
+	 *
+	 * @param catalog name or null
+	 * @param schema name or null
+	 * @return iterator with the same map elements as {@link MetaDataDialect#getIndexInfo(String, String, String)}
+	 */
+	Iterator<Map<String, Object>> getSchemaIndexInfo(String catalog, String schema);
+
+	/**
+	 * Return iterator over the exported foreign keys of all tables in catalog and schema
+	 *
+	 * @param catalog name or null
+	 * @param schema name or null
+	 * @return iterator with the same map elements as {@link MetaDataDialect#getExportedKeys(String, String, String)}
+	 */
+	Iterator<Map<String, Object>> getSchemaExportedKeys(String catalog, String schema);
+
+}
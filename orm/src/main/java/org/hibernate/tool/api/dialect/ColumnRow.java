@@ -0,0 +1,79 @@
+package org.hibernate.tool.api.dialect;
+
+/**
+ * A column as returned by {@link TypedMetaDataDialect#getColumnRows(String, String, String, String)}.
+ * Corresponds to the map elements of {@link MetaDataDialect#getColumns(String, String, String, String)}.
+ */
+public class ColumnRow {
+
+	private final String tableCatalog;
+	private final String tableSchema;
+	private final String tableName;
+	private final String columnName;
+	private final int dataType;
+	private final String typeName;
+	private final int nullable;
+	private final int columnSize;
+	private final int decimalDigits;
+	private final String remarks;
+
+	public ColumnRow(String tableCatalog, String tableSchema, String tableName, String columnName, int dataType, String typeName, int nullable, int columnSize, int decimalDigits, String remarks) {
+		this.tableCatalog = tableCatalog;
+		this.tableSchema = tableSchema;
+		this.tableName = tableName;
+		this.columnName = columnName;
+		this.dataType = dataType;
+		this.typeName = typeName;
+		this.nullable = nullable;
+		this.columnSize = columnSize;
+		this.decimalDigits = decimalDigits;
+		this.remarks = remarks;
+	}
+
+	public String getTableCatalog() {
+		return tableCatalog;
+	}
+
+	public String getTableSchema() {
+		return tableSchema;
+	}
+
+	public String getTableName() {
+		return tableName;
+	}
+
+	public String getColumnName() {
+		return columnName;
+	}
+
+	/**
+	 * @return the sql type from {@link java.sql.Types}
+	 */
+	public int getDataType() {
+		return dataType;
+	}
+
+	public String getTypeName() {
+		return typeName;
+	}
+
+	/**
+	 * @return one of the {@link java.sql.DatabaseMetaData} columnNoNulls, columnNullable or columnNullableUnknown constants
+	 */
+	public int getNullable() {
+		return nullable;
+	}
+
+	public int getColumnSize() {
+		return columnSize;
+	}
+
+	public int getDecimalDigits() {
+		return decimalDigits;
+	}
+
+	public String getRemarks() {
+		return remarks;
+	}
+
+}
@@ -0,0 +1,76 @@
+package org.hibernate.tool.api.dialect;
+
+/**
+ * A foreign key column as returned by {@link TypedMetaDataDialect#getExportedKeyRows(String, String, String)}.
+ * Corresponds to the map elements of {@link MetaDataDialect#getExportedKeys(String, String, String)}.
+ */
+public class ForeignKeyRow {
+
+	private final String pkTableCatalog;
+	private final String pkTableSchema;
+	private final String pkTableName;
+	private final String pkColumnName;
+	private final String fkTableCatalog;
+	private final String fkTableSchema;
+	private final String fkTableName;
+	private final String fkColumnName;
+	private final String fkName;
+	private final short keySeq;
+
+	public ForeignKeyRow(
+			String pkTableCatalog, String pkTableSchema, String pkTableName, String pkColumnName, 
+			String fkTableCatalog, String fkTableSchema, String fkTableName, String fkColumnName, 
+			String fkName, short keySeq) {
+		this.pkTableCatalog = pkTableCatalog;
+		this.pkTableSchema = pkTableSchema;
+		this.pkTableName = pkTableName;
+		this.pkColumnName = pkColumnName;
+		this.fkTableCatalog = fkTableCatalog;
+		this.fkTableSchema = fkTableSchema;
+		this.fkTableName = fkTableName;
+		this.fkColumnName = fkColumnName;
+		this.fkName = fkName;
+		this.keySeq = keySeq;
+	}
+
+	public String getPkTableCatalog() {
+		return pkTableCatalog;
+	}
+
+	public String getPkTableSchema() {
+		return pkTableSchema;
+	}
+
+	public String getPkTableName() {
+		return pkTableName;
+	}
+
+	public String getPkColumnName() {
+		return pkColumnName;
+	}
+
+	public String getFkTableCatalog() {
+		return fkTableCatalog;
+	}
+
+	public String getFkTableSchema() {
+		return fkTableSchema;
+	}
+
+	public String getFkTableName() {
+		return fkTableName;
+	}
+
+	public String getFkColumnName() {
+		return fkColumnName;
+	}
+
+	public String getFkName() {
+		return fkName;
+	}
+
+	public short getKeySeq() {
+		return keySeq;
+	}
+
+}
@@ -0,0 +1,58 @@
+package org.hibernate.tool.api.dialect;
+
+/**
+ * An index column as returned by {@link TypedMetaDataDialect#getIndexRows(String, String, String)}.
+ * Corresponds to the map elements of {@link MetaDataDialect#getIndexInfo(String, String, String)}.
+ */
+public class IndexRow {
+
+	private final String tableCatalog;
+	private final String tableSchema;
+	private final String tableName;
+	private final String indexName;
+	private final String columnName;
+	private final boolean nonUnique;
+	private final short type;
+
+	public IndexRow(String tableCatalog, String tableSchema, String tableName, String indexName, String columnName, boolean nonUnique, short type) {
+		this.tableCatalog = tableCatalog;
+		this.tableSchema = tableSchema;
+		this.tableName = tableName;
+		this.indexName = indexName;
+		this.columnName = columnName;
+		this.nonUnique = nonUnique;
+		this.type = type;
+	}
+
+	public String getTableCatalog() {
+		return tableCatalog;
+	}
+
+	public String getTableSchema() {
+		return tableSchema;
+	}
+
+	public String getTableName() {
+		return tableName;
+	}
+
+	public String getIndexName() {
+		return indexName;
+	}
+
+	public String getColumnName() {
+		return columnName;
+	}
+
+	public boolean isNonUnique() {
+		return nonUnique;
+	}
+
+	/**
+	 * @return one of the {@link java.sql.DatabaseMetaData} tableIndexStatistic, tableIndexClustered, tableIndexHashed or tableIndexOther constants
+	 */
+	public short getType() {
+		return type;
+	}
+
+}
@@ -0,0 +1,49 @@
+package org.hibernate.tool.api.dialect;
+
+/**
+ * A primary key column as returned by {@link TypedMetaDataDialect#getPrimaryKeyRows(String, String, String)}.
+ * Corresponds to the map elements of {@link MetaDataDialect#getPrimaryKeys(String, String, String)}.
+ */
+public class PrimaryKeyRow {
+
+	private final String tableCatalog;
+	private final String tableSchema;
+	private final String tableName;
+	private final String columnName;
+	private final short keySeq;
+	private final String pkName;
+
+	public PrimaryKeyRow(String tableCatalog, String tableSchema, String tableName, String columnName, short keySeq, String pkName) {
+		this.tableCatalog = tableCatalog;
+		this.tableSchema = tableSchema;
+		this.tableName = tableName;
+		this.columnName = columnName;
+		this.keySeq = keySeq;
+		this.pkName = pkName;
+	}
+
+	public String getTableCatalog() {
+		return tableCatalog;
+	}
+
+	public String getTableSchema() {
+		return tableSchema;
+	}
+
+	public String getTableName() {
+		return tableName;
+	}
+
+	public String getColumnName() {
+		return columnName;
+	}
+
+	public short getKeySeq() {
+		return keySeq;
+	}
+
+	public String getPkName() {
+		return pkName;
+	}
+
+}
@@ -0,0 +1,44 @@
+package org.hibernate.tool.api.dialect;
+
+/**
+ * A table as returned by {@link TypedMetaDataDialect#getTableRows(String, String, String)}.
+ * Corresponds to the "TABLE_CAT", "TABLE_SCHEM", "TABLE_NAME", "TABLE_TYPE" and "REMARKS" keys 
+ * of {@link MetaDataDialect#getTables(String, String, String)}.
+ */
+public class TableRow {
+
+	private final String catalog;
+	private final String schema;
+	private final String name;
+	private final String type;
+	private final String remarks;
+
+	public TableRow(String catalog, String schema, String name, String type, String remarks) {
+		this.catalog = catalog;
+		this.schema = schema;
+		this.name = name;
+		this.type = type;
+		this.remarks = remarks;
+	}
+
+	public String getCatalog() {
+		return catalog;
+	}
+
+	public String getSchema() {
+		return schema;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public String getType() {
+		return type;
+	}
+
+	public String getRemarks() {
+		return remarks;
+	}
+
+}
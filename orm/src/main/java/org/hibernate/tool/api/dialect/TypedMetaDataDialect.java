@@ -0,0 +1,40 @@
+package org.hibernate.tool.api.dialect;
+
+import java.util.Iterator;
+
+/**
+ * Optional extension of {@link MetaDataDialect} that returns the metadata as typed rows 
+ * instead of maps. The iterators are closed with {@link MetaDataDialect#close(Iterator)}.
+ * 
+ * Dialects that only implement {@link MetaDataDialect} are still supported; their map elements
+ * are converted to rows by the reverse engineering.
+ *
+ */
+public interface TypedMetaDataDialect extends MetaDataDialect {
+
+	/**
+	 * @see MetaDataDialect#getTables(String, String, String)
+	 */
+	Iterator<TableRow> getTableRows(String catalog, String schema, String table);
+
+	/**
+	 * @see MetaDataDialect#getColumns(String, String, String, String)
+	 */
+	Iterator<ColumnRow> getColumnRows(String catalog, String schema, String table, String column);
+
+	/**
+	 * @see MetaDataDialect#getPrimaryKeys(String, String, String)
+	 */
+	Iterator<PrimaryKeyRow> getPrimaryKeyRows(String catalog, String schema, String table);
+
+	/**
+	 * @see MetaDataDialect#getIndexInfo(String, String, String)
+	 */
+	Iterator<IndexRow> getIndexRows(String catalog, String schema, String table);
+
+	/**
+	 * @see MetaDataDialect#getExportedKeys(String, String, String)
+	 */
+	Iterator<ForeignKeyRow> getExportedKeyRows(String catalog, String schema, String table);
+
+}
@@ -0,0 +1,18 @@
+package org.hibernate.tool.api.export;
+
+import java.io.File;
+
+/**
+ * Transforms the content of a generated file before it is written, e.g. to format it.
+ * Post processors are registered per file type on a DefaultArtifactCollector and may be 
+ * called by several export threads at once.
+ */
+public interface ArtifactPostProcessor {
+
+	/**
+	 * @param file the file the content is written to
+	 * @return the content to write
+	 */
+	String process(File file, String content);
+
+}
@@ -6,5 +6,6 @@ public interface ExporterConstants {
 	public static final String ARTIFACT_COLLECTOR = "org.hibernate.tool.api.export.ExporterConstants.ArtifactCollector";
 	public static final String OUTPUT_FOLDER = "org.hibernate.tool.api.export.ExporterConstants.OutputFolder";
 	public static final String TEMPLATE_PATH = "org.hibernate.tool.api.export.ExporterConstants.TemplatePath";
+	public static final String OUTPUT_SINK = "org.hibernate.tool.api.export.ExporterConstants.OutputSink";
 
 }
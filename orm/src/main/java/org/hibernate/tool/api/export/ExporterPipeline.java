@@ -0,0 +1,287 @@
+package org.hibernate.tool.api.export;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.hibernate.tool.api.metadata.MetadataDescriptor;
+import org.hibernate.tool.internal.metadata.JdbcMetadataDescriptor;
+import org.hibernate.tool.internal.metadata.MemoizingMetadataDescriptor;
+import org.jboss.logging.Logger;
+
+/**
+ * Runs several exporters against one model. The Metadata of every MetadataDescriptor is built once
+ * upfront and shared by all exporters given that descriptor, which then have to treat it as read-only.
+ * With more than one thread the exporters run concurrently, so they must not depend on each other's output.
+ * 
+ * Every run produces a Report with the time spent building the Metadata and running each exporter.
+ */
+public class ExporterPipeline {
+
+	private static final Logger log = Logger.getLogger(ExporterPipeline.class);
+
+	private final List<String> names = new ArrayList<String>();
+	private final List<Exporter> exporters = new ArrayList<Exporter>();
+	private final List<MemoizingMetadataDescriptor> descriptors = new ArrayList<MemoizingMetadataDescriptor>();
+	private int threads = 1;
+	private Report report;
+
+	public void addExporter(String name, Exporter exporter) {
+		names.add(name);
+		exporters.add(exporter);
+	}
+
+	public int getThreads() {
+		return threads;
+	}
+
+	/**
+	 * @param threads the number of exporters to run at once, 1 runs them one after the other in the calling thread
+	 */
+	public void setThreads(int threads) {
+		this.threads = Math.max(1, threads);
+	}
+
+	/**
+	 * @return the report of the last run, also when it failed
+	 */
+	public Report getReport() {
+		return report;
+	}
+
+	/**
+	 * Runs the exporters in the order they were added. After an exporter failed no further exporters 
+	 * are started, and once the running ones finished the failure of the first failed exporter is rethrown.
+	 * Only when all exporters succeeded the table fingerprints of incremental reverse engineering are stored.
+	 */
+	public Report run() {
+		report = new Report();
+		for (int i = 0; i < exporters.size(); i++) {
+			report.entries.add(new Entry(names.get(i)));
+		}
+		long start = System.currentTimeMillis();
+		shareMetadata();
+		report.metadataMillis = System.currentTimeMillis() - start;
+		try {
+			if(threads==1 || exporters.size() < 2) {
+				runSequentially();
+			} else {
+				runConcurrently();
+			}
+			storeFingerprints();
+		}
+		finally {
+			report.totalMillis = System.currentTimeMillis() - start;
+		}
+		if(log.isDebugEnabled()) {
+			log.debug(report);
+		}
+		return report;
+	}
+
+	/**
+	 * Replaces the MetadataDescriptor of every exporter by one that memoizes its Metadata, and builds the Metadata.
+	 */
+	private void shareMetadata() {
+		Map<MetadataDescriptor, MemoizingMetadataDescriptor> shared = new IdentityHashMap<MetadataDescriptor, MemoizingMetadataDescriptor>();
+		for (Iterator<Exporter> iter = exporters.iterator(); iter.hasNext();) {
+			Exporter exporter = iter.next();
+			MetadataDescriptor descriptor = (MetadataDescriptor)exporter.getProperties().get(ExporterConstants.METADATA_DESCRIPTOR);
+			if(descriptor==null) {
+				continue;
+			}
+			MemoizingMetadataDescriptor memoizing = shared.get(descriptor);
+			if(memoizing==null) {
+				memoizing = descriptor instanceof MemoizingMetadataDescriptor 
+						? (MemoizingMetadataDescriptor)descriptor 
+						: new MemoizingMetadataDescriptor(descriptor);
+				shared.put(descriptor, memoizing);
+			}
+			exporter.getProperties().put(ExporterConstants.METADATA_DESCRIPTOR, memoizing);
+		}
+		for (Iterator<MemoizingMetadataDescriptor> iter = shared.values().iterator(); iter.hasNext();) {
+			iter.next().createMetadata();
+		}
+		descriptors.clear();
+		descriptors.addAll(shared.values());
+	}
+
+	private void storeFingerprints() {
+		for (Iterator<MemoizingMetadataDescriptor> iter = descriptors.iterator(); iter.hasNext();) {
+			MetadataDescriptor descriptor = iter.next().getDelegate();
+			if(descriptor instanceof JdbcMetadataDescriptor) {
+				((JdbcMetadataDescriptor) descriptor).storeFingerprints();
+			}
+		}
+	}
+
+	private void runSequentially() {
+		for (int i = 0; i < exporters.size(); i++) {
+			runExporter(i);
+		}
+	}
+
+	private void runConcurrently() {
+		final ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+		ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, exporters.size()));
+		List<Future<?>> futures = new ArrayList<Future<?>>();
+		try {
+			for (int i = 0; i < exporters.size(); i++) {
+				final int index = i;
+				futures.add(executor.submit(new Runnable() {
+					public void run() {
+						Thread.currentThread().setContextClassLoader(contextClassLoader);
+						if(report.getFailure()==null) {
+							runExporter(index);
+						}
+					}
+				}));
+			}
+			for (Iterator<Future<?>> iter = futures.iterator(); iter.hasNext();) {
+				try {
+					iter.next().get();
+				}
+				catch (ExecutionException e) {
+					// runExporter records and rethrows the failure
+				}
+				catch (CancellationException e) {
+				}
+				catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new RuntimeException("Interrupted while waiting for the exporters", e);
+				}
+			}
+		}
+		finally {
+			executor.shutdownNow();
+		}
+		RuntimeException failure = report.getFailure();
+		if(failure!=null) {
+			throw failure;
+		}
+	}
+
+	private void runExporter(int index) {
+		Entry entry = report.entries.get(index);
+		long start = System.currentTimeMillis();
+		try {
+			exporters.get(index).start();
+		}
+		catch (RuntimeException e) {
+			entry.failure = e;
+			throw e;
+		}
+		finally {
+			entry.millis = System.currentTimeMillis() - start;
+			entry.run = true;
+		}
+	}
+
+	/**
+	 * The timing of one exporter.
+	 */
+	public static class Entry {
+
+		private final String name;
+		private volatile long millis;
+		private volatile boolean run;
+		private volatile RuntimeException failure;
+
+		Entry(String name) {
+			this.name = name;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public long getMillis() {
+			return millis;
+		}
+
+		/**
+		 * @return false if the exporter was not started since an exporter before it failed
+		 */
+		public boolean isRun() {
+			return run;
+		}
+
+		public RuntimeException getFailure() {
+			return failure;
+		}
+
+	}
+
+	/**
+	 * The timings of one run.
+	 */
+	public static class Report {
+
+		private final List<Entry> entries = new ArrayList<Entry>();
+		private long metadataMillis;
+		private long totalMillis;
+
+		public List<Entry> getEntries() {
+			return Collections.unmodifiableList(entries);
+		}
+
+		public long getMetadataMillis() {
+			return metadataMillis;
+		}
+
+		public long getTotalMillis() {
+			return totalMillis;
+		}
+
+		/**
+		 * @return the failure of the first failed exporter, or null
+		 */
+		public RuntimeException getFailure() {
+			for (Iterator<Entry> iter = entries.iterator(); iter.hasNext();) {
+				Entry entry = iter.next();
+				if(entry.failure!=null) {
+					return entry.failure;
+				}
+			}
+			return null;
+		}
+
+		/**
+		 * @return the index of the first failed exporter, or -1
+		 */
+		public int getFailedIndex() {
+			for (int i = 0; i < entries.size(); i++) {
+				if(entries.get(i).failure!=null) {
+					return i;
+				}
+			}
+			return -1;
+		}
+
+		public String toString() {
+			StringBuffer result = new StringBuffer();
+			result.append("Metadata built in ").append(metadataMillis).append(" ms\n");
+			for (int i = 0; i < entries.size(); i++) {
+				Entry entry = entries.get(i);
+				result.append(i + 1).append(". ").append(entry.name).append(": ");
+				if(!entry.run) {
+					result.append("not run\n");
+				} else {
+					result.append(entry.millis).append(" ms").append(entry.failure==null ? "\n" : " (failed)\n");
+				}
+			}
+			result.append("Total: ").append(totalMillis).append(" ms");
+			return result.toString();
+		}
+
+	}
+
+}
@@ -0,0 +1,24 @@
+package org.hibernate.tool.api.export;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Destination of the files generated by the exporters, e.g. a directory, a zip file or memory.
+ * Entries are addressed by their path relative to the output folder, with '/' as separator.
+ * Exporters may write several entries from different threads at once.
+ * 
+ * Exporters do not close the sink they are given, since several exporters may write to it.
+ */
+public interface OutputSink extends Closeable {
+
+	/**
+	 * Opens a stream to the entry at path. The entry is complete once the stream is closed.
+	 * @param append whether to append to an existing entry instead of replacing it
+	 */
+	OutputStream openStream(String path, boolean append) throws IOException;
+
+	boolean exists(String path);
+
+}
@@ -0,0 +1,63 @@
+package org.hibernate.tool.api.java;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.hibernate.tool.api.export.ArtifactPostProcessor;
+import org.jboss.logging.Logger;
+
+/**
+ * A Formatter that can be used by several threads at once. The Eclipse CodeFormatter is not
+ * thread-safe, so every thread formats with a Formatter of its own, created on first use.
+ * 
+ * As an ArtifactPostProcessor it formats generated java sources before they are written.
+ */
+public class ConcurrentFormatter implements ArtifactPostProcessor {
+
+	private static final Logger log = Logger.getLogger(ConcurrentFormatter.class);
+
+	private final Map<Object, Object> settings;
+
+	private final ThreadLocal<Formatter> formatters = new ThreadLocal<Formatter>();
+
+	public ConcurrentFormatter(Map<Object, Object> settings) {
+		this.settings = settings==null ? null : new HashMap<Object, Object>(settings);
+	}
+
+	/**
+	 * @see Formatter#formatFile(File)
+	 */
+	public boolean formatFile(File file) {
+		return getFormatter().formatFile(file);
+	}
+
+	/**
+	 * @see Formatter#format(String)
+	 */
+	public String format(String contents) {
+		return getFormatter().format(contents);
+	}
+
+	/**
+	 * Formats the content, or leaves it as it is if it contains errors.
+	 */
+	public String process(File file, String content) {
+		String result = format(content);
+		if(result==null) {
+			log.warn("Could not format " + file + " since it contains errors, writing it as generated");
+			return content;
+		}
+		return result;
+	}
+
+	private Formatter getFormatter() {
+		Formatter result = formatters.get();
+		if(result==null) {
+			result = new Formatter(settings==null ? null : new HashMap<Object, Object>(settings));
+			formatters.set(result);
+		}
+		return result;
+	}
+
+}
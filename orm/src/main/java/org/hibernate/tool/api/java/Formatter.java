@@ -40,21 +40,20 @@ public class Formatter {
 	 * @return
 	 */
 	public boolean formatFile(File file) {
-		IDocument doc = new Document();
 		try {
 			String contents = new String(org.eclipse.jdt.internal.compiler.util.Util.getFileCharContent(file, null));
-			doc.set(contents);
-			TextEdit edit = codeFormatter.format(CodeFormatter.K_COMPILATION_UNIT, contents, 0, contents.length(), 0, null);
-			if (edit != null) {
-				edit.apply(doc);
-			} else {				
+			String formatted = format(contents);
+			if (formatted == null) {				
 				return false; // most likely syntax errror
 			}
+			if(contents.equals(formatted)) {
+				return true; // already formatted, leave the file untouched
+			}
 
 			// write the file
 			final BufferedWriter out = new BufferedWriter(new FileWriter(file));
 			try {
-				out.write(doc.get());
+				out.write(formatted);
 				out.flush();
 			} finally {
 				try {
@@ -64,9 +63,28 @@ public class Formatter {
 				}
 			}
 			return true;
-		} catch (IOException | BadLocationException e) {
+		} catch (IOException e) {
 			throw new RuntimeException("Could not format " + file, e);
 		}
 	}
 
+	/**
+	 * Formats the source of a compilation unit in memory.
+	 * 
+	 * @return the formatted source or null if the formatting could not finish because of errors in the input
+	 */
+	public String format(String contents) {
+		TextEdit edit = codeFormatter.format(CodeFormatter.K_COMPILATION_UNIT, contents, 0, contents.length(), 0, null);
+		if (edit == null) {
+			return null;
+		}
+		IDocument doc = new Document(contents);
+		try {
+			edit.apply(doc);
+		} catch (BadLocationException e) {
+			throw new RuntimeException("Could not format source", e);
+		}
+		return doc.get();
+	}
+
 }
@@ -1,10 +1,13 @@
 package org.hibernate.tool.internal.dialect;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
 
 import org.hibernate.tool.api.dialect.MetaDataDialect;
 import org.hibernate.tool.api.reveng.ReverseEngineeringRuntimeInfo;
@@ -12,40 +15,154 @@ import org.hibernate.tool.api.reveng.ReverseEngineeringRuntimeInfo;
 public class CachedMetaDataDialect implements MetaDataDialect {
 	
 	MetaDataDialect delegate;
-	private Map<StringKey, List<Map<String, Object>>> cachedTables = new HashMap<StringKey, List<Map<String, Object>>>();
-	private Map<StringKey, List<Map<String, Object>>> cachedColumns = new HashMap<StringKey, List<Map<String, Object>>>();
-	private Map<StringKey, List<Map<String, Object>>> cachedExportedKeys = new HashMap<StringKey, List<Map<String, Object>>>();
-	private Map<StringKey, List<Map<String, Object>>> cachedPrimaryKeys = new HashMap<StringKey, List<Map<String, Object>>>();
-	private Map<StringKey, List<Map<String, Object>>> cachedIndexInfo = new HashMap<StringKey, List<Map<String, Object>>>();
-	private Map<StringKey, List<Map<String, Object>>> cachedPrimaryKeyStrategyName = new HashMap<StringKey, List<Map<String, Object>>>();
+	private final Map<List<String>, List<Map<String, Object>>> cachedTables;
+	private final Map<List<String>, List<Map<String, Object>>> cachedColumns;
+	private final Map<List<String>, List<Map<String, Object>>> cachedExportedKeys;
+	private final Map<List<String>, List<Map<String, Object>>> cachedPrimaryKeys;
+	private final Map<List<String>, List<Map<String, Object>>> cachedIndexInfo;
+	private final Map<List<String>, List<Map<String, Object>>> cachedPrimaryKeyStrategyName;
+
+	private final MetaDataSnapshotStore snapshotStore;
+	private final RowSpillFile spillFile;
+	// the dialect whose caches are shared, or null if they are this dialect's own
+	private final CachedMetaDataDialect shared;
+	private String changeMarker;
+	private String cachedChangeMarker;
+	private volatile boolean modified;
 
 	public CachedMetaDataDialect(MetaDataDialect realMetaData) {
+		this(realMetaData, (MetaDataSnapshotStore) null);
+	}
+	
+	/**
+	 * @param snapshotStore if not null the cache is read from and written through to this store 
+	 */
+	public CachedMetaDataDialect(MetaDataDialect realMetaData, MetaDataSnapshotStore snapshotStore) {
+		this(realMetaData, snapshotStore, null);
+	}
+	
+	/**
+	 * @param spillFile if not null the cached rows are kept in this file instead of on the heap
+	 */
+	public CachedMetaDataDialect(MetaDataDialect realMetaData, MetaDataSnapshotStore snapshotStore, RowSpillFile spillFile) {
 		this.delegate = realMetaData;
+		this.snapshotStore = snapshotStore;
+		this.spillFile = spillFile;
+		this.shared = null;
+		cachedTables = newCache();
+		cachedColumns = newCache();
+		cachedExportedKeys = newCache();
+		cachedPrimaryKeys = newCache();
+		cachedIndexInfo = newCache();
+		cachedPrimaryKeyStrategyName = newCache();
+	}
+	
+	private CachedMetaDataDialect(MetaDataDialect realMetaData, CachedMetaDataDialect shared) {
+		this.delegate = realMetaData;
+		this.snapshotStore = null;
+		this.spillFile = shared.spillFile;
+		this.shared = shared;
+		cachedTables = shared.cachedTables;
+		cachedColumns = shared.cachedColumns;
+		cachedExportedKeys = shared.cachedExportedKeys;
+		cachedPrimaryKeys = shared.cachedPrimaryKeys;
+		cachedIndexInfo = shared.cachedIndexInfo;
+		cachedPrimaryKeyStrategyName = shared.cachedPrimaryKeyStrategyName;
+	}
+	
+	/**
+	 * @return a dialect reading through the caches of this one with its own delegate, e.g. for a worker 
+	 * thread reading metadata in parallel. It neither loads nor saves the snapshot: the rows it reads are 
+	 * saved when this dialect is closed, so it has to be configured after and closed before this one.
+	 */
+	public CachedMetaDataDialect share(MetaDataDialect realMetaData) {
+		return new CachedMetaDataDialect(realMetaData, shared!=null ? shared : this);
+	}
+	
+	private Map<List<String>, List<Map<String, Object>>> newCache() {
+		// synchronized since dialects sharing the caches may be used by several threads
+		if(spillFile!=null) {
+			return Collections.synchronizedMap(spillFile.<List<String>>newMap());
+		}
+		return Collections.synchronizedMap(new HashMap<List<String>, List<Map<String, Object>>>());
 	}
 	
 	public void close() {
+		if(snapshotStore!=null && modified && changeMarker!=null) {
+			snapshotStore.save(changeMarker, getCacheCategories());
+			modified = false;
+		}
 		delegate.close();
 	}
 
 	public void configure(ReverseEngineeringRuntimeInfo info) {
-        delegate.configure(info);       
+        delegate.configure(info);
+        if(snapshotStore!=null) {
+        	changeMarker = snapshotStore.readChangeMarker(info);
+        	if(cachedChangeMarker!=null && !cachedChangeMarker.equals(changeMarker)) {
+        		clearCaches();
+        	}
+        	if(changeMarker!=null && !changeMarker.equals(cachedChangeMarker)) {
+        		Map<String, Map<List<String>, List<Map<String, Object>>>> snapshot = snapshotStore.load(changeMarker);
+        		if(snapshot!=null) {
+        			setCaches(snapshot);
+        		}
+        	}
+        	cachedChangeMarker = changeMarker;
+        }
     }
 	
 	public void close(Iterator<?> iterator) {
 		if(iterator instanceof CachedIterator) {
 			CachedIterator ci = (CachedIterator) iterator;
 			if(ci.getOwner()==this) {
-				ci.store();
+				// only rows read from the delegate change the snapshot
+				if(ci.store()) {
+					(shared!=null ? shared : this).modified = true;
+				}
 				return;
 			} 
 		}
 		delegate.close( iterator );
 	}
+	
+	private Map<String, Map<List<String>, List<Map<String, Object>>>> getCacheCategories() {
+		Map<String, Map<List<String>, List<Map<String, Object>>>> result = new HashMap<String, Map<List<String>, List<Map<String, Object>>>>();
+		result.put("tables", cachedTables);
+		result.put("columns", cachedColumns);
+		result.put("exportedKeys", cachedExportedKeys);
+		result.put("primaryKeys", cachedPrimaryKeys);
+		result.put("indexInfo", cachedIndexInfo);
+		result.put("primaryKeyStrategyName", cachedPrimaryKeyStrategyName);
+		return result;
+	}
+	
+	private void setCaches(Map<String, Map<List<String>, List<Map<String, Object>>>> caches) {
+		clearCaches();
+		for (Iterator<Entry<String, Map<List<String>, List<Map<String, Object>>>>> iter = getCacheCategories().entrySet().iterator(); iter.hasNext();) {
+			Entry<String, Map<List<String>, List<Map<String, Object>>>> category = iter.next();
+			Map<List<String>, List<Map<String, Object>>> cache = caches.get(category.getKey());
+			if(cache!=null) {
+				category.getValue().putAll(cache);
+			}
+		}
+		modified = false;
+	}
+	
+	private void clearCaches() {
+		for (Iterator<Map<List<String>, List<Map<String, Object>>>> iter = getCacheCategories().values().iterator(); iter.hasNext();) {
+			iter.next().clear();
+		}
+		if(spillFile!=null) {
+			spillFile.clear();
+		}
+		modified = false;
+	}
 
 	
 
 	public Iterator<Map<String, Object>> getColumns(String catalog, String schema, String table, String column) {
-		StringKey sk = new StringKey(new String[] { catalog, schema, table, column });
+		List<String> sk = Arrays.asList(catalog, schema, table, column);
 		List<Map<String, Object>> cached = cachedColumns.get( sk );
 		if(cached==null) {
 			cached = new ArrayList<Map<String, Object>>();
@@ -56,7 +173,7 @@ public class CachedMetaDataDialect implements MetaDataDialect {
 	}
 
 	public Iterator<Map<String, Object>> getExportedKeys(String catalog, String schema, String table) {
-		StringKey sk = new StringKey(new String[] { catalog, schema, table });
+		List<String> sk = Arrays.asList(catalog, schema, table);
 		List<Map<String, Object>> cached = cachedExportedKeys.get( sk );
 		if(cached==null) {
 			cached = new ArrayList<Map<String, Object>>();
@@ -67,7 +184,7 @@ public class CachedMetaDataDialect implements MetaDataDialect {
 	}
 
 	public Iterator<Map<String, Object>> getIndexInfo(String catalog, String schema, String table) {
-		StringKey sk = new StringKey(new String[] { catalog, schema, table });
+		List<String> sk = Arrays.asList(catalog, schema, table);
 		List<Map<String, Object>> cached = cachedIndexInfo.get( sk );
 		if(cached==null) {
 			cached = new ArrayList<Map<String, Object>>();
@@ -78,7 +195,7 @@ public class CachedMetaDataDialect implements MetaDataDialect {
 	}
 
 	public Iterator<Map<String, Object>> getPrimaryKeys(String catalog, String schema, String name) {
-		StringKey sk = new StringKey(new String[] { catalog, schema, name });
+		List<String> sk = Arrays.asList(catalog, schema, name);
 		List<Map<String, Object>> cached = cachedPrimaryKeys .get( sk );
 		if(cached==null) {
 			cached = new ArrayList<Map<String, Object>>();
@@ -89,7 +206,7 @@ public class CachedMetaDataDialect implements MetaDataDialect {
 	}
 
 	public Iterator<Map<String, Object>> getTables(String catalog, String schema, String table) {
-		StringKey sk = new StringKey(new String[] { catalog, schema, table });
+		List<String> sk = Arrays.asList(catalog, schema, table);
 		List<Map<String, Object>> cached = cachedTables.get( sk );
 		if(cached==null) {
 			cached = new ArrayList<Map<String, Object>>();
@@ -100,7 +217,7 @@ public class CachedMetaDataDialect implements MetaDataDialect {
 	}
 
 	public Iterator<Map<String, Object>> getSuggestedPrimaryKeyStrategyName(String catalog, String schema, String table) {
-		StringKey sk = new StringKey(new String[] { catalog, schema, table });
+		List<String> sk = Arrays.asList(catalog, schema, table);
 		List<Map<String, Object>> cached = cachedPrimaryKeyStrategyName.get( sk );
 		if(cached==null) {
 			cached = new ArrayList<Map<String, Object>>();
@@ -114,60 +231,14 @@ public class CachedMetaDataDialect implements MetaDataDialect {
 		return delegate.needQuote( name );
 	}
 	
-	private static class StringKey {
-		String[] keys;
-		
-		StringKey(String[] key) {
-			this.keys=key;
-		}
-		
-		public int hashCode() {
-			if (keys == null)
-	            return 0;
-	 
-	        int result = 1;
-	 
-	        for (int i = 0; i < keys.length; i++) {
-				Object element = keys[i];
-			    result = 31 * result + (element == null ? 0 : element.hashCode());
-	        }
-	        
-	        return result;	 
-		}
-		
-		public boolean equals(Object obj) {
-			StringKey other = (StringKey) obj;
-			String[] otherKeys = other.keys;
-			
-			if(otherKeys.length!=keys.length) {
-				return false;
-			}
-			
-			for (int i = otherKeys.length-1; i >= 0; i--) {
-				if(!safeEquals(otherKeys[i],(keys[i]))) {
-					return false;
-				}
-			}
-			
-			return true;
-		}
-		
-		private boolean safeEquals(Object obj1, Object obj2) {
-			if ( obj1 == null ) {
-				return obj2 == null;
-			}
-	        return obj1.equals( obj2 );
-		}
-	}
-	
 	private static class CachedIterator implements Iterator<Map<String, Object>> {
 
 		private List<Map<String, Object>> cache; 
-		private StringKey target;
-		private Map<StringKey, List<Map<String, Object>>> destination;
+		private List<String> target;
+		private Map<List<String>, List<Map<String, Object>>> destination;
 		private Iterator<Map<String, Object>> realIterator;
 		final CachedMetaDataDialect owner;
-		public CachedIterator(CachedMetaDataDialect owner, Map<StringKey, List<Map<String, Object>>> destination, StringKey sk, List<Map<String, Object>> cache, Iterator<Map<String, Object>> realIterator) {
+		public CachedIterator(CachedMetaDataDialect owner, Map<List<String>, List<Map<String, Object>>> destination, List<String> sk, List<Map<String, Object>> cache, Iterator<Map<String, Object>> realIterator) {
 			this.owner = owner;
 			this.destination = destination;
 			this.target = sk;
@@ -193,13 +264,21 @@ public class CachedMetaDataDialect implements MetaDataDialect {
 			realIterator.remove();
 		}
 
-		public void store() {
+		/**
+		 * @return true if the rows were added to the cache, false if it had them already or they were stored before
+		 */
+		public boolean store() {
+			if(destination==null) {
+				return false;
+			}
+			boolean added = !destination.containsKey( target );
 			destination.put( target, cache );
 			if(realIterator.hasNext()) throw new IllegalStateException("CachedMetaDataDialect have not been fully initialized!");
 			cache = null;
 			target = null;
 			destination = null;
 			realIterator = null;			
+			return added;
 		}
 	}
 
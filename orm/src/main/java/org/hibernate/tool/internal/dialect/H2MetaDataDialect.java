@@ -8,6 +8,8 @@ import java.util.Iterator;
 import java.util.Map;
 
 import org.hibernate.internal.util.StringHelper;
+import org.hibernate.tool.api.dialect.BulkMetaDataDialect;
+import org.hibernate.tool.internal.util.TableNameQualifier;
 import org.hibernate.tool.internal.util.ReflectHelper;
 
 
@@ -17,7 +19,7 @@ import org.hibernate.tool.internal.util.ReflectHelper;
  * @author Max Rydahl Andersen
  *
  */
-public class H2MetaDataDialect extends JDBCMetaDataDialect {
+public class H2MetaDataDialect extends JDBCMetaDataDialect implements BulkMetaDataDialect {
 
 	private static boolean understandsCatalogName = true;
 
@@ -49,6 +51,10 @@ public class H2MetaDataDialect extends JDBCMetaDataDialect {
 		}
 	}
 	
+	protected String getCatalog(ResultSet rs, int columnIndex) throws SQLException {
+		return understandsCatalogName ? super.getCatalog( rs, columnIndex ) : null;
+	}
+	
 	public Iterator<Map<String, Object>> getSuggestedPrimaryKeyStrategyName(String catalog, String schema, String table) {
 			try {			
 				catalog = caseForSearch( catalog );
@@ -98,4 +104,102 @@ public class H2MetaDataDialect extends JDBCMetaDataDialect {
 				throw getSQLExceptionConverter().convert(e, "Could not get list of suggested identity strategies from database. Probably a JDBC driver problem.", null);		         
 			} 		
 	}
+
+	public Iterator<Map<String, Object>> getSchemaColumns(String catalog, String schema) {
+		return getColumns( catalog, schema, null, null );
+	}
+
+	// the H2 driver requires a table name for primary keys, indexes and exported keys, 
+	// so the schema wide variants query INFORMATION_SCHEMA the same way the driver does.
+
+	private static final String SQL_SCHEMA_PRIMARY_KEYS = "SELECT "
+			+ "TABLE_CATALOG TABLE_CAT, TABLE_SCHEMA TABLE_SCHEM, TABLE_NAME, COLUMN_NAME, "
+			+ "ORDINAL_POSITION KEY_SEQ, IFNULL(CONSTRAINT_NAME, INDEX_NAME) PK_NAME "
+			+ "FROM INFORMATION_SCHEMA.INDEXES "
+			+ "WHERE TABLE_CATALOG LIKE ? AND TABLE_SCHEMA LIKE ? AND PRIMARY_KEY = TRUE "
+			+ "ORDER BY TABLE_NAME, COLUMN_NAME";
+
+	private static final String SQL_SCHEMA_INDEX_INFO = "SELECT "
+			+ "TABLE_CATALOG TABLE_CAT, TABLE_SCHEMA TABLE_SCHEM, TABLE_NAME, NON_UNIQUE, "
+			+ "INDEX_NAME, INDEX_TYPE TYPE, ORDINAL_POSITION, COLUMN_NAME "
+			+ "FROM INFORMATION_SCHEMA.INDEXES "
+			+ "WHERE TABLE_CATALOG LIKE ? AND TABLE_SCHEMA LIKE ? "
+			+ "ORDER BY TABLE_NAME, NON_UNIQUE, TYPE, TABLE_SCHEM, INDEX_NAME, ORDINAL_POSITION";
+
+	private static final String SQL_SCHEMA_EXPORTED_KEYS = "SELECT "
+			+ "PKTABLE_CATALOG PKTABLE_CAT, PKTABLE_SCHEMA PKTABLE_SCHEM, PKTABLE_NAME, PKCOLUMN_NAME, "
+			+ "FKTABLE_CATALOG FKTABLE_CAT, FKTABLE_SCHEMA FKTABLE_SCHEM, FKTABLE_NAME, FKCOLUMN_NAME, "
+			+ "ORDINAL_POSITION KEY_SEQ, FK_NAME "
+			+ "FROM INFORMATION_SCHEMA.CROSS_REFERENCES "
+			+ "WHERE PKTABLE_CATALOG LIKE ? AND PKTABLE_SCHEMA LIKE ? "
+			+ "ORDER BY PKTABLE_NAME, FKTABLE_CAT, FKTABLE_SCHEM, FKTABLE_NAME, FK_NAME, KEY_SEQ";
+
+	public Iterator<Map<String, Object>> getSchemaPrimaryKeys(final String catalog, final String schema) {
+		try {
+			log.debug("getSchemaPrimaryKeys(" + catalog + "." + schema + ")");
+			PreparedStatement statement = prepareSchemaStatement( SQL_SCHEMA_PRIMARY_KEYS, catalog, schema );
+			return new ResultSetIterator(statement, statement.executeQuery(), getSQLExceptionConverter()) {
+				Map<String, Object> element = new HashMap<String, Object>();
+				protected Map<String, Object> convertRow(ResultSet rs) throws SQLException {
+					element.clear();
+					putPrimaryKeyPart( element, rs );
+					return element;
+				}
+				protected Throwable handleSQLException(SQLException e) {
+					throw getSQLExceptionConverter().convert(e, "Error while reading primary key meta data for " + TableNameQualifier.qualify(catalog, schema, "*"), null);
+				}
+			};
+		} catch (SQLException e) {
+			throw getSQLExceptionConverter().convert(e, "Error while reading primary key meta data for " + TableNameQualifier.qualify(catalog, schema, "*"), null);
+		}
+	}
+
+	public Iterator<Map<String, Object>> getSchemaIndexInfo(final String catalog, final String schema) {
+		try {
+			log.debug("getSchemaIndexInfo(" + catalog + "." + schema + ")");
+			PreparedStatement statement = prepareSchemaStatement( SQL_SCHEMA_INDEX_INFO, catalog, schema );
+			return new ResultSetIterator(statement, statement.executeQuery(), getSQLExceptionConverter()) {
+				Map<String, Object> element = new HashMap<String, Object>();
+				protected Map<String, Object> convertRow(ResultSet rs) throws SQLException {
+					element.clear();
+					putIndexInfoPart( element, rs );
+					return element;
+				}
+				protected Throwable handleSQLException(SQLException e) {
+					throw getSQLExceptionConverter().convert(e, "Exception while getting index info for " + TableNameQualifier.qualify(catalog, schema, "*"), null);
+				}
+			};
+		} catch (SQLException e) {
+			throw getSQLExceptionConverter().convert(e, "Exception while getting index info for " + TableNameQualifier.qualify(catalog, schema, "*"), null);
+		}
+	}
+
+	public Iterator<Map<String, Object>> getSchemaExportedKeys(final String catalog, final String schema) {
+		try {
+			log.debug("getSchemaExportedKeys(" + catalog + "." + schema + ")");
+			PreparedStatement statement = prepareSchemaStatement( SQL_SCHEMA_EXPORTED_KEYS, catalog, schema );
+			return new ResultSetIterator(statement, statement.executeQuery(), getSQLExceptionConverter()) {
+				Map<String, Object> element = new HashMap<String, Object>();
+				protected Map<String, Object> convertRow(ResultSet rs) throws SQLException {
+					element.clear();
+					putExportedKeysPart( element, rs );
+					return element;
+				}
+				protected Throwable handleSQLException(SQLException e) {
+					throw getSQLExceptionConverter().convert(e, "Error while reading exported keys meta data for " + TableNameQualifier.qualify(catalog, schema, "*"), null);
+				}
+			};
+		} catch (SQLException e) {
+			throw getSQLExceptionConverter().convert(e, "Error while reading exported keys meta data for " + TableNameQualifier.qualify(catalog, schema, "*"), null);
+		}
+	}
+
+	private PreparedStatement prepareSchemaStatement(String sql, String catalog, String schema) throws SQLException {
+		catalog = caseForSearch( catalog );
+		schema = caseForSearch( schema );
+		PreparedStatement statement = getConnection().prepareStatement( sql );
+		statement.setString( 1, catalog==null ? "%" : catalog );
+		statement.setString( 2, schema==null ? "%" : schema );
+		return statement;
+	}
 }
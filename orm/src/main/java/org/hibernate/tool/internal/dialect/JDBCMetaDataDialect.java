@@ -2,21 +2,33 @@ package org.hibernate.tool.internal.dialect;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
 
+import org.hibernate.tool.api.dialect.ColumnRow;
+import org.hibernate.tool.api.dialect.ForeignKeyRow;
+import org.hibernate.tool.api.dialect.IndexRow;
+import org.hibernate.tool.api.dialect.PrimaryKeyRow;
+import org.hibernate.tool.api.dialect.TableRow;
+import org.hibernate.tool.api.dialect.TypedMetaDataDialect;
 import org.hibernate.tool.internal.util.TableNameQualifier;
 
 /**
  * MetaData dialect that uses standard JDBC for reading metadata.
  * 
+ * The metadata is read into typed rows, the column indexes are looked up once per ResultSet;
+ * the map based methods are adapters on top of the typed ones.
+ * 
  * @author Max Rydahl Andersen
  *
  */
-public class JDBCMetaDataDialect extends AbstractMetaDataDialect {
+public class JDBCMetaDataDialect extends AbstractMetaDataDialect implements TypedMetaDataDialect {
 	
 	public Iterator<Map<String,Object>> getTables(String xcatalog, String xschema, String xtable) {
+		return MetaDataRows.toTableMaps(getTableRows(xcatalog, xschema, xtable));
+	}
+	
+	public Iterator<TableRow> getTableRows(String xcatalog, String xschema, String xtable) {
 		try {			
 			final String catalog = caseForSearch( xcatalog );
 			final String schema = caseForSearch( xschema );
@@ -26,15 +38,19 @@ public class JDBCMetaDataDialect extends AbstractMetaDataDialect {
 			
 			ResultSet tableRs = getMetaData().getTables(catalog , schema , table, new String[] { "TABLE", "VIEW" });
 			
-			return new ResultSetIterator(tableRs, getSQLExceptionConverter()) {
+			return new AbstractResultSetIterator<TableRow>(tableRs, getSQLExceptionConverter()) {
 				
-				Map<String, Object> element = new HashMap<String, Object>();
-				protected Map<String, Object> convertRow(ResultSet tableResultSet) throws SQLException {
-					element.clear();
-					putTablePart( element, tableResultSet );
-					element.put("TABLE_TYPE", tableResultSet.getString("TABLE_TYPE"));
-					element.put("REMARKS", tableResultSet.getString("REMARKS"));
-					return element;					
+				int[] index;
+				protected TableRow convertRow(ResultSet tableResultSet) throws SQLException {
+					if(index==null) {
+						index = findColumns(tableResultSet, "TABLE_CAT", "TABLE_SCHEM", "TABLE_NAME", "TABLE_TYPE", "REMARKS");
+					}
+					return new TableRow(
+							getCatalog(tableResultSet, index[0]), 
+							tableResultSet.getString(index[1]), 
+							tableResultSet.getString(index[2]), 
+							tableResultSet.getString(index[3]), 
+							tableResultSet.getString(index[4]));
 				}
 				protected Throwable handleSQLException(SQLException e) {
 					// schemaRs and catalogRs are only used for error reporting if
@@ -53,6 +69,10 @@ public class JDBCMetaDataDialect extends AbstractMetaDataDialect {
 	}
 	
 	public Iterator<Map<String, Object>> getIndexInfo(final String xcatalog, final String xschema, final String xtable) {
+		return MetaDataRows.toIndexMaps(getIndexRows(xcatalog, xschema, xtable));
+	}
+
+	public Iterator<IndexRow> getIndexRows(final String xcatalog, final String xschema, final String xtable) {
 		try {
 			final String catalog = caseForSearch( xcatalog );
 			final String schema = caseForSearch( xschema );
@@ -61,17 +81,21 @@ public class JDBCMetaDataDialect extends AbstractMetaDataDialect {
 			log.debug("getIndexInfo(" + catalog + "." + schema + "." + table + ")");
 			ResultSet tableRs = getMetaData().getIndexInfo(catalog , schema , table, false, true);
 			
-			return new ResultSetIterator(tableRs, getSQLExceptionConverter()) {
+			return new AbstractResultSetIterator<IndexRow>(tableRs, getSQLExceptionConverter()) {
 				
-				Map<String, Object> element = new HashMap<String, Object>();
-				protected Map<String, Object> convertRow(ResultSet rs) throws SQLException {
-					element.clear();
-					putTablePart(element, rs);
-					element.put("INDEX_NAME", rs.getString("INDEX_NAME"));
-					element.put("COLUMN_NAME", rs.getString("COLUMN_NAME"));
-					element.put("NON_UNIQUE", Boolean.valueOf(rs.getBoolean("NON_UNIQUE")));
-					element.put("TYPE", Short.valueOf(rs.getShort("TYPE")));					 
-					return element;					
+				int[] index;
+				protected IndexRow convertRow(ResultSet rs) throws SQLException {
+					if(index==null) {
+						index = findColumns(rs, "TABLE_CAT", "TABLE_SCHEM", "TABLE_NAME", "INDEX_NAME", "COLUMN_NAME", "NON_UNIQUE", "TYPE");
+					}
+					return new IndexRow(
+							getCatalog(rs, index[0]), 
+							rs.getString(index[1]), 
+							rs.getString(index[2]), 
+							rs.getString(index[3]), 
+							rs.getString(index[4]), 
+							rs.getBoolean(index[5]), 
+							rs.getShort(index[6]));
 				}
 				protected Throwable handleSQLException(SQLException e) {
 					throw getSQLExceptionConverter().convert(e, "Exception while getting index info for " + TableNameQualifier.qualify(catalog, schema, table), null);
@@ -82,13 +106,39 @@ public class JDBCMetaDataDialect extends AbstractMetaDataDialect {
 		} 		
 	}
 
+	/**
+	 * Read a catalog name from the metadata, subclasses can override this to ignore what the driver reports.
+	 */
+	protected String getCatalog(ResultSet rs, int columnIndex) throws SQLException {
+		return rs.getString(columnIndex);
+	}
+
 	protected void putTablePart(Map<String, Object> element, ResultSet tableRs) throws SQLException {
 		element.put("TABLE_NAME", tableRs.getString("TABLE_NAME"));
 		element.put("TABLE_SCHEM", tableRs.getString("TABLE_SCHEM"));
 		element.put("TABLE_CAT", tableRs.getString("TABLE_CAT"));
 	}
 
+	protected void putIndexInfoPart(Map<String, Object> element, ResultSet rs) throws SQLException {
+		putTablePart(element, rs);
+		element.put("INDEX_NAME", rs.getString("INDEX_NAME"));
+		element.put("COLUMN_NAME", rs.getString("COLUMN_NAME"));
+		element.put("NON_UNIQUE", Boolean.valueOf(rs.getBoolean("NON_UNIQUE")));
+		element.put("TYPE", Short.valueOf(rs.getShort("TYPE")));
+	}
+
+	protected void putPrimaryKeyPart(Map<String, Object> element, ResultSet rs) throws SQLException {
+		putTablePart(element, rs);
+		element.put("COLUMN_NAME", rs.getString("COLUMN_NAME"));
+		element.put("KEY_SEQ", Short.valueOf(rs.getShort("KEY_SEQ")));
+		element.put("PK_NAME", rs.getString("PK_NAME"));
+	}
+
 	public Iterator<Map<String, Object>> getColumns(final String xcatalog, final String xschema, final String xtable, String xcolumn) {
+		return MetaDataRows.toColumnMaps(getColumnRows(xcatalog, xschema, xtable, xcolumn));
+	}
+
+	public Iterator<ColumnRow> getColumnRows(final String xcatalog, final String xschema, final String xtable, String xcolumn) {
 		try {			  
 			final String catalog = caseForSearch( xcatalog );
 			final String schema = caseForSearch( xschema );
@@ -98,20 +148,24 @@ public class JDBCMetaDataDialect extends AbstractMetaDataDialect {
 			log.debug("getColumns(" + catalog + "." + schema + "." + table + "." + column + ")");
 			ResultSet tableRs = getMetaData().getColumns(catalog, schema, table, column);
 			
-			return new ResultSetIterator(tableRs, getSQLExceptionConverter()) {
+			return new AbstractResultSetIterator<ColumnRow>(tableRs, getSQLExceptionConverter()) {
 				
-				Map<String, Object> element = new HashMap<String, Object>();
-				protected Map<String, Object> convertRow(ResultSet rs) throws SQLException {
-					element.clear();
-					putTablePart(element, rs);
-					element.put("DATA_TYPE", Integer.valueOf(rs.getInt("DATA_TYPE")));
-					element.put("TYPE_NAME", rs.getString("TYPE_NAME"));
-					element.put("COLUMN_NAME", rs.getString("COLUMN_NAME"));
-					element.put("NULLABLE", Integer.valueOf(rs.getInt("NULLABLE")));
-					element.put("COLUMN_SIZE", Integer.valueOf(rs.getInt("COLUMN_SIZE")));
-					element.put("DECIMAL_DIGITS", Integer.valueOf(rs.getInt("DECIMAL_DIGITS")));
-					element.put("REMARKS", rs.getString("REMARKS"));
-					return element;					
+				int[] index;
+				protected ColumnRow convertRow(ResultSet rs) throws SQLException {
+					if(index==null) {
+						index = findColumns(rs, "TABLE_CAT", "TABLE_SCHEM", "TABLE_NAME", "COLUMN_NAME", "DATA_TYPE", "TYPE_NAME", "NULLABLE", "COLUMN_SIZE", "DECIMAL_DIGITS", "REMARKS");
+					}
+					return new ColumnRow(
+							getCatalog(rs, index[0]), 
+							rs.getString(index[1]), 
+							rs.getString(index[2]), 
+							rs.getString(index[3]), 
+							rs.getInt(index[4]), 
+							rs.getString(index[5]), 
+							rs.getInt(index[6]), 
+							rs.getInt(index[7]), 
+							rs.getInt(index[8]), 
+							rs.getString(index[9]));
 				}
 				protected Throwable handleSQLException(SQLException e) {
 					throw getSQLExceptionConverter().convert(e, "Error while reading column meta data for " + TableNameQualifier.qualify(catalog, schema, table), null);
@@ -123,6 +177,10 @@ public class JDBCMetaDataDialect extends AbstractMetaDataDialect {
 	}
 
 	public Iterator<Map<String, Object>> getPrimaryKeys(final String xcatalog, final String xschema, final String xtable) {
+		return MetaDataRows.toPrimaryKeyMaps(getPrimaryKeyRows(xcatalog, xschema, xtable));
+	}
+
+	public Iterator<PrimaryKeyRow> getPrimaryKeyRows(final String xcatalog, final String xschema, final String xtable) {
 		try {
 			final String catalog = caseForSearch( xcatalog );
 			final String schema = caseForSearch( xschema );
@@ -131,16 +189,20 @@ public class JDBCMetaDataDialect extends AbstractMetaDataDialect {
 			log.debug("getPrimaryKeys(" + catalog + "." + schema + "." + table + ")");
 			ResultSet tableRs = getMetaData().getPrimaryKeys(catalog, schema, table);
 			
-			return new ResultSetIterator(tableRs, getSQLExceptionConverter()) {
+			return new AbstractResultSetIterator<PrimaryKeyRow>(tableRs, getSQLExceptionConverter()) {
 				
-				Map<String, Object> element = new HashMap<String, Object>();
-				protected Map<String, Object> convertRow(ResultSet rs) throws SQLException {
-					element.clear();
-					putTablePart(element, rs);
-					element.put("COLUMN_NAME", rs.getString("COLUMN_NAME"));
-					element.put("KEY_SEQ", Short.valueOf(rs.getShort("KEY_SEQ")));
-					element.put("PK_NAME", rs.getString("PK_NAME"));
-					return element;					
+				int[] index;
+				protected PrimaryKeyRow convertRow(ResultSet rs) throws SQLException {
+					if(index==null) {
+						index = findColumns(rs, "TABLE_CAT", "TABLE_SCHEM", "TABLE_NAME", "COLUMN_NAME", "KEY_SEQ", "PK_NAME");
+					}
+					return new PrimaryKeyRow(
+							getCatalog(rs, index[0]), 
+							rs.getString(index[1]), 
+							rs.getString(index[2]), 
+							rs.getString(index[3]), 
+							rs.getShort(index[4]), 
+							rs.getString(index[5]));
 				}
 				protected Throwable handleSQLException(SQLException e) {
 					throw getSQLExceptionConverter().convert(e, "Error while reading primary key meta data for " + TableNameQualifier.qualify(catalog, schema, table), null);
@@ -152,6 +214,10 @@ public class JDBCMetaDataDialect extends AbstractMetaDataDialect {
 	}
 
 	public Iterator<Map<String, Object>> getExportedKeys(final String xcatalog, final String xschema, final String xtable) {
+		return MetaDataRows.toExportedKeyMaps(getExportedKeyRows(xcatalog, xschema, xtable));
+	}
+
+	public Iterator<ForeignKeyRow> getExportedKeyRows(final String xcatalog, final String xschema, final String xtable) {
 		try {
 			final String catalog = caseForSearch( xcatalog );
 			final String schema = caseForSearch( xschema );
@@ -160,13 +226,24 @@ public class JDBCMetaDataDialect extends AbstractMetaDataDialect {
 			log.debug("getExportedKeys(" + catalog + "." + schema + "." + table + ")");
 			ResultSet tableRs = getMetaData().getExportedKeys(catalog, schema, table);
 			
-			return new ResultSetIterator(tableRs, getSQLExceptionConverter()) {
+			return new AbstractResultSetIterator<ForeignKeyRow>(tableRs, getSQLExceptionConverter()) {
 				
-				Map<String, Object> element = new HashMap<String, Object>();
-				protected Map<String, Object> convertRow(ResultSet rs) throws SQLException {
-					element.clear();
-					putExportedKeysPart( element, rs );					
-					return element;					
+				int[] index;
+				protected ForeignKeyRow convertRow(ResultSet rs) throws SQLException {
+					if(index==null) {
+						index = findColumns(rs, "PKTABLE_CAT", "PKTABLE_SCHEM", "PKTABLE_NAME", "PKCOLUMN_NAME", "FKTABLE_CAT", "FKTABLE_SCHEM", "FKTABLE_NAME", "FKCOLUMN_NAME", "FK_NAME", "KEY_SEQ");
+					}
+					return new ForeignKeyRow(
+							getCatalog(rs, index[0]), 
+							rs.getString(index[1]), 
+							rs.getString(index[2]), 
+							rs.getString(index[3]), 
+							rs.getString(index[4]), 
+							rs.getString(index[5]), 
+							rs.getString(index[6]), 
+							rs.getString(index[7]), 
+							rs.getString(index[8]), 
+							rs.getShort(index[9]));
 				}
 				protected Throwable handleSQLException(SQLException e) {
 					throw getSQLExceptionConverter().convert(e, "Error while reading exported keys meta data for " + TableNameQualifier.qualify(catalog, schema, table), null);
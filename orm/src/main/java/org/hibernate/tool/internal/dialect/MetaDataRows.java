@@ -0,0 +1,301 @@
+package org.hibernate.tool.internal.dialect;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.hibernate.tool.api.dialect.ColumnRow;
+import org.hibernate.tool.api.dialect.ForeignKeyRow;
+import org.hibernate.tool.api.dialect.IndexRow;
+import org.hibernate.tool.api.dialect.MetaDataDialect;
+import org.hibernate.tool.api.dialect.PrimaryKeyRow;
+import org.hibernate.tool.api.dialect.TableRow;
+import org.hibernate.tool.api.dialect.TypedMetaDataDialect;
+
+/**
+ * Access to the metadata of any {@link MetaDataDialect} as typed rows. 
+ * {@link TypedMetaDataDialect}s are asked directly, for other dialects the map elements are converted.
+ * 
+ * Iterators returned from here must be closed with {@link #close(MetaDataDialect, Iterator)}.
+ */
+public class MetaDataRows {
+
+	private static final Class<?>[] STRING3 = new Class<?>[] { String.class, String.class, String.class };
+	private static final Class<?>[] STRING4 = new Class<?>[] { String.class, String.class, String.class, String.class };
+
+	// (dialect class, map method name) -> whether the typed method can be used
+	private static final Map<List<Object>, Boolean> typedMethods = new ConcurrentHashMap<List<Object>, Boolean>();
+
+	private MetaDataRows() {
+	}
+
+	public static Iterator<TableRow> getTableRows(MetaDataDialect dialect, String catalog, String schema, String table) {
+		if(isTyped(dialect, "getTables", STRING3, "getTableRows")) {
+			return ((TypedMetaDataDialect)dialect).getTableRows(catalog, schema, table);
+		}
+		return new Adapter<Map<String, Object>, TableRow>(dialect.getTables(catalog, schema, table)) {
+			protected TableRow convert(Map<String, Object> element) {
+				return new TableRow(
+						(String) element.get("TABLE_CAT"), 
+						(String) element.get("TABLE_SCHEM"), 
+						(String) element.get("TABLE_NAME"), 
+						(String) element.get("TABLE_TYPE"), 
+						(String) element.get("REMARKS"));
+			}
+		};
+	}
+
+	public static Iterator<ColumnRow> getColumnRows(MetaDataDialect dialect, String catalog, String schema, String table, String column) {
+		if(isTyped(dialect, "getColumns", STRING4, "getColumnRows")) {
+			return ((TypedMetaDataDialect)dialect).getColumnRows(catalog, schema, table, column);
+		}
+		return new Adapter<Map<String, Object>, ColumnRow>(dialect.getColumns(catalog, schema, table, column)) {
+			protected ColumnRow convert(Map<String, Object> element) {
+				return new ColumnRow(
+						(String) element.get("TABLE_CAT"), 
+						(String) element.get("TABLE_SCHEM"), 
+						(String) element.get("TABLE_NAME"), 
+						(String) element.get("COLUMN_NAME"), 
+						((Integer) element.get("DATA_TYPE")).intValue(), 
+						(String) element.get("TYPE_NAME"), 
+						((Integer) element.get("NULLABLE")).intValue(), 
+						((Integer) element.get("COLUMN_SIZE")).intValue(), 
+						((Integer) element.get("DECIMAL_DIGITS")).intValue(), 
+						(String) element.get("REMARKS"));
+			}
+		};
+	}
+
+	public static Iterator<PrimaryKeyRow> getPrimaryKeyRows(MetaDataDialect dialect, String catalog, String schema, String table) {
+		if(isTyped(dialect, "getPrimaryKeys", STRING3, "getPrimaryKeyRows")) {
+			return ((TypedMetaDataDialect)dialect).getPrimaryKeyRows(catalog, schema, table);
+		}
+		return new Adapter<Map<String, Object>, PrimaryKeyRow>(dialect.getPrimaryKeys(catalog, schema, table)) {
+			protected PrimaryKeyRow convert(Map<String, Object> element) {
+				return new PrimaryKeyRow(
+						(String) element.get("TABLE_CAT"), 
+						(String) element.get("TABLE_SCHEM"), 
+						(String) element.get("TABLE_NAME"), 
+						(String) element.get("COLUMN_NAME"), 
+						((Short) element.get("KEY_SEQ")).shortValue(), 
+						(String) element.get("PK_NAME"));
+			}
+		};
+	}
+
+	public static Iterator<IndexRow> getIndexRows(MetaDataDialect dialect, String catalog, String schema, String table) {
+		if(isTyped(dialect, "getIndexInfo", STRING3, "getIndexRows")) {
+			return ((TypedMetaDataDialect)dialect).getIndexRows(catalog, schema, table);
+		}
+		return new Adapter<Map<String, Object>, IndexRow>(dialect.getIndexInfo(catalog, schema, table)) {
+			protected IndexRow convert(Map<String, Object> element) {
+				return new IndexRow(
+						(String) element.get("TABLE_CAT"), 
+						(String) element.get("TABLE_SCHEM"), 
+						(String) element.get("TABLE_NAME"), 
+						(String) element.get("INDEX_NAME"), 
+						(String) element.get("COLUMN_NAME"), 
+						((Boolean) element.get("NON_UNIQUE")).booleanValue(), 
+						((Short) element.get("TYPE")).shortValue());
+			}
+		};
+	}
+
+	public static Iterator<ForeignKeyRow> getExportedKeyRows(MetaDataDialect dialect, String catalog, String schema, String table) {
+		if(isTyped(dialect, "getExportedKeys", STRING3, "getExportedKeyRows")) {
+			return ((TypedMetaDataDialect)dialect).getExportedKeyRows(catalog, schema, table);
+		}
+		return new Adapter<Map<String, Object>, ForeignKeyRow>(dialect.getExportedKeys(catalog, schema, table)) {
+			protected ForeignKeyRow convert(Map<String, Object> element) {
+				return new ForeignKeyRow(
+						(String) element.get("PKTABLE_CAT"), 
+						(String) element.get("PKTABLE_SCHEM"), 
+						(String) element.get("PKTABLE_NAME"), 
+						(String) element.get("PKCOLUMN_NAME"), 
+						(String) element.get("FKTABLE_CAT"), 
+						(String) element.get("FKTABLE_SCHEM"), 
+						(String) element.get("FKTABLE_NAME"), 
+						(String) element.get("FKCOLUMN_NAME"), 
+						(String) element.get("FK_NAME"), 
+						((Short) element.get("KEY_SEQ")).shortValue());
+			}
+		};
+	}
+
+	/**
+	 * A {@link TypedMetaDataDialect} is only asked for typed rows if the map based method is not overridden 
+	 * below the typed one, e.g. by a custom subclass of {@link JDBCMetaDataDialect} that only knows about the maps.
+	 */
+	private static boolean isTyped(MetaDataDialect dialect, String mapMethod, Class<?>[] parameterTypes, String typedMethod) {
+		if(!(dialect instanceof TypedMetaDataDialect)) {
+			return false;
+		}
+		List<Object> key = Arrays.<Object>asList(dialect.getClass(), mapMethod);
+		Boolean result = typedMethods.get(key);
+		if(result==null) {
+			try {
+				Class<?> mapDeclarer = dialect.getClass().getMethod(mapMethod, parameterTypes).getDeclaringClass();
+				Class<?> typedDeclarer = dialect.getClass().getMethod(typedMethod, parameterTypes).getDeclaringClass();
+				result = Boolean.valueOf(mapDeclarer.isAssignableFrom(typedDeclarer));
+			} 
+			catch (NoSuchMethodException e) {
+				result = Boolean.FALSE;
+			}
+			typedMethods.put(key, result);
+		}
+		return result.booleanValue();
+	}
+
+	/**
+	 * Close an iterator returned by one of the getXXXRows methods. 
+	 */
+	public static void close(MetaDataDialect dialect, Iterator<?> iterator) {
+		dialect.close(unwrap(iterator));
+	}
+
+	/**
+	 * @return the iterator of the dialect an adapter created here reads from, or iterator itself if it is not an adapter
+	 */
+	public static Iterator<?> unwrap(Iterator<?> iterator) {
+		while(iterator instanceof Adapter) {
+			iterator = ((Adapter<?, ?>)iterator).delegate;
+		}
+		return iterator;
+	}
+
+	/**
+	 * Map elements for the rows of {@link TypedMetaDataDialect#getTableRows(String, String, String)}.
+	 * The returned map is reused for every element.
+	 */
+	public static Iterator<Map<String, Object>> toTableMaps(Iterator<TableRow> rows) {
+		return new Adapter<TableRow, Map<String, Object>>(rows) {
+			Map<String, Object> element = new HashMap<String, Object>();
+			protected Map<String, Object> convert(TableRow row) {
+				element.clear();
+				element.put("TABLE_CAT", row.getCatalog());
+				element.put("TABLE_SCHEM", row.getSchema());
+				element.put("TABLE_NAME", row.getName());
+				element.put("TABLE_TYPE", row.getType());
+				element.put("REMARKS", row.getRemarks());
+				return element;
+			}
+		};
+	}
+
+	/**
+	 * Map elements for the rows of {@link TypedMetaDataDialect#getColumnRows(String, String, String, String)}.
+	 * The returned map is reused for every element.
+	 */
+	public static Iterator<Map<String, Object>> toColumnMaps(Iterator<ColumnRow> rows) {
+		return new Adapter<ColumnRow, Map<String, Object>>(rows) {
+			Map<String, Object> element = new HashMap<String, Object>();
+			protected Map<String, Object> convert(ColumnRow row) {
+				element.clear();
+				element.put("TABLE_CAT", row.getTableCatalog());
+				element.put("TABLE_SCHEM", row.getTableSchema());
+				element.put("TABLE_NAME", row.getTableName());
+				element.put("DATA_TYPE", Integer.valueOf(row.getDataType()));
+				element.put("TYPE_NAME", row.getTypeName());
+				element.put("COLUMN_NAME", row.getColumnName());
+				element.put("NULLABLE", Integer.valueOf(row.getNullable()));
+				element.put("COLUMN_SIZE", Integer.valueOf(row.getColumnSize()));
+				element.put("DECIMAL_DIGITS", Integer.valueOf(row.getDecimalDigits()));
+				element.put("REMARKS", row.getRemarks());
+				return element;
+			}
+		};
+	}
+
+	/**
+	 * Map elements for the rows of {@link TypedMetaDataDialect#getPrimaryKeyRows(String, String, String)}.
+	 * The returned map is reused for every element.
+	 */
+	public static Iterator<Map<String, Object>> toPrimaryKeyMaps(Iterator<PrimaryKeyRow> rows) {
+		return new Adapter<PrimaryKeyRow, Map<String, Object>>(rows) {
+			Map<String, Object> element = new HashMap<String, Object>();
+			protected Map<String, Object> convert(PrimaryKeyRow row) {
+				element.clear();
+				element.put("TABLE_CAT", row.getTableCatalog());
+				element.put("TABLE_SCHEM", row.getTableSchema());
+				element.put("TABLE_NAME", row.getTableName());
+				element.put("COLUMN_NAME", row.getColumnName());
+				element.put("KEY_SEQ", Short.valueOf(row.getKeySeq()));
+				element.put("PK_NAME", row.getPkName());
+				return element;
+			}
+		};
+	}
+
+	/**
+	 * Map elements for the rows of {@link TypedMetaDataDialect#getIndexRows(String, String, String)}.
+	 * The returned map is reused for every element.
+	 */
+	public static Iterator<Map<String, Object>> toIndexMaps(Iterator<IndexRow> rows) {
+		return new Adapter<IndexRow, Map<String, Object>>(rows) {
+			Map<String, Object> element = new HashMap<String, Object>();
+			protected Map<String, Object> convert(IndexRow row) {
+				element.clear();
+				element.put("TABLE_CAT", row.getTableCatalog());
+				element.put("TABLE_SCHEM", row.getTableSchema());
+				element.put("TABLE_NAME", row.getTableName());
+				element.put("INDEX_NAME", row.getIndexName());
+				element.put("COLUMN_NAME", row.getColumnName());
+				element.put("NON_UNIQUE", Boolean.valueOf(row.isNonUnique()));
+				element.put("TYPE", Short.valueOf(row.getType()));
+				return element;
+			}
+		};
+	}
+
+	/**
+	 * Map elements for the rows of {@link TypedMetaDataDialect#getExportedKeyRows(String, String, String)}.
+	 * The returned map is reused for every element.
+	 */
+	public static Iterator<Map<String, Object>> toExportedKeyMaps(Iterator<ForeignKeyRow> rows) {
+		return new Adapter<ForeignKeyRow, Map<String, Object>>(rows) {
+			Map<String, Object> element = new HashMap<String, Object>();
+			protected Map<String, Object> convert(ForeignKeyRow row) {
+				element.clear();
+				element.put("PKTABLE_NAME", row.getPkTableName());
+				element.put("PKTABLE_SCHEM", row.getPkTableSchema());
+				element.put("PKTABLE_CAT", row.getPkTableCatalog());
+				element.put("FKTABLE_CAT", row.getFkTableCatalog());
+				element.put("FKTABLE_SCHEM", row.getFkTableSchema());
+				element.put("FKTABLE_NAME", row.getFkTableName());
+				element.put("FKCOLUMN_NAME", row.getFkColumnName());
+				element.put("PKCOLUMN_NAME", row.getPkColumnName());
+				element.put("FK_NAME", row.getFkName());
+				element.put("KEY_SEQ", Short.valueOf(row.getKeySeq()));
+				return element;
+			}
+		};
+	}
+
+	private static abstract class Adapter<S, T> implements Iterator<T> {
+
+		private final Iterator<S> delegate;
+
+		Adapter(Iterator<S> delegate) {
+			this.delegate = delegate;
+		}
+
+		public boolean hasNext() {
+			return delegate.hasNext();
+		}
+
+		public T next() {
+			return convert(delegate.next());
+		}
+
+		public void remove() {
+			throw new UnsupportedOperationException("remove() not possible on metadata");
+		}
+
+		protected abstract T convert(S element);
+
+	}
+
+}
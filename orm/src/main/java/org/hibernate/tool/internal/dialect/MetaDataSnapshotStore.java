@@ -0,0 +1,403 @@
+package org.hibernate.tool.internal.dialect;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.hibernate.internal.util.StringHelper;
+import org.hibernate.tool.api.dialect.MetaDataDialect;
+import org.hibernate.tool.api.reveng.ReverseEngineeringRuntimeInfo;
+import org.hibernate.tool.api.reveng.SchemaSelection;
+import org.jboss.logging.Logger;
+
+/**
+ * Stores the metadata cached by {@link CachedMetaDataDialect} in a compact binary file so
+ * that later runs against the same connection url, catalog, schema and schema selections can skip 
+ * reading the JDBC metadata. A snapshot is only reused while the change marker, the single value returned
+ * by the change marker query, is the same as when the snapshot was written.
+ */
+public class MetaDataSnapshotStore {
+
+	private static final Logger log = Logger.getLogger(MetaDataSnapshotStore.class);
+
+	private static final int MAGIC = 0x48544D53;
+	private static final int VERSION = 2;
+
+	private static final int NULL_STRING = -1;
+	private static final int NEW_STRING = -2;
+
+	private static final byte NULL_VALUE = 0;
+	private static final byte STRING_VALUE = 1;
+	private static final byte INTEGER_VALUE = 2;
+	private static final byte SHORT_VALUE = 3;
+	private static final byte BOOLEAN_VALUE = 4;
+	private static final byte LONG_VALUE = 5;
+
+	private final File file;
+	private final String[] key;
+	private final String changeMarkerQuery;
+
+	public MetaDataSnapshotStore(File directory, String url, String catalog, String schema, String changeMarkerQuery) {
+		this(directory, url, catalog, schema, null, changeMarkerQuery);
+	}
+
+	/**
+	 * @param schemaSelections the schema selections of the reverse engineering strategy, or null if it has none
+	 */
+	public MetaDataSnapshotStore(File directory, String url, String catalog, String schema, List<SchemaSelection> schemaSelections, String changeMarkerQuery) {
+		List<String> key = new ArrayList<String>(Arrays.asList(url, catalog, schema));
+		if(schemaSelections!=null) {
+			for (Iterator<SchemaSelection> iter = schemaSelections.iterator(); iter.hasNext();) {
+				SchemaSelection selection = iter.next();
+				key.add(selection.getMatchCatalog());
+				key.add(selection.getMatchSchema());
+				key.add(selection.getMatchTable());
+			}
+		}
+		this.key = key.toArray(new String[key.size()]);
+		this.file = new File(directory, "metadata-" + digest(Arrays.asList(key).toString()) + ".snapshot");
+		this.changeMarkerQuery = changeMarkerQuery;
+	}
+
+	/**
+	 * The change marker query used when none is configured, or null if the database has no known one.
+	 * For Oracle the latest DDL time and number of objects of the schema are used.
+	 */
+	public static String getDefaultChangeMarkerQuery(MetaDataDialect dialect, String schema) {
+		return getDefaultChangeMarkerQuery(dialect, schema, null);
+	}
+
+	/**
+	 * The change marker query used when none is configured, or null if the database has no known one.
+	 * For Oracle the latest DDL time and number of objects of every selected schema are used, or of the
+	 * given schema when there are no schema selections.
+	 */
+	public static String getDefaultChangeMarkerQuery(MetaDataDialect dialect, String schema, List<SchemaSelection> schemaSelections) {
+		if(dialect instanceof OracleMetaDataDialect) {
+			String query = "select to_char(max(last_ddl_time), 'YYYYMMDDHH24MISS') || '/' || count(*) from all_objects";
+			if(schemaSelections==null || schemaSelections.isEmpty()) {
+				String owner = schema==null ? "sys_context('USERENV', 'CURRENT_SCHEMA')" : quote(schema.toUpperCase());
+				return query + " where owner = " + owner;
+			}
+			StringBuilder owners = new StringBuilder();
+			for (Iterator<SchemaSelection> iter = schemaSelections.iterator(); iter.hasNext();) {
+				String matchSchema = iter.next().getMatchSchema();
+				if(matchSchema==null) {
+					// a selection of every schema
+					return query;
+				}
+				owners.append(owners.length()==0 ? " where owner like " : " or owner like ")
+					.append(quote(StringHelper.replace(matchSchema, ".*", "%")));
+			}
+			return query + owners;
+		}
+		return null;
+	}
+
+	private static String quote(String value) {
+		return "'" + value.replace("'", "''") + "'";
+	}
+
+	public File getFile() {
+		return file;
+	}
+
+	/**
+	 * @return the current change marker or null if it could not be determined, in which case no snapshot should be used.
+	 */
+	public String readChangeMarker(ReverseEngineeringRuntimeInfo info) {
+		if(changeMarkerQuery==null) {
+			log.warn("No change marker query available, metadata snapshot " + file + " will not be used");
+			return null;
+		}
+		Connection connection = null;
+		try {
+			connection = info.getConnectionProvider().getConnection();
+			Statement statement = null;
+			ResultSet rs = null;
+			try {
+				statement = connection.createStatement();
+				rs = statement.executeQuery(changeMarkerQuery);
+				return rs.next() ? String.valueOf(rs.getObject(1)) : "";
+			}
+			finally {
+				if (rs!=null) rs.close();
+				if (statement!=null) statement.close();
+			}
+		}
+		catch (SQLException e) {
+			log.warn("Could not read change marker with '" + changeMarkerQuery + "', metadata snapshot " + file + " will not be used", e);
+			return null;
+		}
+		finally {
+			if(connection!=null) {
+				try {
+					info.getConnectionProvider().closeConnection(connection);
+				}
+				catch (SQLException e) {
+					log.warn("Problem while closing connection", e);
+				}
+			}
+		}
+	}
+
+	/**
+	 * @return the cached metadata per category or null if there is no snapshot for the change marker.
+	 */
+	public Map<String, Map<List<String>, List<Map<String, Object>>>> load(String changeMarker) {
+		if(changeMarker==null || !file.isFile()) {
+			return null;
+		}
+		DataInputStream in = null;
+		try {
+			in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+			if(in.readInt()!=MAGIC || in.readInt()!=VERSION) {
+				log.debug("Ignoring metadata snapshot " + file + " written by another version");
+				return null;
+			}
+			List<String> strings = new ArrayList<String>();
+			if(in.readInt()!=key.length) {
+				log.debug("Ignoring metadata snapshot " + file + " written for another database");
+				return null;
+			}
+			for (int i = 0; i < key.length; i++) {
+				if(!safeEquals(key[i], readString(in, strings))) {
+					log.debug("Ignoring metadata snapshot " + file + " written for another database");
+					return null;
+				}
+			}
+			if(!changeMarker.equals(readString(in, strings))) {
+				log.debug("Ignoring outdated metadata snapshot " + file);
+				return null;
+			}
+			Map<String, Map<List<String>, List<Map<String, Object>>>> result = new HashMap<String, Map<List<String>, List<Map<String, Object>>>>();
+			int categories = in.readInt();
+			for (int i = 0; i < categories; i++) {
+				String category = readString(in, strings);
+				int entries = in.readInt();
+				Map<List<String>, List<Map<String, Object>>> cache = new HashMap<List<String>, List<Map<String, Object>>>(entries * 2);
+				for (int j = 0; j < entries; j++) {
+					String[] cacheKey = new String[in.readInt()];
+					for (int k = 0; k < cacheKey.length; k++) {
+						cacheKey[k] = readString(in, strings);
+					}
+					int rowCount = in.readInt();
+					List<Map<String, Object>> rows = new ArrayList<Map<String, Object>>(rowCount);
+					for (int k = 0; k < rowCount; k++) {
+						int size = in.readInt();
+						Map<String, Object> row = new HashMap<String, Object>(size * 2);
+						for (int l = 0; l < size; l++) {
+							String name = readString(in, strings);
+							row.put(name, readValue(in, strings));
+						}
+						rows.add(row);
+					}
+					cache.put(Arrays.asList(cacheKey), rows);
+				}
+				result.put(category, cache);
+			}
+			log.debug("Read metadata snapshot " + file);
+			return result;
+		}
+		catch (IOException e) {
+			log.warn("Could not read metadata snapshot " + file + ", reading metadata from the database", e);
+			return null;
+		}
+		finally {
+			close(in);
+		}
+	}
+
+	/**
+	 * Writes the cached metadata per category to a temporary file which then replaces the snapshot.
+	 */
+	public void save(String changeMarker, Map<String, Map<List<String>, List<Map<String, Object>>>> caches) {
+		if(changeMarker==null) {
+			return;
+		}
+		File directory = file.getAbsoluteFile().getParentFile();
+		File temp = null;
+		DataOutputStream out = null;
+		try {
+			directory.mkdirs();
+			temp = File.createTempFile("metadata", ".tmp", directory);
+			out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)));
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			Map<String, Integer> strings = new HashMap<String, Integer>();
+			out.writeInt(key.length);
+			for (int i = 0; i < key.length; i++) {
+				writeString(out, strings, key[i]);
+			}
+			writeString(out, strings, changeMarker);
+			out.writeInt(caches.size());
+			for (Iterator<Entry<String, Map<List<String>, List<Map<String, Object>>>>> categories = caches.entrySet().iterator(); categories.hasNext();) {
+				Entry<String, Map<List<String>, List<Map<String, Object>>>> category = categories.next();
+				writeString(out, strings, category.getKey());
+				out.writeInt(category.getValue().size());
+				for (Iterator<Entry<List<String>, List<Map<String, Object>>>> entries = category.getValue().entrySet().iterator(); entries.hasNext();) {
+					Entry<List<String>, List<Map<String, Object>>> entry = entries.next();
+					out.writeInt(entry.getKey().size());
+					for (Iterator<String> keys = entry.getKey().iterator(); keys.hasNext();) {
+						writeString(out, strings, keys.next());
+					}
+					out.writeInt(entry.getValue().size());
+					for (Iterator<Map<String, Object>> rows = entry.getValue().iterator(); rows.hasNext();) {
+						Map<String, Object> row = rows.next();
+						out.writeInt(row.size());
+						for (Iterator<Entry<String, Object>> values = row.entrySet().iterator(); values.hasNext();) {
+							Entry<String, Object> value = values.next();
+							writeString(out, strings, value.getKey());
+							writeValue(out, strings, value.getValue());
+						}
+					}
+				}
+			}
+			out.close();
+			out = null;
+			if(file.exists() && !file.delete() || !temp.renameTo(file)) {
+				throw new IOException("Could not replace " + file);
+			}
+			temp = null;
+			log.debug("Wrote metadata snapshot " + file);
+		}
+		catch (IOException e) {
+			log.warn("Could not write metadata snapshot " + file, e);
+		}
+		finally {
+			close(out);
+			if(temp!=null) {
+				temp.delete();
+			}
+		}
+	}
+
+	// strings are written once and afterwards referred to by their position
+
+	private void writeString(DataOutputStream out, Map<String, Integer> strings, String value) throws IOException {
+		if(value==null) {
+			out.writeInt(NULL_STRING);
+			return;
+		}
+		Integer index = strings.get(value);
+		if(index!=null) {
+			out.writeInt(index.intValue());
+			return;
+		}
+		strings.put(value, Integer.valueOf(strings.size()));
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		out.writeInt(NEW_STRING);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	private String readString(DataInputStream in, List<String> strings) throws IOException {
+		int index = in.readInt();
+		if(index==NULL_STRING) {
+			return null;
+		}
+		if(index==NEW_STRING) {
+			byte[] bytes = new byte[in.readInt()];
+			in.readFully(bytes);
+			String value = new String(bytes, StandardCharsets.UTF_8);
+			strings.add(value);
+			return value;
+		}
+		if(index<0 || index>=strings.size()) {
+			throw new IOException("Corrupt metadata snapshot");
+		}
+		return strings.get(index);
+	}
+
+	private void writeValue(DataOutputStream out, Map<String, Integer> strings, Object value) throws IOException {
+		if(value==null) {
+			out.writeByte(NULL_VALUE);
+		} else if(value instanceof String) {
+			out.writeByte(STRING_VALUE);
+			writeString(out, strings, (String) value);
+		} else if(value instanceof Integer) {
+			out.writeByte(INTEGER_VALUE);
+			out.writeInt(((Integer) value).intValue());
+		} else if(value instanceof Short) {
+			out.writeByte(SHORT_VALUE);
+			out.writeShort(((Short) value).shortValue());
+		} else if(value instanceof Boolean) {
+			out.writeByte(BOOLEAN_VALUE);
+			out.writeBoolean(((Boolean) value).booleanValue());
+		} else if(value instanceof Long) {
+			out.writeByte(LONG_VALUE);
+			out.writeLong(((Long) value).longValue());
+		} else {
+			throw new IOException("Unsupported metadata value of type " + value.getClass().getName());
+		}
+	}
+
+	private Object readValue(DataInputStream in, List<String> strings) throws IOException {
+		byte type = in.readByte();
+		switch (type) {
+		case NULL_VALUE:
+			return null;
+		case STRING_VALUE:
+			return readString(in, strings);
+		case INTEGER_VALUE:
+			return Integer.valueOf(in.readInt());
+		case SHORT_VALUE:
+			return Short.valueOf(in.readShort());
+		case BOOLEAN_VALUE:
+			return Boolean.valueOf(in.readBoolean());
+		case LONG_VALUE:
+			return Long.valueOf(in.readLong());
+		default:
+			throw new IOException("Corrupt metadata snapshot");
+		}
+	}
+
+	private static boolean safeEquals(Object obj1, Object obj2) {
+		return obj1==null ? obj2==null : obj1.equals(obj2);
+	}
+
+	private static void close(Closeable closeable) {
+		if(closeable!=null) {
+			try {
+				closeable.close();
+			}
+			catch (IOException ignore) {
+			}
+		}
+	}
+
+	private static String digest(String value) {
+		try {
+			byte[] hash = MessageDigest.getInstance("SHA-1").digest(value.getBytes(StandardCharsets.UTF_8));
+			StringBuilder result = new StringBuilder();
+			for (int i = 0; i < 8; i++) {
+				result.append(Integer.toHexString((hash[i] & 0xff) | 0x100).substring(1));
+			}
+			return result.toString();
+		}
+		catch (NoSuchAlgorithmException e) {
+			return Integer.toHexString(value.hashCode());
+		}
+	}
+
+}
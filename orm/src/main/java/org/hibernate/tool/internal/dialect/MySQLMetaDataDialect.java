@@ -7,6 +7,9 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
 
+import org.hibernate.tool.api.dialect.ColumnRow;
+import org.hibernate.tool.api.dialect.TableRow;
+
 public class MySQLMetaDataDialect extends JDBCMetaDataDialect {
 
 	/**
@@ -57,21 +60,21 @@ public class MySQLMetaDataDialect extends JDBCMetaDataDialect {
 		}
 	
 	@Override
-	public Iterator<Map<String,Object>> getTables(
+	public Iterator<TableRow> getTableRows(
 			String xcatalog, 
 			String xschema, 
 			String xtable) {
 	     // MySql JDBC Driver doesn't like 'null' values for the table search pattern, use '%' instead
-		return super.getTables(xcatalog, xschema, xtable != null ? xtable : "%");
+		return super.getTableRows(xcatalog, xschema, xtable != null ? xtable : "%");
 	}
 
-	public Iterator<Map<String, Object>> getColumns(
+	public Iterator<ColumnRow> getColumnRows(
 			String xcatalog, 
 			String xschema, 
 			String xtable, 
 			String xcolumn) {
 	     // MySql JDBC Driver doesn't like 'null' values for the table and column search patterns, use '%' instead
-		return super.getColumns(
+		return super.getColumnRows(
 				xcatalog, 
 				xschema, 
 				xtable != null ? xtable : "%",
@@ -9,6 +9,7 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
 
+import org.hibernate.tool.api.dialect.BulkMetaDataDialect;
 import org.hibernate.tool.internal.util.TableNameQualifier;
 
 /**
@@ -21,7 +22,7 @@ import org.hibernate.tool.internal.util.TableNameQualifier;
  *  
  */
 
-public class OracleMetaDataDialect extends AbstractMetaDataDialect {
+public class OracleMetaDataDialect extends AbstractMetaDataDialect implements BulkMetaDataDialect {
 
 	
 	
@@ -484,6 +485,24 @@ public class OracleMetaDataDialect extends AbstractMetaDataDialect {
 		}
 	}	
 	
+	// the *_SCHEMA queries already read a whole schema at once
+	
+	public Iterator<Map<String, Object>> getSchemaColumns(String catalog, String schema) {
+		return getColumns( catalog, schema, null, null );
+	}
+
+	public Iterator<Map<String, Object>> getSchemaPrimaryKeys(String catalog, String schema) {
+		return getPrimaryKeys( catalog, schema, null );
+	}
+
+	public Iterator<Map<String, Object>> getSchemaIndexInfo(String catalog, String schema) {
+		return getIndexInfo( catalog, schema, null );
+	}
+
+	public Iterator<Map<String, Object>> getSchemaExportedKeys(String catalog, String schema) {
+		return getExportedKeys( catalog, schema, null );
+	}
+	
 	public void close() {
 		try {
 			prepTableNone = close( prepTableNone );
@@ -533,7 +552,7 @@ public class OracleMetaDataDialect extends AbstractMetaDataDialect {
 	}
 	
 	private String escape(String str) {
-		return str.replace("_", "\\_");
+		return str==null ? null : str.replace("_", "\\_");
 	}
 
 	private ResultSet getPrimaryKeysResultSet(final String schem, final String tab) throws SQLException {
@@ -0,0 +1,153 @@
+package org.hibernate.tool.internal.dialect;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.hibernate.tool.api.dialect.BulkMetaDataDialect;
+import org.hibernate.tool.api.dialect.MetaDataDialect;
+import org.hibernate.tool.api.reveng.ReverseEngineeringRuntimeInfo;
+
+/**
+ * MetaDataDialect that reads columns, primary keys, indexes and exported keys of a whole
+ * catalog/schema with one query per category and afterwards answers the per table requests
+ * for that catalog/schema from memory. Requests for other catalogs/schemas are delegated.
+ * 
+ * With {@link #setReleaseRows(boolean)} the rows of a table are dropped once they are returned; 
+ * later requests for the same table are delegated again.
+ */
+public class PrefetchedMetaDataDialect implements MetaDataDialect {
+
+	/** stands for the rows of a table that were returned and dropped */
+	private static final List<Map<String, Object>> RELEASED = Collections.unmodifiableList(new ArrayList<Map<String, Object>>(0));
+
+	private final BulkMetaDataDialect delegate;
+
+	private boolean releaseRows = false;
+
+	private final Map<List<String>, Map<String, List<Map<String, Object>>>> columns = new HashMap<List<String>, Map<String, List<Map<String, Object>>>>();
+	private final Map<List<String>, Map<String, List<Map<String, Object>>>> primaryKeys = new HashMap<List<String>, Map<String, List<Map<String, Object>>>>();
+	private final Map<List<String>, Map<String, List<Map<String, Object>>>> indexInfo = new HashMap<List<String>, Map<String, List<Map<String, Object>>>>();
+	private final Map<List<String>, Map<String, List<Map<String, Object>>>> exportedKeys = new HashMap<List<String>, Map<String, List<Map<String, Object>>>>();
+
+	public PrefetchedMetaDataDialect(BulkMetaDataDialect delegate) {
+		this.delegate = delegate;
+	}
+
+	/**
+	 * Read the metadata of all tables in catalog and schema.
+	 * The catalog and schema must be given exactly as they will be used in the later per table requests.
+	 */
+	public void prefetch(String catalog, String schema, boolean includeIndexes) {
+		List<String> scope = Arrays.asList(catalog, schema);
+		if(!columns.containsKey(scope)) {
+			columns.put(scope, groupByTable(delegate.getSchemaColumns(catalog, schema), "TABLE_NAME"));
+			primaryKeys.put(scope, groupByTable(delegate.getSchemaPrimaryKeys(catalog, schema), "TABLE_NAME"));
+			exportedKeys.put(scope, groupByTable(delegate.getSchemaExportedKeys(catalog, schema), "PKTABLE_NAME"));
+		}
+		if(includeIndexes && !indexInfo.containsKey(scope)) {
+			indexInfo.put(scope, groupByTable(delegate.getSchemaIndexInfo(catalog, schema), "TABLE_NAME"));
+		}
+	}
+
+	private Map<String, List<Map<String, Object>>> groupByTable(Iterator<Map<String, Object>> iterator, String tableKey) {
+		Map<String, List<Map<String, Object>>> result = new HashMap<String, List<Map<String, Object>>>();
+		try {
+			while (iterator.hasNext()) {
+				Map<String, Object> row = iterator.next();
+				String table = (String) row.get(tableKey);
+				List<Map<String, Object>> rows = result.get(table);
+				if(rows==null) {
+					rows = new ArrayList<Map<String, Object>>();
+					result.put(table, rows);
+				}
+				rows.add(new HashMap<String, Object>(row)); // need to copy since MetaDataDialect might reuse it.
+			}
+		}
+		finally {
+			delegate.close(iterator);
+		}
+		return result;
+	}
+
+	private Iterator<Map<String, Object>> lookup(Map<List<String>, Map<String, List<Map<String, Object>>>> cache, String catalog, String schema, String table) {
+		if(table==null) {
+			return null;
+		}
+		Map<String, List<Map<String, Object>>> tables = cache.get(Arrays.asList(catalog, schema));
+		if(tables==null) {
+			return null;
+		}
+		List<Map<String, Object>> rows = tables.get(table);
+		if(rows==RELEASED) {
+			return null;
+		}
+		if(rows==null) {
+			return Collections.<Map<String, Object>>emptyList().iterator();
+		}
+		if(releaseRows) {
+			tables.put(table, RELEASED);
+		}
+		return rows.iterator();
+	}
+
+	/**
+	 * Drop the rows of a table once they are returned, e.g. when every table is processed once.
+	 */
+	public void setReleaseRows(boolean releaseRows) {
+		this.releaseRows = releaseRows;
+	}
+
+	public void configure(ReverseEngineeringRuntimeInfo info) {
+		delegate.configure(info);
+	}
+
+	public Iterator<Map<String, Object>> getTables(String catalog, String schema, String table) {
+		return delegate.getTables(catalog, schema, table);
+	}
+
+	public void close(Iterator<?> iterator) {
+		delegate.close(iterator);
+	}
+
+	public Iterator<Map<String, Object>> getIndexInfo(String catalog, String schema, String table) {
+		Iterator<Map<String, Object>> result = lookup(indexInfo, catalog, schema, table);
+		return result==null ? delegate.getIndexInfo(catalog, schema, table) : result;
+	}
+
+	public Iterator<Map<String, Object>> getColumns(String catalog, String schema, String table, String column) {
+		Iterator<Map<String, Object>> result = column==null ? lookup(columns, catalog, schema, table) : null;
+		return result==null ? delegate.getColumns(catalog, schema, table, column) : result;
+	}
+
+	public Iterator<Map<String, Object>> getPrimaryKeys(String catalog, String schema, String name) {
+		Iterator<Map<String, Object>> result = lookup(primaryKeys, catalog, schema, name);
+		return result==null ? delegate.getPrimaryKeys(catalog, schema, name) : result;
+	}
+
+	public Iterator<Map<String, Object>> getExportedKeys(String catalog, String schema, String table) {
+		Iterator<Map<String, Object>> result = lookup(exportedKeys, catalog, schema, table);
+		return result==null ? delegate.getExportedKeys(catalog, schema, table) : result;
+	}
+
+	public boolean needQuote(String name) {
+		return delegate.needQuote(name);
+	}
+
+	public void close() {
+		columns.clear();
+		primaryKeys.clear();
+		indexInfo.clear();
+		exportedKeys.clear();
+		delegate.close();
+	}
+
+	public Iterator<Map<String, Object>> getSuggestedPrimaryKeyStrategyName(String catalog, String schema, String table) {
+		return delegate.getSuggestedPrimaryKeyStrategyName(catalog, schema, table);
+	}
+
+}
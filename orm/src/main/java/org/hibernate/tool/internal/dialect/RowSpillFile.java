@@ -0,0 +1,333 @@
+package org.hibernate.tool.internal.dialect;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+import org.jboss.logging.Logger;
+
+/**
+ * Keeps lists of metadata rows in a temporary file instead of on the heap. The maps returned by
+ * {@link #newMap()} only hold their keys and the position of the rows in the file; the rows are
+ * decoded again on every get, so callers get fresh copies they may keep or drop.
+ *
+ * Rows are encoded compactly: the column names, which are the same for every row of a category,
+ * are written as an index into a table held in memory, values as a type tag followed by their data.
+ * Lists of rows holding values of another type than String, Integer, Short, Boolean and Long, e.g. from
+ * a custom MetaDataDialect, are kept on the heap.
+ */
+public class RowSpillFile {
+
+	private static final Logger log = Logger.getLogger(RowSpillFile.class);
+
+	private static final byte NULL_VALUE = 0;
+	private static final byte STRING_VALUE = 1;
+	private static final byte INTEGER_VALUE = 2;
+	private static final byte SHORT_VALUE = 3;
+	private static final byte BOOLEAN_VALUE = 4;
+	private static final byte LONG_VALUE = 5;
+
+	private final File directory;
+
+	private File file;
+	private RandomAccessFile access;
+	private FileChannel channel;
+	private long length;
+
+	private final Map<String, Integer> nameIndexes = new HashMap<String, Integer>();
+	private final List<String> names = new ArrayList<String>();
+	private boolean warnedUnsupported = false;
+
+	/**
+	 * @param directory where the temporary file is created, or null for the default temporary directory
+	 */
+	public RowSpillFile(File directory) {
+		this.directory = directory;
+	}
+
+	/**
+	 * @return a map whose values are kept in this file. It must be cleared when the file is cleared.
+	 */
+	public <K> Map<K, List<Map<String, Object>>> newMap() {
+		return new SpilledMap<K>();
+	}
+
+	/**
+	 * @return the number of bytes written to the file since it was created or cleared
+	 */
+	public synchronized long length() {
+		return length;
+	}
+
+	/**
+	 * Deletes the file, invalidating the values of all maps created by this file.
+	 */
+	public synchronized void clear() {
+		if(access!=null) {
+			try {
+				access.close();
+			}
+			catch (IOException e) {
+				log.debug("Problem while closing " + file, e);
+			}
+			if(!file.delete()) {
+				file.deleteOnExit();
+			}
+		}
+		file = null;
+		access = null;
+		channel = null;
+		length = 0;
+		names.clear();
+		nameIndexes.clear();
+	}
+
+	/**
+	 * @return where the rows were written, or null if they hold a value that cannot be encoded
+	 */
+	private synchronized Location write(List<Map<String, Object>> rows) {
+		try {
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 * (rows.size() + 1));
+			DataOutputStream out = new DataOutputStream(bytes);
+			out.writeInt(rows.size());
+			for (Iterator<Map<String, Object>> iter = rows.iterator(); iter.hasNext();) {
+				Map<String, Object> row = iter.next();
+				out.writeShort(row.size());
+				for (Iterator<Entry<String, Object>> values = row.entrySet().iterator(); values.hasNext();) {
+					Entry<String, Object> value = values.next();
+					if(!isSupported(value.getValue())) {
+						if(!warnedUnsupported) {
+							log.warn("Keeping metadata rows with values of type " + value.getValue().getClass().getName() + " on the heap");
+							warnedUnsupported = true;
+						}
+						return null;
+					}
+					out.writeInt(getNameIndex(value.getKey()));
+					writeValue(out, value.getValue());
+				}
+			}
+			out.close();
+			ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+			Location result = new Location(length, buffer.remaining());
+			FileChannel target = getChannel();
+			while (buffer.hasRemaining()) {
+				target.write(buffer, length + buffer.position());
+			}
+			length += result.length;
+			return result;
+		}
+		catch (IOException e) {
+			throw new IllegalStateException("Could not write metadata rows to " + file, e);
+		}
+	}
+
+	private static boolean isSupported(Object value) {
+		return value==null 
+				|| value instanceof String 
+				|| value instanceof Integer 
+				|| value instanceof Short 
+				|| value instanceof Boolean 
+				|| value instanceof Long;
+	}
+
+	private static List<Map<String, Object>> copy(List<Map<String, Object>> rows) {
+		List<Map<String, Object>> result = new ArrayList<Map<String, Object>>(rows.size());
+		for (Iterator<Map<String, Object>> iter = rows.iterator(); iter.hasNext();) {
+			result.add(new HashMap<String, Object>(iter.next()));
+		}
+		return result;
+	}
+
+	private synchronized List<Map<String, Object>> read(Location location) {
+		try {
+			ByteBuffer buffer = ByteBuffer.allocate(location.length);
+			while (buffer.hasRemaining()) {
+				if(channel.read(buffer, location.offset + buffer.position()) < 0) {
+					throw new IOException("Unexpected end of file");
+				}
+			}
+			DataInputStream in = new DataInputStream(new ByteArrayInputStream(buffer.array()));
+			int rowCount = in.readInt();
+			List<Map<String, Object>> result = new ArrayList<Map<String, Object>>(rowCount);
+			for (int i = 0; i < rowCount; i++) {
+				int size = in.readShort();
+				Map<String, Object> row = new HashMap<String, Object>(size * 2);
+				for (int j = 0; j < size; j++) {
+					String name = names.get(in.readInt());
+					row.put(name, readValue(in));
+				}
+				result.add(row);
+			}
+			return result;
+		}
+		catch (IOException e) {
+			throw new IllegalStateException("Could not read metadata rows from " + file, e);
+		}
+	}
+
+	private FileChannel getChannel() throws IOException {
+		if(channel==null) {
+			file = File.createTempFile("metadata", ".rows", directory);
+			file.deleteOnExit();
+			access = new RandomAccessFile(file, "rw");
+			channel = access.getChannel();
+			log.debug("Spilling metadata rows to " + file);
+		}
+		return channel;
+	}
+
+	private int getNameIndex(String name) {
+		Integer result = nameIndexes.get(name);
+		if(result==null) {
+			result = Integer.valueOf(names.size());
+			names.add(name);
+			nameIndexes.put(name, result);
+		}
+		return result.intValue();
+	}
+
+	private static void writeValue(DataOutputStream out, Object value) throws IOException {
+		if(value==null) {
+			out.writeByte(NULL_VALUE);
+		} else if(value instanceof String) {
+			byte[] bytes = ((String) value).getBytes(StandardCharsets.UTF_8);
+			out.writeByte(STRING_VALUE);
+			out.writeInt(bytes.length);
+			out.write(bytes);
+		} else if(value instanceof Integer) {
+			out.writeByte(INTEGER_VALUE);
+			out.writeInt(((Integer) value).intValue());
+		} else if(value instanceof Short) {
+			out.writeByte(SHORT_VALUE);
+			out.writeShort(((Short) value).shortValue());
+		} else if(value instanceof Boolean) {
+			out.writeByte(BOOLEAN_VALUE);
+			out.writeBoolean(((Boolean) value).booleanValue());
+		} else if(value instanceof Long) {
+			out.writeByte(LONG_VALUE);
+			out.writeLong(((Long) value).longValue());
+		} else {
+			throw new IOException("Unsupported metadata value of type " + value.getClass().getName());
+		}
+	}
+
+	private static Object readValue(DataInputStream in) throws IOException {
+		byte type = in.readByte();
+		switch (type) {
+		case NULL_VALUE:
+			return null;
+		case STRING_VALUE:
+			byte[] bytes = new byte[in.readInt()];
+			in.readFully(bytes);
+			return new String(bytes, StandardCharsets.UTF_8);
+		case INTEGER_VALUE:
+			return Integer.valueOf(in.readInt());
+		case SHORT_VALUE:
+			return Short.valueOf(in.readShort());
+		case BOOLEAN_VALUE:
+			return Boolean.valueOf(in.readBoolean());
+		case LONG_VALUE:
+			return Long.valueOf(in.readLong());
+		default:
+			throw new IOException("Corrupt metadata rows");
+		}
+	}
+
+	private static final class Location {
+		final long offset;
+		final int length;
+		Location(long offset, int length) {
+			this.offset = offset;
+			this.length = length;
+		}
+	}
+
+	/**
+	 * Only the keys and locations are kept in memory, or the rows themselves if they cannot be written 
+	 * to the file; rows replaced or removed stay in the file until it is cleared.
+	 */
+	private class SpilledMap<K> extends AbstractMap<K, List<Map<String, Object>>> {
+
+		// a Location, or the list of rows kept on the heap
+		private final Map<K, Object> locations = new HashMap<K, Object>();
+
+		public List<Map<String, Object>> get(Object key) {
+			return decode(locations.get(key));
+		}
+
+		public List<Map<String, Object>> put(K key, List<Map<String, Object>> rows) {
+			Location location = write(rows);
+			locations.put(key, location==null ? copy(rows) : location);
+			return null;
+		}
+
+		public boolean containsKey(Object key) {
+			return locations.containsKey(key);
+		}
+
+		public List<Map<String, Object>> remove(Object key) {
+			return decode(locations.remove(key));
+		}
+
+		@SuppressWarnings("unchecked")
+		private List<Map<String, Object>> decode(Object value) {
+			if(value==null) {
+				return null;
+			} else if(value instanceof Location) {
+				return read((Location) value);
+			} else {
+				return copy((List<Map<String, Object>>) value);
+			}
+		}
+
+		public int size() {
+			return locations.size();
+		}
+
+		public void clear() {
+			locations.clear();
+		}
+
+		public Set<Entry<K, List<Map<String, Object>>>> entrySet() {
+			return new AbstractSet<Entry<K, List<Map<String, Object>>>>() {
+				public int size() {
+					return locations.size();
+				}
+				public Iterator<Entry<K, List<Map<String, Object>>>> iterator() {
+					final Iterator<Entry<K, Object>> iterator = locations.entrySet().iterator();
+					// rows are decoded one entry at a time, so e.g. a snapshot can be written without holding all of them
+					return new Iterator<Entry<K, List<Map<String, Object>>>>() {
+						public boolean hasNext() {
+							return iterator.hasNext();
+						}
+						public Entry<K, List<Map<String, Object>>> next() {
+							Entry<K, Object> entry = iterator.next();
+							return new SimpleImmutableEntry<K, List<Map<String, Object>>>(entry.getKey(), decode(entry.getValue()));
+						}
+						public void remove() {
+							iterator.remove();
+						}
+					};
+				}
+			};
+		}
+
+	}
+
+}
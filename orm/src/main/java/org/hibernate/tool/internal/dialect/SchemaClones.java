@@ -0,0 +1,274 @@
+package org.hibernate.tool.internal.dialect;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.hibernate.tool.api.dialect.MetaDataDialect;
+import org.hibernate.tool.api.reveng.ReverseEngineeringRuntimeInfo;
+
+/**
+ * Catalogs/schemas known to have the same tables as another one, their representative, e.g. the
+ * schemas of the tenants of a multi tenant database. The MetaDataDialects returned by {@link #wrap(MetaDataDialect)}
+ * answer the per table requests for a clone with the rows of the same table in its representative, with the
+ * catalog and schema of the clone put in place of the representative's, so the metadata of a table
+ * is read once per group of identical schemas. Foreign keys from other catalogs/schemas to the tables of a 
+ * clone are not among the representative's exported keys, so they are given with {@link #addClone(String, String, String, String, Map)}.
+ *
+ * The rows read for representatives are kept until the SchemaClones are no longer used, or with
+ * {@link #setReleaseRows(boolean)} until the representative and all its clones got them; they are
+ * shared by all wrapped dialects, which may be used by different threads.
+ */
+public class SchemaClones {
+
+	private static final String[][] SCOPE_KEYS = {
+		{ "TABLE_CAT", "TABLE_SCHEM" },
+		{ "PKTABLE_CAT", "PKTABLE_SCHEM" },
+		{ "FKTABLE_CAT", "FKTABLE_SCHEM" },
+	};
+
+	// marks the rows that were released, so rows read again for them are not kept
+	private static final Set<List<String>> RELEASED = Collections.emptySet();
+
+	private final Map<List<String>, List<String>> representatives = new HashMap<List<String>, List<String>>();
+	// clone scope -> the exported keys of its tables, by table name, to tables in other scopes
+	private final Map<List<String>, Map<String, List<Map<String, Object>>>> foreignExportedKeys = new HashMap<List<String>, Map<String, List<Map<String, Object>>>>();
+	// representative scope -> the scopes reading its rows, i.e. the representative and its clones
+	private final Map<List<String>, Set<List<String>>> representativeScopes = new HashMap<List<String>, Set<List<String>>>();
+	private final ConcurrentMap<List<String>, List<Map<String, Object>>> rows = new ConcurrentHashMap<List<String>, List<Map<String, Object>>>();
+	// key of the rows -> the scopes that did not read them yet
+	private final ConcurrentMap<List<String>, Set<List<String>>> pendingReaders = new ConcurrentHashMap<List<String>, Set<List<String>>>();
+	private boolean releaseRows = false;
+
+	/**
+	 * Read the tables of catalog and schema from the representative's catalog and schema.
+	 * The catalogs and schemas must be given exactly as they will be used in the per table requests.
+	 */
+	public void addClone(String catalog, String schema, String representativeCatalog, String representativeSchema) {
+		Map<String, List<Map<String, Object>>> none = Collections.emptyMap();
+		addClone(catalog, schema, representativeCatalog, representativeSchema, none);
+	}
+
+	/**
+	 * @param foreignExportedKeys the exported keys of the clone's tables, by table name, whose foreign key table is
+	 * in another catalog/schema, e.g. as found by SchemaStructure; they are returned with the representative's exported keys
+	 */
+	public void addClone(String catalog, String schema, String representativeCatalog, String representativeSchema, Map<String, List<Map<String, Object>>> foreignExportedKeys) {
+		List<String> representative = Arrays.asList(representativeCatalog, representativeSchema);
+		List<String> clone = Arrays.asList(catalog, schema);
+		representatives.put(clone, representative);
+		this.foreignExportedKeys.put(clone, foreignExportedKeys);
+		Set<List<String>> readers = representativeScopes.get(representative);
+		if(readers==null) {
+			readers = new HashSet<List<String>>();
+			readers.add(representative);
+			representativeScopes.put(representative, readers);
+		}
+		readers.add(clone);
+	}
+
+	/**
+	 * Drop the rows of a representative's table once the representative and all its clones read them. 
+	 * Rows requested again afterwards are read again and not kept.
+	 */
+	public void setReleaseRows(boolean releaseRows) {
+		this.releaseRows = releaseRows;
+	}
+
+	public boolean isClone(String catalog, String schema) {
+		return representatives.containsKey(Arrays.asList(catalog, schema));
+	}
+
+	public boolean isEmpty() {
+		return representatives.isEmpty();
+	}
+
+	public MetaDataDialect wrap(MetaDataDialect dialect) {
+		return isEmpty() ? dialect : new CloningMetaDataDialect(dialect);
+	}
+
+	private Iterator<Map<String, Object>> lookup(MetaDataDialect delegate, String category, String catalog, String schema, String table) {
+		List<String> scope = Arrays.asList(catalog, schema);
+		List<String> representative = representatives.get(scope);
+		if(representative!=null) {
+			List<Map<String, Object>> result = new ArrayList<Map<String, Object>>();
+			for (Iterator<Map<String, Object>> iter = read(delegate, category, representative, scope, table).iterator(); iter.hasNext();) {
+				Map<String, Object> row = iter.next();
+				if(isInScope(row, representative)) {
+					result.add(replaceScope(row, representative, scope));
+				}
+			}
+			if("exportedKeys".equals(category)) {
+				List<Map<String, Object>> foreign = foreignExportedKeys.get(scope).get(table);
+				if(foreign!=null) {
+					result.addAll(foreign);
+				}
+			}
+			return result.iterator();
+		} else if(representativeScopes.containsKey(scope)) {
+			return read(delegate, category, scope, scope, table).iterator();
+		}
+		return null;
+	}
+
+	private List<Map<String, Object>> read(MetaDataDialect delegate, String category, List<String> scope, List<String> reader, String table) {
+		List<String> key = Arrays.asList(category, scope.get(0), scope.get(1), table);
+		List<Map<String, Object>> result = rows.get(key);
+		if(result==null) {
+			result = new ArrayList<Map<String, Object>>();
+			Iterator<Map<String, Object>> iterator = request(delegate, category, scope.get(0), scope.get(1), table);
+			try {
+				while (iterator.hasNext()) {
+					result.add(new HashMap<String, Object>(iterator.next())); // need to copy since MetaDataDialect might reuse it.
+				}
+			}
+			finally {
+				delegate.close(iterator);
+			}
+			result = Collections.unmodifiableList(result);
+			rows.put(key, result);
+		}
+		if(releaseRows) {
+			release(key, representativeScopes.get(scope), reader);
+		}
+		return result;
+	}
+
+	/**
+	 * Counts the read of key by reader once, however often reader reads it, and drops the rows when 
+	 * all readers read them. The key is kept as released, so rows read again are dropped right away.
+	 */
+	private void release(List<String> key, Set<List<String>> readers, List<String> reader) {
+		Set<List<String>> pending = pendingReaders.get(key);
+		if(pending==null) {
+			pendingReaders.putIfAbsent(key, Collections.synchronizedSet(new HashSet<List<String>>(readers)));
+			pending = pendingReaders.get(key);
+		}
+		pending.remove(reader);
+		if(pending.isEmpty()) {
+			rows.remove(key);
+			if(pending!=RELEASED) {
+				pendingReaders.put(key, RELEASED);
+			}
+		}
+	}
+
+	private static Iterator<Map<String, Object>> request(MetaDataDialect delegate, String category, String catalog, String schema, String table) {
+		if("columns".equals(category)) {
+			return delegate.getColumns(catalog, schema, table, null);
+		} else if("primaryKeys".equals(category)) {
+			return delegate.getPrimaryKeys(catalog, schema, table);
+		} else if("indexInfo".equals(category)) {
+			return delegate.getIndexInfo(catalog, schema, table);
+		} else if("exportedKeys".equals(category)) {
+			return delegate.getExportedKeys(catalog, schema, table);
+		} else {
+			return delegate.getSuggestedPrimaryKeyStrategyName(catalog, schema, table);
+		}
+	}
+
+	/**
+	 * @return false for the exported keys of a representative's table that belong to a table in another 
+	 * catalog/schema; such a foreign key references the representative, not its clones.
+	 */
+	private static boolean isInScope(Map<String, Object> row, List<String> representative) {
+		return refersTo(row.get("FKTABLE_CAT"), representative.get(0)) && refersTo(row.get("FKTABLE_SCHEM"), representative.get(1));
+	}
+
+	/**
+	 * @return a copy of row in which every catalog/schema pair of the representative is replaced by the clone's;
+	 * references to tables in other schemas, e.g. a foreign key to a shared schema, are kept.
+	 */
+	private static Map<String, Object> replaceScope(Map<String, Object> row, List<String> representative, List<String> clone) {
+		Map<String, Object> result = new HashMap<String, Object>(row);
+		for (int i = 0; i < SCOPE_KEYS.length; i++) {
+			String catalogKey = SCOPE_KEYS[i][0];
+			String schemaKey = SCOPE_KEYS[i][1];
+			Object catalog = row.get(catalogKey);
+			Object schema = row.get(schemaKey);
+			if(refersTo(catalog, representative.get(0)) && refersTo(schema, representative.get(1))) {
+				replace(result, catalogKey, catalog, representative.get(0), clone.get(0));
+				replace(result, schemaKey, schema, representative.get(1), clone.get(1));
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * @return false if value names another catalog/schema than scope; a missing value or scope, i.e. the
+	 * database default, is taken to be the same
+	 */
+	private static boolean refersTo(Object value, String scope) {
+		return value==null || scope==null || scope.equals(value);
+	}
+
+	private static void replace(Map<String, Object> row, String key, Object value, String representative, String clone) {
+		if(value!=null && clone!=null && value.equals(representative)) {
+			row.put(key, clone);
+		}
+	}
+
+	private class CloningMetaDataDialect implements MetaDataDialect {
+
+		private final MetaDataDialect delegate;
+
+		CloningMetaDataDialect(MetaDataDialect delegate) {
+			this.delegate = delegate;
+		}
+
+		public void configure(ReverseEngineeringRuntimeInfo info) {
+			delegate.configure(info);
+		}
+
+		public Iterator<Map<String, Object>> getTables(String catalog, String schema, String table) {
+			return delegate.getTables(catalog, schema, table);
+		}
+
+		public void close(Iterator<?> iterator) {
+			delegate.close(iterator);
+		}
+
+		public Iterator<Map<String, Object>> getIndexInfo(String catalog, String schema, String table) {
+			Iterator<Map<String, Object>> result = table==null ? null : lookup(delegate, "indexInfo", catalog, schema, table);
+			return result==null ? delegate.getIndexInfo(catalog, schema, table) : result;
+		}
+
+		public Iterator<Map<String, Object>> getColumns(String catalog, String schema, String table, String column) {
+			Iterator<Map<String, Object>> result = column==null && table!=null ? lookup(delegate, "columns", catalog, schema, table) : null;
+			return result==null ? delegate.getColumns(catalog, schema, table, column) : result;
+		}
+
+		public Iterator<Map<String, Object>> getPrimaryKeys(String catalog, String schema, String name) {
+			Iterator<Map<String, Object>> result = name==null ? null : lookup(delegate, "primaryKeys", catalog, schema, name);
+			return result==null ? delegate.getPrimaryKeys(catalog, schema, name) : result;
+		}
+
+		public Iterator<Map<String, Object>> getExportedKeys(String catalog, String schema, String table) {
+			Iterator<Map<String, Object>> result = table==null ? null : lookup(delegate, "exportedKeys", catalog, schema, table);
+			return result==null ? delegate.getExportedKeys(catalog, schema, table) : result;
+		}
+
+		public boolean needQuote(String name) {
+			return delegate.needQuote(name);
+		}
+
+		public void close() {
+			delegate.close();
+		}
+
+		public Iterator<Map<String, Object>> getSuggestedPrimaryKeyStrategyName(String catalog, String schema, String table) {
+			Iterator<Map<String, Object>> result = table==null ? null : lookup(delegate, "suggestedPrimaryKeyStrategyName", catalog, schema, table);
+			return result==null ? delegate.getSuggestedPrimaryKeyStrategyName(catalog, schema, table) : result;
+		}
+
+	}
+
+}
@@ -0,0 +1,127 @@
+package org.hibernate.tool.internal.dialect;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.hibernate.tool.api.dialect.BulkMetaDataDialect;
+
+/**
+ * The columns, primary keys, indexes and foreign keys of all tables in a catalog/schema, read with one
+ * query per category and reduced to a digest in which the catalog/schema itself does not appear, so two
+ * schemas have the same digest when their tables have the same structure. Foreign keys from tables in
+ * other catalogs/schemas are not part of the digest but kept, see {@link #getForeignExportedKeys()}.
+ */
+public class SchemaStructure {
+
+	private static final String[][] SCOPE_KEYS = {
+		{ "TABLE_CAT", "TABLE_SCHEM" },
+		{ "PKTABLE_CAT", "PKTABLE_SCHEM" },
+		{ "FKTABLE_CAT", "FKTABLE_SCHEM" },
+	};
+
+	private final byte[] digest;
+
+	private final Map<String, List<Map<String, Object>>> foreignExportedKeys = new HashMap<String, List<Map<String, Object>>>();
+
+	public SchemaStructure(BulkMetaDataDialect dialect, String catalog, String schema, boolean includeIndexes) {
+		List<String> scope = Arrays.asList(catalog, schema);
+		List<String> rows = new ArrayList<String>();
+		add(rows, "C", dialect, dialect.getSchemaColumns(catalog, schema), scope);
+		add(rows, "P", dialect, dialect.getSchemaPrimaryKeys(catalog, schema), scope);
+		add(rows, "E", dialect, dialect.getSchemaExportedKeys(catalog, schema), scope);
+		if(includeIndexes) {
+			add(rows, "I", dialect, dialect.getSchemaIndexInfo(catalog, schema), scope);
+		}
+		Collections.sort(rows);
+		MessageDigest md = newDigest();
+		for (Iterator<String> iter = rows.iterator(); iter.hasNext();) {
+			md.update(iter.next().getBytes(StandardCharsets.UTF_8));
+			md.update((byte) '\n');
+		}
+		digest = md.digest();
+	}
+
+	private void add(List<String> rows, String category, BulkMetaDataDialect dialect, Iterator<Map<String, Object>> iterator, List<String> scope) {
+		try {
+			while (iterator.hasNext()) {
+				Map<String, Object> row = iterator.next();
+				if("E".equals(category) && !refersTo(row, "FKTABLE_CAT", "FKTABLE_SCHEM", scope)) {
+					String table = (String) row.get("PKTABLE_NAME");
+					List<Map<String, Object>> keys = foreignExportedKeys.get(table);
+					if(keys==null) {
+						keys = new ArrayList<Map<String, Object>>();
+						foreignExportedKeys.put(table, keys);
+					}
+					keys.add(new HashMap<String, Object>(row)); // need to copy since MetaDataDialect might reuse it.
+				} else {
+					rows.add(category + toString(row, scope));
+				}
+			}
+		}
+		finally {
+			dialect.close(iterator);
+		}
+	}
+
+	/**
+	 * @return the row with its keys in order and every reference to scope replaced by "."
+	 */
+	private static String toString(Map<String, Object> row, List<String> scope) {
+		Map<String, Object> result = new TreeMap<String, Object>(row);
+		for (int i = 0; i < SCOPE_KEYS.length; i++) {
+			if(result.containsKey(SCOPE_KEYS[i][0]) || result.containsKey(SCOPE_KEYS[i][1])) {
+				if(refersTo(row, SCOPE_KEYS[i][0], SCOPE_KEYS[i][1], scope)) {
+					result.put(SCOPE_KEYS[i][0], ".");
+					result.put(SCOPE_KEYS[i][1], ".");
+				}
+			}
+		}
+		return result.toString();
+	}
+
+	/**
+	 * @return false if the row names another catalog/schema than scope; a missing value or scope, i.e. the
+	 * database default, is taken to be the same
+	 */
+	private static boolean refersTo(Map<String, Object> row, String catalogKey, String schemaKey, List<String> scope) {
+		return refersTo(row.get(catalogKey), scope.get(0)) && refersTo(row.get(schemaKey), scope.get(1));
+	}
+
+	private static boolean refersTo(Object value, String scope) {
+		return value==null || scope==null || scope.equals(value);
+	}
+
+	/**
+	 * @return true if the tables of both catalogs/schemas have the same columns, primary keys, indexes
+	 * and foreign keys among each other
+	 */
+	public boolean isIdentical(SchemaStructure other) {
+		return MessageDigest.isEqual(digest, other.digest);
+	}
+
+	/**
+	 * @return the exported keys of the tables, by table name, whose foreign key table is in another catalog/schema
+	 */
+	public Map<String, List<Map<String, Object>>> getForeignExportedKeys() {
+		return foreignExportedKeys;
+	}
+
+	private static MessageDigest newDigest() {
+		try {
+			return MessageDigest.getInstance("SHA-1");
+		}
+		catch (NoSuchAlgorithmException e) {
+			throw new RuntimeException("SHA-1 is not available", e);
+		}
+	}
+
+}
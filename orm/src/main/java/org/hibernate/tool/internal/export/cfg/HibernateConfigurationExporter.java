@@ -5,7 +5,6 @@
 package org.hibernate.tool.internal.export.cfg;
 
 import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.io.Writer;
@@ -56,9 +55,7 @@ public class HibernateConfigurationExporter extends AbstractExporter {
 		try  {
         if(output==null) {
             file = new File(getOutputDirectory(), "hibernate.cfg.xml");
-            getTemplateHelper().ensureExistence(file);
-			pw = new PrintWriter(new FileWriter(file) );
-			getArtifactCollector().addFile(file, "cfg.xml");
+			pw = new PrintWriter(newOutputWriter(file, "cfg.xml", false));
         } 
         else {
             pw = new PrintWriter(output);
@@ -117,6 +114,10 @@ public class HibernateConfigurationExporter extends AbstractExporter {
 		}
 		pw.println("    </session-factory>\r\n" + 
 				"</hibernate-configuration>");
+		pw.close();
+		if(pw.checkError()) {
+			throw new IOException("Could not write " + (file==null ? "the configuration" : file.toString()));
+		}
 				
 		} 
 		
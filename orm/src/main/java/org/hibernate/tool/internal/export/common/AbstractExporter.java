@@ -3,8 +3,19 @@
  */
 package org.hibernate.tool.internal.export.common;
 
+import java.io.BufferedWriter;
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.util.Collections;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map.Entry;
 import java.util.Properties;
 
@@ -12,11 +23,15 @@ import org.hibernate.boot.Metadata;
 import org.hibernate.internal.util.ReflectHelper;
 import org.hibernate.internal.util.StringHelper;
 import org.hibernate.tool.api.export.ArtifactCollector;
+import org.hibernate.tool.api.export.ArtifactPostProcessor;
+import org.hibernate.tool.api.java.ConcurrentFormatter;
 import org.hibernate.tool.api.export.Exporter;
 import org.hibernate.tool.api.export.ExporterConstants;
+import org.hibernate.tool.api.export.OutputSink;
 import org.hibernate.tool.api.metadata.MetadataDescriptor;
 import org.hibernate.tool.internal.export.hbm.Cfg2HbmTool;
 import org.hibernate.tool.internal.export.pojo.Cfg2JavaTool;
+import org.hibernate.tool.internal.metadata.JdbcMetadataDescriptor;
 import org.jboss.logging.Logger;
 
 /**
@@ -85,10 +100,147 @@ public abstract class AbstractExporter implements Exporter, ExporterConstants {
 		setTemplateHelper( new TemplateHelper() );
 		setupTemplates();
 		setupContext();
+		getTemplateHelper().setOutputSink((OutputSink)getProperties().get(OUTPUT_SINK));
+		OutputManifest manifest = createOutputManifest();
+		getTemplateHelper().setOutputManifest(manifest);
+		ConcurrentFormatter javaFormatter = createJavaFormatter();
+		if(javaFormatter!=null) {
+			addJavaFormatter(getArtifactCollector(), javaFormatter);
+		}
 		doStart();
 		cleanUpContext();		
 		setTemplateHelper(null);
 		getArtifactCollector().formatFiles();
+		if(manifest!=null) {
+			manifest.store();
+		}
+		storeFingerprints();
+	}
+	
+	/**
+	 * Stores the table fingerprints of an incremental reverse engineering run now that the export succeeded. 
+	 * The descriptors an ExporterPipeline shares are not JdbcMetadataDescriptors, the pipeline stores them itself 
+	 * once all its exporters succeeded.
+	 */
+	private void storeFingerprints() {
+		MetadataDescriptor metadataDescriptor = getMetadataDescriptor();
+		if(metadataDescriptor instanceof JdbcMetadataDescriptor) {
+			((JdbcMetadataDescriptor) metadataDescriptor).storeFingerprints();
+		}
+	}
+	
+	protected OutputManifest createOutputManifest() {
+		Object value = getProperties().get(ExporterSettings.OUTPUT_MANIFEST);
+		if(getOutputDirectory()==null || getProperties().get(OUTPUT_SINK)!=null 
+				|| value==null || !Boolean.parseBoolean(value.toString().trim())) {
+			return null;
+		}
+		return new OutputManifest(getOutputDirectory());
+	}
+	
+	/**
+	 * @return the sink configured with OUTPUT_SINK, or one writing files into the output directory
+	 */
+	protected OutputSink getOutputSink() {
+		OutputSink result = (OutputSink)getProperties().get(OUTPUT_SINK);
+		return result!=null ? result : new FileSystemOutputSink(getOutputDirectory());
+	}
+	
+	/**
+	 * Opens a writer to file, which must be located in the output directory. Without post processors for type 
+	 * what is written goes straight to the output sink. Otherwise it is collected until the writer is closed, 
+	 * and then the post processors are applied to it and the result goes to the output sink.
+	 */
+	protected Writer newOutputWriter(final File file, final String type, final boolean append) {
+		final OutputSink sink = getOutputSink();
+		final String path = getTemplateHelper().getOutputPath(file);
+		final ArtifactCollector collector = getArtifactCollector();
+		final List<ArtifactPostProcessor> postProcessors = collector instanceof ExtendedArtifactCollector
+				? ((ExtendedArtifactCollector) collector).getPostProcessors(type)
+				: Collections.<ArtifactPostProcessor>emptyList();
+		if(postProcessors.isEmpty()) {
+			try {
+				return new BufferedWriter(new OutputStreamWriter(sink.openStream(path, append), Charset.defaultCharset())) {
+					private boolean closed = false;
+					public void close() throws IOException {
+						if(closed) {
+							return;
+						}
+						closed = true;
+						super.close();
+						collector.addFile(file, type);
+					}
+				};
+			}
+			catch (IOException e) {
+				throw new RuntimeException("Could not open " + path + " in " + sink, e);
+			}
+		}
+		return new StringWriter() {
+			private boolean closed = false;
+			public void close() throws IOException {
+				if(closed) {
+					return;
+				}
+				closed = true;
+				String content = toString();
+				for (Iterator<ArtifactPostProcessor> iter = postProcessors.iterator(); iter.hasNext();) {
+					content = iter.next().process(file, content);
+				}
+				OutputStream out = sink.openStream(path, append);
+				try {
+					out.write(content.getBytes(Charset.defaultCharset()));
+				}
+				finally {
+					out.close();
+				}
+				((ExtendedArtifactCollector) collector).addProcessedFile(file, type);
+			}
+		};
+	}
+	
+	private void addJavaFormatter(ArtifactCollector collector, ConcurrentFormatter javaFormatter) {
+		if(!(collector instanceof ExtendedArtifactCollector)) {
+			log.warn("Java files are not formatted since " + collector.getClass().getName() + " does not support post processors");
+			return;
+		}
+		ExtendedArtifactCollector extended = (ExtendedArtifactCollector) collector;
+		for (Iterator<ArtifactPostProcessor> iter = extended.getPostProcessors("java").iterator(); iter.hasNext();) {
+			if(iter.next() instanceof ConcurrentFormatter) {
+				return;
+			}
+		}
+		extended.addPostProcessor("java", javaFormatter);
+	}
+	
+	protected ConcurrentFormatter createJavaFormatter() {
+		Object value = getProperties().get(ExporterSettings.FORMAT_JAVA);
+		if(value==null || !Boolean.parseBoolean(value.toString().trim())) {
+			return null;
+		}
+		Object configuration = getProperties().get(ExporterSettings.FORMAT_JAVA_CONFIGURATION);
+		if(configuration==null) {
+			return new ConcurrentFormatter(null);
+		}
+		Properties settings = new Properties();
+		InputStream in = null;
+		try {
+			in = new FileInputStream(configuration.toString());
+			settings.load(in);
+		}
+		catch (IOException e) {
+			throw new RuntimeException("Could not read java formatter configuration " + configuration, e);
+		}
+		finally {
+			if(in!=null) {
+				try {
+					in.close();
+				}
+				catch (IOException ignore) {
+				}
+			}
+		}
+		return new ConcurrentFormatter(settings);
 	}
 	
 	abstract protected void doStart();
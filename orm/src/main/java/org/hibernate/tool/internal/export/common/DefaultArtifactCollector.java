@@ -2,14 +2,20 @@ package org.hibernate.tool.internal.export.common;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
-import org.hibernate.tool.api.export.ArtifactCollector;
+import org.hibernate.tool.api.export.ArtifactPostProcessor;
 import org.hibernate.tool.internal.xml.XMLPrettyPrinter;
 
 /**
@@ -19,19 +25,89 @@ import org.hibernate.tool.internal.xml.XMLPrettyPrinter;
  * @author Max Rydahl Andersen
  *
  */
-public class DefaultArtifactCollector implements ArtifactCollector {
+public class DefaultArtifactCollector implements ExtendedArtifactCollector {
 
 	final protected Map<String, List<File>> files = new HashMap<String, List<File>>();
 
+	final protected Map<String, List<File>> skippedFiles = new HashMap<String, List<File>>();
+
+	final protected Map<String, List<ArtifactPostProcessor>> postProcessors = new HashMap<String, List<ArtifactPostProcessor>>();
+
+	/** the files whose content needs no post processing by formatFiles */
+	final protected Set<File> processedFiles = new HashSet<File>();
+
+	private static final ArtifactPostProcessor XML_PRETTY_PRINTER = new StreamingArtifactPostProcessor() {
+		public String process(File file, String content) {
+			return XMLPrettyPrinter.prettyPrint(content);
+		}
+		public void process(File file, Reader input, OutputStream output) throws IOException {
+			XMLPrettyPrinter.prettyPrint(input, output);
+		}
+		public void process(File file) throws IOException {
+			XMLPrettyPrinter.prettyPrintFile(file);
+		}
+	};
+
+	public DefaultArtifactCollector() {
+		addPostProcessor("xml", XML_PRETTY_PRINTER);
+		addPostProcessor("hbm.xml", XML_PRETTY_PRINTER);
+		addPostProcessor("cfg.xml", XML_PRETTY_PRINTER);
+	}
+
 	/* (non-Javadoc)
 	 * @see org.hibernate.tool.internal.export.ArtifactCollector#addFile(java.io.File, java.lang.String)
 	 */
 	@Override
 	public void addFile(File file, String type) {
-		List<File> existing = files.get(type);
+		add(files, file, type);
+	}
+
+	/* (non-Javadoc)
+	 * @see org.hibernate.tool.internal.export.common.ExtendedArtifactCollector#addSkippedFile(java.io.File, java.lang.String)
+	 */
+	@Override
+	public void addSkippedFile(File file, String type) {
+		add(files, file, type);
+		add(skippedFiles, file, type);
+		processedFiles.add(file);
+	}
+
+	/* (non-Javadoc)
+	 * @see org.hibernate.tool.internal.export.common.ExtendedArtifactCollector#addProcessedFile(java.io.File, java.lang.String)
+	 */
+	@Override
+	public void addProcessedFile(File file, String type) {
+		add(files, file, type);
+		processedFiles.add(file);
+	}
+
+	/* (non-Javadoc)
+	 * @see org.hibernate.tool.internal.export.common.ExtendedArtifactCollector#addPostProcessor(java.lang.String, org.hibernate.tool.api.export.ArtifactPostProcessor)
+	 */
+	@Override
+	public void addPostProcessor(String type, ArtifactPostProcessor postProcessor) {
+		List<ArtifactPostProcessor> existing = postProcessors.get(type);
+		if (existing == null) {
+			existing = new ArrayList<ArtifactPostProcessor>();
+			postProcessors.put(type, existing);
+		}
+		existing.add(postProcessor);
+	}
+
+	/* (non-Javadoc)
+	 * @see org.hibernate.tool.internal.export.common.ExtendedArtifactCollector#getPostProcessors(java.lang.String)
+	 */
+	@Override
+	public List<ArtifactPostProcessor> getPostProcessors(String type) {
+		List<ArtifactPostProcessor> existing = postProcessors.get(type);
+		return existing == null ? Collections.<ArtifactPostProcessor>emptyList() : Collections.unmodifiableList(existing);
+	}
+
+	private static void add(Map<String, List<File>> map, File file, String type) {
+		List<File> existing = map.get(type);
 		if (existing == null) {
 			existing = new ArrayList<File>();
-			files.put(type, existing);
+			map.put(type, existing);
 		}
 		existing.add(file);
 	}
@@ -41,9 +117,7 @@ public class DefaultArtifactCollector implements ArtifactCollector {
 	 */
 	@Override
 	public int getFileCount(String type) {
-		List<File> existing = files.get(type);
-
-		return (existing == null) ? 0 : existing.size();
+		return count(files, type);
 	}
 
 	/* (non-Javadoc)
@@ -51,13 +125,7 @@ public class DefaultArtifactCollector implements ArtifactCollector {
 	 */
 	@Override
 	public File[] getFiles(String type) {
-		List<File> existing = files.get(type);
-
-		if (existing == null) {
-			return new File[0];
-		} else {
-			return (File[]) existing.toArray(new File[existing.size()]);
-		}
+		return toArray(files, type);
 	}
 
 	/* (non-Javadoc)
@@ -69,29 +137,75 @@ public class DefaultArtifactCollector implements ArtifactCollector {
 	}
 
 	/* (non-Javadoc)
-	 * @see org.hibernate.tool.internal.export.ArtifactCollector#formatFiles()
+	 * @see org.hibernate.tool.internal.export.common.ExtendedArtifactCollector#getSkippedFileCount(java.lang.String)
 	 */
 	@Override
-	public void formatFiles() {
+	public int getSkippedFileCount(String type) {
+		return count(skippedFiles, type);
+	}
+
+	/* (non-Javadoc)
+	 * @see org.hibernate.tool.internal.export.common.ExtendedArtifactCollector#getSkippedFiles(java.lang.String)
+	 */
+	@Override
+	public File[] getSkippedFiles(String type) {
+		return toArray(skippedFiles, type);
+	}
+
+	private static int count(Map<String, List<File>> map, String type) {
+		List<File> existing = map.get(type);
+
+		return (existing == null) ? 0 : existing.size();
+	}
 
-		formatXml("xml");
-		formatXml("hbm.xml");
-		formatXml("cfg.xml");
+	private static File[] toArray(Map<String, List<File>> map, String type) {
+		List<File> existing = map.get(type);
 
+		if (existing == null) {
+			return new File[0];
+		} else {
+			return (File[]) existing.toArray(new File[existing.size()]);
+		}
 	}
 
-	private void formatXml(String type) {
-		List<File> list = files.get(type);
-		if (list != null && !list.isEmpty()) {
-			for (Iterator<File> iter = list.iterator(); iter.hasNext();) {
-				File xmlFile = iter.next();
-				try {
-					XMLPrettyPrinter.prettyPrintFile(xmlFile);
-				} catch (IOException e) {
-					throw new RuntimeException("Could not format XML file: " + xmlFile, e);
+	/* (non-Javadoc)
+	 * @see org.hibernate.tool.internal.export.common.ExtendedArtifactCollector#formatFiles()
+	 */
+	@Override
+	public void formatFiles() {
+		for (Iterator<Map.Entry<String, List<ArtifactPostProcessor>>> iter = postProcessors.entrySet().iterator(); iter.hasNext();) {
+			Map.Entry<String, List<ArtifactPostProcessor>> entry = iter.next();
+			List<File> list = files.get(entry.getKey());
+			if (list == null) {
+				continue;
+			}
+			for (Iterator<File> files = list.iterator(); files.hasNext();) {
+				File file = files.next();
+				// processedFiles holds the files that were post processed before they were written, or skipped
+				if (processedFiles.add(file)) {
+					postProcessFile(file, entry.getValue());
 				}
 			}
 		}
 	}
 
+	private void postProcessFile(File file, List<ArtifactPostProcessor> processors) {
+		try {
+			if (processors.size() == 1 && processors.get(0) instanceof StreamingArtifactPostProcessor) {
+				((StreamingArtifactPostProcessor) processors.get(0)).process(file);
+				return;
+			}
+			String content = new String(Files.readAllBytes(file.toPath()), Charset.defaultCharset());
+			String processed = content;
+			for (Iterator<ArtifactPostProcessor> iter = processors.iterator(); iter.hasNext();) {
+				processed = iter.next().process(file, processed);
+			}
+			if (!processed.equals(content)) {
+				Files.write(file.toPath(), processed.getBytes(Charset.defaultCharset()));
+			}
+		} catch (IOException e) {
+			throw new RuntimeException("Could not format file: " + file, e);
+		}
+	}
+
 }
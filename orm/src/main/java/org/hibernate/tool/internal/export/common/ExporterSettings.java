@@ -24,6 +24,36 @@ public interface ExporterSettings {
 	 */
 	public final String TEMPLATE_PATH = PREFIX_KEY + "template_path";
 	
+	/** 
+	 * number of threads rendering the entities and components of a GenericExporter, defaults to 1
+	 */
+	public final String EXPORT_THREADS = PREFIX_KEY + "export.threads";
+	
+	/** 
+	 * if true a manifest of the generated content is kept in the output directory (see OutputManifest), so files
+	 * that are formatted after generation are also recognized as unchanged and left untouched. Defaults to false.
+	 */
+	public final String OUTPUT_MANIFEST = PREFIX_KEY + "output.manifest";
+	
+	/** 
+	 * if true a GenericExporter keeps the hashes of the inputs of each file it generates (see RegenerationManifest), 
+	 * only renders the files whose inputs changed since the previous run and deletes the files it no longer generates. 
+	 * Defaults to false.
+	 */
+	public final String REGENERATION_MANIFEST = PREFIX_KEY + "regeneration.manifest";
+	
+	/** 
+	 * if true generated java sources are formatted in memory with the Eclipse code formatter before they are 
+	 * written, so each file is written once. The formatter is registered as post processor for "java" on the 
+	 * ExtendedArtifactCollector, unless one is registered already; other collectors get unformatted files. Defaults to false.
+	 */
+	public final String FORMAT_JAVA = PREFIX_KEY + "format.java";
+	
+	/** 
+	 * properties file with the Eclipse code formatter settings used when FORMAT_JAVA is set
+	 */
+	public final String FORMAT_JAVA_CONFIGURATION = PREFIX_KEY + "format.java.configuration";
+	
 	
 	
 }
@@ -0,0 +1,45 @@
+package org.hibernate.tool.internal.export.common;
+
+import java.io.File;
+import java.util.List;
+
+import org.hibernate.tool.api.export.ArtifactCollector;
+import org.hibernate.tool.api.export.ArtifactPostProcessor;
+
+/**
+ * The callbacks the exporters use on top of ArtifactCollector when the collector supports them.
+ * Collectors that only implement ArtifactCollector are told about every file with addFile and 
+ * have no post processors, so they format the files in formatFiles themselves.
+ */
+public interface ExtendedArtifactCollector extends ArtifactCollector {
+
+	/**
+	 * Called to inform that a file has been generated with the content it already had, so it was not written.
+	 * Skipped files are counted by getFileCount and returned by getFiles as well.
+	 */
+	void addSkippedFile(File file, String type);
+
+	/**
+	 * Called to inform that a file has been created with the post processors of its type already 
+	 * applied to its content, so formatFiles leaves it alone.
+	 */
+	void addProcessedFile(File file, String type);
+
+	/**
+	 * Registers a post processor for the content of the files of the given type. 
+	 * Post processors are applied in the order they were added.
+	 */
+	void addPostProcessor(String type, ArtifactPostProcessor postProcessor);
+
+	List<ArtifactPostProcessor> getPostProcessors(String type);
+
+	int getSkippedFileCount(String type);
+
+	File[] getSkippedFiles(String type);
+
+	/**
+	 * Applies the post processors to the files that were created without them.
+	 */
+	void formatFiles();
+
+}
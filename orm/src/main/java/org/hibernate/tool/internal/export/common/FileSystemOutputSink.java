@@ -0,0 +1,81 @@
+package org.hibernate.tool.internal.export.common;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import org.hibernate.tool.api.export.OutputSink;
+
+/**
+ * Writes the entries as files below a directory. A replaced file is written next to its 
+ * destination first and moved into place once complete.
+ */
+public class FileSystemOutputSink implements OutputSink {
+
+	private final File directory;
+
+	/**
+	 * @param directory the root of the entries, or null for the current directory
+	 */
+	public FileSystemOutputSink(File directory) {
+		this.directory = directory;
+	}
+
+	public File getDirectory() {
+		return directory;
+	}
+
+	public File getFile(String path) {
+		return new File(directory, path.replace('/', File.separatorChar));
+	}
+
+	@Override
+	public OutputStream openStream(String path, boolean append) throws IOException {
+		final File file = getFile(path).getAbsoluteFile();
+		File parent = file.getParentFile();
+		if(!parent.isDirectory() && !parent.mkdirs() && !parent.isDirectory()) {
+			throw new IOException("Unable to create directory: " + parent);
+		}
+		if(append) {
+			return new FileOutputStream(file, true);
+		}
+		final File tempFile = File.createTempFile("." + file.getName() + ".", ".tmp", parent);
+		return new FilterOutputStream(new FileOutputStream(tempFile)) {
+			private boolean closed = false;
+			public void write(byte[] b, int off, int len) throws IOException {
+				out.write(b, off, len);
+			}
+			public void close() throws IOException {
+				if(closed) {
+					return;
+				}
+				closed = true;
+				try {
+					super.close();
+					TemplateProducer.moveIntoPlace(tempFile, file);
+				}
+				finally {
+					if(tempFile.exists()) {
+						tempFile.delete();
+					}
+				}
+			}
+		};
+	}
+
+	@Override
+	public boolean exists(String path) {
+		return getFile(path).isFile();
+	}
+
+	@Override
+	public void close() {
+	}
+
+	public String toString() {
+		return "FileSystemOutputSink[" + directory + "]";
+	}
+
+}
@@ -2,16 +2,34 @@ package org.hibernate.tool.internal.export.common;
 
 import java.io.File;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
 import java.util.StringTokenizer;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.hibernate.internal.util.StringHelper;
 import org.hibernate.mapping.Component;
+import org.hibernate.mapping.PersistentClass;
+import org.hibernate.tool.api.export.ArtifactCollector;
+import org.hibernate.tool.api.metadata.MetadataDescriptor;
+import org.hibernate.tool.api.version.Version;
 import org.hibernate.tool.internal.export.pojo.ComponentPOJOClass;
 import org.hibernate.tool.internal.export.pojo.POJOClass;
+import org.hibernate.tool.internal.metadata.JdbcMetadataDescriptor;
+import org.hibernate.tool.internal.metadata.MemoizingMetadataDescriptor;
+import org.hibernate.tool.internal.reveng.TableFingerprints;
 
 
 public class GenericExporter extends AbstractExporter {
@@ -41,11 +59,11 @@ public class GenericExporter extends AbstractExporter {
 				Iterator<?> iterator = 
 						ge.getCfg2JavaTool().getPOJOIterator(
 								ge.getMetadata().getEntityBindings().iterator());
-				Map<String, Object> additionalContext = new HashMap<String, Object>();
+				List<POJOClass> elements = new ArrayList<POJOClass>();
 				while ( iterator.hasNext() ) {					
-					POJOClass element = (POJOClass) iterator.next();
-					ge.exportPersistentClass( additionalContext, element );					
+					elements.add( (POJOClass) iterator.next() );
 				}
+				ge.exportElements( elements, false );
 			}
 		});
 		modelIterators.put("component", new ModelIterator() {
@@ -56,18 +74,18 @@ public class GenericExporter extends AbstractExporter {
 				Iterator<?> iterator = 
 						ge.getCfg2JavaTool().getPOJOIterator(
 								ge.getMetadata().getEntityBindings().iterator());
-				Map<String, Object> additionalContext = new HashMap<String, Object>();
 				while ( iterator.hasNext() ) {					
 					POJOClass element = (POJOClass) iterator.next();
 					ConfigurationNavigator.collectComponents(components, element);											
 				}
 						
+				List<POJOClass> elements = new ArrayList<POJOClass>();
 				iterator = components.values().iterator();
 				while ( iterator.hasNext() ) {					
 					Component component = (Component) iterator.next();
-					ComponentPOJOClass element = new ComponentPOJOClass(component,ge.getCfg2JavaTool());
-					ge.exportComponent( additionalContext, element );					
+					elements.add( new ComponentPOJOClass(component,ge.getCfg2JavaTool()) );
 				}
+				ge.exportElements( elements, true );
 			}
 		});
 	}
@@ -76,6 +94,14 @@ public class GenericExporter extends AbstractExporter {
 	private String filePattern;
 	private String forEach;
 	
+	/** the input hashes of the files generated by this exporter, null unless ExporterSettings.REGENERATION_MANIFEST is set */
+	private RegenerationManifest regenerationManifest;
+	private String settingsDescription;
+	
+	/** the template helper of the current thread while exporting in parallel */
+	private final ThreadLocal<TemplateHelper> workerTemplateHelper = new ThreadLocal<TemplateHelper>();
+	private volatile ArtifactCollector workerArtifactCollector;
+	
 	public String getTemplateName() {
 		return templateName;
 	}
@@ -121,11 +147,301 @@ public class GenericExporter extends AbstractExporter {
 			}
 		}
 
-		Iterator<ModelIterator> it = exporters.iterator();
-		while(it.hasNext()) {
-			ModelIterator mit = it.next();
-			mit.process( this );
+		regenerationManifest = createRegenerationManifest();
+		try {
+			Iterator<ModelIterator> it = exporters.iterator();
+			while(it.hasNext()) {
+				ModelIterator mit = it.next();
+				mit.process( this );
+			}
+			if(regenerationManifest!=null) {
+				regenerationManifest.deleteOrphans();
+				regenerationManifest.store();
+			}
+		} 
+		finally {
+			regenerationManifest = null;
+			settingsDescription = null;
+		}
+	}
+
+	/**
+	 * @return the manifest if ExporterSettings.REGENERATION_MANIFEST is set or in incremental mode, 
+	 * where it covers the inputs besides the tables, e.g. the reveng.xml, the strategy and the templates
+	 */
+	protected RegenerationManifest createRegenerationManifest() {
+		Object value = getProperties().get(ExporterSettings.REGENERATION_MANIFEST);
+		if(getOutputDirectory()==null || getProperties().get(OUTPUT_SINK)!=null) {
+			return null;
+		}
+		if((value==null || !Boolean.parseBoolean(value.toString().trim())) && getChangedTables()==null) {
+			return null;
+		}
+		String scope = getClass().getName() + ' ' + templateName + ' ' + filePattern + ' ' + forEach;
+		return new RegenerationManifest(getOutputDirectory(), ModelFingerprints.digest(scope).substring(0, 12));
+	}
+	
+	/**
+	 * Describes what the output depends on besides the model fragment of an element: the templates, 
+	 * the exporter settings and the class names of all entities, as associations render the class of 
+	 * the entity they reference. Subclasses add the settings they hold outside of the properties.
+	 */
+	protected String describeSettings() {
+		StringBuilder result = new StringBuilder();
+		result.append(Version.CURRENT_VERSION).append(' ').append(getClass().getName())
+			.append(' ').append(templateName)
+			.append(' ').append(filePattern)
+			.append(' ').append(forEach)
+			.append('\n');
+		String[] templatePath = (String[])getProperties().get(TEMPLATE_PATH);
+		for (int i = 0; templatePath!=null && i < templatePath.length; i++) {
+			result.append("template_path ").append(templatePath[i]).append(' ').append(getLastModified(new File(templatePath[i]))).append('\n');
+		}
+		Map<String, String> properties = new TreeMap<String, String>();
+		for (Iterator<Entry<Object, Object>> iter = getProperties().entrySet().iterator(); iter.hasNext();) {
+			Entry<Object, Object> entry = iter.next();
+			Object value = entry.getValue();
+			if(value instanceof String || value instanceof Boolean || value instanceof Number) {
+				properties.put(entry.getKey().toString(), value.toString());
+			} else if(value instanceof String[]) {
+				properties.put(entry.getKey().toString(), Arrays.asList((String[]) value).toString());
+			}
+		}
+		result.append("properties ").append(properties).append('\n');
+		Map<String, String> classNames = new TreeMap<String, String>();
+		for (Iterator<PersistentClass> iter = getMetadata().getEntityBindings().iterator(); iter.hasNext();) {
+			PersistentClass clazz = iter.next();
+			classNames.put(clazz.getEntityName(), clazz.getClassName());
+		}
+		result.append("entities ").append(classNames).append('\n');
+		return result.toString();
+	}
+
+	/**
+	 * @return the newest modification time of the templates in the directory
+	 */
+	private static long getLastModified(File file) {
+		long result = file.lastModified();
+		File[] children = file.listFiles();
+		for (int i = 0; children!=null && i < children.length; i++) {
+			result = Math.max(result, getLastModified(children[i]));
+		}
+		return result;
+	}
+
+	private String getInputHash(POJOClass element, boolean component) {
+		if(settingsDescription==null) {
+			settingsDescription = describeSettings();
+		}
+		Object model = element.getDecoratedObject();
+		String description = component 
+				? ModelFingerprints.describe((Component) model, getMetadata()) 
+				: ModelFingerprints.describe((PersistentClass) model, getMetadata());
+		return ModelFingerprints.digest(settingsDescription + description);
+	}
+
+	/**
+	 * In incremental mode (see RevengSettings.INCREMENTAL_FINGERPRINTS) an element is exported again when the 
+	 * table of its owning entity or one of its foreign key neighbours changed since the previous run, whatever 
+	 * the regeneration manifest says.
+	 */
+	private boolean isInChangedTable(POJOClass element, boolean component) {
+		Set<String> changedTables = getChangedTables();
+		if(changedTables == null) {
+			return false;
+		}
+		Object model = element.getDecoratedObject();
+		PersistentClass owner = component ? ((Component) model).getOwner() : (PersistentClass) model;
+		return owner == null || changedTables.contains(TableFingerprints.getKey(owner.getTable(), null, null));
+	}
+
+	/**
+	 * @return the tables changed since the previous incremental run, null unless in incremental mode
+	 */
+	private Set<String> getChangedTables() {
+		MetadataDescriptor metadataDescriptor = getMetadataDescriptor();
+		if(metadataDescriptor instanceof MemoizingMetadataDescriptor) {
+			metadataDescriptor = ((MemoizingMetadataDescriptor) metadataDescriptor).getDelegate();
 		}
+		if(!(metadataDescriptor instanceof JdbcMetadataDescriptor)) {
+			return null;
+		}
+		return ((JdbcMetadataDescriptor) metadataDescriptor).getChangedTables();
+	}
+
+	/**
+	 * Exports the entities or components, using the number of threads set with ExporterSettings.EXPORT_THREADS.
+	 * Each thread renders against a template context of its own on top of the shared one, so the 
+	 * generated files are the same as when exporting serially.
+	 */
+	protected void exportElements(List<POJOClass> elements, boolean components) {
+		if(regenerationManifest!=null) {
+			exportChangedElements(elements, components);
+		} else {
+			exportAllElements(elements, components);
+		}
+	}
+
+	/**
+	 * Only exports the elements whose input hash differs from the one recorded in the regeneration manifest, 
+	 * and records the new hashes of the files that were generated.
+	 */
+	private void exportChangedElements(List<POJOClass> elements, boolean components) {
+		List<POJOClass> changed = new ArrayList<POJOClass>();
+		List<String> hashes = new ArrayList<String>();
+		for (Iterator<POJOClass> iter = elements.iterator(); iter.hasNext();) {
+			POJOClass element = iter.next();
+			File file = new File(getOutputDirectory(), resolveFilename(element));
+			String hash = getInputHash(element, components);
+			if(!isInChangedTable(element, components) && regenerationManifest.isUpToDate(file, hash)) {
+				log.debug("Skipping " + file + " since its inputs did not change");
+				regenerationManifest.keep(file);
+				addSkippedFile(file, getFileType(file));
+			} else {
+				changed.add(element);
+				hashes.add(hash);
+			}
+		}
+		exportAllElements(changed, components);
+		Set<File> generated = getGeneratedFiles();
+		for (int i = 0; i < changed.size(); i++) {
+			File file = new File(getOutputDirectory(), resolveFilename(changed.get(i)));
+			if(generated.contains(file)) {
+				regenerationManifest.put(file, hashes.get(i));
+			}
+		}
+	}
+
+	private Set<File> getGeneratedFiles() {
+		Set<File> result = new HashSet<File>();
+		ArtifactCollector collector = getArtifactCollector();
+		for (Iterator<String> iter = collector.getFileTypes().iterator(); iter.hasNext();) {
+			result.addAll(Arrays.asList(collector.getFiles(iter.next())));
+		}
+		return result;
+	}
+
+	private void addSkippedFile(File file, String type) {
+		ArtifactCollector collector = getArtifactCollector();
+		if(collector instanceof ExtendedArtifactCollector) {
+			((ExtendedArtifactCollector) collector).addSkippedFile(file, type);
+		} else {
+			collector.addFile(file, type);
+		}
+	}
+
+	private static String getFileType(File file) {
+		String name = file.getName();
+		return name.substring(name.indexOf('.')+1);
+	}
+
+	private void exportAllElements(List<POJOClass> elements, boolean components) {
+		int threads = Math.min(getExportThreads(), elements.size());
+		if(threads<=1) {
+			Map<String, Object> additionalContext = new HashMap<String, Object>();
+			for (Iterator<POJOClass> iter = elements.iterator(); iter.hasNext();) {
+				exportElement(additionalContext, iter.next(), components);
+			}
+		} else {
+			exportElementsInParallel(elements, components, threads);
+		}
+	}
+
+	private void exportElement(Map<String, Object> additionalContext, POJOClass element, boolean component) {
+		if(component) {
+			exportComponent(additionalContext, element);
+		} else {
+			exportPersistentClass(additionalContext, element);
+		}
+	}
+
+	private void exportElementsInParallel(final List<POJOClass> elements, final boolean components, int threads) {
+		log.debug("Exporting " + elements.size() + " elements with " + threads + " threads");
+		final ArtifactCollector collector = new SynchronizedArtifactCollector(getArtifactCollector());
+		final AtomicInteger next = new AtomicInteger();
+		final AtomicBoolean failed = new AtomicBoolean();
+		List<TemplateHelper> helpers = new ArrayList<TemplateHelper>(threads);
+		for (int i = 0; i < threads; i++) {
+			TemplateHelper helper = super.getTemplateHelper().createWorkerHelper();
+			helper.getContext().put("artifacts", collector);
+			helpers.add(helper);
+		}
+		workerArtifactCollector = collector;
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			List<Future<?>> workers = new ArrayList<Future<?>>(threads);
+			for (Iterator<TemplateHelper> iter = helpers.iterator(); iter.hasNext();) {
+				final TemplateHelper helper = iter.next();
+				workers.add(executor.submit(new Runnable() {
+					public void run() {
+						workerTemplateHelper.set(helper);
+						try {
+							Map<String, Object> additionalContext = new HashMap<String, Object>();
+							int index;
+							while (!failed.get() && (index = next.getAndIncrement()) < elements.size()) {
+								exportElement(additionalContext, elements.get(index), components);
+							}
+						} 
+						catch (RuntimeException e) {
+							failed.set(true);
+							throw e;
+						}
+						finally {
+							workerTemplateHelper.remove();
+						}
+					}
+				}));
+			}
+			for (Iterator<Future<?>> iter = workers.iterator(); iter.hasNext();) {
+				waitFor(iter.next());
+			}
+		} 
+		finally {
+			executor.shutdownNow();
+			workerArtifactCollector = null;
+		}
+	}
+
+	private void waitFor(Future<?> worker) {
+		try {
+			worker.get();
+		} 
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException("Interrupted while exporting", e);
+		} 
+		catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if(cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			} else if(cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new RuntimeException("Error while exporting", cause);
+		}
+	}
+
+	protected int getExportThreads() {
+		Object value = getProperties().get(ExporterSettings.EXPORT_THREADS);
+		if(value==null) {
+			return 1;
+		}
+		try {
+			return Math.max(1, Integer.parseInt(value.toString().trim()));
+		} 
+		catch (NumberFormatException e) {
+			throw new RuntimeException("Invalid value for " + ExporterSettings.EXPORT_THREADS + ": " + value, e);
+		}
+	}
+
+	protected TemplateHelper getTemplateHelper() {
+		TemplateHelper result = workerTemplateHelper.get();
+		return result!=null ? result : super.getTemplateHelper();
+	}
+
+	public ArtifactCollector getArtifactCollector() {
+		ArtifactCollector result = workerArtifactCollector;
+		return result!=null && workerTemplateHelper.get()!=null ? result : super.getArtifactCollector();
 	}
 
 	protected void exportComponent(Map<String, Object> additionalContext, POJOClass element) {
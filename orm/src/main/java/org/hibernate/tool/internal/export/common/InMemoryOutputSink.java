@@ -0,0 +1,82 @@
+package org.hibernate.tool.internal.export.common;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.hibernate.tool.api.export.OutputSink;
+
+/**
+ * Keeps the entries in memory, e.g. to compile the generated sources right away.
+ */
+public class InMemoryOutputSink implements OutputSink {
+
+	private final Map<String, byte[]> entries = new ConcurrentHashMap<String, byte[]>();
+
+	@Override
+	public OutputStream openStream(final String path, final boolean append) {
+		return new ByteArrayOutputStream() {
+			private boolean closed = false;
+			public void close() {
+				if(closed) {
+					return;
+				}
+				closed = true;
+				synchronized (entries) {
+					byte[] existing = append ? entries.get(path) : null;
+					if(existing==null) {
+						entries.put(path, toByteArray());
+					} else {
+						byte[] content = new byte[existing.length + count];
+						System.arraycopy(existing, 0, content, 0, existing.length);
+						System.arraycopy(buf, 0, content, existing.length, count);
+						entries.put(path, content);
+					}
+				}
+			}
+		};
+	}
+
+	@Override
+	public boolean exists(String path) {
+		return entries.containsKey(path);
+	}
+
+	/**
+	 * @return the paths of the entries, sorted
+	 */
+	public Set<String> getPaths() {
+		return Collections.unmodifiableSet(new TreeSet<String>(entries.keySet()));
+	}
+
+	/**
+	 * @return the content of the entry at path, or null if there is none
+	 */
+	public byte[] getContent(String path) {
+		byte[] content = entries.get(path);
+		return content==null ? null : content.clone();
+	}
+
+	/**
+	 * @return the content of the entry at path decoded with the default charset, which exporters write with
+	 */
+	public String getContentAsString(String path) {
+		byte[] content = entries.get(path);
+		return content==null ? null : new String(content, Charset.defaultCharset());
+	}
+
+	public void clear() {
+		entries.clear();
+	}
+
+	@Override
+	public void close() throws IOException {
+	}
+
+}
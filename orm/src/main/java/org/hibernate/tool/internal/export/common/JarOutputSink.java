@@ -0,0 +1,33 @@
+package org.hibernate.tool.internal.export.common;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.jar.Attributes;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+
+/**
+ * Writes the entries into a jar file, starting with the given manifest.
+ */
+public class JarOutputSink extends ZipOutputSink {
+
+	public JarOutputSink(File file) throws IOException {
+		this(file, null);
+	}
+
+	/**
+	 * @param manifest the manifest of the jar, or null for one holding only the manifest version
+	 */
+	public JarOutputSink(File file, Manifest manifest) throws IOException {
+		super(new JarOutputStream(new BufferedOutputStream(new FileOutputStream(file)), manifest==null ? createManifest() : manifest));
+	}
+
+	private static Manifest createManifest() {
+		Manifest result = new Manifest();
+		result.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+		return result;
+	}
+
+}
@@ -0,0 +1,363 @@
+package org.hibernate.tool.internal.export.common;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import org.hibernate.boot.Metadata;
+import org.hibernate.mapping.Any;
+import org.hibernate.mapping.Collection;
+import org.hibernate.mapping.Column;
+import org.hibernate.mapping.Component;
+import org.hibernate.mapping.ForeignKey;
+import org.hibernate.mapping.IdentifierCollection;
+import org.hibernate.mapping.Index;
+import org.hibernate.mapping.IndexedCollection;
+import org.hibernate.mapping.Join;
+import org.hibernate.mapping.ManyToOne;
+import org.hibernate.mapping.MetaAttribute;
+import org.hibernate.mapping.OneToMany;
+import org.hibernate.mapping.OneToOne;
+import org.hibernate.mapping.PersistentClass;
+import org.hibernate.mapping.Property;
+import org.hibernate.mapping.Selectable;
+import org.hibernate.mapping.SimpleValue;
+import org.hibernate.mapping.Table;
+import org.hibernate.mapping.ToOne;
+import org.hibernate.mapping.UniqueKey;
+import org.hibernate.mapping.Value;
+
+/**
+ * Describes the parts of the mapping model a template renders for an entity or component, so that
+ * two exports can tell whether the input of a generated file changed in between.
+ *
+ * An entity is described together with its whole class hierarchy, since the hbm.xml of a root class
+ * contains its subclasses and the POJO of a subclass inherits properties of its superclasses.
+ * Associations are described by the entity they reference and, when the Metadata is given, by the
+ * description of that entity's hierarchy.
+ */
+public class ModelFingerprints {
+
+	private ModelFingerprints() {}
+
+	public static String describe(PersistentClass clazz) {
+		return describe(clazz, null);
+	}
+
+	/**
+	 * @param metadata if not null the hierarchies of the entities the class is associated with are described too,
+	 * since a POJO reads e.g. the mappedBy property and join columns from the other side of its associations
+	 */
+	public static String describe(PersistentClass clazz, Metadata metadata) {
+		StringBuilder result = new StringBuilder();
+		result.append("entity ").append(clazz.getEntityName()).append('\n');
+		Set<String> references = metadata==null ? null : new TreeSet<String>();
+		describeHierarchy(result, clazz.getRootClass(), references);
+		describeReferences(result, references, metadata);
+		return result.toString();
+	}
+
+	public static String describe(Component component) {
+		return describe(component, null);
+	}
+
+	/**
+	 * @see #describe(PersistentClass, Metadata)
+	 */
+	public static String describe(Component component, Metadata metadata) {
+		StringBuilder result = new StringBuilder();
+		Set<String> references = metadata==null ? null : new TreeSet<String>();
+		describeValue(result, component, "", references);
+		describeReferences(result, references, metadata);
+		return result.toString();
+	}
+
+	public static String digest(String value) {
+		try {
+			byte[] hash = MessageDigest.getInstance("SHA-1").digest(value.getBytes(StandardCharsets.UTF_8));
+			StringBuilder result = new StringBuilder(hash.length * 2);
+			for (int i = 0; i < hash.length; i++) {
+				result.append(Character.forDigit((hash[i] >> 4) & 0xF, 16));
+				result.append(Character.forDigit(hash[i] & 0xF, 16));
+			}
+			return result.toString();
+		}
+		catch (NoSuchAlgorithmException e) {
+			throw new RuntimeException("SHA-1 is not available", e);
+		}
+	}
+
+	/**
+	 * Describes the referenced entities without following their own associations.
+	 */
+	private static void describeReferences(StringBuilder result, Set<String> references, Metadata metadata) {
+		if(references==null) {
+			return;
+		}
+		for (Iterator<String> iter = references.iterator(); iter.hasNext();) {
+			String entityName = iter.next();
+			PersistentClass referenced = metadata.getEntityBinding(entityName);
+			result.append("referenced ").append(entityName).append('\n');
+			if(referenced!=null) {
+				describeHierarchy(result, referenced.getRootClass(), null);
+			}
+		}
+	}
+
+	private static void describeHierarchy(StringBuilder result, PersistentClass clazz, Set<String> references) {
+		result.append("class ").append(clazz.getEntityName())
+			.append(' ').append(clazz.getClassName())
+			.append(' ').append(clazz.getProxyInterfaceName())
+			.append(' ').append(clazz.isAbstract())
+			.append(' ').append(clazz.isLazy())
+			.append(' ').append(clazz.isMutable())
+			.append(' ').append(clazz.useDynamicInsert())
+			.append(' ').append(clazz.useDynamicUpdate())
+			.append(' ').append(clazz.hasSelectBeforeUpdate())
+			.append(' ').append(clazz.isExplicitPolymorphism())
+			.append(' ').append(clazz.getOptimisticLockStyle())
+			.append(' ').append(clazz.getBatchSize())
+			.append(' ').append(clazz.getWhere())
+			.append(' ').append(clazz.getCacheConcurrencyStrategy())
+			.append(' ').append(clazz.getDiscriminatorValue())
+			.append(' ').append(clazz.getLoaderName())
+			.append(' ').append(clazz.getCustomSQLInsert())
+			.append(' ').append(clazz.getCustomSQLUpdate())
+			.append(' ').append(clazz.getCustomSQLDelete())
+			.append('\n');
+		describeMetaAttributes(result, clazz.getMetaAttributes(), "");
+		describeTable(result, clazz.getTable());
+		if(clazz.getSuperclass()==null) {
+			if(clazz.getDiscriminator()!=null) {
+				result.append("discriminator ");
+				describeValue(result, clazz.getDiscriminator(), "", references);
+			}
+			if(clazz.getIdentifierProperty()!=null) {
+				describeProperty(result, "id", clazz.getIdentifierProperty(), "", references);
+			} else if(clazz.getIdentifier()!=null) {
+				result.append("id ");
+				describeValue(result, clazz.getIdentifier(), "", references);
+			}
+			if(clazz.getIdentifierMapper()!=null) {
+				result.append("idmapper ");
+				describeValue(result, clazz.getIdentifierMapper(), "", references);
+			}
+			if(clazz.getVersion()!=null) {
+				describeProperty(result, "version", clazz.getVersion(), "", references);
+			}
+		} else if(clazz.getKey()!=null) {
+			result.append("key ");
+			describeValue(result, clazz.getKey(), "", references);
+		}
+		for (Iterator<?> iter = clazz.getUnjoinedPropertyIterator(); iter.hasNext();) {
+			describeProperty(result, "property", (Property) iter.next(), "", references);
+		}
+		for (Iterator<?> iter = clazz.getJoinIterator(); iter.hasNext();) {
+			Join join = (Join) iter.next();
+			result.append("join ").append(join.isInverse()).append(' ').append(join.isOptional()).append('\n');
+			describeTable(result, join.getTable());
+			describeValue(result, join.getKey(), "  ", references);
+			for (Iterator<?> properties = join.getPropertyIterator(); properties.hasNext();) {
+				describeProperty(result, "property", (Property) properties.next(), "  ", references);
+			}
+		}
+		for (Iterator<?> iter = clazz.getDirectSubclasses(); iter.hasNext();) {
+			describeHierarchy(result, (PersistentClass) iter.next(), references);
+		}
+		result.append("end ").append(clazz.getEntityName()).append('\n');
+	}
+
+	private static void describeProperty(StringBuilder result, String kind, Property property, String indent, Set<String> references) {
+		result.append(indent).append(kind).append(' ').append(property.getName())
+			.append(' ').append(property.getPropertyAccessorName())
+			.append(' ').append(property.getCascade())
+			.append(' ').append(property.isInsertable())
+			.append(' ').append(property.isUpdateable())
+			.append(' ').append(property.isLazy())
+			.append(' ').append(property.isOptimisticLocked())
+			.append(' ').append(property.isNaturalIdentifier())
+			.append(' ');
+		describeValue(result, property.getValue(), indent + "  ", references);
+		describeMetaAttributes(result, property.getMetaAttributes(), indent + "  ");
+	}
+
+	private static void describeValue(StringBuilder result, Value value, String indent, Set<String> references) {
+		if(value==null) {
+			result.append("null\n");
+			return;
+		}
+		result.append(value.getClass().getName());
+		if(value instanceof ToOne) {
+			ToOne toOne = (ToOne) value;
+			addReference(references, toOne.getReferencedEntityName());
+			result.append(' ').append(toOne.getReferencedEntityName())
+				.append(' ').append(toOne.getReferencedPropertyName())
+				.append(' ').append(toOne.getFetchMode())
+				.append(' ').append(toOne.isLazy())
+				.append(' ').append(toOne.isUnwrapProxy());
+			if(value instanceof ManyToOne) {
+				result.append(' ').append(((ManyToOne) value).isLogicalOneToOne())
+					.append(' ').append(((ManyToOne) value).isIgnoreNotFound());
+			} else if(value instanceof OneToOne) {
+				result.append(' ').append(((OneToOne) value).isConstrained())
+					.append(' ').append(((OneToOne) value).getForeignKeyType());
+			}
+		} else if(value instanceof Any) {
+			result.append(' ').append(((Any) value).getIdentifierType())
+				.append(' ').append(((Any) value).getMetaType())
+				.append(' ').append(sorted(((Any) value).getMetaValues()));
+		} else if(value instanceof Component) {
+			Component component = (Component) value;
+			result.append(' ').append(component.getComponentClassName())
+				.append(' ').append(component.getParentProperty())
+				.append(' ').append(component.isDynamic())
+				.append(' ').append(component.isEmbedded())
+				.append('\n');
+			describeMetaAttributes(result, component.getMetaAttributes(), indent);
+			for (Iterator<?> iter = component.getPropertyIterator(); iter.hasNext();) {
+				describeProperty(result, "property", (Property) iter.next(), indent, references);
+			}
+			return;
+		} else if(value instanceof OneToMany) {
+			addReference(references, ((OneToMany) value).getReferencedEntityName());
+			result.append(' ').append(((OneToMany) value).getReferencedEntityName())
+				.append(' ').append(((OneToMany) value).isIgnoreNotFound())
+				.append('\n');
+			return;
+		} else if(value instanceof Collection) {
+			Collection collection = (Collection) value;
+			result.append(' ').append(collection.getRole())
+				.append(' ').append(collection.getTypeName())
+				.append(' ').append(collection.isInverse())
+				.append(' ').append(collection.isLazy())
+				.append(' ').append(collection.isExtraLazy())
+				.append(' ').append(collection.getFetchMode())
+				.append(' ').append(collection.getBatchSize())
+				.append(' ').append(collection.getOrderBy())
+				.append(' ').append(collection.getWhere())
+				.append(' ').append(collection.getManyToManyWhere())
+				.append(' ').append(collection.getManyToManyOrdering())
+				.append(' ').append(collection.isSorted())
+				.append(' ').append(collection.getComparatorClassName())
+				.append(' ').append(collection.getCacheConcurrencyStrategy())
+				.append(' ').append(collection.getCollectionTable()==null ? null : collection.getCollectionTable().getName())
+				.append('\n');
+			result.append(indent).append("key ");
+			describeValue(result, collection.getKey(), indent + "  ", references);
+			if(collection instanceof IndexedCollection) {
+				result.append(indent).append("index ");
+				describeValue(result, ((IndexedCollection) collection).getIndex(), indent + "  ", references);
+			}
+			if(collection instanceof IdentifierCollection) {
+				result.append(indent).append("identifier ");
+				describeValue(result, ((IdentifierCollection) collection).getIdentifier(), indent + "  ", references);
+			}
+			result.append(indent).append("element ");
+			describeValue(result, collection.getElement(), indent + "  ", references);
+			return;
+		}
+		if(value instanceof SimpleValue) {
+			SimpleValue simpleValue = (SimpleValue) value;
+			result.append(' ').append(simpleValue.getTypeName())
+				.append(' ').append(sorted(simpleValue.getTypeParameters()))
+				.append(' ').append(simpleValue.getIdentifierGeneratorStrategy())
+				.append(' ').append(sorted(simpleValue.getIdentifierGeneratorProperties()))
+				.append(' ').append(simpleValue.getNullValue())
+				.append(' ').append(simpleValue.getForeignKeyName());
+		}
+		result.append('\n');
+		for (Iterator<?> iter = value.getColumnIterator(); iter.hasNext();) {
+			describeSelectable(result, (Selectable) iter.next(), indent);
+		}
+	}
+
+	private static void describeSelectable(StringBuilder result, Selectable selectable, String indent) {
+		result.append(indent);
+		if(selectable instanceof Column) {
+			Column column = (Column) selectable;
+			result.append("column ").append(column.getQuotedName())
+				.append(' ').append(column.getSqlTypeCode())
+				.append(' ').append(column.getSqlType())
+				.append(' ').append(column.getLength())
+				.append(' ').append(column.getPrecision())
+				.append(' ').append(column.getScale())
+				.append(' ').append(column.isNullable())
+				.append(' ').append(column.isUnique())
+				.append(' ').append(column.getDefaultValue())
+				.append(' ').append(column.getCheckConstraint())
+				.append(' ').append(column.getComment());
+		} else {
+			result.append("formula ").append(selectable.getText());
+		}
+		result.append('\n');
+	}
+
+	private static void describeTable(StringBuilder result, Table table) {
+		if(table==null) {
+			return;
+		}
+		result.append("table ").append(table.getCatalog())
+			.append(' ').append(table.getSchema())
+			.append(' ').append(table.getQuotedName())
+			.append(' ').append(table.getSubselect())
+			.append(' ').append(table.getRowId())
+			.append(' ').append(table.getComment())
+			.append('\n');
+		List<String> keys = new ArrayList<String>();
+		for (Iterator<?> iter = table.getForeignKeyIterator(); iter.hasNext();) {
+			ForeignKey fk = (ForeignKey) iter.next();
+			keys.add("fk " + fk.getName() + ' ' + describeColumns(fk.getColumnIterator()) + "-> " + fk.getReferencedEntityName());
+		}
+		for (Iterator<Index> iter = table.getIndexIterator(); iter.hasNext();) {
+			Index index = iter.next();
+			keys.add("index " + index.getName() + ' ' + describeColumns(index.getColumnIterator()));
+		}
+		for (Iterator<UniqueKey> iter = table.getUniqueKeyIterator(); iter.hasNext();) {
+			UniqueKey uniqueKey = iter.next();
+			keys.add("unique " + uniqueKey.getName() + ' ' + describeColumns(uniqueKey.getColumnIterator()));
+		}
+		Collections.sort(keys);
+		for (Iterator<String> iter = keys.iterator(); iter.hasNext();) {
+			result.append(iter.next()).append('\n');
+		}
+	}
+
+	private static String describeColumns(Iterator<?> columns) {
+		StringBuilder result = new StringBuilder();
+		while (columns.hasNext()) {
+			result.append(((Column) columns.next()).getName()).append(' ');
+		}
+		return result.toString();
+	}
+
+	private static void describeMetaAttributes(StringBuilder result, Map<?, ?> metaAttributes, String indent) {
+		if(metaAttributes==null || metaAttributes.isEmpty()) {
+			return;
+		}
+		Map<String, List<?>> sorted = new TreeMap<String, List<?>>();
+		for (Iterator<?> iter = metaAttributes.values().iterator(); iter.hasNext();) {
+			MetaAttribute metaAttribute = (MetaAttribute) iter.next();
+			sorted.put(metaAttribute.getName(), metaAttribute.getValues());
+		}
+		result.append(indent).append("meta ").append(sorted).append('\n');
+	}
+
+	private static Map<Object, Object> sorted(Map<?, ?> values) {
+		return values==null ? null : new TreeMap<Object, Object>(values);
+	}
+
+	private static void addReference(Set<String> references, String entityName) {
+		if(references!=null && entityName!=null) {
+			references.add(entityName);
+		}
+	}
+
+}
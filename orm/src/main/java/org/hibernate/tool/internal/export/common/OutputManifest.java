@@ -0,0 +1,156 @@
+package org.hibernate.tool.internal.export.common;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+
+import org.jboss.logging.Logger;
+
+/**
+ * Sidecar file in an output directory that records, per generated file, the hash of the content
+ * produced by the template together with the length and modification time of the file after
+ * it was written and formatted. A file whose template output has the same hash and which was not
+ * touched since is known to be up to date without reading it, even when formatting changed it.
+ */
+public class OutputManifest {
+
+	public static final String FILE_NAME = ".hibernatetool-manifest";
+
+	private static final Logger log = Logger.getLogger(OutputManifest.class);
+
+	private final File directory;
+	private final File file;
+	private final Map<String, String[]> entries = new HashMap<String, String[]>();
+	private final Set<String> touched = new HashSet<String>();
+
+	public OutputManifest(File directory) {
+		this.directory = directory;
+		this.file = new File(directory, FILE_NAME);
+		load();
+	}
+
+	public File getFile() {
+		return file;
+	}
+
+	/**
+	 * @return whether destination is up to date with template output of the given hash,
+	 * or null if the manifest does not know since destination changed after it was recorded.
+	 */
+	public synchronized Boolean isUnchanged(File destination, String hash) {
+		String key = getKey(destination);
+		String[] entry = key==null ? null : entries.get(key);
+		if(entry==null || entry[1]==null
+				|| !String.valueOf(destination.length()).equals(entry[1])
+				|| !String.valueOf(destination.lastModified()).equals(entry[2])) {
+			return null;
+		}
+		return Boolean.valueOf(entry[0].equals(hash));
+	}
+
+	/**
+	 * Records the hash of the template output for destination. Its length and modification time are
+	 * recorded when the manifest is stored, i.e. after formatting.
+	 */
+	public synchronized void put(File destination, String hash) {
+		String key = getKey(destination);
+		if(key==null) {
+			return;
+		}
+		entries.put(key, new String[] { hash, null, null });
+		touched.add(key);
+	}
+
+	public synchronized void store() {
+		for (Iterator<String> iter = touched.iterator(); iter.hasNext();) {
+			String key = iter.next();
+			File destination = new File(directory, key);
+			String[] entry = entries.get(key);
+			if(destination.isFile()) {
+				entry[1] = String.valueOf(destination.length());
+				entry[2] = String.valueOf(destination.lastModified());
+			} else {
+				entries.remove(key);
+			}
+		}
+		touched.clear();
+		if(entries.isEmpty() && !file.exists()) {
+			return;
+		}
+		Properties properties = new Properties();
+		for (Iterator<Map.Entry<String, String[]>> iter = entries.entrySet().iterator(); iter.hasNext();) {
+			Map.Entry<String, String[]> entry = iter.next();
+			properties.setProperty(entry.getKey(), entry.getValue()[0] + ' ' + entry.getValue()[1] + ' ' + entry.getValue()[2]);
+		}
+		OutputStream out = null;
+		try {
+			out = new FileOutputStream(file);
+			properties.store(out, "Content hashes of the files generated by Hibernate Tools");
+		}
+		catch (IOException e) {
+			throw new RuntimeException("Could not write " + file, e);
+		}
+		finally {
+			close(out);
+		}
+	}
+
+	private void load() {
+		if(!file.isFile()) {
+			return;
+		}
+		Properties properties = new Properties();
+		InputStream in = null;
+		try {
+			in = new FileInputStream(file);
+			properties.load(in);
+		}
+		catch (IOException e) {
+			log.warn("Could not read " + file + ", all files will be compared with their new content", e);
+			return;
+		}
+		finally {
+			close(in);
+		}
+		for (Iterator<String> iter = properties.stringPropertyNames().iterator(); iter.hasNext();) {
+			String key = iter.next();
+			String[] entry = properties.getProperty(key).split(" ");
+			if(entry.length==3) {
+				entries.put(key, entry);
+			}
+		}
+	}
+
+	/**
+	 * @return the path of destination relative to the directory of the manifest, or null if it lies outside it
+	 */
+	private String getKey(File destination) {
+		String path = destination.getAbsolutePath();
+		String root = directory.getAbsolutePath() + File.separator;
+		if(!path.startsWith(root)) {
+			return null;
+		}
+		return path.substring(root.length()).replace(File.separatorChar, '/');
+	}
+
+	private static void close(Closeable closeable) {
+		if(closeable!=null) {
+			try {
+				closeable.close();
+			}
+			catch (IOException ignore) {
+			}
+		}
+	}
+
+}
@@ -0,0 +1,165 @@
+package org.hibernate.tool.internal.export.common;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import org.jboss.logging.Logger;
+
+/**
+ * Maps the files one exporter generated into an output directory to the hash of their inputs, i.e. the
+ * model fragment, the templates and the exporter settings they were rendered from. A later run only renders
+ * the files whose input hash changed, and deletes the files of the previous run that were not generated again.
+ *
+ * Each exporter configuration (see GenericExporter) keeps a manifest of its own, so exporters writing to the
+ * same directory never delete each other's files.
+ */
+public class RegenerationManifest {
+
+	public static final String FILE_PREFIX = ".hibernatetool-inputs-";
+
+	private static final Logger log = Logger.getLogger(RegenerationManifest.class);
+
+	private final File directory;
+	private final File file;
+	private final Map<String, String> previous = new HashMap<String, String>();
+	private final Map<String, String> current = new HashMap<String, String>();
+
+	/**
+	 * @param scope identifies the exporter configuration, becomes part of the file name
+	 */
+	public RegenerationManifest(File directory, String scope) {
+		this.directory = directory;
+		this.file = new File(directory, FILE_PREFIX + scope);
+		load();
+	}
+
+	public File getFile() {
+		return file;
+	}
+
+	/**
+	 * @return true if output was generated from inputs with the given hash in the previous run and still exists
+	 */
+	public synchronized boolean isUpToDate(File output, String inputHash) {
+		String key = getKey(output);
+		return key!=null && inputHash.equals(previous.get(key)) && output.isFile();
+	}
+
+	public synchronized void put(File output, String inputHash) {
+		String key = getKey(output);
+		if(key!=null) {
+			current.put(key, inputHash);
+		}
+	}
+
+	/**
+	 * Keeps the entry of the previous run for output, which was not generated again since it is up to date.
+	 */
+	public synchronized void keep(File output) {
+		String key = getKey(output);
+		if(key!=null && previous.containsKey(key)) {
+			current.put(key, previous.get(key));
+		}
+	}
+
+	/**
+	 * Deletes the files of the previous run that were neither generated again nor kept.
+	 * @return the deleted files
+	 */
+	public synchronized List<File> deleteOrphans() {
+		List<File> result = new ArrayList<File>();
+		for (Iterator<String> iter = previous.keySet().iterator(); iter.hasNext();) {
+			String key = iter.next();
+			if(current.containsKey(key)) {
+				continue;
+			}
+			File orphan = new File(directory, key);
+			if(orphan.isFile()) {
+				if(orphan.delete()) {
+					log.debug("Deleted " + orphan + " since it is no longer generated");
+					result.add(orphan);
+				} else {
+					log.warn("Could not delete " + orphan + " which is no longer generated");
+				}
+			}
+		}
+		return result;
+	}
+
+	public synchronized void store() {
+		if(current.isEmpty() && !file.exists()) {
+			return;
+		}
+		Properties properties = new Properties();
+		properties.putAll(current);
+		OutputStream out = null;
+		try {
+			directory.mkdirs();
+			out = new FileOutputStream(file);
+			properties.store(out, "Input hashes of the files generated by Hibernate Tools");
+		}
+		catch (IOException e) {
+			throw new RuntimeException("Could not write " + file, e);
+		}
+		finally {
+			close(out);
+		}
+	}
+
+	private void load() {
+		if(!file.isFile()) {
+			return;
+		}
+		Properties properties = new Properties();
+		InputStream in = null;
+		try {
+			in = new FileInputStream(file);
+			properties.load(in);
+		}
+		catch (IOException e) {
+			log.warn("Could not read " + file + ", all files will be generated", e);
+			return;
+		}
+		finally {
+			close(in);
+		}
+		for (Iterator<String> iter = properties.stringPropertyNames().iterator(); iter.hasNext();) {
+			String key = iter.next();
+			previous.put(key, properties.getProperty(key));
+		}
+	}
+
+	/**
+	 * @return the path of output relative to the directory of the manifest, or null if it lies outside it
+	 */
+	private String getKey(File output) {
+		String path = output.getAbsoluteFile().toPath().normalize().toString();
+		String root = directory.getAbsoluteFile().toPath().normalize().toString() + File.separator;
+		if(!path.startsWith(root)) {
+			return null;
+		}
+		return path.substring(root.length()).replace(File.separatorChar, '/');
+	}
+
+	private static void close(Closeable closeable) {
+		if(closeable!=null) {
+			try {
+				closeable.close();
+			}
+			catch (IOException ignore) {
+			}
+		}
+	}
+
+}
@@ -0,0 +1,26 @@
+package org.hibernate.tool.internal.export.common;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Reader;
+
+import org.hibernate.tool.api.export.ArtifactPostProcessor;
+
+/**
+ * A post processor that reads the content from a stream and writes the result to one, so the exporters 
+ * need not hold the content of the files it processes in memory. It chooses the encoding of its output.
+ */
+public interface StreamingArtifactPostProcessor extends ArtifactPostProcessor {
+
+	/**
+	 * @param file the file the output is written to
+	 */
+	void process(File file, Reader input, OutputStream output) throws IOException;
+
+	/**
+	 * Processes the content the file already has and replaces it with the result.
+	 */
+	void process(File file) throws IOException;
+
+}
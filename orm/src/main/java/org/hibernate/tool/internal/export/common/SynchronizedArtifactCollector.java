@@ -0,0 +1,83 @@
+package org.hibernate.tool.internal.export.common;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.hibernate.tool.api.export.ArtifactCollector;
+import org.hibernate.tool.api.export.ArtifactPostProcessor;
+
+/**
+ * Serializes the calls to an ArtifactCollector that is shared by several export threads.
+ * Skipped and processed files are reported with addFile when the delegate is no ExtendedArtifactCollector.
+ */
+public class SynchronizedArtifactCollector implements ExtendedArtifactCollector {
+
+	private final ArtifactCollector delegate;
+
+	public SynchronizedArtifactCollector(ArtifactCollector delegate) {
+		this.delegate = delegate;
+	}
+
+	public synchronized void addFile(File file, String type) {
+		delegate.addFile(file, type);
+	}
+
+	public synchronized void addSkippedFile(File file, String type) {
+		if(delegate instanceof ExtendedArtifactCollector) {
+			((ExtendedArtifactCollector) delegate).addSkippedFile(file, type);
+		} else {
+			delegate.addFile(file, type);
+		}
+	}
+
+	public synchronized void addProcessedFile(File file, String type) {
+		if(delegate instanceof ExtendedArtifactCollector) {
+			((ExtendedArtifactCollector) delegate).addProcessedFile(file, type);
+		} else {
+			delegate.addFile(file, type);
+		}
+	}
+
+	public synchronized void addPostProcessor(String type, ArtifactPostProcessor postProcessor) {
+		if(!(delegate instanceof ExtendedArtifactCollector)) {
+			throw new UnsupportedOperationException(delegate.getClass().getName() + " does not support post processors");
+		}
+		((ExtendedArtifactCollector) delegate).addPostProcessor(type, postProcessor);
+	}
+
+	public synchronized List<ArtifactPostProcessor> getPostProcessors(String type) {
+		if(!(delegate instanceof ExtendedArtifactCollector)) {
+			return Collections.emptyList();
+		}
+		return new ArrayList<ArtifactPostProcessor>(((ExtendedArtifactCollector) delegate).getPostProcessors(type));
+	}
+
+	public synchronized int getFileCount(String type) {
+		return delegate.getFileCount(type);
+	}
+
+	public synchronized File[] getFiles(String type) {
+		return delegate.getFiles(type);
+	}
+
+	public synchronized Set<String> getFileTypes() {
+		return new HashSet<String>(delegate.getFileTypes());
+	}
+
+	public synchronized int getSkippedFileCount(String type) {
+		return delegate instanceof ExtendedArtifactCollector ? ((ExtendedArtifactCollector) delegate).getSkippedFileCount(type) : 0;
+	}
+
+	public synchronized File[] getSkippedFiles(String type) {
+		return delegate instanceof ExtendedArtifactCollector ? ((ExtendedArtifactCollector) delegate).getSkippedFiles(type) : new File[0];
+	}
+
+	public synchronized void formatFiles() {
+		delegate.formatFiles();
+	}
+
+}
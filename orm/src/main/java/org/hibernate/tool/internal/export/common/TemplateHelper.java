@@ -7,15 +7,24 @@ package org.hibernate.tool.internal.export.common;
 
 import java.io.BufferedWriter;
 import java.io.File;
+import java.io.FileNotFoundException;
 import java.io.FileWriter;
+import java.io.FilterReader;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
 import java.io.Reader;
 import java.io.StringReader;
 import java.io.Writer;
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
+import org.hibernate.tool.api.export.OutputSink;
 import org.hibernate.tool.api.version.Version;
 import org.jboss.logging.Logger;
 
@@ -32,6 +41,8 @@ import freemarker.template.TemplateDateModel;
 import freemarker.template.TemplateException;
 import freemarker.template.TemplateModel;
 import freemarker.template.TemplateModelException;
+import freemarker.template.TemplateModelIterator;
+import freemarker.template.TemplateScalarModel;
 
 
 /**
@@ -48,7 +59,19 @@ public class TemplateHelper {
 	
     private String templatePrefix;
 	private File outputDirectory;
+	private OutputManifest outputManifest;
+	private OutputSink outputSink;
 
+	/** the most template paths whose FreeMarker configuration is kept for later TemplateHelpers */
+	private static final int MAX_CONFIGURATIONS = 16;
+
+	private static final Map<List<File>, Configuration> configurations = new LinkedHashMap<List<File>, Configuration>(MAX_CONFIGURATIONS, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+		protected boolean removeEldestEntry(Map.Entry<List<File>, Configuration> eldest) {
+			return size() > MAX_CONFIGURATIONS;
+		}
+	};
+	
 	protected Configuration freeMarkerEngine;
 
 	protected SimpleHash context;
@@ -61,36 +84,181 @@ public class TemplateHelper {
         this.outputDirectory = outputDirectory;
         
         context = new SimpleHash(new BeansWrapperBuilder(Configuration.VERSION_2_3_0).build());
-    	freeMarkerEngine = new Configuration(Configuration.VERSION_2_3_0);
         
-        List<TemplateLoader> loaders = new ArrayList<TemplateLoader>();
+        List<File> directories = new ArrayList<File>();
         
         for (int i = 0; i < templatePaths.length; i++) {
         	File file = new File(templatePaths[i]);
         	if(file.exists() && file.isDirectory()) {
-        		try {
-					loaders.add(new FileTemplateLoader(file));
-				}
-				catch (IOException e) {
-					throw new RuntimeException("Problems with templatepath " + file, e);
-				}
+        		directories.add(file.getAbsoluteFile());
         	} else {
         		log.warn("template path" + file + " either does not exist or is not a directory");
         	}
 		}
-        loaders.add(new ClassTemplateLoader(this.getClass(),"/")); // the template names are like pojo/Somewhere so have to be a rooted classpathloader
         
-        freeMarkerEngine.setTemplateLoader(new MultiTemplateLoader((TemplateLoader[]) loaders.toArray(new TemplateLoader[loaders.size()])));
+        freeMarkerEngine = getConfiguration(directories);
+    }
+    
+    /**
+     * The FreeMarker configurations are shared by all TemplateHelpers with the same template path, so each 
+     * template is parsed once per process; only the configurations of the last MAX_CONFIGURATIONS template 
+     * paths used are kept. Templates from the template path are checked for modification on every use and 
+     * parsed again when they changed, templates from the classpath are looked up once.
+     */
+    private static synchronized Configuration getConfiguration(List<File> directories) {
+    	Configuration result = configurations.get(directories);
+    	if(result==null) {
+    		result = createConfiguration(directories);
+    		configurations.put(directories, result);
+    	}
+    	return result;
+    }
+    
+    private static Configuration createConfiguration(List<File> directories) {
+    	Configuration result = new Configuration(Configuration.VERSION_2_3_0);
+        
+        List<TemplateLoader> loaders = new ArrayList<TemplateLoader>();
+        
+        for (Iterator<File> iter = directories.iterator(); iter.hasNext();) {
+        	File file = iter.next();
+        	try {
+        		loaders.add(new FileTemplateLoader(file));
+        	}
+        	catch (IOException e) {
+        		throw new RuntimeException("Problems with templatepath " + file, e);
+        	}
+		}
+        loaders.add(new ClasspathTemplateLoader()); 
         
+        MultiTemplateLoader loader = new MultiTemplateLoader((TemplateLoader[]) loaders.toArray(new TemplateLoader[loaders.size()]));
+        loader.setSticky(false); // so templates added to the template path later take precedence
+        result.setTemplateLoader(loader);
+        result.setTemplateUpdateDelayMilliseconds(0); // the ClasspathTemplateLoader makes this cheap for the built-in templates
+        return result;
     }
     
+    /**
+     * Loads the templates from the classpath, where they do not change while the process runs. It only asks the 
+     * class loader whether a template exists the first time and always reports it as unmodified, so FreeMarker's 
+     * check for modified templates on every use costs a map lookup.
+     */
+    private static class ClasspathTemplateLoader implements TemplateLoader {
+
+    	// the template names are like pojo/Somewhere so have to be a rooted classpathloader
+    	private final TemplateLoader delegate = new ClassTemplateLoader(TemplateHelper.class,"/");
+    	
+    	private final ConcurrentMap<String, Boolean> found = new ConcurrentHashMap<String, Boolean>();
+
+		public Object findTemplateSource(String name) throws IOException {
+			Boolean result = found.get(name);
+			if(result==null) {
+				Object source = delegate.findTemplateSource(name);
+				if(source!=null) {
+					delegate.closeTemplateSource(source);
+				}
+				result = Boolean.valueOf(source!=null);
+				found.put(name, result);
+			}
+			return result.booleanValue() ? name : null;
+		}
+
+		public long getLastModified(Object templateSource) {
+			return 0;
+		}
+
+		public Reader getReader(Object templateSource, String encoding) throws IOException {
+			final Object source = delegate.findTemplateSource((String) templateSource);
+			if(source==null) {
+				throw new FileNotFoundException("Template " + templateSource + " not found on the classpath");
+			}
+			return new FilterReader(delegate.getReader(source, encoding)) {
+				private boolean closed = false;
+				public void close() throws IOException {
+					if(closed) {
+						return; // FreeMarker may close it twice, the source must only be closed once
+					}
+					closed = true;
+					try {
+						super.close();
+					} 
+					finally {
+						delegate.closeTemplateSource(source);
+					}
+				}
+			};
+		}
+
+		public void closeTemplateSource(Object templateSource) {
+		}
+    	
+    }
+    
+    /**
+     * Creates a helper for rendering in another thread. It shares the template engine and sees the 
+     * context of this helper, which must not change while the worker is in use; its own putInContext 
+     * and removeFromContext calls only affect a context of its own layered on top.
+     * Call this from the thread that owns this helper.
+     */
+    public TemplateHelper createWorkerHelper() {
+    	wrapContextValues();
+    	TemplateHelper result = new TemplateHelper();
+    	result.templatePrefix = templatePrefix;
+    	result.outputDirectory = outputDirectory;
+    	result.outputManifest = outputManifest;
+    	result.outputSink = outputSink;
+    	result.freeMarkerEngine = freeMarkerEngine;
+    	result.context = new LayeredHash(context);
+    	result.context.put("ctx", result.context);
+    	return result;
+    }
+    
+    /**
+     * SimpleHash wraps and stores its values on first access; doing that upfront 
+     * makes the context safe to read from several threads.
+     */
+    private void wrapContextValues() {
+    	try {
+    		TemplateModelIterator keys = context.keys().iterator();
+    		while (keys.hasNext()) {
+    			context.get(((TemplateScalarModel) keys.next()).getAsString());
+    		}
+    	}
+    	catch (TemplateModelException e) {
+    		throw new RuntimeException("Could not prepare template context for sharing", e);
+    	}
+    }
+    
+    /**
+     * A context that falls back to a shared parent context for the keys it does not hold itself.
+     */
+    private static class LayeredHash extends SimpleHash {
+    	
+		private static final long serialVersionUID = 1L;
+		
+		private final SimpleHash parent;
+    	
+    	LayeredHash(SimpleHash parent) {
+    		super(parent.getObjectWrapper());
+    		this.parent = parent;
+    	}
+    	
+    	public TemplateModel get(String key) throws TemplateModelException {
+    		TemplateModel result = super.get(key);
+    		return result!=null ? result : parent.get(key);
+    	}
+    	
+    }
     
     public class Templates {
     	    	
     	public void createFile(String content, String fileName) {
     		Writer fw = null;
     		try {
-    		fw = new BufferedWriter(new FileWriter(new File(getOutputDirectory(), fileName)));
+    		if(outputSink!=null) {
+    			fw = new BufferedWriter(new OutputStreamWriter(outputSink.openStream(getOutputPath(new File(getOutputDirectory(), fileName)), false)));
+    		} else {
+    			fw = new BufferedWriter(new FileWriter(new File(getOutputDirectory(), fileName)));
+    		}
     		fw.write(content);
     		} catch(IOException io) {
     			throw new RuntimeException("Problem when writing to " + fileName, io);
@@ -111,6 +279,43 @@ public class TemplateHelper {
 		return outputDirectory;
 	}
 
+    /**
+     * @return the manifest of the content generated into the output directory, or null if none is kept
+     */
+    public OutputManifest getOutputManifest() {
+		return outputManifest;
+	}
+
+    public void setOutputManifest(OutputManifest outputManifest) {
+		this.outputManifest = outputManifest;
+	}
+
+    /**
+     * @return the sink generated files are written to, or null if they are written to the output directory as files
+     */
+    public OutputSink getOutputSink() {
+		return outputSink;
+	}
+
+    public void setOutputSink(OutputSink outputSink) {
+		this.outputSink = outputSink;
+	}
+
+    /**
+     * @return the path of file relative to the output directory, which addresses it in the output sink
+     */
+    public String getOutputPath(File file) {
+    	if(outputDirectory==null) {
+    		return file.getPath().replace(File.separatorChar, '/');
+    	}
+    	String path = file.getAbsoluteFile().toPath().normalize().toString();
+    	String root = outputDirectory.getAbsoluteFile().toPath().normalize().toString() + File.separator;
+    	if(!path.startsWith(root)) {
+    		throw new RuntimeException(file + " is not located in the output directory " + outputDirectory);
+    	}
+    	return path.substring(root.length()).replace(File.separatorChar, '/');
+    }
+
 	
 	   
     public void putInContext(String key, Object value) {
@@ -138,7 +343,7 @@ public class TemplateHelper {
     		throw new RuntimeException("The path: " + dir.getAbsolutePath() + " exists, but is not a directory");
     	} 	// else make the directory and any non-existent parent directories
     	else if ( !dir.exists() ) {
-    		if ( !dir.mkdirs() ) {
+    		if ( !dir.mkdirs() && !dir.isDirectory() ) { // another export thread may have created it meanwhile
     			if(dir.getName().equals(".")) { // Workaround that Linux/JVM apparently can't handle mkdirs of File's with current dir references.
     				if(dir.getParentFile().mkdirs()) {
     					return;
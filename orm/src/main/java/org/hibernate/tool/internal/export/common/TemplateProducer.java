@@ -1,21 +1,45 @@
 package org.hibernate.tool.internal.export.common;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
 import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileWriter;
+import java.io.FileInputStream;
+import java.io.FilterWriter;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.StringReader;
 import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.hibernate.tool.api.export.ArtifactCollector;
+import org.hibernate.tool.api.export.ArtifactPostProcessor;
 import org.jboss.logging.Logger;
 
 
 public class TemplateProducer {
 
 	private static final Logger log = Logger.getLogger(TemplateProducer.class);
+	private static final AtomicLong tempFileCounter = new AtomicLong();
 	private final TemplateHelper th;
 	private ArtifactCollector ac;
 	
@@ -26,54 +50,337 @@ public class TemplateProducer {
 	
 	public void produce(Map<String,Object> additionalContext, String templateName, File destination, String identifier, String fileType, String rootContext) {
 		
-		String tempResult = produceToString( additionalContext, templateName, rootContext );
-		
-		if(tempResult.trim().length()==0) {
-			log.warn("Generated output is empty. Skipped creation for file " + destination);
+		if(th.getOutputSink()!=null) {
+			produceToSink(additionalContext, templateName, destination, identifier, fileType, rootContext);
 			return;
 		}
-		FileWriter fileWriter = null;
+		th.ensureExistence( destination );
+		File tempFile = null;
 		try {
-			
-			th.ensureExistence( destination );    
-	     
-			ac.addFile(destination, fileType);
+			// rendered straight to a file next to the destination, which replaces the destination once complete
+			tempFile = new File(
+					destination.getAbsoluteFile().getParentFile(), 
+					"." + destination.getName() + "." + Long.toHexString(tempFileCounter.incrementAndGet()) + Long.toHexString(System.nanoTime()) + ".tmp");
+			MessageDigest digest = newDigest();
+			List<ArtifactPostProcessor> postProcessors = getPostProcessors(fileType);
+			StreamingArtifactPostProcessor streamingPostProcessor = getStreamingPostProcessor(postProcessors);
+			boolean empty;
+			if(postProcessors.isEmpty()) {
+				empty = produceToFile( additionalContext, templateName, tempFile, digest, rootContext );
+			} else if(streamingPostProcessor!=null) {
+				empty = produceStreamedToFile( additionalContext, templateName, destination, tempFile, digest, rootContext, streamingPostProcessor );
+			} else {
+				empty = produceProcessedToFile( additionalContext, templateName, destination, tempFile, digest, rootContext, postProcessors );
+			}
+			if(empty) {
+				log.warn("Generated output is empty. Skipped creation for file " + destination);
+				return;
+			}
+			String hash = toHex(digest.digest());
+			OutputManifest manifest = th.getOutputManifest();
+			if(isUnchanged(destination, tempFile, hash, manifest)) {
+				addSkippedFile(destination, fileType);
+				log.debug("Skipping " + identifier + " since " + destination.getAbsolutePath() + " is unchanged" );
+				return;
+			}
+			if(postProcessors.isEmpty()) {
+				ac.addFile(destination, fileType);
+			} else {
+				addProcessedFile(destination, fileType);
+			}
 			log.debug("Writing " + identifier + " to " + destination.getAbsolutePath() );
-			fileWriter = new FileWriter(destination);
-            fileWriter.write(tempResult);			
+			moveIntoPlace(tempFile, destination);
+			tempFile = null;
+			if(manifest!=null) {
+				manifest.put(destination, hash);
+			}
 		} 
-		catch (Exception e) {
+		catch (IOException e) {
 		    throw new RuntimeException("Error while writing result to file", e);	
-		} finally {
-			if(fileWriter!=null) {
+		} 
+		finally {
+			if(tempFile!=null && tempFile.exists() && !tempFile.delete()) {
+				log.warn("Could not delete " + tempFile);
+			}
+		}
+		
+	}
+
+	/**
+	 * @return true if the template produced nothing but whitespace
+	 */
+	private boolean produceToFile(Map<String,Object> additionalContext, String templateName, File file, MessageDigest digest, String rootContext) throws IOException {
+		WhitespaceTrackingWriter writer = new WhitespaceTrackingWriter(newWriter(file, digest));
+		try {
+			processTemplate( additionalContext, templateName, writer, rootContext );
+		} 
+		finally {
+			writer.close();
+		}
+		return writer.isBlank();
+	}
+
+	/**
+	 * Renders to a file of its own and streams it through the post processor into file, so the content 
+	 * is not held in memory.
+	 * @return true if the template produced nothing but whitespace
+	 */
+	private boolean produceStreamedToFile(Map<String,Object> additionalContext, String templateName, File destination, File file, MessageDigest digest, String rootContext, StreamingArtifactPostProcessor postProcessor) throws IOException {
+		File rendered = new File(file.getParentFile(), file.getName() + ".raw");
+		try {
+			if(produceToFile( additionalContext, templateName, rendered, null, rootContext )) {
+				return true;
+			}
+			Reader input = new BufferedReader(new InputStreamReader(new FileInputStream(rendered), Charset.defaultCharset()));
+			try {
+				OutputStream output = newOutputStream(file, digest);
 				try {
-					fileWriter.flush();
-					fileWriter.close();
+					postProcessor.process(destination, input, output);
+				}
+				finally {
+					output.close();
 				}
-				catch (IOException e) {
-					log.warn("Exception while flushing/closing " + destination,e);
-				}				
+			}
+			finally {
+				input.close();
+			}
+			return false;
+		}
+		finally {
+			if(rendered.exists() && !rendered.delete()) {
+				log.warn("Could not delete " + rendered);
 			}
 		}
-		
 	}
 
+	/**
+	 * Renders into memory and applies the post processors before writing, so the file is written once.
+	 * @return true if the template produced nothing but whitespace
+	 */
+	private boolean produceProcessedToFile(Map<String,Object> additionalContext, String templateName, File destination, File file, MessageDigest digest, String rootContext, List<ArtifactPostProcessor> postProcessors) throws IOException {
+		StringWriter output = new StringWriter();
+		processTemplate( additionalContext, templateName, output, rootContext );
+		String content = output.toString();
+		if(content.trim().length()==0) {
+			return true;
+		}
+		for (Iterator<ArtifactPostProcessor> iter = postProcessors.iterator(); iter.hasNext();) {
+			content = iter.next().process(destination, content);
+		}
+		Writer writer = newWriter(file, digest);
+		try {
+			writer.write(content);
+		} 
+		finally {
+			writer.close();
+		}
+		return false;
+	}
 
-	private String produceToString(Map<String,Object> additionalContext, String templateName, String rootContext) {
-		Map<String,Object> contextForFirstPass = additionalContext;
-		putInContext( th, contextForFirstPass );		
-		StringWriter tempWriter = new StringWriter();
-		BufferedWriter bw = new BufferedWriter(tempWriter);
-		// First run - writes to in-memory string
-		th.processTemplate(templateName, bw, rootContext);
-		removeFromContext( th, contextForFirstPass );
+	/**
+	 * Renders into memory, applies the post processors and writes the result as one entry of the output sink.
+	 * A streaming post processor writes its result to the entry directly.
+	 */
+	private void produceToSink(Map<String,Object> additionalContext, String templateName, File destination, String identifier, String fileType, String rootContext) {
+		StringWriter output = new StringWriter();
+		processTemplate( additionalContext, templateName, output, rootContext );
+		String content = output.toString();
+		if(content.trim().length()==0) {
+			log.warn("Generated output is empty. Skipped creation for file " + destination);
+			return;
+		}
+		List<ArtifactPostProcessor> postProcessors = getPostProcessors(fileType);
+		StreamingArtifactPostProcessor streamingPostProcessor = getStreamingPostProcessor(postProcessors);
+		if(streamingPostProcessor==null) {
+			for (Iterator<ArtifactPostProcessor> iter = postProcessors.iterator(); iter.hasNext();) {
+				content = iter.next().process(destination, content);
+			}
+		}
+		String path = th.getOutputPath(destination);
+		log.debug("Writing " + identifier + " to " + path + " in " + th.getOutputSink() );
 		try {
-			bw.flush();
+			OutputStream out = th.getOutputSink().openStream(path, false);
+			try {
+				if(streamingPostProcessor!=null) {
+					streamingPostProcessor.process(destination, new StringReader(content), out);
+				} else {
+					out.write(content.getBytes(Charset.defaultCharset()));
+				}
+			}
+			finally {
+				out.close();
+			}
 		}
 		catch (IOException e) {
-			throw new RuntimeException("Error while flushing to string",e);
+			throw new RuntimeException("Error while writing result to " + path, e);
 		}
-		return tempWriter.toString();
+		addProcessedFile(destination, fileType);
+	}
+
+	private List<ArtifactPostProcessor> getPostProcessors(String fileType) {
+		if(ac instanceof ExtendedArtifactCollector) {
+			return ((ExtendedArtifactCollector) ac).getPostProcessors(fileType);
+		}
+		return Collections.emptyList();
+	}
+
+	/**
+	 * @return the post processor if it is the only one and streams, null otherwise
+	 */
+	private static StreamingArtifactPostProcessor getStreamingPostProcessor(List<ArtifactPostProcessor> postProcessors) {
+		if(postProcessors.size()==1 && postProcessors.get(0) instanceof StreamingArtifactPostProcessor) {
+			return (StreamingArtifactPostProcessor) postProcessors.get(0);
+		}
+		return null;
+	}
+
+	private void addProcessedFile(File destination, String fileType) {
+		if(ac instanceof ExtendedArtifactCollector) {
+			((ExtendedArtifactCollector) ac).addProcessedFile(destination, fileType);
+		} else {
+			ac.addFile(destination, fileType);
+		}
+	}
+
+	private void addSkippedFile(File destination, String fileType) {
+		if(ac instanceof ExtendedArtifactCollector) {
+			((ExtendedArtifactCollector) ac).addSkippedFile(destination, fileType);
+		} else {
+			ac.addFile(destination, fileType);
+		}
+	}
+
+	private void processTemplate(Map<String,Object> additionalContext, String templateName, Writer writer, String rootContext) {
+		putInContext( th, additionalContext );		
+		th.processTemplate(templateName, writer, rootContext);
+		removeFromContext( th, additionalContext );
+	}
+
+	private static Writer newWriter(File file, MessageDigest digest) throws IOException {
+		return new BufferedWriter(new OutputStreamWriter(newOutputStream(file, digest), Charset.defaultCharset()));
+	}
+
+	/**
+	 * @param digest updated with what is written, unless null
+	 */
+	private static OutputStream newOutputStream(File file, MessageDigest digest) throws IOException {
+		OutputStream out = Files.newOutputStream(file.toPath(), StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+		if(digest!=null) {
+			out = new DigestOutputStream(out, digest);
+		}
+		return new BufferedOutputStream(out);
+	}
+
+	/**
+	 * The manifest knows whether the destination still holds the output of the previous run, also when it was
+	 * formatted since. Without a manifest entry the new output is compared with the destination byte by byte.
+	 */
+	private static boolean isUnchanged(File destination, File output, String hash, OutputManifest manifest) throws IOException {
+		if(!destination.isFile()) {
+			return false;
+		}
+		if(manifest!=null) {
+			Boolean unchanged = manifest.isUnchanged(destination, hash);
+			if(unchanged!=null) {
+				return unchanged.booleanValue();
+			}
+		}
+		return hasSameContent(output, destination);
+	}
+
+	static boolean hasSameContent(File file, File other) throws IOException {
+		if(file.length()!=other.length()) {
+			return false;
+		}
+		InputStream in = new BufferedInputStream(new FileInputStream(file));
+		try {
+			InputStream otherIn = new BufferedInputStream(new FileInputStream(other));
+			try {
+				int b;
+				do {
+					b = in.read();
+					if(b!=otherIn.read()) {
+						return false;
+					}
+				} while (b!=-1);
+				return true;
+			}
+			finally {
+				otherIn.close();
+			}
+		}
+		finally {
+			in.close();
+		}
+	}
+
+	private static MessageDigest newDigest() {
+		try {
+			return MessageDigest.getInstance("SHA-1");
+		}
+		catch (NoSuchAlgorithmException e) {
+			throw new RuntimeException("SHA-1 is not available", e);
+		}
+	}
+
+	private static String toHex(byte[] bytes) {
+		StringBuilder result = new StringBuilder(bytes.length * 2);
+		for (int i = 0; i < bytes.length; i++) {
+			result.append(Character.forDigit((bytes[i] >> 4) & 0xF, 16));
+			result.append(Character.forDigit(bytes[i] & 0xF, 16));
+		}
+		return result.toString();
+	}
+
+	static void moveIntoPlace(File source, File destination) throws IOException {
+		try {
+			Files.move(source.toPath(), destination.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} 
+		catch (AtomicMoveNotSupportedException e) {
+			Files.move(source.toPath(), destination.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+
+	/**
+	 * Remembers whether anything but whitespace (as defined by String.trim) was written.
+	 */
+	static class WhitespaceTrackingWriter extends FilterWriter {
+		
+		private boolean blank = true;
+		
+		WhitespaceTrackingWriter(Writer out) {
+			super(out);
+		}
+		
+		public void write(int c) throws IOException {
+			if(blank && c > ' ') {
+				blank = false;
+			}
+			out.write(c);
+		}
+		
+		public void write(char[] cbuf, int off, int len) throws IOException {
+			for (int i = off; blank && i < off + len; i++) {
+				if(cbuf[i] > ' ') {
+					blank = false;
+				}
+			}
+			out.write(cbuf, off, len);
+		}
+		
+		public void write(String str, int off, int len) throws IOException {
+			for (int i = off; blank && i < off + len; i++) {
+				if(str.charAt(i) > ' ') {
+					blank = false;
+				}
+			}
+			out.write(str, off, len);
+		}
+		
+		boolean isBlank() {
+			return blank;
+		}
+		
 	}
 
 	private void removeFromContext(TemplateHelper templateHelper, Map<String,Object> context) {
@@ -0,0 +1,82 @@
+package org.hibernate.tool.internal.export.common;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.hibernate.tool.api.export.OutputSink;
+
+/**
+ * Writes the entries into a single zip file, which is complete once the sink is closed.
+ * Every entry is buffered until its stream is closed and then added to the archive, 
+ * so several threads can write entries at once. An entry cannot be replaced once it was 
+ * added, and streams appending to an entry are refused.
+ */
+public class ZipOutputSink implements OutputSink {
+
+	private final ZipOutputStream zip;
+	private final Set<String> paths = new HashSet<String>();
+
+	public ZipOutputSink(File file) throws IOException {
+		this(new ZipOutputStream(new BufferedOutputStream(new FileOutputStream(file))));
+	}
+
+	protected ZipOutputSink(ZipOutputStream zip) {
+		this.zip = zip;
+	}
+
+	@Override
+	public OutputStream openStream(final String path, boolean append) throws IOException {
+		if(append) {
+			throw new IOException("Cannot append to the entry " + path + " of a zip file");
+		}
+		synchronized (zip) {
+			if(paths.contains(path)) {
+				throw new IOException("The zip file already holds an entry " + path);
+			}
+		}
+		return new ByteArrayOutputStream() {
+			private boolean closed = false;
+			public void close() throws IOException {
+				if(closed) {
+					return;
+				}
+				closed = true;
+				addEntry(path, buf, count);
+			}
+		};
+	}
+
+	private void addEntry(String path, byte[] content, int length) throws IOException {
+		synchronized (zip) {
+			if(!paths.add(path)) {
+				throw new IOException("The zip file already holds an entry " + path);
+			}
+			zip.putNextEntry(new ZipEntry(path));
+			zip.write(content, 0, length);
+			zip.closeEntry();
+		}
+	}
+
+	@Override
+	public boolean exists(String path) {
+		synchronized (zip) {
+			return paths.contains(path);
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		synchronized (zip) {
+			zip.close();
+		}
+	}
+
+}
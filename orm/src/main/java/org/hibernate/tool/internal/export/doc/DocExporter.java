@@ -156,6 +156,10 @@ public class DocExporter extends AbstractExporter {
 		String cmd = getProperties().getProperty( "dot.executable" );
 		boolean ignoreError = Boolean.parseBoolean(getProperties().getProperty("dot.ignoreerror", "false"));
 		
+		if(StringHelper.isNotEmpty( cmd ) && getProperties().get(OUTPUT_SINK)!=null) {
+			log.warn( "Skipping entitygraph creation since dot reads and writes files, which the configured output sink does not provide." );
+			return false;
+		}
 		if(StringHelper.isNotEmpty( cmd )) {
 			try {
 				GenericExporter exporter = new GenericExporter();
@@ -292,11 +296,12 @@ public class DocExporter extends AbstractExporter {
             DocFile hibernateLogoDocFile = docFileManager.getHibernateImageDocFile();
 
             DocFileManager.copy(this.getClass().getClassLoader(), FILE_HIBERNATE_IMAGE,
-                    hibernateLogoDocFile.getFile() );
+                    getOutputSink(), getTemplateHelper().getOutputPath(hibernateLogoDocFile.getFile()) );
 
             DocFile extendsImageDocFile = docFileManager.getExtendsImageDocFile();
                         
-            DocFileManager.copy(this.getClass().getClassLoader(), FILE_EXTENDS_IMAGE, extendsImageDocFile.getFile());
+            DocFileManager.copy(this.getClass().getClassLoader(), FILE_EXTENDS_IMAGE, 
+            		getOutputSink(), getTemplateHelper().getOutputPath(extendsImageDocFile.getFile()));
             
             DocFile mainIndexDocFile = docFileManager.getMainIndexDocFile();
 
@@ -4,11 +4,13 @@ import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
 
 import org.hibernate.mapping.Table;
+import org.hibernate.tool.api.export.OutputSink;
 import org.hibernate.tool.internal.export.pojo.POJOClass;
 
 /**
@@ -468,6 +470,38 @@ public class DocFileManager {
         return from.buildRefTo(to);
     }
 
+    /**
+     * Copy a resource to an entry of an output sink.
+     * 
+     * @param fileName the name of the resource to copy.
+     * @param sink the sink to copy to.
+     * @param path the path of the entry in the sink.
+     * 
+     * @throws IOException in case of error.
+     */
+    public static void copy(ClassLoader loader, String fileName, OutputSink sink, String path) throws IOException {
+        InputStream is = loader.getResourceAsStream( fileName );
+        if(is==null) {
+            throw new IllegalArgumentException("File not found: " + fileName);
+        }
+        try {
+            OutputStream out = sink.openStream(path, false);
+            try {
+                byte[] buffer = new byte[8192];
+                int length;
+                while ( (length = is.read(buffer) ) != -1) {
+                    out.write(buffer, 0, length);
+                }
+            }
+            finally {
+                out.close();
+            }
+        } 
+        finally {
+            is.close();
+        }
+    }
+
     /**
      * Copy a File.
      * 
@@ -69,6 +69,17 @@ public class HibernateMappingExporter extends GenericExporter {
 		// we don't want component's exported.
 	}
 	
+	protected String describeSettings() {
+		return super.describeSettings() + "hmgs " 
+				+ globalSettings.getSchemaName() + ' ' 
+				+ globalSettings.getCatalogName() + ' ' 
+				+ globalSettings.getDefaultCascade() + ' ' 
+				+ globalSettings.getDefaultAccess() + ' ' 
+				+ globalSettings.getDefaultPackage() + ' ' 
+				+ globalSettings.isDefaultLazy() + ' ' 
+				+ globalSettings.isAutoImport() + '\n';
+	}
+	
 	public String getName() {
 		return "hbm2hbmxml";
 	}
@@ -1,8 +1,14 @@
 package org.hibernate.tool.internal.export.lint;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
 import java.util.TreeMap;
@@ -46,7 +52,12 @@ public class SchemaByMetaDataDetector extends RelationalModelDetector {
 
 	private TableSelectorStrategy tableSelector;
 
-	private DatabaseCollector dbc;
+	private String defaultCatalog;
+
+	private String defaultSchema;
+
+	/** the tables of all catalogs and schemas the mapping refers to, by upper case name; read on first use */
+	private Map<String, List<Table>> dbTables;
 
 	private Dialect dialect;
 
@@ -64,16 +75,27 @@ public class SchemaByMetaDataDetector extends RelationalModelDetector {
 
 		tableSelector = new TableSelectorStrategy(
 				new DefaultReverseEngineeringStrategy() );
+		Properties properties = Environment.getProperties();
 		reader = JdbcReaderFactory.newJDBCReader( 
-				Environment.getProperties(),
+				properties,
 				tableSelector, 
 				serviceRegistry);
-		dbc = new DefaultDatabaseCollector(reader.getMetaDataDialect());
+		defaultCatalog = properties.getProperty(AvailableSettings.DEFAULT_CATALOG);
+		defaultSchema = properties.getProperty(AvailableSettings.DEFAULT_SCHEMA);
+		dbTables = null;
 	}
 
 	public void visit(IssueCollector collector) {
-		super.visit(collector);		
-		visitGenerators(collector);				
+		// one session, so the tables and generators are all checked with the same connection
+		reader.beginSession();
+		try {
+			super.visit(collector);		
+			visitGenerators(collector);
+		} 
+		finally {
+			dbTables = null;
+			reader.endSession();
+		}
 	}
 	
 	public void visitGenerators(IssueCollector collector) {
@@ -113,35 +135,31 @@ public class SchemaByMetaDataDetector extends RelationalModelDetector {
 	}
 
 	private boolean isTable(Object key) throws HibernateException {
-		// BIG HACK - should probably utilize the table cache before going to the jdbcreader :(
+		String[] name = toQualifiedName(key);
+		return name!=null && !findDbTables(name[0], name[1], name[2]).isEmpty();
+	}
+
+	/**
+	 * @return catalog, schema and name of a generator key that may denote a table, otherwise null
+	 */
+	private String[] toQualifiedName(Object key) {
 		if(key instanceof String) {
 			String[] strings = StringHelper.split(".", (String) key);
 			if(strings.length==1) {
-				tableSelector.clearSchemaSelections();
-				tableSelector.addSchemaSelection( new SchemaSelection(null,null, strings[0]) );
-				List<?> list = reader.readDatabaseSchema( dbc, null, null );
-				return !list.isEmpty();
+				return new String[] { null, null, strings[0] };
 			} else if(strings.length==3) {
-				tableSelector.clearSchemaSelections();
-				tableSelector.addSchemaSelection( new SchemaSelection(strings[0],strings[1], strings[2]) );
-				List<?> list = reader.readDatabaseSchema( dbc, null, null );
-				return !list.isEmpty();
+				return strings;
 			} else if (strings.length==2) {
-				tableSelector.clearSchemaSelections();
-				tableSelector.addSchemaSelection( new SchemaSelection(null,strings[0], strings[1]) );
-				List<?> list = reader.readDatabaseSchema( dbc, null, null );
-				return !list.isEmpty();
+				return new String[] { null, strings[0], strings[1] };
 			}
 		}
-		return false;
+		return null;
 	}
 	
 	public void visit(Table table, IssueCollector pc) {
 
 		if ( table.isPhysicalTable() ) {
-			setSchemaSelection( table );
-
-			List<?> list = reader.readDatabaseSchema( dbc, null, null );
+			List<?> list = findDbTables( table );
 
 			if ( list.isEmpty() ) {
 				pc.reportIssue( new Issue( "SCHEMA_TABLE_MISSING",
@@ -169,6 +187,107 @@ public class SchemaByMetaDataDetector extends RelationalModelDetector {
 		}
 	}
 
+	/**
+	 * @return the tables read from the database with the given name; a catalog or schema that is not 
+	 * specified stands for the default one, or for any if there is no default. Names are matched 
+	 * ignoring case, as the database may store them in another case than the mapping uses, unless 
+	 * they are quoted or an exact match exists.
+	 */
+	private List<Table> findDbTables(String catalog, String schema, String name) {
+		return findDbTables(catalog, false, schema, false, name, false);
+	}
+
+	private List<Table> findDbTables(Table table) {
+		return findDbTables(
+				table.getCatalog(), table.isCatalogQuoted(), 
+				table.getSchema(), table.isSchemaQuoted(), 
+				table.getName(), table.isQuoted());
+	}
+
+	private List<Table> findDbTables(String catalog, boolean catalogQuoted, String schema, boolean schemaQuoted, String name, boolean quoted) {
+		if(dbTables==null) {
+			dbTables = readDbTables();
+		}
+		catalog = catalog==null ? defaultCatalog : catalog;
+		schema = schema==null ? defaultSchema : schema;
+		List<Table> result = new ArrayList<Table>();
+		List<Table> exact = new ArrayList<Table>();
+		List<Table> candidates = dbTables.get(toKey(name));
+		if(candidates!=null) {
+			for (Iterator<Table> iter = candidates.iterator(); iter.hasNext();) {
+				Table candidate = iter.next();
+				if(matches(catalog, catalogQuoted, candidate.getCatalog()) 
+						&& matches(schema, schemaQuoted, candidate.getSchema())
+						&& matches(name, quoted, candidate.getName())) {
+					result.add(candidate);
+					if((catalog==null || catalog.equals(candidate.getCatalog())) 
+							&& (schema==null || schema.equals(candidate.getSchema()))
+							&& name.equals(candidate.getName())) {
+						exact.add(candidate);
+					}
+				}
+			}
+		}
+		return exact.isEmpty() ? result : exact;
+	}
+
+	private static boolean matches(String name, boolean quoted, String dbName) {
+		if(name==null) {
+			return true;
+		}
+		return quoted ? name.equals(dbName) : name.equalsIgnoreCase(dbName);
+	}
+
+	private static String toKey(String name) {
+		return name==null ? null : name.toUpperCase(Locale.ENGLISH);
+	}
+
+	/**
+	 * Reads all tables of the catalogs and schemas referred to by the mapped tables and generators 
+	 * with one readDatabaseSchema call, instead of one call per table.
+	 */
+	private Map<String, List<Table>> readDbTables() {
+		Set<List<String>> scopes = new LinkedHashSet<List<String>>();
+		for (Iterator<Table> iter = getMetadata().collectTableMappings().iterator(); iter.hasNext();) {
+			Table table = iter.next();
+			if(table.isPhysicalTable()) {
+				scopes.add(toScope(table.getCatalog(), table.getSchema()));
+			}
+		}
+		for (Iterator<?> iter = iterateGenerators(); iter.hasNext();) {
+			String[] name = toQualifiedName(((PersistentIdentifierGenerator) iter.next()).generatorKey());
+			if(name!=null) {
+				scopes.add(toScope(name[0], name[1]));
+			}
+		}
+		tableSelector.clearSchemaSelections();
+		for (Iterator<List<String>> iter = scopes.iterator(); iter.hasNext();) {
+			List<String> scope = iter.next();
+			tableSelector.addSchemaSelection(new SchemaSelection(scope.get(0), scope.get(1)));
+		}
+		DatabaseCollector dbc = new DefaultDatabaseCollector(reader.getMetaDataDialect());
+		Map<String, List<Table>> result = new HashMap<String, List<Table>>();
+		if(!scopes.isEmpty()) {
+			reader.readDatabaseSchema( dbc, null, null );
+		}
+		for (Iterator<Table> iter = dbc.iterateTables(); iter.hasNext();) {
+			Table table = iter.next();
+			List<Table> tables = result.get(toKey(table.getName()));
+			if(tables==null) {
+				tables = new ArrayList<Table>(1);
+				result.put(toKey(table.getName()), tables);
+			}
+			tables.add(table);
+		}
+		return result;
+	}
+
+	private List<String> toScope(String catalog, String schema) {
+		return Arrays.asList(
+				catalog==null ? defaultCatalog : catalog, 
+				schema==null ? defaultSchema : schema);
+	}
+
 	String table(Table t) {
 		return TableNameQualifier.qualify( t.getCatalog(), t.getSchema(), t.getName() );
 	}
@@ -204,13 +323,6 @@ public class SchemaByMetaDataDetector extends RelationalModelDetector {
 		}
 	}
 
-	private void setSchemaSelection(Table table) {
-		tableSelector.clearSchemaSelections();
-		tableSelector.addSchemaSelection( new SchemaSelection( table
-				.getCatalog(), table.getSchema(), table.getName() ) );
-
-	}
-
 	/**
 	 * 
 	 * @param cfg 
@@ -1,8 +1,6 @@
 package org.hibernate.tool.internal.export.query;
 
 import java.io.File;
-import java.io.FileWriter;
-import java.io.IOException;
 import java.io.PrintWriter;
 import java.util.Iterator;
 import java.util.List;
@@ -11,7 +9,10 @@ import org.hibernate.HibernateException;
 import org.hibernate.Session;
 import org.hibernate.SessionFactory;
 import org.hibernate.Transaction;
+import org.hibernate.boot.Metadata;
+import org.hibernate.tool.api.metadata.MetadataDescriptor;
 import org.hibernate.tool.internal.export.common.AbstractExporter;
+import org.hibernate.tool.internal.metadata.MemoizingMetadataDescriptor;
 
 /** 
  * exporter for query execution.
@@ -28,38 +29,31 @@ public class QueryExporter extends AbstractExporter {
 		SessionFactory sessionFactory = null;
 		Transaction transaction = null;
 		try {	
-			sessionFactory = buildMetadata().buildSessionFactory();
+			sessionFactory = buildUnsharedMetadata().buildSessionFactory();
 			session = sessionFactory.openSession();
 			transaction = session.beginTransaction();
+			PrintWriter pw = null;
+			if(getFileName()!=null) {
+				pw = new PrintWriter( newOutputWriter( new File( getOutputDirectory(), getFileName() ), "query-output", true ) );
+			}
 			for (Iterator<String> iter = queryStrings.iterator(); iter.hasNext();) {
 				String query = (String) iter.next();
 				
 				List<Object> list = session.createQuery(query).getResultList();
 				
-				if(getFileName()!=null) {
-					PrintWriter pw = null;
-					try {
-						File file = new File( getOutputDirectory(), getFileName() );
-						getTemplateHelper().ensureExistence( file );
-						pw = new PrintWriter( new FileWriter( file, true ) );			
-						getArtifactCollector().addFile( file, "query-output" );
-						
-						for (Iterator<Object> iter1 = list.iterator(); iter1.hasNext();) {
-							Object element = iter1.next();
-							pw.println(element);
-						}
-						
-					}
-					catch (IOException e) {
-						throw new RuntimeException("Could not write query output",e);
-					} finally {
-						if(pw!=null) {
-							pw.flush();
-							pw.close();
-						}
+				if(pw!=null) {
+					for (Iterator<Object> iter1 = list.iterator(); iter1.hasNext();) {
+						Object element = iter1.next();
+						pw.println(element);
 					}
 				}
 			}
+			if(pw!=null) {
+				pw.close();
+				if(pw.checkError()) {
+					throw new RuntimeException("Could not write query output");
+				}
+			}
 			transaction.commit();
 		} catch(HibernateException he) {
 			if(transaction!=null) {
@@ -77,6 +71,18 @@ public class QueryExporter extends AbstractExporter {
 		}
 	}
 
+	/**
+	 * Closing the SessionFactory destroys the service registry of its Metadata, so the queries 
+	 * must not run against Metadata shared with other exporters.
+	 */
+	private Metadata buildUnsharedMetadata() {
+		MetadataDescriptor descriptor = getMetadataDescriptor();
+		if(descriptor instanceof MemoizingMetadataDescriptor) {
+			descriptor = ((MemoizingMetadataDescriptor)descriptor).getDelegate();
+		}
+		return descriptor.createMetadata();
+	}
+
 	private String getFileName() {
 		return filename;
 	}
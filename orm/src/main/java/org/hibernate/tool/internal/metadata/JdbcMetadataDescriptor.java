@@ -1,6 +1,8 @@
 package org.hibernate.tool.internal.metadata;
 
+import java.io.File;
 import java.util.Properties;
+import java.util.Set;
 
 import org.hibernate.MappingException;
 import org.hibernate.boot.Metadata;
@@ -23,6 +25,8 @@ import org.hibernate.tool.api.metadata.MetadataDescriptor;
 import org.hibernate.tool.api.reveng.ReverseEngineeringStrategy;
 import org.hibernate.tool.internal.reveng.DefaultReverseEngineeringStrategy;
 import org.hibernate.tool.internal.reveng.JdbcBinder;
+import org.hibernate.tool.internal.reveng.RevengSettings;
+import org.hibernate.tool.internal.reveng.TableFingerprints;
 import org.hibernate.type.Type;
 
 public class JdbcMetadataDescriptor implements MetadataDescriptor {
@@ -30,6 +34,9 @@ public class JdbcMetadataDescriptor implements MetadataDescriptor {
 	private ReverseEngineeringStrategy reverseEngineeringStrategy = new DefaultReverseEngineeringStrategy();
     private boolean preferBasicCompositeIds = true;
     private Properties properties = new Properties();
+    private TableFingerprints previousFingerprints;
+    private TableFingerprints pendingFingerprints;
+    private Set<String> changedTables;
 
 	public JdbcMetadataDescriptor(
 			ReverseEngineeringStrategy reverseEngineeringStrategy, 
@@ -79,13 +86,55 @@ public class JdbcMetadataDescriptor implements MetadataDescriptor {
 				metadataBuildingContext, 
 				reverseEngineeringStrategy, 
 				preferBasicCompositeIds);
+		File fingerprintsFile = getFingerprintsFile();
+		if (fingerprintsFile != null) {
+			if (previousFingerprints == null) {
+				previousFingerprints = TableFingerprints.load(fingerprintsFile);
+			}
+			binder.setPreviousFingerprints(previousFingerprints);
+		}
 		binder.readFromDatabase(
 				null, 
 				null, 
 				buildMapping(metadata));	
+		if (fingerprintsFile != null) {
+			changedTables = binder.getChangedTables();
+			pendingFingerprints = binder.getFingerprints();
+		}
 		return metadata;
 	}
 	
+	/**
+	 * In incremental mode stores the fingerprints of the tables read by the last call to {@link #createMetadata()},
+	 * so the next run compares against them. Call it once every exporter using the metadata finished successfully:
+	 * as long as it is not called the next run regenerates the same tables. An exporter started on its own calls it 
+	 * when it is done, an {@link org.hibernate.tool.api.export.ExporterPipeline} once all its exporters are.
+	 */
+	public synchronized void storeFingerprints() {
+		File fingerprintsFile = getFingerprintsFile();
+		if (fingerprintsFile != null && pendingFingerprints != null) {
+			pendingFingerprints.store(fingerprintsFile);
+			pendingFingerprints = null;
+		}
+	}
+	
+	/**
+	 * In incremental mode (see {@link RevengSettings#INCREMENTAL_FINGERPRINTS}) the keys 
+	 * (see {@link TableFingerprints#getKey(org.hibernate.mapping.Table, String, String)}) of the tables
+	 * that changed since the run that wrote the fingerprints, including their foreign key neighbours.
+	 * The fingerprints read at the first call to {@link #createMetadata()} stay the baseline for later calls.
+	 * 
+	 * @return the changed tables or null if not in incremental mode or no metadata was created yet
+	 */
+	public Set<String> getChangedTables() {
+		return changedTables;
+	}
+	
+	private File getFingerprintsFile() {
+		String fingerprints = properties.getProperty(RevengSettings.INCREMENTAL_FINGERPRINTS);
+		return fingerprints == null ? null : new File(fingerprints);
+	}
+	
 	private InFlightMetadataCollectorImpl getMetadataCollector(
 		BootstrapContext bootstrapContext,
 		MetadataBuildingOptions metadataBuildingOptions) {
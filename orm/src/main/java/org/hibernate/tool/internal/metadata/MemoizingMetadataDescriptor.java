@@ -0,0 +1,44 @@
+package org.hibernate.tool.internal.metadata;
+
+import java.util.Properties;
+
+import org.hibernate.boot.Metadata;
+import org.hibernate.tool.api.metadata.MetadataDescriptor;
+
+/**
+ * Creates the Metadata of another descriptor once and hands the same instance to every caller, so
+ * several exporters share one model, e.g. one reverse engineering run. The exporters must treat the
+ * shared Metadata as read-only.
+ */
+public class MemoizingMetadataDescriptor implements MetadataDescriptor {
+
+	private final MetadataDescriptor delegate;
+	private Metadata metadata;
+
+	public MemoizingMetadataDescriptor(MetadataDescriptor delegate) {
+		this.delegate = delegate;
+	}
+
+	public MetadataDescriptor getDelegate() {
+		return delegate;
+	}
+
+	public synchronized Metadata createMetadata() {
+		if(metadata==null) {
+			metadata = delegate.createMetadata();
+		}
+		return metadata;
+	}
+
+	/**
+	 * @return whether the Metadata was created already
+	 */
+	public synchronized boolean isCreated() {
+		return metadata!=null;
+	}
+
+	public Properties getProperties() {
+		return delegate.getProperties();
+	}
+
+}
@@ -2,15 +2,16 @@ package org.hibernate.tool.internal.reveng;
 
 import java.sql.DatabaseMetaData;
 import java.util.Iterator;
-import java.util.Map;
 
 import org.hibernate.JDBCException;
 import org.hibernate.mapping.Column;
 import org.hibernate.mapping.Table;
+import org.hibernate.tool.api.dialect.ColumnRow;
 import org.hibernate.tool.api.dialect.MetaDataDialect;
 import org.hibernate.tool.api.reveng.ProgressListener;
 import org.hibernate.tool.api.reveng.ReverseEngineeringStrategy;
 import org.hibernate.tool.api.reveng.TableIdentifier;
+import org.hibernate.tool.internal.dialect.MetaDataRows;
 import org.hibernate.tool.internal.util.JdbcToHibernateTypeHelper;
 import org.hibernate.tool.internal.util.TableNameQualifier;
 import org.jboss.logging.Logger;
@@ -27,22 +28,22 @@ public class BasicColumnProcessor {
 			ProgressListener progress) {
 		
 		String qualify = TableNameQualifier.qualify(table.getCatalog(), table.getSchema(), table.getName() );
-		Iterator<?> columnIterator = null;
+		Iterator<ColumnRow> columnIterator = null;
 		
 		try {
-			Map<?, ?> columnRs = null;
+			ColumnRow columnRs = null;
 			log.debug("Finding columns for " + qualify );
 			progress.startSubTask("Finding columns for " + qualify);
-			columnIterator = metaDataDialect.getColumns(getCatalogForDBLookup(table.getCatalog(), defaultCatalog), getSchemaForDBLookup(table.getSchema(), defaultSchema), table.getName(), null);
+			columnIterator = MetaDataRows.getColumnRows(metaDataDialect, getCatalogForDBLookup(table.getCatalog(), defaultCatalog), getSchemaForDBLookup(table.getSchema(), defaultSchema), table.getName(), null);
 			//dumpHeader(columnRs);
 			while (columnIterator.hasNext() ) {
 				//dumpRow(columnRs);
-				columnRs = (Map<?, ?>) columnIterator.next();
-				String tableName = (String) columnRs.get("TABLE_NAME");
-				int sqlType = ((Integer)columnRs.get("DATA_TYPE")).intValue();
-				//String sqlTypeName = (String) columnRs.get("TYPE_NAME");
-				String columnName = (String) columnRs.get("COLUMN_NAME");
-				String comment = (String) columnRs.get("REMARKS");
+				columnRs = columnIterator.next();
+				String tableName = columnRs.getTableName();
+				int sqlType = columnRs.getDataType();
+				//String sqlTypeName = columnRs.getTypeName();
+				String columnName = columnRs.getColumnName();
+				String comment = columnRs.getRemarks();
 				
 				TableIdentifier ti = RevEngUtils.createTableIdentifier(table, defaultCatalog, defaultSchema);
 				if(revengStrategy.excludeColumn(ti, columnName)) {
@@ -55,7 +56,7 @@ public class BasicColumnProcessor {
 				}
 				
 				//String columnDefaultValue = columnRs.getString("COLUMN_DEF"); TODO: only read if have a way to avoid issues with clobs/lobs and similar
-				int dbNullability = ((Integer)columnRs.get("NULLABLE")).intValue();
+				int dbNullability = columnRs.getNullable();
 				boolean isNullable = true;
 				switch (dbNullability) {
 				case DatabaseMetaData.columnNullable:
@@ -69,8 +70,8 @@ public class BasicColumnProcessor {
 					isNullable = true;
 				}
 				
-				int size = ((Integer)columnRs.get("COLUMN_SIZE")).intValue();
-				int decimalDigits = ((Integer)columnRs.get("DECIMAL_DIGITS")).intValue();
+				int size = columnRs.getColumnSize();
+				int decimalDigits = columnRs.getDecimalDigits();
 				
 				Column column = new Column();
 				column.setName(quote(columnName, metaDataDialect));
@@ -112,7 +113,7 @@ public class BasicColumnProcessor {
 			
 			if(columnIterator!=null) {
 				try {
-					metaDataDialect.close(columnIterator);
+					MetaDataRows.close(metaDataDialect, columnIterator);
 				} catch(JDBCException se) {
 					log.warn("Exception while closing iterator for column meta data",se);
 				}
@@ -0,0 +1,91 @@
+package org.hibernate.tool.internal.reveng;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The Hibernate types resolved for column type signatures, i.e. the sql type, length, precision, scale,
+ * nullability and whether the column is a generated identifier. Large schemas repeat a few dozen
+ * signatures over all their columns, so a strategy whose type only depends on the signature resolves
+ * it once per signature. Types that depend on the table or column, like explicit column overrides,
+ * must be looked up before the cache.
+ *
+ * Can be used by several threads at once.
+ */
+public class ColumnTypeCache {
+
+	/** stands for a signature known to resolve to null */
+	private static final String NO_TYPE = new String();
+
+	private final ConcurrentMap<Signature, String> types = new ConcurrentHashMap<Signature, String>();
+
+	/**
+	 * @return the type cached for the signature, or null if it resolved to null or was not resolved yet
+	 */
+	public String get(Signature signature) {
+		String result = types.get(signature);
+		return result==NO_TYPE ? null : result;
+	}
+
+	public boolean contains(Signature signature) {
+		return types.containsKey(signature);
+	}
+
+	public void put(Signature signature, String type) {
+		types.put(signature, type==null ? NO_TYPE : type);
+	}
+
+	public void clear() {
+		types.clear();
+	}
+
+	public int size() {
+		return types.size();
+	}
+
+	public static final class Signature {
+
+		private final int sqlType;
+		private final int length;
+		private final int precision;
+		private final int scale;
+		private final boolean nullable;
+		private final boolean generatedIdentifier;
+
+		public Signature(int sqlType, int length, int precision, int scale, boolean nullable, boolean generatedIdentifier) {
+			this.sqlType = sqlType;
+			this.length = length;
+			this.precision = precision;
+			this.scale = scale;
+			this.nullable = nullable;
+			this.generatedIdentifier = generatedIdentifier;
+		}
+
+		public boolean equals(Object obj) {
+			if(this==obj) return true;
+			if(!(obj instanceof Signature)) return false;
+			Signature other = (Signature) obj;
+			return sqlType==other.sqlType
+					&& length==other.length
+					&& precision==other.precision
+					&& scale==other.scale
+					&& nullable==other.nullable
+					&& generatedIdentifier==other.generatedIdentifier;
+		}
+
+		public int hashCode() {
+			int result = sqlType;
+			result = 31 * result + length;
+			result = 31 * result + precision;
+			result = 31 * result + scale;
+			result = 31 * result + (nullable ? 1 : 0);
+			return 31 * result + (generatedIdentifier ? 1 : 0);
+		}
+
+		public String toString() {
+			return "t:" + sqlType + " l:" + length + " p:" + precision + " s:" + scale + " n:" + nullable + " id:" + generatedIdentifier;
+		}
+
+	}
+
+}
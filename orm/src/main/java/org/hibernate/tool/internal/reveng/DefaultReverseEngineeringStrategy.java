@@ -22,6 +22,7 @@ import org.hibernate.tool.api.reveng.ReverseEngineeringSettings;
 import org.hibernate.tool.api.reveng.ReverseEngineeringStrategy;
 import org.hibernate.tool.api.reveng.SchemaSelection;
 import org.hibernate.tool.api.reveng.TableIdentifier;
+import org.hibernate.tool.internal.util.CachingNameConverter;
 import org.hibernate.tool.internal.util.JdbcToHibernateTypeHelper;
 import org.hibernate.tool.internal.util.NameConverter;
 import org.hibernate.tool.internal.util.TableNameQualifier;
@@ -36,6 +37,11 @@ public class DefaultReverseEngineeringStrategy implements ReverseEngineeringStra
 	private ReverseEngineeringSettings settings = new ReverseEngineeringSettings(this);
 
 	private ReverseEngineeringRuntimeInfo runtimeInfo;
+
+	private final CachingNameConverter names = new CachingNameConverter();
+
+	/** the default types only depend on the column type signature */
+	private final ColumnTypeCache defaultTypes = new ColumnTypeCache();
 	static {
 		AUTO_OPTIMISTICLOCK_COLUMNS = new HashSet<String>();
 		AUTO_OPTIMISTICLOCK_COLUMNS.add("version");
@@ -61,7 +67,7 @@ public class DefaultReverseEngineeringStrategy implements ReverseEngineeringStra
 	}
 	
 	protected String toUpperCamelCase(String s) {
-		return NameConverter.toUpperCamelCase(s);
+		return names.toUpperCamelCase(s);
 	}
 	
 	/**
@@ -85,7 +91,7 @@ public class DefaultReverseEngineeringStrategy implements ReverseEngineeringStra
     }
 
 	protected String pluralize(String singular) {
-		return NameConverter.simplePluralize(singular);
+		return names.simplePluralize(singular);
 	}
 
 	public String foreignKeyToInverseEntityName(String keyname,
@@ -113,10 +119,15 @@ public class DefaultReverseEngineeringStrategy implements ReverseEngineeringStra
     }
 	
 	public String columnToHibernateTypeName(TableIdentifier table, String columnName, int sqlType, int length, int precision, int scale, boolean nullable, boolean generatedIdentifier) {
-		String preferredHibernateType = JdbcToHibernateTypeHelper.getPreferredHibernateType(sqlType, length, precision, scale, nullable, generatedIdentifier);
+		ColumnTypeCache.Signature signature = new ColumnTypeCache.Signature(sqlType, length, precision, scale, nullable, generatedIdentifier);
+		String preferredHibernateType = defaultTypes.get(signature);
+		if(preferredHibernateType!=null) {
+			return preferredHibernateType;
+		}
+		preferredHibernateType = JdbcToHibernateTypeHelper.getPreferredHibernateType(sqlType, length, precision, scale, nullable, generatedIdentifier);
 		
-		String location = "<no info>";
 		if(log.isDebugEnabled()) {
+			String location = "<no info>";
 			String info = " t:" + JdbcToHibernateTypeHelper.getJDBCTypeName( sqlType ) + " l:" + length + " p:" + precision + " s:" + scale + " n:" + nullable + " id:" + generatedIdentifier;
 			if(table!=null) {
 				location = TableNameQualifier.qualify(table.getCatalog(), table.getSchema(), table.getName() ) + "." + columnName + info;
@@ -124,14 +135,17 @@ public class DefaultReverseEngineeringStrategy implements ReverseEngineeringStra
 				
 				location += " Column: " + columnName + info;
 			}			
+			if(preferredHibernateType==null) {
+				log.debug("No default type found for [" + location + "] falling back to [serializable]");
+			} else {
+				log.debug("Default type found for [" + location + "] to [" + preferredHibernateType + "]");		
+			}
 		}
 		if(preferredHibernateType==null) {
-			log.debug("No default type found for [" + location + "] falling back to [serializable]");
-			return "serializable";
-		} else {
-			log.debug("Default type found for [" + location + "] to [" + preferredHibernateType + "]");		
-			return preferredHibernateType;
-		}		
+			preferredHibernateType = "serializable";
+		}
+		defaultTypes.put(signature, preferredHibernateType);
+		return preferredHibernateType;
 	}
 
 	public boolean excludeTable(TableIdentifier ti) {		
@@ -15,7 +15,7 @@ import org.hibernate.tool.api.reveng.ReverseEngineeringStrategy;
 import org.hibernate.tool.api.reveng.SchemaSelection;
 import org.hibernate.tool.api.reveng.TableIdentifier;
 
-public class DelegatingReverseEngineeringStrategy implements ReverseEngineeringStrategy {
+public class DelegatingReverseEngineeringStrategy implements ReverseEngineeringStrategy, TableFilterPushdown {
 
 	ReverseEngineeringStrategy delegate;
 
@@ -35,6 +35,26 @@ public class DelegatingReverseEngineeringStrategy implements ReverseEngineeringS
 		return delegate==null?false:delegate.excludeTable(ti);
 	}
 	
+	/**
+	 * Narrowed by the delegate, unless a subclass overrides {@link #excludeTable(TableIdentifier)} 
+	 * and thus might include tables the delegate would exclude.
+	 */
+	public List<SchemaSelection> narrowSchemaSelection(SchemaSelection selection) {
+		if(delegate instanceof TableFilterPushdown && !overridesExcludeTable()) {
+			return ((TableFilterPushdown)delegate).narrowSchemaSelection(selection);
+		}
+		return null;
+	}
+	
+	private boolean overridesExcludeTable() {
+		try {
+			return getClass().getMethod("excludeTable", TableIdentifier.class).getDeclaringClass()!=DelegatingReverseEngineeringStrategy.class;
+		} 
+		catch (NoSuchMethodException e) {
+			return true;
+		}
+	}
+	
 	public boolean excludeColumn(TableIdentifier identifier, String columnName) {
 		return delegate==null?false:delegate.excludeColumn(identifier, columnName);
 	}
@@ -0,0 +1,59 @@
+package org.hibernate.tool.internal.reveng;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.hibernate.mapping.Column;
+import org.hibernate.mapping.ForeignKey;
+import org.hibernate.mapping.Table;
+
+/**
+ * The foreign keys of a table indexed by their leading column and by the table they reference, so the
+ * JdbcBinder finds the keys covering a primary key column, or tells whether a key is the only reference
+ * to its table, without scanning all foreign keys of the table each time.
+ *
+ * The index reflects the foreign keys the table had when it was built.
+ */
+public class ForeignKeyIndex {
+
+	private final Map<Column, List<ForeignKey>> byLeadingColumn = new HashMap<Column, List<ForeignKey>>();
+	private final Map<Table, Integer> referenceCounts = new IdentityHashMap<Table, Integer>();
+
+	public ForeignKeyIndex(Table table) {
+		for (Iterator<?> iter = table.getForeignKeyIterator(); iter.hasNext();) {
+			ForeignKey foreignKey = (ForeignKey) iter.next();
+			if(foreignKey.getColumnSpan() > 0) {
+				List<ForeignKey> keys = byLeadingColumn.get(foreignKey.getColumn(0));
+				if(keys==null) {
+					keys = new ArrayList<ForeignKey>(1);
+					byLeadingColumn.put(foreignKey.getColumn(0), keys);
+				}
+				keys.add(foreignKey);
+			}
+			Integer count = referenceCounts.get(foreignKey.getReferencedTable());
+			referenceCounts.put(foreignKey.getReferencedTable(), count==null ? 1 : count + 1);
+		}
+	}
+
+	/**
+	 * @return the foreign keys whose first column is column, in the order of the table
+	 */
+	public List<ForeignKey> getForeignKeysStartingWith(Column column) {
+		List<ForeignKey> keys = byLeadingColumn.get(column);
+		return keys==null ? Collections.<ForeignKey>emptyList() : keys;
+	}
+
+	/**
+	 * @return true if foreignKey is the only foreign key of the table referencing its referenced table
+	 */
+	public boolean isUniqueReference(ForeignKey foreignKey) {
+		Integer count = referenceCounts.get(foreignKey.getReferencedTable());
+		return count==null || count <= 1;
+	}
+
+}
@@ -11,11 +11,13 @@ import org.hibernate.MappingException;
 import org.hibernate.mapping.Column;
 import org.hibernate.mapping.ForeignKey;
 import org.hibernate.mapping.Table;
+import org.hibernate.tool.api.dialect.ForeignKeyRow;
 import org.hibernate.tool.api.dialect.MetaDataDialect;
 import org.hibernate.tool.api.reveng.DatabaseCollector;
 import org.hibernate.tool.api.reveng.ProgressListener;
 import org.hibernate.tool.api.reveng.ReverseEngineeringStrategy;
 import org.hibernate.tool.api.reveng.TableIdentifier;
+import org.hibernate.tool.internal.dialect.MetaDataRows;
 import org.hibernate.tool.internal.util.TableNameQualifier;
 import org.jboss.logging.Logger;
 
@@ -41,25 +43,25 @@ public class ForeignKeyProcessor {
 		
 		// first get all the relationships dictated by the database schema
 		
-		Iterator<Map<String, Object>> exportedKeyIterator = null;
+		Iterator<ForeignKeyRow> exportedKeyIterator = null;
 		
         log.debug("Calling getExportedKeys on " + referencedTable);
         progress.startSubTask("Finding exported foreignkeys on " + referencedTable.getName());
         try {
-        	Map<String, Object> exportedKeyRs = null;
-        	exportedKeyIterator = metaDataDialect.getExportedKeys(getCatalogForDBLookup(referencedTable.getCatalog(), defaultCatalog), getSchemaForDBLookup(referencedTable.getSchema(), defaultSchema), referencedTable.getName() );
+        	ForeignKeyRow exportedKeyRs = null;
+        	exportedKeyIterator = MetaDataRows.getExportedKeyRows(metaDataDialect, getCatalogForDBLookup(referencedTable.getCatalog(), defaultCatalog), getSchemaForDBLookup(referencedTable.getSchema(), defaultSchema), referencedTable.getName() );
         try {
 			while (exportedKeyIterator.hasNext() ) {
 				exportedKeyRs = exportedKeyIterator.next();
-				String fkCatalog = getCatalogForModel((String) exportedKeyRs.get("FKTABLE_CAT"), defaultCatalog);
-				String fkSchema = getSchemaForModel((String) exportedKeyRs.get("FKTABLE_SCHEM"), defaultSchema);
-				String fkTableName = (String) exportedKeyRs.get("FKTABLE_NAME");
-				String fkColumnName = (String) exportedKeyRs.get("FKCOLUMN_NAME");
-				String pkColumnName = (String) exportedKeyRs.get("PKCOLUMN_NAME");
-				String fkName = (String) exportedKeyRs.get("FK_NAME");
-				short keySeq = ((Short)exportedKeyRs.get("KEY_SEQ")).shortValue();
+				String fkCatalog = getCatalogForModel(exportedKeyRs.getFkTableCatalog(), defaultCatalog);
+				String fkSchema = getSchemaForModel(exportedKeyRs.getFkTableSchema(), defaultSchema);
+				String fkTableName = exportedKeyRs.getFkTableName();
+				String fkColumnName = exportedKeyRs.getFkColumnName();
+				String pkColumnName = exportedKeyRs.getPkColumnName();
+				String fkName = exportedKeyRs.getFkName();
+				short keySeq = exportedKeyRs.getKeySeq();
 								
-				Table fkTable = dbs.getTable((String) exportedKeyRs.get("FKTABLE_SCHEM"), (String) exportedKeyRs.get("FKTABLE_CAT"), fkTableName);
+				Table fkTable = dbs.getTable(exportedKeyRs.getFkTableSchema(), exportedKeyRs.getFkTableCatalog(), fkTableName);
 				
 				if (fkTable == null) {
 					fkTable = dbs.getTable(
@@ -126,7 +128,7 @@ public class ForeignKeyProcessor {
         finally {
         	try {
         		if(exportedKeyIterator!=null) {
-        			metaDataDialect.close(exportedKeyIterator);
+        			MetaDataRows.close(metaDataDialect, exportedKeyIterator);
         		}
         	} catch(JDBCException se) {
         		log.warn("Exception while closing result set for foreign key meta data",se);
@@ -5,27 +5,48 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.hibernate.engine.jdbc.connections.spi.ConnectionProvider;
 import org.hibernate.exception.spi.SQLExceptionConverter;
 import org.hibernate.mapping.ForeignKey;
 import org.hibernate.mapping.Table;
+import org.hibernate.tool.api.dialect.BulkMetaDataDialect;
 import org.hibernate.tool.api.dialect.MetaDataDialect;
+import org.hibernate.tool.api.dialect.TableRow;
 import org.hibernate.tool.api.reveng.DatabaseCollector;
 import org.hibernate.tool.api.reveng.ProgressListener;
 import org.hibernate.tool.api.reveng.ReverseEngineeringRuntimeInfo;
 import org.hibernate.tool.api.reveng.ReverseEngineeringStrategy;
 import org.hibernate.tool.api.reveng.SchemaSelection;
+import org.hibernate.tool.internal.dialect.PrefetchedMetaDataDialect;
+import org.hibernate.tool.internal.dialect.SchemaClones;
+import org.hibernate.tool.internal.dialect.SchemaStructure;
+import org.jboss.logging.Logger;
 
 public class JDBCReader {
 
+	private static final Logger log = Logger.getLogger(JDBCReader.class);
+
 	private final ReverseEngineeringStrategy revengStrategy;
 	
 	private MetaDataDialect metadataDialect;
@@ -37,6 +58,27 @@ public class JDBCReader {
 	private final String defaultSchema;
 	private final String defaultCatalog;
 	
+	private int parallelism = 1;
+	
+	private int queueSize = 100;
+	
+	private boolean bulkRead = false;
+	
+	private boolean cloneIdenticalSchemas = false;
+	
+	private boolean boundedMemory = false;
+	
+	private WorkerDialectFactory workerDialectFactory;
+	
+	private int sessions = 0;
+	
+	/**
+	 * Creates the MetaDataDialect instances used by the workers when reading in parallel.
+	 */
+	public interface WorkerDialectFactory {
+		MetaDataDialect createMetaDataDialect();
+	}
+	
 	public JDBCReader(MetaDataDialect dialect, ConnectionProvider provider, SQLExceptionConverter sec, String defaultCatalog, String defaultSchema, ReverseEngineeringStrategy reveng) {
 		this.metadataDialect = dialect;
 		this.provider = provider;
@@ -50,55 +92,445 @@ public class JDBCReader {
 	}
 		
 	public List<Table> readDatabaseSchema(DatabaseCollector dbs, String catalog, String schema, ProgressListener progress) {
+		beginSession();
 		try {
 			ReverseEngineeringRuntimeInfo info = 
 					ReverseEngineeringRuntimeInfo.createInstance(provider, sec, dbs);
 			getMetaDataDialect().configure(info);
 			revengStrategy.configure(info);
 			
-			Set<Table> hasIndices = new HashSet<Table>();
+			// synchronized since table discovery and the workers use it concurrently when streaming 
+			Set<Table> hasIndices = Collections.synchronizedSet(new HashSet<Table>());
 			
 			List<SchemaSelection> schemaSelectors = revengStrategy.getSchemaSelections();
-			List<Table> foundTables = new ArrayList<Table>();
 			if(schemaSelectors==null) {
-				foundTables.addAll(TableProcessor.processTables(getMetaDataDialect(), revengStrategy, defaultSchema, defaultCatalog, dbs, new SchemaSelection(catalog, schema), hasIndices, progress));
-			} else {
-				for (Iterator<SchemaSelection> iter = schemaSelectors.iterator(); iter.hasNext();) {
-					SchemaSelection selection = iter.next();
-					foundTables.addAll(TableProcessor.processTables(getMetaDataDialect(), revengStrategy, defaultSchema, defaultCatalog, dbs, selection, hasIndices, progress));
-				}
+				schemaSelectors = Collections.singletonList(new SchemaSelection(catalog, schema));
 			}
+			schemaSelectors = narrowSchemaSelections(schemaSelectors);
 			
-			Iterator<Table> tables = foundTables.iterator(); // not dbs.iterateTables() to avoid "double-read" of columns etc.
-			while ( tables.hasNext() ) {
-				Table table = tables.next();
-				BasicColumnProcessor.processBasicColumns(getMetaDataDialect(), revengStrategy, defaultSchema, defaultCatalog, table, progress);
-				PrimaryKeyProcessor.processPrimaryKey(getMetaDataDialect(), revengStrategy, defaultSchema, defaultCatalog, dbs, table);
-				if(hasIndices.contains(table)) {
-					IndexProcessor.processIndices(getMetaDataDialect(), defaultSchema, defaultCatalog, table);
+			List<Table> foundTables;
+			MetaDataDialect tableDialect = getMetaDataDialect();
+			boolean prefetch = bulkRead && tableDialect instanceof BulkMetaDataDialect;
+			if(parallelism>1) {
+				// shared by discovery and the workers
+				progress = synchronize(progress);
+			}
+			TableDiscovery discovery = new SchemaSelectionDiscovery(info, dbs, schemaSelectors, hasIndices, progress);
+			SchemaClones clones = new SchemaClones();
+			if(cloneIdenticalSchemas) {
+				// all tables have to be known to tell which schemas are identical
+				List<Table> found = discover(discovery);
+				clones = findSchemaClones(found, hasIndices);
+				clones.setReleaseRows(boundedMemory);
+				discovery = new FoundTableDiscovery(found);
+			}
+			if(!prefetch && parallelism>1 && workerDialectFactory!=null) {
+				foundTables = processTablesInParallel(info, dbs, discovery, clones, hasIndices, progress);
+				tableDialect = clones.wrap(tableDialect);
+			} else {
+				foundTables = discover(discovery);
+				if(prefetch && !foundTables.isEmpty()) {
+					tableDialect = prefetch((BulkMetaDataDialect) tableDialect, foundTables, clones, hasIndices, progress);
+				}
+				tableDialect = clones.wrap(tableDialect);
+				Iterator<Table> tables = foundTables.iterator(); // not dbs.iterateTables() to avoid "double-read" of columns etc.
+				while ( tables.hasNext() ) {
+					processTable(tableDialect, dbs, tables.next(), hasIndices, progress);
 				}
 			}
 			
-			tables = foundTables.iterator(); //dbs.iterateTables();
-			Map<String, List<ForeignKey>> oneToManyCandidates = resolveForeignKeys( dbs, tables, progress );
+			Iterator<Table> tables = foundTables.iterator(); //dbs.iterateTables();
+			Map<String, List<ForeignKey>> oneToManyCandidates = resolveForeignKeys( tableDialect, dbs, tables, progress );
 			
 			dbs.setOneToManyCandidates(oneToManyCandidates);
 			
 			return foundTables;
 		} finally {
-			getMetaDataDialect().close();
-			revengStrategy.close();
+			try {
+				getMetaDataDialect().close();
+				revengStrategy.close();
+			} 
+			finally {
+				endSession();
+			}
 		}
 	}
 
+	/**
+	 * Starts a session in which the connections used for reading are kept open between calls when the 
+	 * ConnectionProvider is a PooledConnectionProvider, e.g. when reading the schema one table at a time.
+	 * Sessions nest; readDatabaseSchema and readSequences run in a session of their own.
+	 */
+	public synchronized void beginSession() {
+		sessions++;
+	}
+
+	/**
+	 * Ends a session started with beginSession. Ending the outermost session closes the pooled connections.
+	 */
+	public synchronized void endSession() {
+		if(sessions==0) {
+			throw new IllegalStateException("No session to end");
+		}
+		sessions--;
+		if(sessions==0 && provider instanceof PooledConnectionProvider) {
+			try {
+				((PooledConnectionProvider)provider).release();
+			}
+			catch (SQLException e) {
+				throw sec.convert(e, "Problem while closing pooled connections", null);
+			}
+		}
+	}
+
+	/**
+	 * Lets the strategy push its table filters down into the patterns used to find tables.
+	 */
+	private List<SchemaSelection> narrowSchemaSelections(List<SchemaSelection> schemaSelections) {
+		if(!(revengStrategy instanceof TableFilterPushdown)) {
+			return schemaSelections;
+		}
+		List<SchemaSelection> result = new ArrayList<SchemaSelection>();
+		for (Iterator<SchemaSelection> iter = schemaSelections.iterator(); iter.hasNext();) {
+			SchemaSelection selection = iter.next();
+			List<SchemaSelection> narrowed = ((TableFilterPushdown)revengStrategy).narrowSchemaSelection(selection);
+			if(narrowed==null) {
+				result.add(selection);
+			} else {
+				log.debug("Finding tables with " + narrowed.size() + " table patterns derived from the table filters");
+				result.addAll(narrowed);
+			}
+		}
+		return result;
+	}
+
+	private void processTable(MetaDataDialect dialect, DatabaseCollector dbs, Table table, Set<Table> hasIndices, ProgressListener progress) {
+		BasicColumnProcessor.processBasicColumns(dialect, revengStrategy, defaultSchema, defaultCatalog, table, progress);
+		PrimaryKeyProcessor.processPrimaryKey(dialect, revengStrategy, defaultSchema, defaultCatalog, dbs, table);
+		if(hasIndices.contains(table)) {
+			IndexProcessor.processIndices(dialect, defaultSchema, defaultCatalog, table);
+		}
+	}
+
+	/**
+	 * Reads the columns, primary keys, exported keys and (where needed) indexes of every catalog/schema 
+	 * that holds one of the found tables with one query per category. The processors then read them from memory.
+	 */
+	private MetaDataDialect prefetch(BulkMetaDataDialect dialect, List<Table> foundTables, SchemaClones clones, Set<Table> hasIndices, ProgressListener progress) {
+		Map<List<String>, Boolean> scopes = new LinkedHashMap<List<String>, Boolean>();
+		for (Iterator<Table> iter = foundTables.iterator(); iter.hasNext();) {
+			Table table = iter.next();
+			List<String> scope = getLookupScope(table);
+			if(clones.isClone(scope.get(0), scope.get(1))) {
+				continue;
+			}
+			Boolean includeIndexes = scopes.get(scope);
+			if(includeIndexes==null || !includeIndexes.booleanValue()) {
+				scopes.put(scope, Boolean.valueOf(hasIndices.contains(table)));
+			}
+		}
+		PrefetchedMetaDataDialect result = new PrefetchedMetaDataDialect(dialect);
+		result.setReleaseRows(boundedMemory);
+		for (Iterator<Entry<List<String>, Boolean>> iter = scopes.entrySet().iterator(); iter.hasNext();) {
+			Entry<List<String>, Boolean> scope = iter.next();
+			String catalog = scope.getKey().get(0);
+			String schema = scope.getKey().get(1);
+			log.debug("Reading metadata of all tables in " + catalog + "." + schema);
+			progress.startSubTask("Reading metadata of all tables in " + catalog + "." + schema);
+			result.prefetch(catalog, schema, scope.getValue().booleanValue());
+		}
+		return result;
+	}
+
+	/**
+	 * Finds the tables of the schema selections and streams them through a bounded queue to a number of 
+	 * workers that read their columns, primary keys and indexes while discovery goes on. Each worker uses
+	 * its own MetaDataDialect (and thus its own connection) and only mutates the tables it took from the queue; 
+	 * the identifier strategies it suggests are recorded per table and added to the DatabaseCollector 
+	 * in discovery order once all workers are done, so the result is the same as the serial read.
+	 */
+	private List<Table> processTablesInParallel(
+			final ReverseEngineeringRuntimeInfo info, 
+			final DatabaseCollector dbs, 
+			TableDiscovery discovery, 
+			final SchemaClones clones, 
+			final Set<Table> hasIndices, 
+			ProgressListener progress) {
+		final ProgressListener workerProgress = synchronize(progress);
+		final BlockingQueue<FoundTable> queue = new ArrayBlockingQueue<FoundTable>(queueSize);
+		final AtomicBoolean failed = new AtomicBoolean();
+		final List<Table> foundTables = new ArrayList<Table>();
+		final List<SuggestionRecordingCollector> suggestions = new ArrayList<SuggestionRecordingCollector>();
+		log.debug("Reading metadata with " + parallelism + " workers");
+		ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+		try {
+			List<Future<?>> workers = new ArrayList<Future<?>>(parallelism);
+			for (int i = 0; i < parallelism; i++) {
+				workers.add(executor.submit(new Runnable() {
+					public void run() {
+						MetaDataDialect dialect = null;
+						try {
+							while (!failed.get()) {
+								FoundTable found = queue.poll(100, TimeUnit.MILLISECONDS);
+								if(found==FoundTable.END) {
+									break;
+								} 
+								if(found==null) {
+									continue;
+								}
+								if(dialect==null) {
+									dialect = clones.wrap(workerDialectFactory.createMetaDataDialect());
+									dialect.configure(info);
+								}
+								processTable(dialect, found.suggestions, found.table, hasIndices, workerProgress);
+							}
+						} 
+						catch (InterruptedException e) {
+							failed.set(true);
+							Thread.currentThread().interrupt();
+						}
+						catch (RuntimeException e) {
+							failed.set(true);
+							throw e;
+						}
+						finally {
+							if(dialect!=null) {
+								dialect.close();
+							}
+						}
+					}
+				}));
+			}
+			RuntimeException discoveryFailure = null;
+			try {
+				TableProcessor.FoundTableListener listener = new TableProcessor.FoundTableListener() {
+					public void tableFound(Table table) {
+						SuggestionRecordingCollector recorder = new SuggestionRecordingCollector(dbs);
+						foundTables.add(table);
+						suggestions.add(recorder);
+						if(!enqueue(queue, new FoundTable(table, recorder), failed)) {
+							throw new JdbcBinderException("Stopped finding tables since reading table metadata failed");
+						}
+					}
+				};
+				discovery.findTables(listener);
+			} 
+			catch (RuntimeException e) {
+				failed.set(true);
+				discoveryFailure = e;
+			}
+			finally {
+				// one end marker per worker; after a failure the workers stop on their own
+				int ends = 0;
+				while (ends < parallelism && enqueue(queue, FoundTable.END, failed)) {
+					ends++;
+				}
+			}
+			for (Iterator<Future<?>> iter = workers.iterator(); iter.hasNext();) {
+				waitFor(iter.next());
+			}
+			if(discoveryFailure!=null) {
+				throw discoveryFailure;
+			}
+		} 
+		finally {
+			executor.shutdownNow();
+		}
+		for (Iterator<SuggestionRecordingCollector> iter = suggestions.iterator(); iter.hasNext();) {
+			iter.next().addTo(dbs);
+		}
+		return foundTables;
+	}
+	
+	/**
+	 * Puts found on the queue, waiting for room as long as no worker failed.
+	 * @return false if a worker failed before found could be queued
+	 */
+	private static boolean enqueue(BlockingQueue<FoundTable> queue, FoundTable found, AtomicBoolean failed) {
+		try {
+			while(!failed.get()) {
+				if(queue.offer(found, 100, TimeUnit.MILLISECONDS)) {
+					return true;
+				}
+			}
+			return false;
+		} 
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new JdbcBinderException("Interrupted while finding tables", e);
+		}
+	}
+	
+	private static <T> T waitFor(Future<T> worker) {
+		try {
+			return worker.get();
+		} 
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new JdbcBinderException("Interrupted while reading database metadata", e);
+		} 
+		catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if(cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			} else if(cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new JdbcBinderException("Problem while reading database metadata", cause);
+		}
+	}
+	
+	/**
+	 * Finds the tables of the schema selections and adds them to dbs. With more than one selection and 
+	 * parallelism the selections are read at once, each with a worker MetaDataDialect, and the found tables
+	 * are added in the order of the selections afterwards, so the result is the same as the serial read.
+	 */
+	private void findTables(
+			final ReverseEngineeringRuntimeInfo info, 
+			DatabaseCollector dbs, 
+			List<SchemaSelection> schemaSelections, 
+			Set<Table> hasIndices, 
+			ProgressListener progress,
+			TableProcessor.FoundTableListener listener) {
+		if(parallelism<=1 || workerDialectFactory==null || schemaSelections.size()<=1) {
+			for (Iterator<SchemaSelection> iter = schemaSelections.iterator(); iter.hasNext();) {
+				TableProcessor.processTables(getMetaDataDialect(), revengStrategy, defaultSchema, defaultCatalog, dbs, iter.next(), hasIndices, progress, listener);
+			}
+			return;
+		}
+		final ProgressListener workerProgress = synchronize(progress);
+		int workers = Math.min(parallelism, schemaSelections.size());
+		log.debug("Finding tables of " + schemaSelections.size() + " schema selections with " + workers + " workers");
+		List<Future<List<TableRow>>> found = new ArrayList<Future<List<TableRow>>>(schemaSelections.size());
+		ExecutorService executor = Executors.newFixedThreadPool(workers);
+		try {
+			for (Iterator<SchemaSelection> iter = schemaSelections.iterator(); iter.hasNext();) {
+				final SchemaSelection selection = iter.next();
+				found.add(executor.submit(new Callable<List<TableRow>>() {
+					public List<TableRow> call() {
+						MetaDataDialect dialect = workerDialectFactory.createMetaDataDialect();
+						try {
+							dialect.configure(info);
+							return TableProcessor.findTables(dialect, revengStrategy, selection, workerProgress);
+						}
+						finally {
+							dialect.close();
+						}
+					}
+				}));
+			}
+			for (Iterator<Future<List<TableRow>>> iter = found.iterator(); iter.hasNext();) {
+				TableProcessor.addTables(waitFor(iter.next()), dbs, hasIndices, progress, listener);
+			}
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private static List<Table> discover(TableDiscovery discovery) {
+		final List<Table> result = new ArrayList<Table>();
+		discovery.findTables(new TableProcessor.FoundTableListener() {
+			public void tableFound(Table table) {
+				result.add(table);
+			}
+		});
+		return result;
+	}
+
+	/**
+	 * Groups the found tables by the catalog/schema they are read from. A schema with the same tables,
+	 * by name and kind, as a schema found before it, whose tables also have the same columns, primary keys,
+	 * indexes and foreign keys, becomes a clone of that one; the metadata of its tables is not read but copied 
+	 * from the first schema. The structures are compared with one bulk read per schema, so without a 
+	 * BulkMetaDataDialect no schema is cloned.
+	 */
+	private SchemaClones findSchemaClones(List<Table> foundTables, Set<Table> hasIndices) {
+		Map<List<String>, Set<String>> tablesByScope = new LinkedHashMap<List<String>, Set<String>>();
+		Set<List<String>> scopesWithIndexes = new HashSet<List<String>>();
+		for (Iterator<Table> iter = foundTables.iterator(); iter.hasNext();) {
+			Table table = iter.next();
+			List<String> scope = getLookupScope(table);
+			Set<String> tables = tablesByScope.get(scope);
+			if(tables==null) {
+				tables = new TreeSet<String>();
+				tablesByScope.put(scope, tables);
+			}
+			tables.add((hasIndices.contains(table) ? "T:" : "V:") + table.getName());
+			if(hasIndices.contains(table)) {
+				scopesWithIndexes.add(scope);
+			}
+		}
+		SchemaClones result = new SchemaClones();
+		if(!(getMetaDataDialect() instanceof BulkMetaDataDialect)) {
+			log.warn("Identical schemas are not cloned since " + getMetaDataDialect().getClass().getName() + " cannot read the structure of a schema at once");
+			return result;
+		}
+		BulkMetaDataDialect dialect = (BulkMetaDataDialect) getMetaDataDialect();
+		Map<Set<String>, List<List<String>>> representatives = new HashMap<Set<String>, List<List<String>>>();
+		Map<List<String>, SchemaStructure> structures = new HashMap<List<String>, SchemaStructure>();
+		for (Iterator<Entry<List<String>, Set<String>>> iter = tablesByScope.entrySet().iterator(); iter.hasNext();) {
+			Entry<List<String>, Set<String>> entry = iter.next();
+			List<List<String>> candidates = representatives.get(entry.getValue());
+			if(candidates==null) {
+				candidates = new ArrayList<List<String>>();
+				representatives.put(entry.getValue(), candidates);
+			}
+			List<String> representative = null;
+			if(!candidates.isEmpty()) {
+				boolean includeIndexes = scopesWithIndexes.contains(entry.getKey());
+				SchemaStructure structure = getStructure(dialect, structures, entry.getKey(), includeIndexes);
+				for (Iterator<List<String>> reps = candidates.iterator(); representative==null && reps.hasNext();) {
+					List<String> candidate = reps.next();
+					if(getStructure(dialect, structures, candidate, includeIndexes).isIdentical(structure)) {
+						representative = candidate;
+					}
+				}
+				if(representative==null) {
+					log.info("Reading " + entry.getKey() + " although it has the same tables as " + candidates.get(0) + " since their structure differs");
+				} else {
+					log.info("Copying the metadata of " + entry.getKey() + " from the identical " + representative);
+					result.addClone(
+							entry.getKey().get(0), entry.getKey().get(1), 
+							representative.get(0), representative.get(1), 
+							structure.getForeignExportedKeys());
+				}
+			}
+			if(representative==null) {
+				candidates.add(entry.getKey());
+			}
+		}
+		return result;
+	}
+
+	private static SchemaStructure getStructure(BulkMetaDataDialect dialect, Map<List<String>, SchemaStructure> structures, List<String> scope, boolean includeIndexes) {
+		SchemaStructure result = structures.get(scope);
+		if(result==null) {
+			result = new SchemaStructure(dialect, scope.get(0), scope.get(1), includeIndexes);
+			structures.put(scope, result);
+		}
+		return result;
+	}
+
+	/**
+	 * @return the catalog and schema used to read the metadata of table
+	 */
+	private List<String> getLookupScope(Table table) {
+		List<String> result = new ArrayList<String>(2);
+		result.add(table.getCatalog()==null ? defaultCatalog : table.getCatalog());
+		result.add(table.getSchema()==null ? defaultSchema : table.getSchema());
+		return result;
+	}
+
 	/**
 	 * Iterates the tables and find all the foreignkeys that refers to something that is available inside the DatabaseCollector.
+	 * @param dialect
 	 * @param dbs
 	 * @param progress
 	 * @param tables
 	 * @return
 	 */
-	private Map<String, List<ForeignKey>> resolveForeignKeys(DatabaseCollector dbs, Iterator<Table> tables, ProgressListener progress) {
+	private Map<String, List<ForeignKey>> resolveForeignKeys(MetaDataDialect dialect, DatabaseCollector dbs, Iterator<Table> tables, ProgressListener progress) {
 		List<ForeignKeysInfo> fks = new ArrayList<ForeignKeysInfo>();
 		while ( tables.hasNext() ) {
 			Table table = (Table) tables.next();
@@ -106,7 +538,7 @@ public class JDBCReader {
 			// all referenced tables (this ensure the columns are the same instances througout the basic JDBC derived model.
 			// after this stage it should be "ok" to divert from keeping columns in sync as it can be required if the same 
 			//column is used with different aliases in the ORM mapping.
-			ForeignKeysInfo foreignKeys = ForeignKeyProcessor.processForeignKeys(getMetaDataDialect(), revengStrategy, defaultSchema, defaultCatalog, dbs, table, progress);
+			ForeignKeysInfo foreignKeys = ForeignKeyProcessor.processForeignKeys(dialect, revengStrategy, defaultSchema, defaultCatalog, dbs, table, progress);
 			fks.add( foreignKeys );				  	   
 		}
 		
@@ -116,13 +548,92 @@ public class JDBCReader {
 			Map<String, List<ForeignKey>> map = element.process( revengStrategy ); // the actual foreignkey is created here.
 			mergeMultiMap( oneToManyCandidates, map );
 		}
+		if(boundedMemory) {
+			compact(oneToManyCandidates);
+		}
 		return oneToManyCandidates;
 	}
 	
+	/**
+	 * Replaces the lists of candidates by ones without spare capacity; most classes are referred to by one or two foreign keys.
+	 */
+	private static void compact(Map<String, List<ForeignKey>> candidates) {
+		for (Iterator<Entry<String, List<ForeignKey>>> iter = candidates.entrySet().iterator(); iter.hasNext();) {
+			Entry<String, List<ForeignKey>> entry = iter.next();
+			List<ForeignKey> keys = entry.getValue();
+			if(keys.size()==1) {
+				entry.setValue(Collections.singletonList(keys.get(0)));
+			} else {
+				entry.setValue(Arrays.asList(keys.toArray(new ForeignKey[keys.size()])));
+			}
+		}
+	}
+	
 	public MetaDataDialect getMetaDataDialect() {
 		return metadataDialect;
 	}
 	
+	/**
+	 * Read columns, primary keys and indexes with the given number of workers. 
+	 * Only used when a WorkerDialectFactory is available.
+	 */
+	public void setParallelism(int parallelism, WorkerDialectFactory workerDialectFactory) {
+		this.parallelism = parallelism;
+		this.workerDialectFactory = workerDialectFactory;
+	}
+	
+	public int getParallelism() {
+		return parallelism;
+	}
+	
+	/**
+	 * Number of found tables that may wait for a worker when reading in parallel.
+	 */
+	public void setQueueSize(int queueSize) {
+		this.queueSize = queueSize;
+	}
+	
+	public int getQueueSize() {
+		return queueSize;
+	}
+	
+	/**
+	 * Read columns, primary keys, indexes and exported keys with one query per catalog/schema 
+	 * instead of one per table. Only used when the MetaDataDialect is a BulkMetaDataDialect.
+	 */
+	public void setBulkRead(boolean bulkRead) {
+		this.bulkRead = bulkRead;
+	}
+	
+	public boolean isBulkRead() {
+		return bulkRead;
+	}
+	
+	/**
+	 * Read the metadata of the tables of catalogs/schemas that have the same tables as a catalog/schema
+	 * found before them from that one instead, see SchemaClones. Their columns, keys and indexes are compared 
+	 * first with one bulk read per catalog/schema, so it needs a BulkMetaDataDialect.
+	 */
+	public void setCloneIdenticalSchemas(boolean cloneIdenticalSchemas) {
+		this.cloneIdenticalSchemas = cloneIdenticalSchemas;
+	}
+	
+	public boolean isCloneIdenticalSchemas() {
+		return cloneIdenticalSchemas;
+	}
+	
+	/**
+	 * Drop prefetched and cloned metadata rows once the table they belong to is processed and store the 
+	 * one-to-many candidates compactly, so less of the metadata of very large catalogs is kept on the heap.
+	 */
+	public void setBoundedMemory(boolean boundedMemory) {
+		this.boundedMemory = boundedMemory;
+	}
+	
+	public boolean isBoundedMemory() {
+		return boundedMemory;
+	}
+	
 	    private void mergeMultiMap(Map<String, List<ForeignKey>> dest, Map<String, List<ForeignKey>> src) {
 	    	Iterator<Entry<String, List<ForeignKey>>> items = src.entrySet().iterator();
 	    	
@@ -140,11 +651,112 @@ public class JDBCReader {
 	    	
 	    }
 
+		/**
+		 * Passes the tables it finds, after adding them to the DatabaseCollector, to a listener.
+		 */
+		interface TableDiscovery {
+			void findTables(TableProcessor.FoundTableListener listener);
+		}
+		
+		class SchemaSelectionDiscovery implements TableDiscovery {
+			private final ReverseEngineeringRuntimeInfo info;
+			private final DatabaseCollector dbs;
+			private final List<SchemaSelection> schemaSelections;
+			private final Set<Table> hasIndices;
+			private final ProgressListener progress;
+			SchemaSelectionDiscovery(ReverseEngineeringRuntimeInfo info, DatabaseCollector dbs, List<SchemaSelection> schemaSelections, Set<Table> hasIndices, ProgressListener progress) {
+				this.info = info;
+				this.dbs = dbs;
+				this.schemaSelections = schemaSelections;
+				this.hasIndices = hasIndices;
+				this.progress = progress;
+			}
+			public void findTables(TableProcessor.FoundTableListener listener) {
+				JDBCReader.this.findTables(info, dbs, schemaSelections, hasIndices, progress, listener);
+			}
+		}
+		
+		/** replays tables that were found before */
+		static class FoundTableDiscovery implements TableDiscovery {
+			private final List<Table> tables;
+			FoundTableDiscovery(List<Table> tables) {
+				this.tables = tables;
+			}
+			public void findTables(TableProcessor.FoundTableListener listener) {
+				for (Iterator<Table> iter = tables.iterator(); iter.hasNext();) {
+					listener.tableFound(iter.next());
+				}
+			}
+		}
+		
+		static class FoundTable {
+			static final FoundTable END = new FoundTable(null, null);
+			final Table table;
+			final SuggestionRecordingCollector suggestions;
+			FoundTable(Table table, SuggestionRecordingCollector suggestions) {
+				this.table = table;
+				this.suggestions = suggestions;
+			}
+		}
+		
 		static class NoopProgressListener implements ProgressListener {
 			public void startSubTask(String name) {	// noop };
 			}
 		}
 		
+		static ProgressListener synchronize(ProgressListener progress) {
+			return progress instanceof SynchronizedProgressListener ? progress : new SynchronizedProgressListener(progress);
+		}
+		
+		static class SynchronizedProgressListener implements ProgressListener {
+			private final ProgressListener delegate;
+			SynchronizedProgressListener(ProgressListener delegate) {
+				this.delegate = delegate;
+			}
+			public synchronized void startSubTask(String name) {
+				delegate.startSubTask(name);
+			}
+		}
+		
+		/**
+		 * Delegates to the real DatabaseCollector but holds back the suggested identifier strategies
+		 * so that workers never write to the shared collector.
+		 */
+		static class SuggestionRecordingCollector implements DatabaseCollector {
+			private final DatabaseCollector delegate;
+			private final List<String[]> suggestions = new ArrayList<String[]>();
+			SuggestionRecordingCollector(DatabaseCollector delegate) {
+				this.delegate = delegate;
+			}
+			public Iterator<Table> iterateTables() {
+				return delegate.iterateTables();
+			}
+			public Table addTable(String schema, String catalog, String name) {
+				throw new IllegalStateException("Tables cannot be added while reading table metadata");
+			}
+			public void setOneToManyCandidates(Map<String, List<ForeignKey>> oneToManyCandidates) {
+				throw new IllegalStateException("One-to-many candidates cannot be set while reading table metadata");
+			}
+			public Table getTable(String schema, String catalog, String name) {
+				return delegate.getTable(schema, catalog, name);
+			}
+			public Map<String, List<ForeignKey>> getOneToManyCandidates() {
+				return delegate.getOneToManyCandidates();
+			}
+			public void addSuggestedIdentifierStrategy(String catalog, String schema, String name, String strategy) {
+				suggestions.add(new String[] { catalog, schema, name, strategy });
+			}
+			public String getSuggestedIdentifierStrategy(String catalog, String schema, String name) {
+				return delegate.getSuggestedIdentifierStrategy(catalog, schema, name);
+			}
+			void addTo(DatabaseCollector dbs) {
+				for (Iterator<String[]> iter = suggestions.iterator(); iter.hasNext();) {
+					String[] suggestion = iter.next();
+					dbs.addSuggestedIdentifierStrategy(suggestion[0], suggestion[1], suggestion[2], suggestion[3]);
+				}
+			}
+		}
+		
 		public List<Table> readDatabaseSchema(DatabaseCollector dbs, String catalog, String schema) {
 			return readDatabaseSchema(dbs, catalog, schema, new NoopProgressListener());
 		}
@@ -152,6 +764,7 @@ public class JDBCReader {
 		public Set<String> readSequences(String sql) {
 			Set<String> sequences = new HashSet<String>();
 			if (sql!=null) {
+				beginSession();
 				Connection connection = null;
 				try {
 				
@@ -181,6 +794,7 @@ public class JDBCReader {
 						catch (SQLException e) {
 							sec.convert(e, "Problem while closing connection", null);
 						}
+					endSession();
 				} 
 			}
 			return sequences;
@@ -10,11 +10,18 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.hibernate.DuplicateMappingException;
 import org.hibernate.FetchMode;
@@ -76,6 +83,17 @@ public class JdbcBinder {
 	private final ServiceRegistry serviceRegistry;
 	private final String defaultCatalog;
 	private final String defaultSchema;
+	
+	private TableFingerprints previousFingerprints;
+	private TableFingerprints fingerprints;
+	private Set<String> changedTables;
+	private final Map<Table, ForeignKeyIndex> foreignKeyIndexes = new IdentityHashMap<Table, ForeignKeyIndex>();
+	/** the basic properties made in parallel, by column, see RevengSettings.BINDING_PARALLELISM */
+	private final Map<Column, Property> preboundProperties = new IdentityHashMap<Column, Property>();
+	private final Map<String, int[]> sqlTypesByHibernateType = new ConcurrentHashMap<String, int[]>();
+
+	/** stands for a type name Hibernate does not know */
+	private static final int[] NO_SQL_TYPES = new int[0];
 
 	/**
 	 * @param mappings
@@ -99,6 +117,11 @@ public class JdbcBinder {
 	public void readFromDatabase(String catalog, String schema, Mapping mapping) {
 		try {
 			DatabaseCollector collector = readDatabaseSchema(catalog, schema);
+			if(previousFingerprints!=null) {
+				fingerprints = TableFingerprints.create(collector, defaultCatalog, defaultSchema);
+				changedTables = fingerprints.getChangedTables(previousFingerprints, collector, defaultCatalog, defaultSchema);
+				log.info(changedTables.size() + " tables changed since the previous run");
+			}
 			createPersistentClasses(collector, mapping); //move this to a different step!
 			((InFlightMetadataCollectorImpl)metadataCollector).processSecondPasses(mdbc);
 		}
@@ -108,6 +131,29 @@ public class JdbcBinder {
 		}
 	}
 
+	/**
+	 * Compare the tables read by {@link #readFromDatabase(String, String, Mapping)} with these fingerprints
+	 * of a previous run, see {@link #getChangedTables()}.
+	 */
+	public void setPreviousFingerprints(TableFingerprints previousFingerprints) {
+		this.previousFingerprints = previousFingerprints;
+	}
+	
+	/**
+	 * @return the fingerprints of the tables read, or null if no previous fingerprints were set
+	 */
+	public TableFingerprints getFingerprints() {
+		return fingerprints;
+	}
+	
+	/**
+	 * @return the keys (see {@link TableFingerprints#getKey(Table, String, String)}) of the tables that changed 
+	 * since the previous fingerprints together with their foreign key neighbours, or null if no previous fingerprints were set
+	 */
+	public Set<String> getChangedTables() {
+		return changedTables;
+	}
+
 	/**
 	 * Read JDBC Metadata from the database. Does not create any classes or other ORM releated structures.
 	 *
@@ -131,11 +177,18 @@ public class JdbcBinder {
 
 
 	/**
-	 * @param manyToOneCandidates
-	 * @param mappings2
+	 * Binds one class per table, table by table. When {@link RevengSettings#BINDING_PARALLELISM} is set, 
+	 * the basic properties of the columns that are neither in the primary key nor in a foreign key are 
+	 * made beforehand in parallel, see {@link #prebindBasicProperties(List, int, Mapping)}; everything 
+	 * else, and in particular the associations, is still bound by one thread in table order.
 	 */
 	private void createPersistentClasses(DatabaseCollector collector, Mapping mapping) {
 		Map<String, List<ForeignKey>> manyToOneCandidates = collector.getOneToManyCandidates();
+		boolean boundedMemory = JdbcReaderFactory.isBoundedMemory(properties);
+		int parallelism = JdbcReaderFactory.getPositiveInt(properties, RevengSettings.BINDING_PARALLELISM, 1);
+		foreignKeyIndexes.clear();
+		preboundProperties.clear();
+		List<Table> tables = new ArrayList<Table>();
 		for (Iterator<Table> iter = metadataCollector.collectTableMappings().iterator(); iter.hasNext();) {
 			Table table = iter.next();
 			if (table.getCatalog() != null && table.getCatalog().equals(defaultCatalog)) {
@@ -160,52 +213,139 @@ public class JdbcBinder {
 				log.debug( "Ignoring " + table + " as class since rev.eng. says it is a many-to-many" );
 				continue;
 			}
+			if(parallelism > 1) {
+				tables.add(table);
+			} else {
+				bindClass(table, collector, mapping, manyToOneCandidates, boundedMemory);
+			}
+		}
 
-	    	
-			RootClass rc = new RootClass(mdbc);
-			TableIdentifier tableIdentifier = TableIdentifier.create(table);
-			String className = revengStrategy.tableToClassName( tableIdentifier );
-			log.debug("Building entity " + className + " based on " + tableIdentifier);
-			rc.setEntityName( className );
-			rc.setJpaEntityName( StringHelper.unqualify( className ) );
-			rc.setClassName( className );
-			rc.setProxyInterfaceName( rc.getEntityName() ); // TODO: configurable ?
-			rc.setLazy(true);
-
-			rc.setMetaAttributes(
-					BinderUtils.safeMap(
-							RevEngUtils.getTableToMetaAttributesInRevengStrategy(
-									revengStrategy, 
-									table, 
-									defaultCatalog, 
-									defaultSchema)));
-
-
-			rc.setDiscriminatorValue( rc.getEntityName() );
-			rc.setTable(table);
-			try {
-				metadataCollector.addEntityBinding(rc);
-			} catch(DuplicateMappingException dme) {
-				// TODO: detect this and generate a "permutation" of it ?
-				PersistentClass class1 = metadataCollector.getEntityBinding(dme.getName());
-				Table table2 = class1.getTable();
-				throw new JdbcBinderException("Duplicate class name '" + rc.getEntityName() + "' generated for '" + table + "'. Same name where generated for '" + table2 + "'");
+		if(!tables.isEmpty()) {
+			prebindBasicProperties(tables, Math.min(parallelism, tables.size()), mapping);
+			for (Iterator<Table> iter = tables.iterator(); iter.hasNext();) {
+				bindClass(iter.next(), collector, mapping, manyToOneCandidates, boundedMemory);
 			}
-			metadataCollector.addImport( rc.getEntityName(), rc.getEntityName() );
+			preboundProperties.clear();
+		}
+
+	}
 
-			Set<Column> processed = new HashSet<Column>();
+	private void bindClass(Table table, DatabaseCollector collector, Mapping mapping, Map<String, List<ForeignKey>> manyToOneCandidates, boolean boundedMemory) {
+		RootClass rc = new RootClass(mdbc);
+		TableIdentifier tableIdentifier = TableIdentifier.create(table);
+		String className = revengStrategy.tableToClassName( tableIdentifier );
+		log.debug("Building entity " + className + " based on " + tableIdentifier);
+		rc.setEntityName( className );
+		rc.setJpaEntityName( StringHelper.unqualify( className ) );
+		rc.setClassName( className );
+		rc.setProxyInterfaceName( rc.getEntityName() ); // TODO: configurable ?
+		rc.setLazy(true);
+
+		rc.setMetaAttributes(
+				BinderUtils.safeMap(
+						RevEngUtils.getTableToMetaAttributesInRevengStrategy(
+								revengStrategy, 
+								table, 
+								defaultCatalog, 
+								defaultSchema)));
 
 
-			PrimaryKeyInfo pki = bindPrimaryKeyToProperties(table, rc, processed, mapping, collector);
-			bindColumnsToVersioning(table, rc, processed, mapping);
-			bindOutgoingForeignKeys(table, rc, processed);
-			bindColumnsToProperties(table, rc, processed, mapping);
-			List<ForeignKey> incomingForeignKeys = manyToOneCandidates.get( rc.getEntityName() );
-			bindIncomingForeignKeys(rc, processed, incomingForeignKeys, mapping);
-			updatePrimaryKey(rc, pki);
+		rc.setDiscriminatorValue( rc.getEntityName() );
+		rc.setTable(table);
+		try {
+			metadataCollector.addEntityBinding(rc);
+		} catch(DuplicateMappingException dme) {
+			// TODO: detect this and generate a "permutation" of it ?
+			PersistentClass class1 = metadataCollector.getEntityBinding(dme.getName());
+			Table table2 = class1.getTable();
+			throw new JdbcBinderException("Duplicate class name '" + rc.getEntityName() + "' generated for '" + table + "'. Same name where generated for '" + table2 + "'");
+		}
+		metadataCollector.addImport( rc.getEntityName(), rc.getEntityName() );
+
+		Set<Column> processed = new HashSet<Column>();
 
+
+		PrimaryKeyInfo pki = bindPrimaryKeyToProperties(table, rc, processed, mapping, collector);
+		bindColumnsToVersioning(table, rc, processed, mapping);
+		bindOutgoingForeignKeys(table, rc, processed);
+		bindColumnsToProperties(table, rc, processed, mapping);
+		// not needed anymore once bound, see RevengSettings.METADATA_BOUNDED_MEMORY
+		List<ForeignKey> incomingForeignKeys = boundedMemory 
+				? manyToOneCandidates.remove( rc.getEntityName() ) 
+				: manyToOneCandidates.get( rc.getEntityName() );
+		bindIncomingForeignKeys(rc, processed, incomingForeignKeys, mapping);
+		updatePrimaryKey(rc, pki);
+	}
+
+	/**
+	 * Makes the basic properties of the columns of tables that are neither in the primary key nor in 
+	 * a foreign key of their table with parallelism threads. Only these columns are left alone by the 
+	 * binding of all other tables, and of the identifier and associations of their own table, so 
+	 * guessing their type earlier does not change the result. The properties are not added to their 
+	 * class here but picked up and named by {@link #bindBasicProperty(String, Table, Column, Set, Mapping)}.
+	 */
+	private void prebindBasicProperties(List<Table> tables, int parallelism, final Mapping mapping) {
+		log.debug("Binding the basic properties of " + tables.size() + " classes with " + parallelism + " threads");
+		ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+		try {
+			List<Future<Map<Column, Property>>> futures = new ArrayList<Future<Map<Column, Property>>>(tables.size());
+			for (Iterator<Table> iter = tables.iterator(); iter.hasNext();) {
+				final Table table = iter.next();
+				futures.add(executor.submit(new Callable<Map<Column, Property>>() {
+					public Map<Column, Property> call() {
+						return prebindBasicProperties(table, mapping);
+					}
+				}));
+			}
+			for (Iterator<Future<Map<Column, Property>>> iter = futures.iterator(); iter.hasNext();) {
+				preboundProperties.putAll(waitFor(iter.next()));
+			}
+		} 
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * May run concurrently for different tables, so it must only touch the columns of table that 
+	 * no other binding looks at.
+	 */
+	private Map<Column, Property> prebindBasicProperties(Table table, Mapping mapping) {
+		Map<Column, Property> result = new IdentityHashMap<Column, Property>();
+		if(table.getPrimaryKey()==null) {
+			return result; // all columns make up the identifier
+		}
+		Set<Column> keyColumns = new HashSet<Column>(table.getPrimaryKey().getColumns());
+		for(Iterator<?> iterator = table.getForeignKeyIterator(); iterator.hasNext();) {
+			keyColumns.addAll(((ForeignKey) iterator.next()).getColumns());
 		}
+		for (Iterator<?> iterator = table.getColumnIterator(); iterator.hasNext();) {
+			Column column = (Column) iterator.next();
+			if(!keyColumns.contains(column)) {
+				// named once it is added to its class
+				result.put(column, makeBasicProperty(column.getName(), table, column, mapping));
+			}
+		}
+		return result;
+	}
 
+	private static <T> T waitFor(Future<T> binding) {
+		try {
+			return binding.get();
+		} 
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new JdbcBinderException("Interrupted while binding classes", e);
+		} 
+		catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if(cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			} else if(cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new JdbcBinderException("Problem while binding classes", cause);
+		}
 	}
 
 	private void updatePrimaryKey(RootClass rc, PrimaryKeyInfo pki) {
@@ -606,17 +746,18 @@ public class JdbcBinder {
 
 	/** return true if this foreignkey is the only reference from this table to the same foreign table */
     private boolean isUniqueReference(ForeignKey foreignKey) {
-
-    	Iterator<?> foreignKeyIterator = foreignKey.getTable().getForeignKeyIterator();
-    	while ( foreignKeyIterator.hasNext() ) {
-			ForeignKey element = (ForeignKey) foreignKeyIterator.next();
-			if(element!=foreignKey && element.getReferencedTable().equals(foreignKey.getReferencedTable())) {
-				return false;
-			}
-		}
-		return true;
+    	return getForeignKeyIndex(foreignKey.getTable()).isUniqueReference(foreignKey);
 	}
 
+    private ForeignKeyIndex getForeignKeyIndex(Table table) {
+    	ForeignKeyIndex result = foreignKeyIndexes.get(table);
+    	if(result==null) {
+    		result = new ForeignKeyIndex(table);
+    		foreignKeyIndexes.put(table, result);
+    	}
+    	return result;
+    }
+
 	private PrimaryKeyInfo bindPrimaryKeyToProperties(Table table, RootClass rc, Set<Column> processed, Mapping mapping, DatabaseCollector collector) {
 		SimpleValue id = null;
 		String idPropertyname = null;
@@ -829,6 +970,15 @@ public class JdbcBinder {
 	}
 
 	private Property bindBasicProperty(String propertyName, Table table, Column column, Set<Column> processedColumns, Mapping mapping) {
+		Property result = preboundProperties.remove(column);
+		if(result!=null) {
+			result.setName(propertyName);
+			return result;
+		}
+		return makeBasicProperty(propertyName, table, column, mapping);
+	}
+
+	private Property makeBasicProperty(String propertyName, Table table, Column column, Mapping mapping) {
 		SimpleValue value = bindColumnToSimpleValue( table, column, mapping, false );
 		return PropertyBinder.makeProperty(
 				table, 
@@ -881,13 +1031,8 @@ public class JdbcBinder {
 		// TODO: this method mutates the column if the types does not match...not good.
 		// maybe we should copy the column instead before calling this method.
 		Integer sqlTypeCode = column.getSqlTypeCode();
-		String location = 
-				"Table: " + 
-				TableNameQualifier.qualify(table.getCatalog(), table.getSchema(), table.getQuotedName() ) + 
-				" column: " + 
-				column.getQuotedName();
 		if(sqlTypeCode==null) {
-			throw new JdbcBinderException("sqltype is null for " + location);
+			throw new JdbcBinderException("sqltype is null for " + getLocation(table, column));
 		}
 
 		String preferredHibernateType = revengStrategy.columnToHibernateTypeName(
@@ -897,18 +1042,22 @@ public class JdbcBinder {
 				column.getLength(), column.getPrecision(), column.getScale(), column.isNullable(), generatedIdentifier
 		);
 
-		Type wantedType = metadataCollector.getTypeResolver().heuristicType(preferredHibernateType);
+		if(preferredHibernateType==null) {
+			throw new JdbcBinderException("Could not find javatype for " + typeCodeName(sqlTypeCode.intValue()));
+		}
 
-		if(wantedType!=null) {
-			int[] wantedSqlTypes = wantedType.sqlTypes(mapping);
+		int[] wantedSqlTypes = getSqlTypes(preferredHibernateType, mapping);
 
+		if(wantedSqlTypes!=null) {
 			if(wantedSqlTypes.length>1) {
-				throw new JdbcBinderException("The type " + preferredHibernateType + " found on " + location + " spans multiple columns. Only single column types allowed.");
+				throw new JdbcBinderException("The type " + preferredHibernateType + " found on " + getLocation(table, column) + " spans multiple columns. Only single column types allowed.");
 			}
 
 			int wantedSqlType = wantedSqlTypes[0];
 			if(wantedSqlType!=sqlTypeCode.intValue() ) {
-				log.debug("Sql type mismatch for " + location + " between DB and wanted hibernate type. Sql type set to " + typeCodeName( sqlTypeCode.intValue() ) + " instead of " + typeCodeName(wantedSqlType) );
+				if(log.isDebugEnabled()) {
+					log.debug("Sql type mismatch for " + getLocation(table, column) + " between DB and wanted hibernate type. Sql type set to " + typeCodeName( sqlTypeCode.intValue() ) + " instead of " + typeCodeName(wantedSqlType) );
+				}
 				column.setSqlTypeCode(Integer.valueOf(wantedSqlType));
 			}
 		}
@@ -916,13 +1065,29 @@ public class JdbcBinder {
 			log.debug("No Hibernate type found for " + preferredHibernateType + ". Most likely cause is a missing UserType class.");
 		}
 
+		return preferredHibernateType;
+	}
 
-
-		if(preferredHibernateType==null) {
-			throw new JdbcBinderException("Could not find javatype for " + typeCodeName(sqlTypeCode.intValue()));
+	/**
+	 * @return the sql types of the Hibernate type with the given name, or null if there is no such type.
+	 * Resolved once per type name, since a schema only uses a few of them.
+	 */
+	private int[] getSqlTypes(String hibernateType, Mapping mapping) {
+		int[] result = sqlTypesByHibernateType.get(hibernateType);
+		if(result==null) {
+			Type type = metadataCollector.getTypeResolver().heuristicType(hibernateType);
+			result = type==null ? NO_SQL_TYPES : type.sqlTypes(mapping);
+			sqlTypesByHibernateType.put(hibernateType, result);
 		}
+		return result==NO_SQL_TYPES ? null : result;
+	}
 
-		return preferredHibernateType;
+	private static String getLocation(Table table, Column column) {
+		return 
+				"Table: " + 
+				TableNameQualifier.qualify(table.getCatalog(), table.getSchema(), table.getQuotedName() ) + 
+				" column: " + 
+				column.getQuotedName();
 	}
 
 	private String typeCodeName(int sqlTypeCode) {
@@ -952,7 +1117,7 @@ public class JdbcBinder {
             list = new ArrayList<Object>(keyColumns);
         }
 		else {
-            list = findForeignKeys(table.getForeignKeyIterator(), keyColumns);
+            list = findForeignKeys(getForeignKeyIndex(table), keyColumns);
         }
         for (Iterator<?> iter = list.iterator(); iter.hasNext();) {
             Object element = iter.next();
@@ -1006,18 +1171,14 @@ public class JdbcBinder {
     }
 
     /**
-     * @param foreignKeyIterator
+     * @param foreignKeyIndex
      * @param columns
      * @return
      */
-    private List<Object> findForeignKeys(Iterator<?> foreignKeyIterator, List<Column> pkColumns) {
+    private List<Object> findForeignKeys(ForeignKeyIndex foreignKeyIndex, List<Column> pkColumns) {
 
-    	List<ForeignKey> tempList = new ArrayList<ForeignKey>();
-    	while(foreignKeyIterator.hasNext()) {
-    		tempList.add((ForeignKey)foreignKeyIterator.next());
-    	}
-
-//    	Collections.reverse(tempList);
+    	// the keys already matched, each covers one run of columns at most
+    	Set<ForeignKey> used = Collections.newSetFromMap(new IdentityHashMap<ForeignKey, Boolean>());
 
     	List<Object> result = new ArrayList<Object>();
     	Column myPkColumns[] = (Column[]) pkColumns.toArray(new Column[pkColumns.size()]);
@@ -1025,14 +1186,17 @@ public class JdbcBinder {
     	for (int i = 0; i < myPkColumns.length; i++) {
 
     		boolean foundKey = false;
-    		foreignKeyIterator = tempList.iterator();
+    		Iterator<ForeignKey> foreignKeyIterator = foreignKeyIndex.getForeignKeysStartingWith(myPkColumns[i]).iterator();
     		while(foreignKeyIterator.hasNext()) {
-    			ForeignKey key = (ForeignKey) foreignKeyIterator.next();
+    			ForeignKey key = foreignKeyIterator.next();
+    			if(used.contains(key)) {
+    				continue;
+    			}
     			List<Column> matchingColumns = columnMatches(myPkColumns, i, key);
     			if(matchingColumns!=null) {
     				result.add(new ForeignKeyForColumns(key, matchingColumns));
     				i+=matchingColumns.size()-1;
-    				foreignKeyIterator.remove();
+    				used.add(key);
     				foundKey=true;
     				break;
     			}
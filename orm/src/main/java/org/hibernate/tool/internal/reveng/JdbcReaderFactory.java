@@ -1,8 +1,11 @@
 package org.hibernate.tool.internal.reveng;
 
+import java.io.File;
+import java.util.List;
 import java.util.Properties;
 
 import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.dialect.Dialect;
 import org.hibernate.engine.jdbc.connections.spi.ConnectionProvider;
 import org.hibernate.engine.jdbc.spi.JdbcServices;
 import org.hibernate.exception.spi.SQLExceptionConverter;
@@ -10,19 +13,48 @@ import org.hibernate.service.ServiceRegistry;
 import org.hibernate.tool.api.dialect.MetaDataDialect;
 import org.hibernate.tool.api.dialect.MetaDataDialectFactory;
 import org.hibernate.tool.api.reveng.ReverseEngineeringStrategy;
+import org.hibernate.tool.api.reveng.SchemaSelection;
+import org.hibernate.tool.internal.dialect.CachedMetaDataDialect;
+import org.hibernate.tool.internal.dialect.MetaDataSnapshotStore;
+import org.hibernate.tool.internal.dialect.RowSpillFile;
 
 final public class JdbcReaderFactory {
 
 	
 	public static JDBCReader newJDBCReader(
-			Properties properties, 
+			final Properties properties, 
 			ReverseEngineeringStrategy revengStrategy, 
 			ServiceRegistry serviceRegistry) {	
+		final Dialect dialect = serviceRegistry.getService(JdbcServices.class).getDialect();
 		MetaDataDialect mdd = MetaDataDialectFactory
 				.createMetaDataDialect(
-						serviceRegistry.getService(JdbcServices.class).getDialect(), 
+						dialect, 
 						properties );
-		return newJDBCReader(properties, revengStrategy, mdd, serviceRegistry);
+		String snapshotDirectory = properties.getProperty(RevengSettings.METADATA_SNAPSHOT_DIR);
+		final CachedMetaDataDialect cachedDialect;
+		if (snapshotDirectory != null) {
+			// only snapshots cache the read rows, so only they need a spill file in bounded memory mode
+			cachedDialect = new CachedMetaDataDialect(
+					mdd,
+					newSnapshotStore(properties, revengStrategy, mdd, snapshotDirectory),
+					isBoundedMemory(properties) ? new RowSpillFile(null) : null);
+			mdd = cachedDialect;
+		} else {
+			cachedDialect = null;
+		}
+		JDBCReader reader = newJDBCReader(properties, revengStrategy, mdd, serviceRegistry);
+		int parallelism = getPositiveInt(properties, RevengSettings.METADATA_PARALLELISM, 1);
+		if (parallelism > 1) {
+			reader.setParallelism(parallelism, new JDBCReader.WorkerDialectFactory() {
+				public MetaDataDialect createMetaDataDialect() {
+					MetaDataDialect result = MetaDataDialectFactory.createMetaDataDialect(dialect, properties);
+					// the workers read through the snapshot's caches, so their rows are saved with it
+					return cachedDialect == null ? result : cachedDialect.share(result);
+				}
+			});
+			reader.setQueueSize(getPositiveInt(properties, RevengSettings.METADATA_QUEUE_SIZE, reader.getQueueSize()));
+		}
+		return reader;
 	}
 
 	public static JDBCReader newJDBCReader(
@@ -34,19 +66,61 @@ final public class JdbcReaderFactory {
 				.getService(JdbcServices.class)
 				.getSqlExceptionHelper()
 				.getSqlExceptionConverter();
-		ConnectionProvider connectionProvider = serviceRegistry
-				.getService(ConnectionProvider.class);
+		int parallelism = getPositiveInt(properties, RevengSettings.METADATA_PARALLELISM, 1);
+		ConnectionProvider connectionProvider = new PooledConnectionProvider(
+				serviceRegistry.getService(ConnectionProvider.class),
+				getPositiveInt(properties, RevengSettings.CONNECTION_POOL_SIZE, parallelism > 1 ? parallelism + 1 : 1));
 		String defaultCatalogName = properties
 				.getProperty(AvailableSettings.DEFAULT_CATALOG);
 		String defaultSchemaName = properties
 				.getProperty(AvailableSettings.DEFAULT_SCHEMA);
-		return new JDBCReader(
+		JDBCReader reader = new JDBCReader(
 				mdd, 
 				connectionProvider, 
 				sqlExceptionConverter, 
 				defaultCatalogName, 
 				defaultSchemaName, 
 				revengStrategy );
+		reader.setBulkRead(Boolean.parseBoolean(
+				properties.getProperty(RevengSettings.METADATA_BULK_READ, "false").trim()));
+		reader.setCloneIdenticalSchemas(Boolean.parseBoolean(
+				properties.getProperty(RevengSettings.METADATA_CLONE_IDENTICAL_SCHEMAS, "false").trim()));
+		reader.setBoundedMemory(isBoundedMemory(properties));
+		return reader;
+	}
+
+	static boolean isBoundedMemory(Properties properties) {
+		return Boolean.parseBoolean(properties.getProperty(RevengSettings.METADATA_BOUNDED_MEMORY, "false").trim());
+	}
+	
+	private static MetaDataSnapshotStore newSnapshotStore(Properties properties, ReverseEngineeringStrategy revengStrategy, MetaDataDialect mdd, String directory) {
+		String defaultSchemaName = properties.getProperty(AvailableSettings.DEFAULT_SCHEMA);
+		List<SchemaSelection> schemaSelections = revengStrategy.getSchemaSelections();
+		String changeMarkerQuery = properties.getProperty(RevengSettings.METADATA_SNAPSHOT_CHANGE_MARKER_QUERY);
+		if (changeMarkerQuery == null) {
+			changeMarkerQuery = MetaDataSnapshotStore.getDefaultChangeMarkerQuery(mdd, defaultSchemaName, schemaSelections);
+		}
+		return new MetaDataSnapshotStore(
+				new File(directory),
+				properties.getProperty(AvailableSettings.URL),
+				properties.getProperty(AvailableSettings.DEFAULT_CATALOG),
+				defaultSchemaName,
+				schemaSelections,
+				changeMarkerQuery);
+	}
+	
+	static int getPositiveInt(Properties properties, String key, int defaultValue) {
+		String value = properties.getProperty(key);
+		if (value == null) {
+			return defaultValue;
+		}
+		try {
+			return Math.max(1, Integer.parseInt(value.trim()));
+		} 
+		catch (NumberFormatException e) {
+			throw new JdbcBinderException(
+					"Invalid value for " + key + ": " + value, e);
+		}
 	}
 
 }
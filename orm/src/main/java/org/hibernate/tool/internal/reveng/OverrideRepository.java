@@ -8,6 +8,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -40,8 +41,12 @@ public class OverrideRepository  {
 
 	final private Map<TypeMappingKey, List<SQLTypeMapping>> typeMappings; // from sqltypes to list of SQLTypeMapping
 
+	final private ColumnTypeCache typeMappingTypes = new ColumnTypeCache(); // the result of matching typeMappings per column type signature
+
 	final private List<TableFilter> tableFilters;
 
+	private volatile TableFilterIndex tableFilterIndex; // compiled from tableFilters on first use
+
 	final private List<Table> tables;
 	final private Map<TableIdentifier, List<ForeignKey>> foreignKeys; // key: TableIdentifier element: List of foreignkeys that references the Table
 
@@ -175,6 +180,22 @@ public class OverrideRepository  {
 		return this;
 	}
 
+	/**
+	 * @return the type of the first &lt;type-mapping&gt; matching the column type signature, or null if none matches
+	 */
+	private String getPreferredHibernateType(int sqlType, int length, int precision, int scale, boolean nullable, boolean generatedIdentifier) {
+		if(typeMappings.isEmpty()) {
+			return null;
+		}
+		ColumnTypeCache.Signature signature = new ColumnTypeCache.Signature(sqlType, length, precision, scale, nullable, generatedIdentifier);
+		String result = typeMappingTypes.get(signature);
+		if(result==null && !typeMappingTypes.contains(signature)) {
+			result = getPreferredHibernateType(sqlType, length, precision, scale, nullable);
+			typeMappingTypes.put(signature, result);
+		}
+		return result;
+	}
+
 	private String getPreferredHibernateType(int sqlType, int length, int precision, int scale, boolean nullable) {
 		List<SQLTypeMapping> l = typeMappings.get(new TypeMappingKey(sqlType,length) );
 
@@ -206,6 +227,7 @@ public class OverrideRepository  {
 			typeMappings.put(key, list);
 		}
 		list.add(sqltype);
+		typeMappingTypes.clear();
 		return this;
 	}
 
@@ -243,42 +265,72 @@ public class OverrideRepository  {
 	}
 
 	protected String getPackageName(TableIdentifier identifier) {
-		Iterator<TableFilter> iterator = tableFilters.iterator();
-		while(iterator.hasNext() ) {
-			TableFilter tf = iterator.next();
-			String value = tf.getPackage(identifier);
-			if(value!=null) {
-				return value;
+		return getTableFilterIndex().getPackageName(identifier);
+	}
+
+	protected boolean excludeTable(TableIdentifier identifier) {
+		// first matching filter decides; if none matches, tables are excluded when at least one include is specified
+		return getTableFilterIndex().excludeTable(identifier);
+	}
+
+	private static String getColumnLocation(TableIdentifier table, String columnName, int sqlType, int length, int precision, int scale, boolean nullable, boolean generatedIdentifier) {
+		String info = " t:" + JdbcToHibernateTypeHelper.getJDBCTypeName( sqlType ) + " l:" + length + " p:" + precision + " s:" + scale + " n:" + nullable + " id:" + generatedIdentifier;
+		if(table!=null) {
+			return TableNameQualifier.qualify(table.getCatalog(), table.getSchema(), table.getName() ) + "." + columnName + info;
+		} else {
+			return " Column: " + columnName + info;
+		}
+	}
+
+	private TableFilterIndex getTableFilterIndex() {
+		TableFilterIndex result = tableFilterIndex;
+		if(result==null) {
+			synchronized (tableFilters) {
+				result = tableFilterIndex;
+				if(result==null) {
+					result = new TableFilterIndex(tableFilters);
+					tableFilterIndex = result;
+				}
 			}
 		}
-		return null;
+		return result;
 	}
 
-	protected boolean excludeTable(TableIdentifier identifier) {
+	/**
+	 * Since tables not matched by any include filter are excluded, the name patterns of the include filters
+	 * are enough to find all included tables. Exclude filters are left to {@link #excludeTable(TableIdentifier)}.
+	 */
+	protected List<SchemaSelection> narrowSchemaSelection(SchemaSelection selection) {
+		String matchTable = selection.getMatchTable();
+		if(matchTable!=null && !".*".equals(matchTable) && !"%".equals(matchTable)) {
+			return null;
+		}
+		Set<String> names = new LinkedHashSet<String>();
 		Iterator<TableFilter> iterator = tableFilters.iterator();
-		boolean hasInclude = false;
-
 		while(iterator.hasNext() ) {
 			TableFilter tf = iterator.next();
-			Boolean value = tf.exclude(identifier);
-			if(value!=null) {
-				return value.booleanValue();
-			}
-			if(!tf.getExclude().booleanValue()) {
-				hasInclude = true;
+			if(Boolean.FALSE.equals(tf.getExclude())) {
+				if(".*".equals(tf.getMatchName())) {
+					return null;
+				}
+				names.add(tf.getMatchName());
 			}
 		}
-
-		// can probably be simplified - but like this to be very explicit ;)
-		if(hasInclude) {
-			return true; // exclude all by default when at least one include specified
-		} else {
-			return false; // if nothing specified or just excludes we include everything
+		if(names.isEmpty()) {
+			return null;
+		}
+		List<SchemaSelection> result = new ArrayList<SchemaSelection>(names.size());
+		for (Iterator<String> iter = names.iterator(); iter.hasNext();) {
+			result.add(new SchemaSelection(selection.getMatchCatalog(), selection.getMatchSchema(), iter.next()));
 		}
+		return result;
 	}
 
 	public void addTableFilter(TableFilter filter) {
-		tableFilters.add(filter);
+		synchronized (tableFilters) {
+			tableFilters.add(filter);
+			tableFilterIndex = null;
+		}
 	}
 
 	public ReverseEngineeringStrategy getReverseEngineeringStrategy(ReverseEngineeringStrategy delegate) {
@@ -288,6 +340,10 @@ public class OverrideRepository  {
 				return OverrideRepository.this.excludeTable(ti);
 			}
 
+			public List<SchemaSelection> narrowSchemaSelection(SchemaSelection selection) {
+				return OverrideRepository.this.narrowSchemaSelection(selection);
+			}
+
 			public Map<String,MetaAttribute> tableToMetaAttributes(TableIdentifier tableIdentifier) {
 				return OverrideRepository.this.tableToMetaAttributes(tableIdentifier);
 			}
@@ -318,28 +374,24 @@ public class OverrideRepository  {
 
 			public String columnToHibernateTypeName(TableIdentifier table, String columnName, int sqlType, int length, int precision, int scale, boolean nullable, boolean generatedIdentifier) {
 				String result = null;
-				String location = "";
-				String info = " t:" + JdbcToHibernateTypeHelper.getJDBCTypeName( sqlType ) + " l:" + length + " p:" + precision + " s:" + scale + " n:" + nullable + " id:" + generatedIdentifier;
-				if(table!=null) {
-					location = TableNameQualifier.qualify(table.getCatalog(), table.getSchema(), table.getName() ) + "." + columnName;
-				} else {
-
-					location += " Column: " + columnName + info;
-				}
-				if(table!=null && columnName!=null) {
+				if(table!=null && columnName!=null && !typeForColumn.isEmpty()) {
 					result = typeForColumn.get(new TableColumnKey(table, columnName));
 					if(result!=null) {
-						log.debug("explicit column mapping found for [" + location + "] to [" + result + "]");
+						if(log.isDebugEnabled()) {
+							log.debug("explicit column mapping found for [" + getColumnLocation(table, columnName, sqlType, length, precision, scale, nullable, generatedIdentifier) + "] to [" + result + "]");
+						}
 						return result;
 					}
 				}
 
-				result = OverrideRepository.this.getPreferredHibernateType(sqlType, length, precision, scale, nullable);
+				result = OverrideRepository.this.getPreferredHibernateType(sqlType, length, precision, scale, nullable, generatedIdentifier);
 				if(result==null) {
 					return super.columnToHibernateTypeName(table, columnName, sqlType, length, precision, scale, nullable, generatedIdentifier);
 				}
 				else {
-					log.debug("<type-mapping> found for [" + location + info + "] to [" + result + "]");
+					if(log.isDebugEnabled()) {
+						log.debug("<type-mapping> found for [" + getColumnLocation(table, columnName, sqlType, length, precision, scale, nullable, generatedIdentifier) + "] to [" + result + "]");
+					}
 					return result;
 				}
 			}
@@ -547,15 +599,7 @@ public class OverrideRepository  {
 	}
 
 	private Map<?,?> findGeneralAttributes(TableIdentifier identifier) {
-		Iterator<TableFilter> iterator = tableFilters.iterator();
-		while(iterator.hasNext() ) {
-			TableFilter tf = iterator.next();
-			Map<?,?> value = tf.getMetaAttributes(identifier);
-			if(value!=null) {
-				return value;
-			}
-		}
-		return null;
+		return getTableFilterIndex().getMetaAttributes(identifier);
 	}
 
 	private Map<String, MetaAttribute> toMetaAttributes(Map<?,?> value) {
@@ -0,0 +1,107 @@
+package org.hibernate.tool.internal.reveng;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.LinkedList;
+
+import org.hibernate.engine.jdbc.connections.spi.ConnectionProvider;
+import org.jboss.logging.Logger;
+
+/**
+ * Keeps the connections closed by the dialects, the sequence reader and the parallel workers of one
+ * reverse engineering session open, so the next phase or the next readDatabaseSchema call can reuse them
+ * instead of setting up a new connection. At most poolSize idle connections are kept; {@link #release()}
+ * closes them when the session ends.
+ */
+public class PooledConnectionProvider implements ConnectionProvider {
+
+	private static final long serialVersionUID = 1L;
+
+	private static final Logger log = Logger.getLogger(PooledConnectionProvider.class);
+
+	private final ConnectionProvider delegate;
+	private final int poolSize;
+	private final LinkedList<Connection> idle = new LinkedList<Connection>();
+
+	public PooledConnectionProvider(ConnectionProvider delegate, int poolSize) {
+		this.delegate = delegate;
+		this.poolSize = poolSize;
+	}
+
+	public Connection getConnection() throws SQLException {
+		synchronized (idle) {
+			if(!idle.isEmpty()) {
+				return idle.removeFirst();
+			}
+		}
+		return delegate.getConnection();
+	}
+
+	public void closeConnection(Connection connection) throws SQLException {
+		if(!connection.isClosed()) {
+			synchronized (idle) {
+				if(idle.size() < poolSize) {
+					idle.addFirst(connection);
+					return;
+				}
+			}
+		}
+		delegate.closeConnection(connection);
+	}
+
+	/**
+	 * Closes the idle connections. Connections handed out are closed when they are given back.
+	 */
+	public void release() throws SQLException {
+		SQLException failure = null;
+		while (true) {
+			Connection connection;
+			synchronized (idle) {
+				if(idle.isEmpty()) {
+					break;
+				}
+				connection = idle.removeFirst();
+			}
+			try {
+				delegate.closeConnection(connection);
+			}
+			catch (SQLException e) {
+				log.debug("Could not close pooled connection", e);
+				if(failure==null) {
+					failure = e;
+				}
+			}
+		}
+		if(failure!=null) {
+			throw failure;
+		}
+	}
+
+	public int getPoolSize() {
+		return poolSize;
+	}
+
+	public int getIdleCount() {
+		synchronized (idle) {
+			return idle.size();
+		}
+	}
+
+	public boolean supportsAggressiveRelease() {
+		return false;
+	}
+
+	@SuppressWarnings("rawtypes")
+	public boolean isUnwrappableAs(Class unwrapType) {
+		return unwrapType.isInstance(this) || delegate.isUnwrappableAs(unwrapType);
+	}
+
+	@SuppressWarnings("unchecked")
+	public <T> T unwrap(Class<T> unwrapType) {
+		if(unwrapType.isInstance(this)) {
+			return (T) this;
+		}
+		return delegate.unwrap(unwrapType);
+	}
+
+}
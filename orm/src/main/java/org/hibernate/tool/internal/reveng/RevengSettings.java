@@ -0,0 +1,80 @@
+package org.hibernate.tool.internal.reveng;
+
+public interface RevengSettings {
+
+	public final String PREFIX_KEY = "hibernatetool.";
+
+	/**
+	 * number of workers used to read columns, primary keys and indexes of the found tables.
+	 * Each worker uses its own MetaDataDialect and thus its own connection. Defaults to 1 (serial reading).
+	 */
+	public final String METADATA_PARALLELISM = PREFIX_KEY + "metadata.parallelism";
+
+	/**
+	 * number of found tables that may wait for a worker when reading in parallel. Table discovery blocks
+	 * while the queue is full, so memory stays bounded however many tables the schema has. Defaults to 100.
+	 */
+	public final String METADATA_QUEUE_SIZE = PREFIX_KEY + "metadata.queuesize";
+
+	/**
+	 * number of idle connections kept open by a JDBCReader between the phases and calls of one reverse engineering 
+	 * session (see JDBCReader.beginSession). Defaults to the metadata parallelism plus one when reading in parallel, otherwise 1.
+	 */
+	public final String CONNECTION_POOL_SIZE = PREFIX_KEY + "connection.poolsize";
+
+	/**
+	 * read columns, primary keys, indexes and foreign keys with one query per catalog/schema instead of 
+	 * one query per table when the MetaDataDialect supports it (see BulkMetaDataDialect). Defaults to false.
+	 */
+	public final String METADATA_BULK_READ = PREFIX_KEY + "metadata.bulkread";
+
+	/**
+	 * read the metadata of a catalog/schema that has the same tables as one found before it, e.g. the schema
+	 * of another tenant, from that one instead, so every group of identical schemas is read once. Schemas with the same 
+	 * table names are only cloned when the columns, keys and indexes of their tables are the same too, which is checked 
+	 * with one bulk read per schema; with a MetaDataDialect that cannot read a schema at once (see BulkMetaDataDialect) 
+	 * every schema is read. Defaults to false.
+	 */
+	public final String METADATA_CLONE_IDENTICAL_SCHEMAS = PREFIX_KEY + "metadata.cloneidenticalschemas";
+
+	/**
+	 * keep less of the read metadata on the heap for very large catalogs: prefetched and cloned metadata rows are dropped
+	 * once their table is processed and the one-to-many candidates are stored compactly and released as their classes 
+	 * are bound. When METADATA_SNAPSHOT_DIR is set, the rows cached for the snapshot are kept in a temporary file too; 
+	 * without it no rows are cached, so there is nothing to spill. Defaults to false.
+	 */
+	public final String METADATA_BOUNDED_MEMORY = PREFIX_KEY + "metadata.boundedmemory";
+
+	/**
+	 * directory in which the read metadata is kept between runs, one snapshot file per connection url, catalog, schema
+	 * and schema selections of the reverse engineering strategy.
+	 * A snapshot is reused as long as the change marker query returns the same value. When reading in parallel 
+	 * (see METADATA_PARALLELISM) the workers read through the snapshot too.
+	 */
+	public final String METADATA_SNAPSHOT_DIR = PREFIX_KEY + "metadata.snapshot.dir";
+
+	/**
+	 * query returning a single value that changes whenever the schema changes, e.g. a version number maintained 
+	 * by the migrations. Defaults to the latest DDL time of the selected schemas on Oracle; without it no snapshot is used on other databases.
+	 */
+	public final String METADATA_SNAPSHOT_CHANGE_MARKER_QUERY = PREFIX_KEY + "metadata.snapshot.changemarkerquery";
+
+	/**
+	 * file holding the table fingerprints of the previous successful run. When set, JdbcMetadataDescriptor determines 
+	 * which tables changed since that run and GenericExporter only regenerates the entities of those tables and their 
+	 * foreign key neighbours, and the entities whose other inputs (mapping, templates, settings) changed as recorded 
+	 * in its RegenerationManifest. The fingerprints are stored once the exporters succeeded, see 
+	 * JdbcMetadataDescriptor.storeFingerprints(). Delete the file to regenerate everything.
+	 */
+	public final String INCREMENTAL_FINGERPRINTS = PREFIX_KEY + "incremental.fingerprints";
+
+	/**
+	 * number of threads guessing the types of the basic properties whose columns are neither in the primary key
+	 * nor in a foreign key, before the classes are bound. The identifiers, versions and all associations are
+	 * still bound by one thread in table order, so the classes are the same as with serial binding, except that
+	 * the default catalog/schema is cleared from all tables before, not while, they are bound. Only use it with
+	 * a ReverseEngineeringStrategy that is thread-safe. Defaults to 1 (serial binding).
+	 */
+	public final String BINDING_PARALLELISM = PREFIX_KEY + "binding.parallelism";
+
+}
@@ -18,11 +18,11 @@ public class TableFilter {
 	// TODO: very basic substring matching. Possibly include regex functionallity ? (jdk 1.4 dep)
 	public static class Matcher {
 		
-		private static final int EQUALS = 1;
-		private static final int ENDSWITH = 2;
-		private static final int STARTSWITH = 3;
-		private static final int SUBSTRING = 4;
-		private static final int ANY = 5;
+		static final int EQUALS = 1;
+		static final int ENDSWITH = 2;
+		static final int STARTSWITH = 3;
+		static final int SUBSTRING = 4;
+		static final int ANY = 5;
 		
 		final int mode;
 		final String value;
@@ -149,6 +149,10 @@ public class TableFilter {
 		return exclude;
 	}
 
+	Matcher getNameMatcher() {
+		return nameMatcher;
+	}
+
 	public Map<?,?> getMetaAttributes(TableIdentifier identifier) {
 		return isRelevantFor(identifier) ? metaAttributes : null;	
 	}
@@ -0,0 +1,143 @@
+package org.hibernate.tool.internal.reveng;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.hibernate.tool.api.reveng.TableIdentifier;
+
+/**
+ * The table filters of an OverrideRepository compiled into an index on their name pattern, so that the
+ * filters relevant for a table are found without testing all of them. Exact names are kept in a hash map,
+ * prefixes and suffixes in a trie and only the substring and match-all filters are tested one by one.
+ *
+ * Lookups return the first relevant filter in the order the filters were added, exactly like a scan of the list.
+ */
+public class TableFilterIndex {
+
+	private static class Node {
+		final Map<Character, Node> children = new HashMap<Character, Node>();
+		final BitSet filters = new BitSet();
+	}
+
+	private final TableFilter[] filters;
+	private final Map<String, BitSet> exactNames = new HashMap<String, BitSet>();
+	private final Node prefixes = new Node();
+	private final Node suffixes = new Node();
+	private final BitSet residual = new BitSet();
+	private final boolean hasInclude;
+
+	public TableFilterIndex(List<TableFilter> tableFilters) {
+		filters = tableFilters.toArray(new TableFilter[tableFilters.size()]);
+		boolean include = false;
+		for (int i = 0; i < filters.length; i++) {
+			TableFilter.Matcher matcher = filters[i].getNameMatcher();
+			switch (matcher.mode) {
+			case TableFilter.Matcher.EQUALS:
+				BitSet bucket = exactNames.get(matcher.value);
+				if(bucket==null) {
+					bucket = new BitSet();
+					exactNames.put(matcher.value, bucket);
+				}
+				bucket.set(i);
+				break;
+			case TableFilter.Matcher.STARTSWITH:
+				add(prefixes, matcher.value, false, i);
+				break;
+			case TableFilter.Matcher.ENDSWITH:
+				add(suffixes, matcher.value, true, i);
+				break;
+			default:
+				residual.set(i);
+			}
+			if(Boolean.FALSE.equals(filters[i].getExclude())) {
+				include = true;
+			}
+		}
+		hasInclude = include;
+	}
+
+	/**
+	 * @return true if the first relevant filter excludes the table. Without a relevant filter the table is
+	 * excluded when at least one include filter exists.
+	 */
+	public boolean excludeTable(TableIdentifier identifier) {
+		BitSet candidates = getCandidates(identifier.getName());
+		for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+			Boolean value = filters[i].exclude(identifier);
+			if(value!=null) {
+				return value.booleanValue();
+			}
+		}
+		return hasInclude;
+	}
+
+	public String getPackageName(TableIdentifier identifier) {
+		BitSet candidates = getCandidates(identifier.getName());
+		for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+			String value = filters[i].getPackage(identifier);
+			if(value!=null) {
+				return value;
+			}
+		}
+		return null;
+	}
+
+	public Map<?,?> getMetaAttributes(TableIdentifier identifier) {
+		BitSet candidates = getCandidates(identifier.getName());
+		for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+			Map<?,?> value = filters[i].getMetaAttributes(identifier);
+			if(value!=null) {
+				return value;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * @return the filters whose name pattern may match the name; catalog and schema still have to be checked.
+	 */
+	private BitSet getCandidates(String name) {
+		BitSet result = (BitSet) residual.clone();
+		if(name==null) {
+			// let the filters themselves decide, as without an index
+			result.set(0, filters.length);
+			return result;
+		}
+		BitSet bucket = exactNames.get(name);
+		if(bucket!=null) {
+			result.or(bucket);
+		}
+		collect(prefixes, name, false, result);
+		collect(suffixes, name, true, result);
+		return result;
+	}
+
+	private static void add(Node root, String value, boolean reverse, int filter) {
+		Node node = root;
+		for (int i = 0; i < value.length(); i++) {
+			Character c = Character.valueOf(value.charAt(reverse ? value.length() - 1 - i : i));
+			Node child = node.children.get(c);
+			if(child==null) {
+				child = new Node();
+				node.children.put(c, child);
+			}
+			node = child;
+		}
+		node.filters.set(filter);
+	}
+
+	private static void collect(Node root, String name, boolean reverse, BitSet result) {
+		Node node = root;
+		result.or(node.filters);
+		for (int i = 0; i < name.length() && !node.children.isEmpty(); i++) {
+			node = node.children.get(Character.valueOf(name.charAt(reverse ? name.length() - 1 - i : i)));
+			if(node==null) {
+				return;
+			}
+			result.or(node.filters);
+		}
+	}
+
+}
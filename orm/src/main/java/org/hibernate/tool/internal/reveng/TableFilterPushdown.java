@@ -0,0 +1,21 @@
+package org.hibernate.tool.internal.reveng;
+
+import java.util.List;
+
+import org.hibernate.tool.api.reveng.ReverseEngineeringStrategy;
+import org.hibernate.tool.api.reveng.SchemaSelection;
+
+/**
+ * Optional interface for a {@link ReverseEngineeringStrategy} that can push its table exclusion down
+ * into the patterns used when asking the MetaDataDialect for tables, so tables that would be excluded 
+ * anyway are not transferred at all. {@link ReverseEngineeringStrategy#excludeTable} is still applied to the found tables.
+ */
+public interface TableFilterPushdown {
+
+	/**
+	 * @return schema selections that together find at least every table of selection that is not excluded by the strategy, 
+	 * or null if selection cannot be narrowed
+	 */
+	List<SchemaSelection> narrowSchemaSelection(SchemaSelection selection);
+
+}
@@ -0,0 +1,212 @@
+package org.hibernate.tool.internal.reveng;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+
+import org.hibernate.mapping.Column;
+import org.hibernate.mapping.ForeignKey;
+import org.hibernate.mapping.Index;
+import org.hibernate.mapping.Table;
+import org.hibernate.mapping.UniqueKey;
+import org.hibernate.tool.api.reveng.DatabaseCollector;
+import org.hibernate.tool.internal.util.TableNameQualifier;
+
+/**
+ * Fingerprints of the tables read from the database, covering columns and their types,
+ * primary key, foreign keys, indexes and unique keys. Comparing the fingerprints of two runs
+ * tells which tables changed in between.
+ *
+ * Tables are identified the way they are after binding, i.e. without the default catalog and schema.
+ */
+public class TableFingerprints {
+
+	private final Map<String, String> fingerprints = new HashMap<String, String>();
+
+	public static TableFingerprints create(DatabaseCollector dbs, String defaultCatalog, String defaultSchema) {
+		TableFingerprints result = new TableFingerprints();
+		for (Iterator<Table> iter = dbs.iterateTables(); iter.hasNext();) {
+			Table table = iter.next();
+			String description = describe(table, defaultCatalog, defaultSchema)
+					+ "strategy " + dbs.getSuggestedIdentifierStrategy(table.getCatalog(), table.getSchema(), table.getName());
+			result.fingerprints.put(getKey(table, defaultCatalog, defaultSchema), digest(description));
+		}
+		return result;
+	}
+
+	public static TableFingerprints load(File file) {
+		TableFingerprints result = new TableFingerprints();
+		if(file.isFile()) {
+			Properties properties = new Properties();
+			InputStream in = null;
+			try {
+				in = new FileInputStream(file);
+				properties.load(in);
+			}
+			catch (IOException e) {
+				throw new JdbcBinderException("Could not read table fingerprints from " + file, e);
+			}
+			finally {
+				close(in);
+			}
+			for (Iterator<String> iter = properties.stringPropertyNames().iterator(); iter.hasNext();) {
+				String key = iter.next();
+				result.fingerprints.put(key, properties.getProperty(key));
+			}
+		}
+		return result;
+	}
+
+	public void store(File file) {
+		Properties properties = new Properties();
+		properties.putAll(fingerprints);
+		OutputStream out = null;
+		try {
+			File parent = file.getAbsoluteFile().getParentFile();
+			if(parent!=null) {
+				parent.mkdirs();
+			}
+			out = new FileOutputStream(file);
+			properties.store(out, "Table fingerprints of the last reverse engineering run");
+		}
+		catch (IOException e) {
+			throw new JdbcBinderException("Could not write table fingerprints to " + file, e);
+		}
+		finally {
+			close(out);
+		}
+	}
+
+	public boolean isEmpty() {
+		return fingerprints.isEmpty();
+	}
+
+	/**
+	 * @return the keys of the tables that are new or changed since previous, together with
+	 * the tables they reference or are referenced by. Tables that disappeared are not included.
+	 */
+	public Set<String> getChangedTables(TableFingerprints previous, DatabaseCollector dbs, String defaultCatalog, String defaultSchema) {
+		Set<String> changed = new HashSet<String>();
+		for (Iterator<Map.Entry<String, String>> iter = fingerprints.entrySet().iterator(); iter.hasNext();) {
+			Map.Entry<String, String> entry = iter.next();
+			if(!entry.getValue().equals(previous.fingerprints.get(entry.getKey()))) {
+				changed.add(entry.getKey());
+			}
+		}
+		Set<String> result = new HashSet<String>(changed);
+		for (Iterator<Table> iter = dbs.iterateTables(); iter.hasNext();) {
+			Table table = iter.next();
+			String key = getKey(table, defaultCatalog, defaultSchema);
+			for (Iterator<?> fks = table.getForeignKeyIterator(); fks.hasNext();) {
+				ForeignKey fk = (ForeignKey) fks.next();
+				String referencedKey = getKey(fk.getReferencedTable(), defaultCatalog, defaultSchema);
+				if(changed.contains(key)) {
+					result.add(referencedKey);
+				} else if(changed.contains(referencedKey)) {
+					result.add(key);
+				}
+			}
+		}
+		result.retainAll(fingerprints.keySet());
+		return result;
+	}
+
+	public static String getKey(Table table, String defaultCatalog, String defaultSchema) {
+		String catalog = table.getCatalog();
+		String schema = table.getSchema();
+		return TableNameQualifier.qualify(
+				catalog==null || catalog.equals(defaultCatalog) ? null : catalog,
+				schema==null || schema.equals(defaultSchema) ? null : schema,
+				table.getName());
+	}
+
+	private static String describe(Table table, String defaultCatalog, String defaultSchema) {
+		StringBuilder result = new StringBuilder();
+		for (Iterator<?> iter = table.getColumnIterator(); iter.hasNext();) {
+			Column column = (Column) iter.next();
+			result.append("column ").append(column.getName())
+				.append(' ').append(column.getSqlTypeCode())
+				.append(' ').append(column.getSqlType())
+				.append(' ').append(column.getLength())
+				.append(' ').append(column.getPrecision())
+				.append(' ').append(column.getScale())
+				.append(' ').append(column.isNullable())
+				.append(' ').append(column.isUnique())
+				.append(' ').append(column.getComment())
+				.append('\n');
+		}
+		if(table.getPrimaryKey()!=null) {
+			result.append("pk ").append(table.getPrimaryKey().getName()).append(' ')
+				.append(describe(table.getPrimaryKey().getColumnIterator())).append('\n');
+		}
+		List<String> keys = new ArrayList<String>();
+		for (Iterator<?> iter = table.getForeignKeyIterator(); iter.hasNext();) {
+			ForeignKey fk = (ForeignKey) iter.next();
+			keys.add("fk " + fk.getName() + ' ' + describe(fk.getColumnIterator())
+					+ "-> " + getKey(fk.getReferencedTable(), defaultCatalog, defaultSchema)
+					+ ' ' + describe(fk.getReferencedColumns().iterator()));
+		}
+		for (Iterator<Index> iter = table.getIndexIterator(); iter.hasNext();) {
+			Index index = iter.next();
+			keys.add("index " + index.getName() + ' ' + describe(index.getColumnIterator()));
+		}
+		for (Iterator<UniqueKey> iter = table.getUniqueKeyIterator(); iter.hasNext();) {
+			UniqueKey uniqueKey = iter.next();
+			keys.add("unique " + uniqueKey.getName() + ' ' + describe(uniqueKey.getColumnIterator()));
+		}
+		Collections.sort(keys);
+		for (Iterator<String> iter = keys.iterator(); iter.hasNext();) {
+			result.append(iter.next()).append('\n');
+		}
+		return result.toString();
+	}
+
+	private static String describe(Iterator<?> columns) {
+		StringBuilder result = new StringBuilder();
+		while (columns.hasNext()) {
+			result.append(((Column) columns.next()).getName()).append(' ');
+		}
+		return result.toString();
+	}
+
+	private static String digest(String value) {
+		try {
+			byte[] hash = MessageDigest.getInstance("SHA-1").digest(value.getBytes(StandardCharsets.UTF_8));
+			StringBuilder result = new StringBuilder();
+			for (int i = 0; i < hash.length; i++) {
+				result.append(Integer.toHexString((hash[i] & 0xff) | 0x100).substring(1));
+			}
+			return result.toString();
+		}
+		catch (NoSuchAlgorithmException e) {
+			return value;
+		}
+	}
+
+	private static void close(Closeable closeable) {
+		if(closeable!=null) {
+			try {
+				closeable.close();
+			}
+			catch (IOException ignore) {
+			}
+		}
+	}
+
+}
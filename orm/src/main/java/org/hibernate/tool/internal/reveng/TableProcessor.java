@@ -2,26 +2,33 @@ package org.hibernate.tool.internal.reveng;
 
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
 
 import org.hibernate.internal.util.StringHelper;
 import org.hibernate.mapping.Table;
 import org.hibernate.tool.api.dialect.MetaDataDialect;
+import org.hibernate.tool.api.dialect.TableRow;
 import org.hibernate.tool.api.reveng.DatabaseCollector;
 import org.hibernate.tool.api.reveng.ProgressListener;
 import org.hibernate.tool.api.reveng.ReverseEngineeringStrategy;
 import org.hibernate.tool.api.reveng.SchemaSelection;
 import org.hibernate.tool.api.reveng.TableIdentifier;
+import org.hibernate.tool.internal.dialect.MetaDataRows;
 import org.jboss.logging.Logger;
 
 public class TableProcessor {
 
 	private static final Logger log = Logger.getLogger(TableProcessor.class);
 
+	/**
+	 * Receives the tables found by {@link TableProcessor} as soon as they are added to the {@link DatabaseCollector}.
+	 */
+	public interface FoundTableListener {
+		void tableFound(Table table);
+	}
+
 	public static Collection<Table> processTables(
 			MetaDataDialect metaDataDialect, 
 			ReverseEngineeringStrategy revengStrategy, 
@@ -31,9 +38,31 @@ public class TableProcessor {
 			SchemaSelection schemaSelection, 
 			Set<Table> hasIndices, 
 			ProgressListener progress) {
-		Map<String,Object> tableRs = null;
-		Iterator<Map<String,Object>> tableIterator = null;
-		List<Map<String,Object>> tables = new ArrayList<Map<String,Object>>();
+		final List<Table> processedTables = new ArrayList<Table>();
+		processTables(metaDataDialect, revengStrategy, defaultSchema, defaultCatalog, dbs, schemaSelection, hasIndices, progress, new FoundTableListener() {
+			public void tableFound(Table table) {
+				processedTables.add(table);
+			}
+		});
+		return processedTables;
+	}
+
+	/**
+	 * Adds the tables matching schemaSelection to dbs while reading them, i.e. each table 
+	 * is passed to listener before the next one is read from the database.
+	 */
+	public static void processTables(
+			MetaDataDialect metaDataDialect, 
+			ReverseEngineeringStrategy revengStrategy, 
+			String  defaultSchema, 
+			String defaultCatalog, 
+			DatabaseCollector dbs, 
+			SchemaSelection schemaSelection, 
+			Set<Table> hasIndices, 
+			ProgressListener progress,
+			FoundTableListener listener) {
+		TableRow tableRs = null;
+		Iterator<TableRow> tableIterator = null;
 		boolean multiSchema = false; 
 		// TODO: the code below detects if the reveng is multischema'ed, but not used for anything yet. should be used to remove schema/catalog info from output if only one schema/catalog used.
 		
@@ -43,15 +72,15 @@ public class TableProcessor {
 		     String matchCatalog = StringHelper.replace(schemaSelection.getMatchCatalog(),".*", "%");
 		     String matchSchema = StringHelper.replace(schemaSelection.getMatchSchema(),".*", "%");
 		     String matchTable = StringHelper.replace(schemaSelection.getMatchTable(),".*", "%");
-		     tableIterator = metaDataDialect.getTables(matchCatalog, matchSchema, matchTable);
+		     tableIterator = MetaDataRows.getTableRows(metaDataDialect, matchCatalog, matchSchema, matchTable);
 		     String[] lastQualifier = null;
 		     String[] foundQualifier = new String[2];
 		     
 		     while (tableIterator.hasNext() ) {
 		        tableRs = tableIterator.next();
-		        String tableName = (String) tableRs.get("TABLE_NAME");
-				String schemaName = (String) tableRs.get("TABLE_SCHEM");
-		        String catalogName = (String) tableRs.get("TABLE_CAT");
+		        String tableName = tableRs.getName();
+				String schemaName = tableRs.getSchema();
+		        String catalogName = tableRs.getCatalog();
 		        
 		        TableIdentifier ti = new TableIdentifier(catalogName, schemaName, tableName);		        
 				if(revengStrategy.excludeTable(ti) ) {
@@ -72,68 +101,116 @@ public class TableProcessor {
 					}
 				}
 				
-				tables.add(new HashMap<String,Object>(tableRs));
+				Table table = processTable(tableRs, dbs, hasIndices, progress);
+				if(table!=null) {
+					listener.tableFound(table);
+				}
 		     }
 		  } 
 		  finally {
 			  try {
-				  if (tableIterator!=null) metaDataDialect.close(tableIterator);
+				  if (tableIterator!=null) MetaDataRows.close(metaDataDialect, tableIterator);
 			  } 
 			  catch (Exception ignore) {
 			  }
 		  }
+	}
+	
+	/**
+	 * Reads the tables matching schemaSelection that the strategy does not exclude without adding them 
+	 * to a DatabaseCollector, so several schema selections can be read at once, each with its own MetaDataDialect.
+	 * The rows are added with {@link #addTables(List, DatabaseCollector, Set, ProgressListener, FoundTableListener)}.
+	 */
+	public static List<TableRow> findTables(
+			MetaDataDialect metaDataDialect, 
+			ReverseEngineeringStrategy revengStrategy, 
+			SchemaSelection schemaSelection, 
+			ProgressListener progress) {
+		List<TableRow> result = new ArrayList<TableRow>();
+		Iterator<TableRow> tableIterator = null;
+		try {
+			progress.startSubTask("Finding tables in " + schemaSelection);
+			String matchCatalog = StringHelper.replace(schemaSelection.getMatchCatalog(),".*", "%");
+			String matchSchema = StringHelper.replace(schemaSelection.getMatchSchema(),".*", "%");
+			String matchTable = StringHelper.replace(schemaSelection.getMatchTable(),".*", "%");
+			tableIterator = MetaDataRows.getTableRows(metaDataDialect, matchCatalog, matchSchema, matchTable);
+			while (tableIterator.hasNext() ) {
+				TableRow tableRs = tableIterator.next();
+				TableIdentifier ti = new TableIdentifier(tableRs.getCatalog(), tableRs.getSchema(), tableRs.getName());
+				if(revengStrategy.excludeTable(ti) ) {
+					log.debug("Table " + ti + " excluded by strategy");
+					continue;
+				}
+				result.add(tableRs);
+			}
+		}
+		finally {
+			try {
+				if (tableIterator!=null) MetaDataRows.close(metaDataDialect, tableIterator);
+			} 
+			catch (Exception ignore) {
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Adds the tables found by {@link #findTables(MetaDataDialect, ReverseEngineeringStrategy, SchemaSelection, ProgressListener)}
+	 * to dbs in the order they were found and passes each of them to listener.
+	 */
+	public static void addTables(
+			List<TableRow> tableRows, 
+			DatabaseCollector dbs, 
+			Set<Table> hasIndices, 
+			ProgressListener progress, 
+			FoundTableListener listener) {
+		for (Iterator<TableRow> iter = tableRows.iterator(); iter.hasNext();) {
+			Table table = processTable(iter.next(), dbs, hasIndices, progress);
+			if(table!=null) {
+				listener.tableFound(table);
+			}
+		}
+	}
+
+	private static Table processTable(TableRow tableRs, DatabaseCollector dbs, Set<Table> hasIndices, ProgressListener progress) {
+		  String tableName = tableRs.getName();
+		  String schemaName = tableRs.getSchema();
+		  String catalogName = tableRs.getCatalog();
+		  String comment = tableRs.getRemarks();
+		  String tableType = tableRs.getType();
 		  
-		  List<Table> processedTables = new ArrayList<Table>();
-		  tableIterator = tables.iterator();
-		  while (tableIterator.hasNext() ) {
-			  tableRs = tableIterator.next();
-			  String tableName = (String) tableRs.get("TABLE_NAME");
-			  String schemaName = (String) tableRs.get("TABLE_SCHEM");
-			  String catalogName = (String) tableRs.get("TABLE_CAT");
-			  
-			  TableIdentifier ti = new TableIdentifier(catalogName, schemaName, tableName);
-			   if(revengStrategy.excludeTable(ti) ) {
-			   log.debug("Table " + ti + " excluded by strategy");
-			   continue;
-			   }
-			  
-			  String comment = (String) tableRs.get("REMARKS");
-			  String tableType = (String) tableRs.get("TABLE_TYPE");
-			  
-			  if(dbs.getTable
-					  (schemaName, 
-							  catalogName, 
-							  tableName)!=null) {
-				  log.debug("Ignoring " + tableName + " since it has already been processed");
-				  continue;
-			  } else {
-				  if ( ("TABLE".equalsIgnoreCase(tableType) || "VIEW".equalsIgnoreCase(tableType) || "SYNONYM".equals(tableType) ) ) { //||
-					  // ("SYNONYM".equals(tableType) && isOracle() ) ) { // only on oracle ? TODO: HBX-218
-					  // it's a regular table or a synonym
-					  
-					  // ensure schema and catalogname is truly empty (especially mysql returns null schema, "" catalog)
-					  if(schemaName!=null && schemaName.trim().length()==0) {
-						  schemaName = null;
-					  }                     
-					  if(catalogName!=null && catalogName.trim().length()==0) {
-						  catalogName=null;
-					  }
-					  log.debug("Adding table " + tableName + " of type " + tableType);
-					  progress.startSubTask("Found " + tableName);
-					  Table table = dbs.addTable(schemaName, catalogName, tableName);
-					  table.setComment(comment);
-					  if(tableType.equalsIgnoreCase("TABLE")) {
-						  hasIndices.add(table);
-					  }
-					  processedTables.add( table );
+		  if(dbs.getTable
+				  (schemaName, 
+						  catalogName, 
+						  tableName)!=null) {
+			  log.debug("Ignoring " + tableName + " since it has already been processed");
+			  return null;
+		  } else {
+			  if ( ("TABLE".equalsIgnoreCase(tableType) || "VIEW".equalsIgnoreCase(tableType) || "SYNONYM".equals(tableType) ) ) { //||
+				  // ("SYNONYM".equals(tableType) && isOracle() ) ) { // only on oracle ? TODO: HBX-218
+				  // it's a regular table or a synonym
+				  
+				  // ensure schema and catalogname is truly empty (especially mysql returns null schema, "" catalog)
+				  if(schemaName!=null && schemaName.trim().length()==0) {
+					  schemaName = null;
+				  }                     
+				  if(catalogName!=null && catalogName.trim().length()==0) {
+					  catalogName=null;
 				  }
-				  else {
-					  log.debug("Ignoring table " + tableName + " of type " + tableType);
+				  log.debug("Adding table " + tableName + " of type " + tableType);
+				  progress.startSubTask("Found " + tableName);
+				  Table table = dbs.addTable(schemaName, catalogName, tableName);
+				  table.setComment(comment);
+				  if(tableType.equalsIgnoreCase("TABLE")) {
+					  hasIndices.add(table);
 				  }
+				  return table;
+			  }
+			  else {
+				  log.debug("Ignoring table " + tableName + " of type " + tableType);
+				  return null;
 			  }
 		  }
-		  
-		  return processedTables;
 	}
 	
 	private static boolean safeEquals(Object value, Object tf) {
@@ -0,0 +1,66 @@
+package org.hibernate.tool.internal.util;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Remembers the names {@link NameConverter} derived from database names. Reverse engineering converts
+ * the same table and column names many times, for the class, its properties and the associations of
+ * other classes referring to it, so each distinct name is converted once and all callers share the
+ * same String instance for it.
+ *
+ * At most maxSize names are kept per conversion; when more are added the cache starts over.
+ * Can be used by several threads at once.
+ */
+public class CachingNameConverter {
+
+	public static final int DEFAULT_MAX_SIZE = 50000;
+
+	private final int maxSize;
+	private final ConcurrentMap<String, String> upperCamelCaseNames = new ConcurrentHashMap<String, String>();
+	private final ConcurrentMap<String, String> pluralNames = new ConcurrentHashMap<String, String>();
+
+	public CachingNameConverter() {
+		this(DEFAULT_MAX_SIZE);
+	}
+
+	public CachingNameConverter(int maxSize) {
+		this.maxSize = maxSize;
+	}
+
+	/**
+	 * @see NameConverter#toUpperCamelCase(String)
+	 */
+	public String toUpperCamelCase(String name) {
+		String result = upperCamelCaseNames.get(name);
+		if(result==null) {
+			result = intern(upperCamelCaseNames, name, NameConverter.toUpperCamelCase(name));
+		}
+		return result;
+	}
+
+	/**
+	 * @see NameConverter#simplePluralize(String)
+	 */
+	public String simplePluralize(String singular) {
+		String result = pluralNames.get(singular);
+		if(result==null) {
+			result = intern(pluralNames, singular, NameConverter.simplePluralize(singular));
+		}
+		return result;
+	}
+
+	public void clear() {
+		upperCamelCaseNames.clear();
+		pluralNames.clear();
+	}
+
+	private String intern(ConcurrentMap<String, String> names, String name, String converted) {
+		if(names.size() >= maxSize) {
+			names.clear();
+		}
+		String previous = names.putIfAbsent(name, converted);
+		return previous==null ? converted : previous;
+	}
+
+}
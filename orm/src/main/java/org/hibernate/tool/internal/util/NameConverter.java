@@ -1,6 +1,7 @@
 package org.hibernate.tool.internal.util;
 
 import java.util.HashSet;
+import java.util.Locale;
 import java.util.Set;
 
 final public class NameConverter {
@@ -78,79 +79,93 @@ final public class NameConverter {
 		if ( "".equals(s) ) {
 			return s;
 		}
-		StringBuffer result = new StringBuffer();
+		int length = s.length();
+		StringBuilder result = new StringBuilder(length);
+		boolean asciiCaseMapping = hasAsciiCaseMapping();
 		
 		boolean capitalize = true;
 		boolean lastCapital = false;
 		boolean lastDecapitalized = false;
-		String p = null;
-		for (int i = 0; i < s.length(); i++) {
-			String c = s.substring(i, i + 1);
-			if ( "_".equals(c) || " ".equals(c) || "-".equals(c) ) {
+		for (int i = 0; i < length; i++) {
+			char c = s.charAt(i);
+			if ( c == '_' || c == ' ' || c == '-' ) {
 				capitalize = true;
 				continue;
 			}
 			
-			if ( c.toUpperCase().equals(c) ) {
-				if (lastDecapitalized && !lastCapital) {
-					capitalize = true;
+			if ( c < 128 && asciiCaseMapping ) {
+				if ( c < 'a' || c > 'z' ) {
+					if (lastDecapitalized && !lastCapital) {
+						capitalize = true;
+					}
+					lastCapital = true;
 				}
-				lastCapital = true;
-			}
-			else {
-				lastCapital = false;
-			}
-			
-			//if(forceFirstLetter && result.length()==0) capitalize = false;
-			
-			if (capitalize) {
-				if (p == null || !p.equals("_") ) {
-					result.append(c.toUpperCase() );
+				else {
+					lastCapital = false;
+				}
+				if (capitalize) {
+					result.append( c >= 'a' && c <= 'z' ? (char) (c - 'a' + 'A') : c );
 					capitalize = false;
-					p = c;
 				}
 				else {
-					result.append(c.toLowerCase() );
-					capitalize = false;
-					p = c;
+					result.append( c >= 'A' && c <= 'Z' ? (char) (c - 'A' + 'a') : c );
+					lastDecapitalized = true;
 				}
 			}
 			else {
-				result.append(c.toLowerCase() );
-				lastDecapitalized = true;
-				p = c;
+				// the default locale or the character has case mappings a single char cannot express
+				String character = String.valueOf(c);
+				String upperCase = character.toUpperCase();
+				if ( upperCase.equals(character) ) {
+					if (lastDecapitalized && !lastCapital) {
+						capitalize = true;
+					}
+					lastCapital = true;
+				}
+				else {
+					lastCapital = false;
+				}
+				if (capitalize) {
+					result.append( upperCase );
+					capitalize = false;
+				}
+				else {
+					result.append( character.toLowerCase() );
+					lastDecapitalized = true;
+				}
 			}
-			
 		}
-		String r = result.toString();
-		return r;
+		return result.toString();
+	}
+
+	/**
+	 * @return false if the default locale maps the case of some ASCII letters to non ASCII ones, e.g. i to \u0130 in Turkish
+	 */
+	private static boolean hasAsciiCaseMapping() {
+		String language = Locale.getDefault().getLanguage();
+		return !"tr".equals(language) && !"az".equals(language);
 	}
 	
 	static public String simplePluralize(String singular) {
-		char last = singular.charAt( singular.length()-1 );
-		Character prev = singular.length() > 1 ? singular.charAt( singular.length() - 2 ) : null;
-		String vowels = "aeiouy";
+		int length = singular.length();
+		char last = singular.charAt( length - 1 );
+		char prev = length > 1 ? singular.charAt( length - 2 ) : 0;
 		switch (last) {
 			case 'x':
 			case 's':
-				singular += "es";
-				break;
+				return singular.concat("es");
 			case 'y':
-				if (prev != null && vowels.indexOf(prev) >= 0){
-					singular += "s";
-				} else {
-					singular = singular.substring( 0, singular.length()-1 ) + "ies";
+				if (prev != 0 && "aeiouy".indexOf(prev) >= 0){
+					return singular.concat("s");
 				}
-				break;
+				return new StringBuilder(length + 2).append(singular, 0, length - 1).append("ies").toString();
 			case 'h':
-				if (prev != null && (prev == 'c' || prev == 's')){
-					singular += "es";
-					break;
+				if (prev == 'c' || prev == 's'){
+					return singular.concat("es");
 				}
 			default:
-				singular += "s";
+				return singular.concat("s");
 		}
-		return singular;
 	}
 
 	static public boolean isReservedJavaKeyword(String str) {
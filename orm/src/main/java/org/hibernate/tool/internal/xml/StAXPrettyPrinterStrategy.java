@@ -0,0 +1,300 @@
+package org.hibernate.tool.internal.xml;
+
+import java.io.BufferedWriter;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.Writer;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLResolver;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.hibernate.tool.api.xml.XMLPrettyPrinterStrategy;
+
+/**
+ * Indents a document in a single pass over a StAX stream, without building a DOM. Whitespace-only
+ * text nodes are dropped, elements without content are collapsed and elements holding text keep it on the
+ * line of their start tag. The XML declaration, including its encoding, and the DOCTYPE are copied as
+ * they are; external DTDs are never loaded.
+ *
+ * Every thread parses with a StAX factory of its own, so one instance can be used by several threads at once.
+ */
+public class StAXPrettyPrinterStrategy implements XMLPrettyPrinterStrategy {
+
+	private static final String REPORT_CDATA = "http://java.sun.com/xml/stream/properties/report-cdata-event";
+
+	private static final XMLResolver NO_EXTERNAL_ENTITIES = new XMLResolver() {
+		public Object resolveEntity(String publicID, String systemID, String baseURI, String namespace) {
+			return new ByteArrayInputStream(new byte[0]);
+		}
+	};
+
+	private final ThreadLocal<XMLInputFactory> inputFactories = new ThreadLocal<XMLInputFactory>();
+
+	private int indent = 4;
+
+	@Override
+	public String prettyPrint(String xml) throws Exception {
+		StringWriter result = new StringWriter(xml.length() + xml.length() / 4);
+		prettyPrint(new StringReader(xml), result);
+		return result.toString();
+	}
+
+	public void prettyPrint(Reader input, Writer output) throws XMLStreamException, IOException {
+		XMLStreamReader reader = getInputFactory().createXMLStreamReader(input);
+		try {
+			new Printer(reader, output, indent).print();
+		}
+		finally {
+			reader.close();
+		}
+	}
+
+	/**
+	 * Writes the document in the encoding it declares, UTF-8 if it declares none.
+	 */
+	public void prettyPrint(Reader input, OutputStream output) throws XMLStreamException, IOException {
+		XMLStreamReader reader = getInputFactory().createXMLStreamReader(input);
+		try {
+			Writer writer = new BufferedWriter(new OutputStreamWriter(output, getEncoding(reader)));
+			new Printer(reader, writer, indent).print();
+		}
+		finally {
+			reader.close();
+		}
+	}
+
+	private static String getEncoding(XMLStreamReader reader) {
+		String encoding = reader.getCharacterEncodingScheme();
+		return encoding==null ? "UTF-8" : encoding;
+	}
+
+	private XMLInputFactory getInputFactory() {
+		XMLInputFactory result = inputFactories.get();
+		if(result==null) {
+			result = XMLInputFactory.newInstance();
+			result.setProperty(XMLInputFactory.SUPPORT_DTD, Boolean.TRUE); // to see the DOCTYPE
+			result.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE);
+			result.setProperty(XMLInputFactory.IS_REPLACING_ENTITY_REFERENCES, Boolean.FALSE);
+			result.setProperty(XMLInputFactory.IS_COALESCING, Boolean.FALSE);
+			result.setXMLResolver(NO_EXTERNAL_ENTITIES);
+			if(result.isPropertySupported(REPORT_CDATA)) {
+				result.setProperty(REPORT_CDATA, Boolean.TRUE);
+			}
+			inputFactories.set(result);
+		}
+		return result;
+	}
+
+	public int getIndent() {
+		return indent;
+	}
+
+	public void setIndent(int indent) {
+		this.indent = indent;
+	}
+
+	private static class Printer {
+
+		private final XMLStreamReader reader;
+		private final Writer out;
+		private final int indent;
+
+		private int depth = 0;
+		/** a start tag was written without its closing '>' */
+		private boolean startTagOpen = false;
+		/** the current element holds text, so its content and end tag stay on one line */
+		private boolean inlineContent = false;
+		private boolean firstLine = true;
+		/** the escaped text of the current text node */
+		private final StringBuilder text = new StringBuilder();
+		private boolean blankText = true;
+
+		Printer(XMLStreamReader reader, Writer out, int indent) {
+			this.reader = reader;
+			this.out = out;
+			this.indent = indent;
+		}
+
+		void print() throws XMLStreamException, IOException {
+			printDeclaration();
+			while (reader.hasNext()) {
+				int event = reader.next();
+				if(!isText(event)) {
+					printText();
+				}
+				switch (event) {
+				case XMLStreamConstants.START_ELEMENT:
+					closeStartTag();
+					newLine(depth);
+					printStartTag();
+					depth++;
+					inlineContent = false;
+					break;
+				case XMLStreamConstants.END_ELEMENT:
+					depth--;
+					if(startTagOpen) {
+						out.write("/>");
+						startTagOpen = false;
+					} else {
+						if(!inlineContent) {
+							newLine(depth);
+						}
+						out.write("</");
+						out.write(getName(reader.getPrefix(), reader.getLocalName()));
+						out.write('>');
+					}
+					inlineContent = false;
+					break;
+				case XMLStreamConstants.CHARACTERS:
+				case XMLStreamConstants.SPACE:
+					escape(reader.getText(), false, text);
+					if(!reader.isWhiteSpace()) {
+						blankText = false;
+					}
+					break;
+				case XMLStreamConstants.CDATA:
+					text.append("<![CDATA[").append(reader.getText()).append("]]>");
+					blankText = false;
+					break;
+				case XMLStreamConstants.ENTITY_REFERENCE:
+					text.append('&').append(reader.getLocalName()).append(';');
+					blankText = false;
+					break;
+				case XMLStreamConstants.COMMENT:
+					closeStartTag();
+					if(!inlineContent) {
+						newLine(depth);
+					}
+					out.write("<!--");
+					out.write(reader.getText());
+					out.write("-->");
+					break;
+				case XMLStreamConstants.PROCESSING_INSTRUCTION:
+					closeStartTag();
+					if(!inlineContent) {
+						newLine(depth);
+					}
+					out.write("<?");
+					out.write(reader.getPITarget());
+					if(reader.getPIData()!=null && reader.getPIData().length() > 0) {
+						out.write(' ');
+						out.write(reader.getPIData());
+					}
+					out.write("?>");
+					break;
+				case XMLStreamConstants.DTD:
+					newLine(0);
+					out.write(reader.getText());
+					break;
+				default:
+					break;
+				}
+			}
+			printText();
+			out.write('\n');
+			out.flush();
+		}
+
+		private static boolean isText(int event) {
+			return event==XMLStreamConstants.CHARACTERS 
+					|| event==XMLStreamConstants.SPACE 
+					|| event==XMLStreamConstants.CDATA 
+					|| event==XMLStreamConstants.ENTITY_REFERENCE;
+		}
+
+		/**
+		 * Writes the text collected since the last markup unless all of it is whitespace. The parser splits 
+		 * a text node at entity references, so the whitespace between them is only dropped with the node.
+		 */
+		private void printText() throws IOException {
+			if(!blankText) {
+				closeStartTag();
+				inlineContent = true;
+				out.write(text.toString());
+			}
+			text.setLength(0);
+			blankText = true;
+		}
+
+		private void printDeclaration() throws IOException {
+			String version = reader.getVersion();
+			out.write("<?xml version=\"");
+			out.write(version==null ? "1.0" : version);
+			out.write("\" encoding=\"");
+			out.write(getEncoding(reader));
+			out.write('"');
+			if(reader.standaloneSet()) {
+				out.write(reader.isStandalone() ? " standalone=\"yes\"" : " standalone=\"no\"");
+			}
+			out.write("?>");
+			firstLine = false;
+		}
+
+		private void printStartTag() throws IOException {
+			out.write('<');
+			out.write(getName(reader.getPrefix(), reader.getLocalName()));
+			for (int i = 0; i < reader.getNamespaceCount(); i++) {
+				String prefix = reader.getNamespacePrefix(i);
+				out.write(prefix==null || prefix.length()==0 ? " xmlns" : " xmlns:" + prefix);
+				out.write("=\"");
+				escape(reader.getNamespaceURI(i), true, out);
+				out.write('"');
+			}
+			for (int i = 0; i < reader.getAttributeCount(); i++) {
+				out.write(' ');
+				out.write(getName(reader.getAttributePrefix(i), reader.getAttributeLocalName(i)));
+				out.write("=\"");
+				escape(reader.getAttributeValue(i), true, out);
+				out.write('"');
+			}
+			startTagOpen = true;
+		}
+
+		private void closeStartTag() throws IOException {
+			if(startTagOpen) {
+				out.write('>');
+				startTagOpen = false;
+			}
+		}
+
+		private void newLine(int level) throws IOException {
+			if(!firstLine) {
+				out.write('\n');
+			}
+			firstLine = false;
+			for (int i = 0; i < level * indent; i++) {
+				out.write(' ');
+			}
+		}
+
+		private static void escape(String text, boolean attribute, Appendable out) throws IOException {
+			for (int i = 0; i < text.length(); i++) {
+				char c = text.charAt(i);
+				switch (c) {
+				case '&': out.append("&amp;"); break;
+				case '<': out.append("&lt;"); break;
+				case '>': out.append("&gt;"); break;
+				case '"': out.append(attribute ? "&quot;" : "\""); break;
+				case '\n': out.append(attribute ? "&#10;" : "\n"); break;
+				case '\r': out.append("&#13;"); break;
+				case '\t': out.append(attribute ? "&#9;" : "\t"); break;
+				default: out.append(c);
+				}
+			}
+		}
+
+		private static String getName(String prefix, String localName) {
+			return prefix==null || prefix.length()==0 ? localName : prefix + ':' + localName;
+		}
+
+	}
+
+}
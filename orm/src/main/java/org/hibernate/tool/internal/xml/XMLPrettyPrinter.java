@@ -6,10 +6,19 @@ package org.hibernate.tool.internal.xml;
 
 import java.io.File;
 import java.io.IOException;
-import java.io.PrintWriter;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.StringWriter;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
-import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.xml.stream.XMLStreamException;
+
+import org.hibernate.tool.api.xml.XMLPrettyPrinterStrategy;
 
 /**
  * @author max
@@ -17,18 +26,58 @@ import java.nio.file.Paths;
  */
 public final class XMLPrettyPrinter {
 
+	private static final Pattern ENCODING = Pattern.compile(
+			"^(?:\uFEFF|\u00EF\u00BB\u00BF)?<\\?xml[^>]*?encoding\\s*=\\s*[\"']([A-Za-z0-9._:\\-]+)[\"']");
+
+	/**
+	 * Reads and writes the file in the encoding its XML declaration names, UTF-8 if there is none.
+	 */
 	public static void prettyPrintFile(File file) throws IOException {
-		String input = readFile(file.getAbsolutePath(), Charset.defaultCharset());
-		String output = prettyFormat(input);
-		PrintWriter writer = new PrintWriter(file);
-		writer.print(output);
-		writer.flush();
-		writer.close();
+		byte[] input = Files.readAllBytes(file.toPath());
+		String output = prettyFormat(new String(input, getDeclaredCharset(input)));
+		byte[] encoded = output.getBytes(getDeclaredCharset(output));
+		if(Arrays.equals(encoded, input)) {
+			return;
+		}
+		Files.write(file.toPath(), encoded);
+	}
+
+	/**
+	 * Writes the document to the stream in the encoding it declares, UTF-8 if it declares none.
+	 */
+	public static void prettyPrint(Reader input, OutputStream output) throws IOException {
+		XMLPrettyPrinterStrategy strategy = XMLPrettyPrinterStrategyFactory.newXMLPrettyPrinterStrategy();
+		if(strategy instanceof StAXPrettyPrinterStrategy) {
+			try {
+				((StAXPrettyPrinterStrategy) strategy).prettyPrint(input, output);
+			}
+			catch (XMLStreamException e) {
+				throw new RuntimeException(e);
+			}
+			return;
+		}
+		StringWriter content = new StringWriter();
+		char[] buffer = new char[8192];
+		int read;
+		while ((read = input.read(buffer)) != -1) {
+			content.write(buffer, 0, read);
+		}
+		String result = prettyFormat(content.toString());
+		output.write(result.getBytes(getDeclaredCharset(result)));
+		output.flush();
+	}
+
+	public static String prettyPrint(String input) {
+		return prettyFormat(input);
+	}
+
+	static Charset getDeclaredCharset(byte[] xml) {
+		return getDeclaredCharset(new String(xml, 0, Math.min(xml.length, 256), StandardCharsets.ISO_8859_1));
 	}
 
-	private static String readFile(String path, Charset encoding) throws IOException {
-		byte[] encoded = Files.readAllBytes(Paths.get(path));
-		return new String(encoded, encoding);
+	static Charset getDeclaredCharset(String xml) {
+		Matcher matcher = ENCODING.matcher(xml);
+		return matcher.find() ? Charset.forName(matcher.group(1)) : StandardCharsets.UTF_8;
 	}
 
 	private static String prettyFormat(String input) {
@@ -5,7 +5,7 @@ import org.hibernate.tool.api.xml.XMLPrettyPrinterStrategy;
 public final class XMLPrettyPrinterStrategyFactory {
     public static final String PROPERTY_STRATEGY_IMPL = "org.hibernate.tool.hbm2x.xml.XMLPrettyPrinterStrategy";
 
-    private static final XMLPrettyPrinterStrategy DEFAULT_STRATEGY = new TrAXPrettyPrinterStrategy();
+    private static final XMLPrettyPrinterStrategy DEFAULT_STRATEGY = new StAXPrettyPrinterStrategy();
 
     private XMLPrettyPrinterStrategyFactory() {
     }
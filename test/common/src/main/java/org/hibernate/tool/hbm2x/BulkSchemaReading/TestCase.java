@@ -0,0 +1,128 @@
+package org.hibernate.tool.hbm2x.BulkSchemaReading;
+
+import java.util.Iterator;
+import java.util.Properties;
+
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Environment;
+import org.hibernate.mapping.Column;
+import org.hibernate.mapping.ForeignKey;
+import org.hibernate.mapping.Index;
+import org.hibernate.mapping.Table;
+import org.hibernate.mapping.UniqueKey;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.tool.api.reveng.DatabaseCollector;
+import org.hibernate.tool.internal.metadata.DefaultDatabaseCollector;
+import org.hibernate.tool.internal.reveng.DefaultReverseEngineeringStrategy;
+import org.hibernate.tool.internal.reveng.JDBCReader;
+import org.hibernate.tool.internal.reveng.JdbcReaderFactory;
+import org.hibernate.tool.internal.reveng.RevengSettings;
+import org.hibernate.tools.test.util.JdbcUtil;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TestCase {
+
+	@Before
+	public void setUp() {
+		JdbcUtil.createDatabase(this);
+	}
+
+	@After
+	public void tearDown() {
+		JdbcUtil.dropDatabase(this);
+	}
+
+	@Test
+	public void testBulkReadEqualsPerTableRead() {
+		Properties properties = new Properties();
+		properties.putAll(Environment.getProperties());
+		String perTable = describe(readDatabaseSchema(properties, false));
+		String bulk = describe(readDatabaseSchema(properties, true));
+		Assert.assertTrue(perTable.contains("ORDERLINE"));
+		Assert.assertTrue(perTable.contains("PRODUCTNAMES"));
+		Assert.assertEquals(perTable, bulk);
+	}
+
+	@Test
+	public void testBoundedMemoryBulkRead() {
+		Properties properties = new Properties();
+		properties.putAll(Environment.getProperties());
+		String perTable = describe(readDatabaseSchema(properties, false));
+		// the prefetched rows are dropped once their table is processed
+		properties.setProperty(RevengSettings.METADATA_BOUNDED_MEMORY, "true");
+		Assert.assertEquals(perTable, describe(readDatabaseSchema(properties, true)));
+	}
+
+	private DatabaseCollector readDatabaseSchema(Properties properties, boolean bulkRead) {
+		Properties readerProperties = new Properties();
+		readerProperties.putAll(properties);
+		readerProperties.setProperty(RevengSettings.METADATA_BULK_READ, Boolean.toString(bulkRead));
+		ServiceRegistry serviceRegistry = new StandardServiceRegistryBuilder()
+				.applySettings(readerProperties)
+				.build();
+		JDBCReader reader = JdbcReaderFactory.newJDBCReader(
+				readerProperties,
+				new DefaultReverseEngineeringStrategy(),
+				serviceRegistry);
+		Assert.assertEquals(bulkRead, reader.isBulkRead());
+		DatabaseCollector dc = new DefaultDatabaseCollector(reader.getMetaDataDialect());
+		reader.readDatabaseSchema(
+				dc,
+				readerProperties.getProperty(AvailableSettings.DEFAULT_CATALOG),
+				readerProperties.getProperty(AvailableSettings.DEFAULT_SCHEMA));
+		return dc;
+	}
+
+	private String describe(DatabaseCollector dc) {
+		StringBuffer result = new StringBuffer();
+		Iterator<Table> tables = dc.iterateTables();
+		while (tables.hasNext()) {
+			Table table = tables.next();
+			result.append(table.getName()).append(" pk=").append(table.getPrimaryKey())
+				.append(" strategy=").append(dc.getSuggestedIdentifierStrategy(table.getCatalog(), table.getSchema(), table.getName()))
+				.append('\n');
+			Iterator<?> columns = table.getColumnIterator();
+			while (columns.hasNext()) {
+				Column column = (Column) columns.next();
+				result.append("  column ").append(column.getName())
+					.append(' ').append(column.getSqlTypeCode())
+					.append(' ').append(column.getLength())
+					.append(' ').append(column.getPrecision())
+					.append(' ').append(column.getScale())
+					.append(' ').append(column.isNullable())
+					.append(' ').append(column.isUnique())
+					.append('\n');
+			}
+			Iterator<?> indexes = table.getIndexIterator();
+			while (indexes.hasNext()) {
+				Index index = (Index) indexes.next();
+				result.append("  index ").append(index.getName()).append(' ').append(describe(index.getColumnIterator())).append('\n');
+			}
+			Iterator<?> uniqueKeys = table.getUniqueKeyIterator();
+			while (uniqueKeys.hasNext()) {
+				UniqueKey key = (UniqueKey) uniqueKeys.next();
+				result.append("  unique ").append(key.getName()).append(' ').append(key.getColumns()).append('\n');
+			}
+			Iterator<?> foreignKeys = table.getForeignKeyIterator();
+			while (foreignKeys.hasNext()) {
+				ForeignKey key = (ForeignKey) foreignKeys.next();
+				result.append("  fk ").append(key.getName()).append(' ').append(key.getColumns())
+					.append(" -> ").append(key.getReferencedTable().getName()).append(' ').append(key.getReferencedColumns()).append('\n');
+			}
+		}
+		return result.toString();
+	}
+
+	private String describe(Iterator<?> columns) {
+		StringBuffer result = new StringBuffer();
+		while (columns.hasNext()) {
+			result.append(((Column) columns.next()).getName()).append(' ');
+		}
+		return result.toString();
+	}
+
+}
@@ -0,0 +1,119 @@
+package org.hibernate.tool.hbm2x.ConnectionPooling;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Properties;
+
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Environment;
+import org.hibernate.engine.jdbc.connections.spi.ConnectionProvider;
+import org.hibernate.engine.jdbc.spi.JdbcServices;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.tool.api.dialect.MetaDataDialectFactory;
+import org.hibernate.tool.internal.metadata.DefaultDatabaseCollector;
+import org.hibernate.tool.internal.reveng.DefaultReverseEngineeringStrategy;
+import org.hibernate.tool.internal.reveng.JDBCReader;
+import org.hibernate.tool.internal.reveng.PooledConnectionProvider;
+import org.hibernate.tools.test.util.JdbcUtil;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TestCase {
+
+	/**
+	 * Counts the connections that are really opened and closed.
+	 */
+	public class CountingConnectionProvider implements ConnectionProvider {
+		private static final long serialVersionUID = 1L;
+		private final ConnectionProvider delegate;
+		int opened = 0;
+		int closed = 0;
+		public CountingConnectionProvider(ConnectionProvider delegate) {
+			this.delegate = delegate;
+		}
+		public Connection getConnection() throws SQLException {
+			opened++;
+			return delegate.getConnection();
+		}
+		public void closeConnection(Connection conn) throws SQLException {
+			closed++;
+			delegate.closeConnection(conn);
+		}
+		public boolean supportsAggressiveRelease() {
+			return delegate.supportsAggressiveRelease();
+		}
+		@SuppressWarnings("rawtypes")
+		public boolean isUnwrappableAs(Class unwrapType) {
+			return delegate.isUnwrappableAs(unwrapType);
+		}
+		public <T> T unwrap(Class<T> unwrapType) {
+			return delegate.unwrap(unwrapType);
+		}
+	}
+
+	private Properties properties;
+	private ServiceRegistry serviceRegistry;
+	private CountingConnectionProvider counter;
+	private JDBCReader reader;
+
+	@Before
+	public void setUp() {
+		JdbcUtil.createDatabase(this);
+		properties = Environment.getProperties();
+		serviceRegistry = new StandardServiceRegistryBuilder().applySettings(properties).build();
+		counter = new CountingConnectionProvider(serviceRegistry.getService(ConnectionProvider.class));
+		reader = new JDBCReader(
+				MetaDataDialectFactory.createMetaDataDialect(
+						serviceRegistry.getService(JdbcServices.class).getDialect(), 
+						properties),
+				new PooledConnectionProvider(counter, 1),
+				serviceRegistry.getService(JdbcServices.class).getSqlExceptionHelper().getSqlExceptionConverter(),
+				properties.getProperty(AvailableSettings.DEFAULT_CATALOG),
+				properties.getProperty(AvailableSettings.DEFAULT_SCHEMA),
+				new DefaultReverseEngineeringStrategy());
+	}
+
+	@After
+	public void tearDown() {
+		JdbcUtil.dropDatabase(this);
+	}
+
+	@Test
+	public void testConnectionIsReusedWithinSession() {
+		reader.beginSession();
+		try {
+			for (int i = 0; i < 3; i++) {
+				Assert.assertEquals(2, readDatabaseSchema().size());
+			}
+			reader.readSequences("SELECT SEQUENCE_NAME FROM INFORMATION_SCHEMA.SEQUENCES");
+			Assert.assertEquals(1, counter.opened);
+			Assert.assertEquals(0, counter.closed);
+		} 
+		finally {
+			reader.endSession();
+		}
+		Assert.assertEquals(1, counter.closed);
+	}
+
+	@Test
+	public void testConnectionsAreClosedWithoutSession() {
+		readDatabaseSchema();
+		Assert.assertEquals(1, counter.opened);
+		Assert.assertEquals(1, counter.closed);
+		readDatabaseSchema();
+		Assert.assertEquals(2, counter.opened);
+		Assert.assertEquals(2, counter.closed);
+	}
+
+	private List<?> readDatabaseSchema() {
+		return reader.readDatabaseSchema(
+				new DefaultDatabaseCollector(reader.getMetaDataDialect()),
+				properties.getProperty(AvailableSettings.DEFAULT_CATALOG),
+				properties.getProperty(AvailableSettings.DEFAULT_SCHEMA));
+	}
+
+}
@@ -0,0 +1,195 @@
+package org.hibernate.tool.hbm2x.IdenticalSchemaReading;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Environment;
+import org.hibernate.engine.jdbc.spi.JdbcServices;
+import org.hibernate.mapping.Column;
+import org.hibernate.mapping.ForeignKey;
+import org.hibernate.mapping.Index;
+import org.hibernate.mapping.Table;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.tool.api.dialect.BulkMetaDataDialect;
+import org.hibernate.tool.api.dialect.MetaDataDialect;
+import org.hibernate.tool.api.dialect.MetaDataDialectFactory;
+import org.hibernate.tool.api.reveng.DatabaseCollector;
+import org.hibernate.tool.api.reveng.ReverseEngineeringStrategy;
+import org.hibernate.tool.api.reveng.SchemaSelection;
+import org.hibernate.tool.internal.metadata.DefaultDatabaseCollector;
+import org.hibernate.tool.internal.reveng.DefaultReverseEngineeringStrategy;
+import org.hibernate.tool.internal.reveng.JDBCReader;
+import org.hibernate.tool.internal.reveng.JdbcReaderFactory;
+import org.hibernate.tool.internal.reveng.RevengSettings;
+import org.hibernate.tools.test.util.JdbcUtil;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TestCase {
+
+	@Before
+	public void setUp() {
+		JdbcUtil.createDatabase(this);
+	}
+
+	@After
+	public void tearDown() {
+		JdbcUtil.dropDatabase(this);
+	}
+
+	@Test
+	public void testClonedReadEqualsSerialRead() {
+		Properties properties = new Properties();
+		properties.putAll(Environment.getProperties());
+		String serial = describe(readDatabaseSchema(properties, 1, false));
+		Assert.assertTrue(serial.contains("TENANT_B.ITEM"));
+		Assert.assertTrue(serial.contains("-> SHARED.PRODUCT"));
+		// a foreign key from another schema to the representative is not one of the clone's
+		Assert.assertTrue(serial.contains("fk AUDIT_ORDER [org.hibernate.mapping.Column(ORDER_ID)] -> TENANT_A.ORDERS"));
+		// nor is one to the clone itself
+		Assert.assertTrue(serial.contains("fk AUDIT_ORDER_B [org.hibernate.mapping.Column(B_ORDER_ID)] -> TENANT_B.ORDERS"));
+		// a schema with the same tables but other columns is read itself
+		Assert.assertTrue(serial.contains("column CODE 12 40"));
+		Assert.assertEquals(serial, describe(readDatabaseSchema(properties, 1, true)));
+		Assert.assertEquals(serial, describe(readDatabaseSchema(properties, 3, true)));
+		Assert.assertEquals(serial, describe(readDatabaseSchema(properties, 3, false)));
+		// the rows of the representatives are dropped once all clones got them
+		properties.setProperty(RevengSettings.METADATA_BOUNDED_MEMORY, "true");
+		Assert.assertEquals(serial, describe(readDatabaseSchema(properties, 1, true)));
+	}
+
+	@Test
+	public void testClonesAreNotRead() {
+		Properties properties = new Properties();
+		properties.putAll(Environment.getProperties());
+		properties.setProperty(RevengSettings.METADATA_CLONE_IDENTICAL_SCHEMAS, "true");
+		ServiceRegistry serviceRegistry = new StandardServiceRegistryBuilder()
+				.applySettings(properties)
+				.build();
+		Set<Object> columnSchemas = Collections.synchronizedSet(new HashSet<Object>());
+		JDBCReader reader = JdbcReaderFactory.newJDBCReader(
+				properties,
+				newStrategy(),
+				recordColumnSchemas(
+						MetaDataDialectFactory.createMetaDataDialect(
+								serviceRegistry.getService(JdbcServices.class).getDialect(),
+								properties),
+						columnSchemas),
+				serviceRegistry);
+		Assert.assertTrue(reader.isCloneIdenticalSchemas());
+		DatabaseCollector dc = new DefaultDatabaseCollector(reader.getMetaDataDialect());
+		reader.readDatabaseSchema(
+				dc,
+				properties.getProperty(AvailableSettings.DEFAULT_CATALOG),
+				properties.getProperty(AvailableSettings.DEFAULT_SCHEMA));
+		Assert.assertTrue(describe(dc).contains("TENANT_B.ORDERS"));
+		Assert.assertTrue(columnSchemas.contains("TENANT_A"));
+		Assert.assertTrue(columnSchemas.contains("TENANT_C"));
+		Assert.assertFalse(columnSchemas.contains("TENANT_B"));
+		// its tables have the same names as the ones of TENANT_A, but not the same columns
+		Assert.assertTrue(columnSchemas.contains("TENANT_D"));
+	}
+
+	private DatabaseCollector readDatabaseSchema(Properties properties, int parallelism, boolean cloneIdenticalSchemas) {
+		Properties readerProperties = new Properties();
+		readerProperties.putAll(properties);
+		readerProperties.setProperty(RevengSettings.METADATA_PARALLELISM, Integer.toString(parallelism));
+		readerProperties.setProperty(RevengSettings.METADATA_CLONE_IDENTICAL_SCHEMAS, Boolean.toString(cloneIdenticalSchemas));
+		ServiceRegistry serviceRegistry = new StandardServiceRegistryBuilder()
+				.applySettings(readerProperties)
+				.build();
+		JDBCReader reader = JdbcReaderFactory.newJDBCReader(
+				readerProperties,
+				newStrategy(),
+				serviceRegistry);
+		Assert.assertEquals(cloneIdenticalSchemas, reader.isCloneIdenticalSchemas());
+		DatabaseCollector dc = new DefaultDatabaseCollector(reader.getMetaDataDialect());
+		reader.readDatabaseSchema(
+				dc,
+				readerProperties.getProperty(AvailableSettings.DEFAULT_CATALOG),
+				readerProperties.getProperty(AvailableSettings.DEFAULT_SCHEMA));
+		return dc;
+	}
+
+	private ReverseEngineeringStrategy newStrategy() {
+		return new DefaultReverseEngineeringStrategy() {
+			public List<SchemaSelection> getSchemaSelections() {
+				List<SchemaSelection> selections = new ArrayList<SchemaSelection>();
+				selections.add(new SchemaSelection(null, "SHARED"));
+				selections.add(new SchemaSelection(null, "TENANT_A"));
+				selections.add(new SchemaSelection(null, "TENANT_B"));
+				selections.add(new SchemaSelection(null, "TENANT_C"));
+				selections.add(new SchemaSelection(null, "TENANT_D"));
+				return selections;
+			}
+		};
+	}
+
+	private MetaDataDialect recordColumnSchemas(final MetaDataDialect delegate, final Set<Object> schemas) {
+		return (MetaDataDialect) Proxy.newProxyInstance(
+				getClass().getClassLoader(),
+				new Class<?>[] { delegate instanceof BulkMetaDataDialect ? BulkMetaDataDialect.class : MetaDataDialect.class },
+				new InvocationHandler() {
+					public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+						if("getColumns".equals(method.getName())) {
+							schemas.add(args[1]);
+						}
+						try {
+							return method.invoke(delegate, args);
+						}
+						catch (InvocationTargetException e) {
+							throw e.getTargetException();
+						}
+					}
+				});
+	}
+
+	private String describe(DatabaseCollector dc) {
+		StringBuffer result = new StringBuffer();
+		Iterator<Table> tables = dc.iterateTables();
+		while (tables.hasNext()) {
+			Table table = tables.next();
+			result.append(table.getSchema()).append('.').append(table.getName())
+				.append(" pk=").append(table.getPrimaryKey())
+				.append('\n');
+			Iterator<?> columns = table.getColumnIterator();
+			while (columns.hasNext()) {
+				Column column = (Column) columns.next();
+				result.append("  column ").append(column.getName())
+					.append(' ').append(column.getSqlTypeCode())
+					.append(' ').append(column.getLength())
+					.append(' ').append(column.getPrecision())
+					.append(' ').append(column.getScale())
+					.append(' ').append(column.isNullable())
+					.append('\n');
+			}
+			Iterator<?> indexes = table.getIndexIterator();
+			while (indexes.hasNext()) {
+				Index index = (Index) indexes.next();
+				result.append("  index ").append(index.getName()).append('\n');
+			}
+			Iterator<?> foreignKeys = table.getForeignKeyIterator();
+			while (foreignKeys.hasNext()) {
+				ForeignKey key = (ForeignKey) foreignKeys.next();
+				result.append("  fk ").append(key.getName()).append(' ').append(key.getColumns())
+					.append(" -> ").append(key.getReferencedTable().getSchema())
+					.append('.').append(key.getReferencedTable().getName()).append('\n');
+			}
+		}
+		return result.toString();
+	}
+
+}
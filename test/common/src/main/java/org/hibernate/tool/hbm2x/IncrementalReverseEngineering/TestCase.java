@@ -0,0 +1,175 @@
+package org.hibernate.tool.hbm2x.IncrementalReverseEngineering;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Properties;
+
+import org.hibernate.tool.api.export.Exporter;
+import org.hibernate.tool.api.export.ExporterConstants;
+import org.hibernate.tool.api.export.ExporterFactory;
+import org.hibernate.tool.api.export.ExporterPipeline;
+import org.hibernate.tool.api.export.ExporterType;
+import org.hibernate.tool.api.metadata.MetadataDescriptor;
+import org.hibernate.tool.api.metadata.MetadataDescriptorFactory;
+import org.hibernate.tool.api.reveng.ReverseEngineeringStrategy;
+import org.hibernate.tool.api.reveng.TableIdentifier;
+import org.hibernate.tool.internal.export.common.GenericExporter;
+import org.hibernate.tool.internal.metadata.JdbcMetadataDescriptor;
+import org.hibernate.tool.internal.reveng.DefaultReverseEngineeringStrategy;
+import org.hibernate.tool.internal.reveng.DelegatingReverseEngineeringStrategy;
+import org.hibernate.tool.internal.reveng.RevengSettings;
+import org.hibernate.tools.test.util.FileUtil;
+import org.hibernate.tools.test.util.JdbcUtil;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class TestCase {
+
+	private static final String MARKER = "// not regenerated";
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private File outputDir = null;
+	private File fingerprints = null;
+
+	@Before
+	public void setUp() throws Exception {
+		JdbcUtil.createDatabase(this);
+		outputDir = temporaryFolder.newFolder("output");
+		fingerprints = new File(temporaryFolder.getRoot(), "fingerprints.properties");
+	}
+
+	@After
+	public void tearDown() {
+		JdbcUtil.dropDatabase(this);
+	}
+
+	@Test
+	public void testOnlyChangedTablesAndNeighboursAreRegenerated() throws Exception {
+		JdbcMetadataDescriptor descriptor = export();
+		Assert.assertTrue(fingerprints.exists());
+		Assert.assertEquals(4, descriptor.getChangedTables().size());
+		String[] classes = new String[] { "Parent", "Child", "Loose", "Other" };
+		for (int i = 0; i < classes.length; i++) {
+			File file = new File(outputDir, classes[i] + ".java");
+			Assert.assertTrue(file.exists());
+			Files.write(file.toPath(), MARKER.getBytes());
+		}
+		descriptor = export();
+		Assert.assertTrue(descriptor.getChangedTables().isEmpty());
+		Assert.assertNotNull(FileUtil.findFirstString(MARKER, new File(outputDir, "Child.java")));
+		
+		JdbcUtil.executeSql(this, new String[] { "ALTER TABLE CHILD ADD NOTE VARCHAR(10)" });
+		descriptor = export();
+		Assert.assertEquals(2, descriptor.getChangedTables().size());
+		Assert.assertNull(FileUtil.findFirstString(MARKER, new File(outputDir, "Child.java")));
+		Assert.assertNotNull(FileUtil.findFirstString("note", new File(outputDir, "Child.java")));
+		Assert.assertNull(FileUtil.findFirstString(MARKER, new File(outputDir, "Parent.java")));
+		Assert.assertNotNull(FileUtil.findFirstString(MARKER, new File(outputDir, "Loose.java")));
+		Assert.assertNotNull(FileUtil.findFirstString(MARKER, new File(outputDir, "Other.java")));
+		
+		new File(outputDir, "Other.java").delete();
+		export();
+		Assert.assertNull(FileUtil.findFirstString(MARKER, new File(outputDir, "Other.java")));
+		Assert.assertNotNull(FileUtil.findFirstString(MARKER, new File(outputDir, "Loose.java")));
+	}
+
+	@Test
+	public void testFingerprintsAreStoredOnlyWhenTheExportersSucceed() throws Exception {
+		export();
+		byte[] stored = Files.readAllBytes(fingerprints.toPath());
+		JdbcUtil.executeSql(this, new String[] { "ALTER TABLE CHILD ADD NOTE VARCHAR(10)" });
+		try {
+			createFailingExporter(createDescriptor(null)).start();
+			Assert.fail();
+		} catch(RuntimeException e) {
+			// expected
+		}
+		Assert.assertArrayEquals(stored, Files.readAllBytes(fingerprints.toPath()));
+		// in a pipeline only once all exporters succeeded
+		MetadataDescriptor descriptor = createDescriptor(null);
+		ExporterPipeline pipeline = new ExporterPipeline();
+		pipeline.addExporter("pojo", createExporter(descriptor));
+		pipeline.addExporter("failing", createFailingExporter(descriptor));
+		try {
+			pipeline.run();
+			Assert.fail();
+		} catch(RuntimeException e) {
+			// expected
+		}
+		Assert.assertArrayEquals(stored, Files.readAllBytes(fingerprints.toPath()));
+		Assert.assertEquals(2, export().getChangedTables().size());
+		Assert.assertFalse(Arrays.equals(stored, Files.readAllBytes(fingerprints.toPath())));
+		Assert.assertTrue(export().getChangedTables().isEmpty());
+	}
+
+	@Test
+	public void testChangedMappingAndSettingsAreRegenerated() throws Exception {
+		export();
+		String[] classes = new String[] { "Parent", "Child", "Loose", "Other" };
+		for (int i = 0; i < classes.length; i++) {
+			Files.write(new File(outputDir, classes[i] + ".java").toPath(), MARKER.getBytes());
+		}
+		// a strategy or reveng.xml changing the mapping regenerates what it changed, though no table did
+		ReverseEngineeringStrategy strategy = new DelegatingReverseEngineeringStrategy(new DefaultReverseEngineeringStrategy()) {
+			public String columnToPropertyName(TableIdentifier table, String column) {
+				if("PARENT".equals(table.getName()) && "NAME".equals(column)) {
+					return "title";
+				}
+				return super.columnToPropertyName(table, column);
+			}
+		};
+		JdbcMetadataDescriptor descriptor = export(createDescriptor(strategy), createExporter(null));
+		Assert.assertTrue(descriptor.getChangedTables().isEmpty());
+		Assert.assertNotNull(FileUtil.findFirstString("title", new File(outputDir, "Parent.java")));
+		Assert.assertNotNull(FileUtil.findFirstString(MARKER, new File(outputDir, "Loose.java")));
+		// so do changed exporter settings
+		Exporter exporter = createExporter(null);
+		exporter.getProperties().put("ejb3", "true");
+		export(createDescriptor(strategy), exporter);
+		Assert.assertNull(FileUtil.findFirstString(MARKER, new File(outputDir, "Loose.java")));
+		Assert.assertNull(FileUtil.findFirstString(MARKER, new File(outputDir, "Other.java")));
+	}
+
+	private JdbcMetadataDescriptor export() {
+		return export(createDescriptor(null), createExporter(null));
+	}
+
+	private JdbcMetadataDescriptor export(MetadataDescriptor descriptor, Exporter exporter) {
+		exporter.getProperties().put(ExporterConstants.METADATA_DESCRIPTOR, descriptor);
+		exporter.start();
+		return (JdbcMetadataDescriptor) descriptor;
+	}
+
+	private MetadataDescriptor createDescriptor(ReverseEngineeringStrategy strategy) {
+		Properties properties = new Properties();
+		properties.setProperty(RevengSettings.INCREMENTAL_FINGERPRINTS, fingerprints.getAbsolutePath());
+		return MetadataDescriptorFactory.createJdbcDescriptor(strategy, properties, true);
+	}
+
+	private Exporter createExporter(MetadataDescriptor descriptor) {
+		Exporter exporter = ExporterFactory.createExporter(ExporterType.POJO);
+		if(descriptor!=null) {
+			exporter.getProperties().put(ExporterConstants.METADATA_DESCRIPTOR, descriptor);
+		}
+		exporter.getProperties().put(ExporterConstants.OUTPUT_FOLDER, outputDir);
+		exporter.getProperties().put(ExporterConstants.TEMPLATE_PATH, new String[0]);
+		return exporter;
+	}
+
+	private Exporter createFailingExporter(MetadataDescriptor descriptor) {
+		GenericExporter exporter = new GenericExporter();
+		exporter.getProperties().put(ExporterConstants.METADATA_DESCRIPTOR, descriptor);
+		exporter.getProperties().put(ExporterConstants.OUTPUT_FOLDER, outputDir);
+		exporter.setTemplateName("does/not/exist.ftl");
+		exporter.setFilePattern("{class-name}.txt");
+		return exporter;
+	}
+
+}
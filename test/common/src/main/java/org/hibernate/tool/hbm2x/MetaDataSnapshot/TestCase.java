@@ -0,0 +1,245 @@
+package org.hibernate.tool.hbm2x.MetaDataSnapshot;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Environment;
+import org.hibernate.engine.jdbc.spi.JdbcServices;
+import org.hibernate.mapping.Column;
+import org.hibernate.mapping.Table;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.tool.api.dialect.MetaDataDialect;
+import org.hibernate.tool.api.dialect.MetaDataDialectFactory;
+import org.hibernate.tool.api.reveng.DatabaseCollector;
+import org.hibernate.tool.api.reveng.ReverseEngineeringRuntimeInfo;
+import org.hibernate.tool.api.reveng.SchemaSelection;
+import org.hibernate.tool.internal.dialect.CachedMetaDataDialect;
+import org.hibernate.tool.internal.dialect.MetaDataSnapshotStore;
+import org.hibernate.tool.internal.dialect.OracleMetaDataDialect;
+import org.hibernate.tool.internal.dialect.RowSpillFile;
+import org.hibernate.tool.internal.metadata.DefaultDatabaseCollector;
+import org.hibernate.tool.internal.reveng.DefaultReverseEngineeringStrategy;
+import org.hibernate.tool.internal.reveng.JDBCReader;
+import org.hibernate.tool.internal.reveng.JdbcReaderFactory;
+import org.hibernate.tool.internal.reveng.RevengSettings;
+import org.hibernate.tools.test.util.JdbcUtil;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class TestCase {
+
+	/**
+	 * Fails on every metadata read, so a read only succeeds when it is served from the snapshot.
+	 */
+	public class OfflineMetaDataDialect implements MetaDataDialect {
+
+		private final MetaDataDialect delegate;
+
+		public OfflineMetaDataDialect(MetaDataDialect delegate) {
+			this.delegate = delegate;
+		}
+
+		public void configure(ReverseEngineeringRuntimeInfo info) {
+			delegate.configure(info);
+		}
+
+		public Iterator<Map<String, Object>> getTables(String catalog, String schema, String table) {
+			throw new IllegalStateException("database not accessible");
+		}
+
+		public void close(Iterator<?> iterator) {
+			delegate.close(iterator);
+		}
+
+		public Iterator<Map<String, Object>> getIndexInfo(String catalog, String schema, String table) {
+			throw new IllegalStateException("database not accessible");
+		}
+
+		public Iterator<Map<String, Object>> getColumns(String catalog, String schema, String table, String column) {
+			throw new IllegalStateException("database not accessible");
+		}
+
+		public Iterator<Map<String, Object>> getPrimaryKeys(String catalog, String schema, String name) {
+			throw new IllegalStateException("database not accessible");
+		}
+
+		public Iterator<Map<String, Object>> getExportedKeys(String catalog, String schema, String table) {
+			throw new IllegalStateException("database not accessible");
+		}
+
+		public boolean needQuote(String name) {
+			return delegate.needQuote(name);
+		}
+
+		public void close() {
+			delegate.close();
+		}
+
+		public Iterator<Map<String, Object>> getSuggestedPrimaryKeyStrategyName(String catalog, String schema, String table) {
+			throw new IllegalStateException("database not accessible");
+		}
+
+	}
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private ServiceRegistry serviceRegistry;
+	private Properties properties;
+	private MetaDataSnapshotStore store;
+	private String changeMarkerQuery;
+
+	@Before
+	public void setUp() throws Exception {
+		JdbcUtil.createDatabase(this);
+		properties = Environment.getProperties();
+		serviceRegistry = new StandardServiceRegistryBuilder().build();
+		File directory = temporaryFolder.newFolder("snapshots");
+		MetaDataDialect dialect = newMetaDataDialect();
+		changeMarkerQuery = MetaDataSnapshotStore.getDefaultChangeMarkerQuery(
+				dialect,
+				properties.getProperty(AvailableSettings.DEFAULT_SCHEMA));
+		if (changeMarkerQuery == null) {
+			changeMarkerQuery = "SELECT COUNT(*) FROM INFORMATION_SCHEMA.COLUMNS";
+		}
+		store = new MetaDataSnapshotStore(
+				directory,
+				properties.getProperty(AvailableSettings.URL),
+				properties.getProperty(AvailableSettings.DEFAULT_CATALOG),
+				properties.getProperty(AvailableSettings.DEFAULT_SCHEMA),
+				changeMarkerQuery);
+	}
+
+	@After
+	public void tearDown() {
+		JdbcUtil.dropDatabase(this);
+	}
+
+	@Test
+	public void testSnapshotIsReusedUntilSchemaChanges() {
+		Assert.assertFalse(store.getFile().exists());
+		DatabaseCollector online = readDatabaseSchema(newMetaDataDialect());
+		Assert.assertTrue(store.getFile().exists());
+		DatabaseCollector offline = readDatabaseSchema(new OfflineMetaDataDialect(newMetaDataDialect()));
+		Assert.assertEquals(describe(online), describe(offline));
+		JdbcUtil.executeSql(this, new String[] { "ALTER TABLE MASTER ADD NOTE VARCHAR(10)" });
+		try {
+			readDatabaseSchema(new OfflineMetaDataDialect(newMetaDataDialect()));
+			Assert.fail("Outdated snapshot should not be used");
+		}
+		catch (IllegalStateException e) {
+			// expected
+		}
+		Assert.assertTrue(describe(readDatabaseSchema(newMetaDataDialect())).contains("NOTE"));
+		Assert.assertTrue(describe(readDatabaseSchema(new OfflineMetaDataDialect(newMetaDataDialect()))).contains("NOTE"));
+	}
+
+	@Test
+	public void testSpilledSnapshotIsReused() {
+		RowSpillFile spillFile = new RowSpillFile(temporaryFolder.getRoot());
+		DatabaseCollector online = readDatabaseSchema(new CachedMetaDataDialect(newMetaDataDialect(), store, spillFile));
+		Assert.assertTrue(store.getFile().exists());
+		Assert.assertTrue(spillFile.length() > 0);
+		RowSpillFile offlineSpillFile = new RowSpillFile(temporaryFolder.getRoot());
+		DatabaseCollector offline = readDatabaseSchema(
+				new CachedMetaDataDialect(new OfflineMetaDataDialect(newMetaDataDialect()), store, offlineSpillFile));
+		Assert.assertEquals(describe(online), describe(offline));
+		Assert.assertTrue(offlineSpillFile.length() > 0);
+		spillFile.clear();
+		offlineSpillFile.clear();
+		Assert.assertEquals(0, spillFile.length());
+	}
+
+	@Test
+	public void testParallelReadIsSnapshotted() {
+		Properties readerProperties = new Properties();
+		readerProperties.putAll(properties);
+		readerProperties.setProperty(RevengSettings.METADATA_PARALLELISM, "3");
+		readerProperties.setProperty(RevengSettings.METADATA_SNAPSHOT_DIR, store.getFile().getParent());
+		readerProperties.setProperty(RevengSettings.METADATA_SNAPSHOT_CHANGE_MARKER_QUERY, changeMarkerQuery);
+		JDBCReader reader = JdbcReaderFactory.newJDBCReader(
+				readerProperties,
+				new DefaultReverseEngineeringStrategy(),
+				serviceRegistry);
+		Assert.assertTrue(reader.getMetaDataDialect() instanceof CachedMetaDataDialect);
+		DatabaseCollector online = new DefaultDatabaseCollector(reader.getMetaDataDialect());
+		reader.readDatabaseSchema(
+				online,
+				properties.getProperty(AvailableSettings.DEFAULT_CATALOG),
+				properties.getProperty(AvailableSettings.DEFAULT_SCHEMA));
+		Assert.assertTrue(store.getFile().exists());
+		// the rows read by the workers are in the snapshot as well
+		DatabaseCollector offline = readDatabaseSchema(new OfflineMetaDataDialect(newMetaDataDialect()));
+		Assert.assertEquals(describe(online), describe(offline));
+	}
+
+	@Test
+	public void testSchemaSelectionsAreKeyed() {
+		List<SchemaSelection> selections = new ArrayList<SchemaSelection>();
+		selections.add(new SchemaSelection(null, "TENANT_A"));
+		selections.add(new SchemaSelection(null, "SHARED.*"));
+		MetaDataSnapshotStore selectionStore = new MetaDataSnapshotStore(
+				store.getFile().getParentFile(),
+				properties.getProperty(AvailableSettings.URL),
+				properties.getProperty(AvailableSettings.DEFAULT_CATALOG),
+				properties.getProperty(AvailableSettings.DEFAULT_SCHEMA),
+				selections,
+				"SELECT COUNT(*) FROM INFORMATION_SCHEMA.COLUMNS");
+		Assert.assertFalse(store.getFile().equals(selectionStore.getFile()));
+		String oracleQuery = MetaDataSnapshotStore.getDefaultChangeMarkerQuery(new OracleMetaDataDialect(), null, selections);
+		Assert.assertTrue(oracleQuery.endsWith(" where owner like 'TENANT_A' or owner like 'SHARED%'"));
+		selections.add(new SchemaSelection());
+		Assert.assertTrue(MetaDataSnapshotStore.getDefaultChangeMarkerQuery(new OracleMetaDataDialect(), null, selections).endsWith(" from all_objects"));
+	}
+
+	private MetaDataDialect newMetaDataDialect() {
+		return MetaDataDialectFactory.createMetaDataDialect(
+				serviceRegistry.getService(JdbcServices.class).getDialect(),
+				properties);
+	}
+
+	private DatabaseCollector readDatabaseSchema(MetaDataDialect dialect) {
+		return readDatabaseSchema(new CachedMetaDataDialect(dialect, store));
+	}
+
+	private DatabaseCollector readDatabaseSchema(CachedMetaDataDialect dialect) {
+		JDBCReader reader = JdbcReaderFactory.newJDBCReader(
+				properties,
+				new DefaultReverseEngineeringStrategy(),
+				dialect,
+				serviceRegistry);
+		DatabaseCollector dc = new DefaultDatabaseCollector(reader.getMetaDataDialect());
+		reader.readDatabaseSchema(
+				dc,
+				properties.getProperty(AvailableSettings.DEFAULT_CATALOG),
+				properties.getProperty(AvailableSettings.DEFAULT_SCHEMA));
+		return dc;
+	}
+
+	private String describe(DatabaseCollector dc) {
+		StringBuffer result = new StringBuffer();
+		Iterator<Table> tables = dc.iterateTables();
+		while (tables.hasNext()) {
+			Table table = tables.next();
+			result.append(table.getName()).append(" pk=").append(table.getPrimaryKey()).append('\n');
+			Iterator<?> columns = table.getColumnIterator();
+			while (columns.hasNext()) {
+				Column column = (Column) columns.next();
+				result.append("  column ").append(column.getName()).append(' ').append(column.getSqlTypeCode()).append('\n');
+			}
+			result.append("  fks ").append(table.getForeignKeys().size()).append('\n');
+		}
+		return result.toString();
+	}
+
+}
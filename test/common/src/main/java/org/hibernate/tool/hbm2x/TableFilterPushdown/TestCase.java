@@ -0,0 +1,111 @@
+package org.hibernate.tool.hbm2x.TableFilterPushdown;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Environment;
+import org.hibernate.mapping.Table;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.tool.api.reveng.DatabaseCollector;
+import org.hibernate.tool.api.reveng.ReverseEngineeringStrategy;
+import org.hibernate.tool.api.reveng.TableIdentifier;
+import org.hibernate.tool.internal.dialect.JDBCMetaDataDialect;
+import org.hibernate.tool.internal.metadata.DefaultDatabaseCollector;
+import org.hibernate.tool.internal.reveng.DefaultReverseEngineeringStrategy;
+import org.hibernate.tool.internal.reveng.DelegatingReverseEngineeringStrategy;
+import org.hibernate.tool.internal.reveng.JDBCReader;
+import org.hibernate.tool.internal.reveng.JdbcReaderFactory;
+import org.hibernate.tool.internal.reveng.OverrideRepository;
+import org.hibernate.tool.internal.reveng.TableFilter;
+import org.hibernate.tools.test.util.JdbcUtil;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TestCase {
+
+	public class RecordingMetaDataDialect extends JDBCMetaDataDialect {
+		List<String> tablePatterns = new ArrayList<String>();
+		public Iterator<Map<String, Object>> getTables(String catalog, String schema, String table) {
+			tablePatterns.add(table);
+			return super.getTables(catalog, schema, table);
+		}
+	}
+
+	private Properties properties;
+	private ServiceRegistry serviceRegistry;
+
+	@Before
+	public void setUp() {
+		JdbcUtil.createDatabase(this);
+		properties = Environment.getProperties();
+		serviceRegistry = new StandardServiceRegistryBuilder().applySettings(properties).build();
+	}
+
+	@After
+	public void tearDown() {
+		JdbcUtil.dropDatabase(this);
+	}
+
+	@Test
+	public void testIncludeFiltersArePushedDown() {
+		RecordingMetaDataDialect dialect = new RecordingMetaDataDialect();
+		List<String> tables = readTables(newOverrideRepository().getReverseEngineeringStrategy(new DefaultReverseEngineeringStrategy()), dialect);
+		Assert.assertEquals("[CUSTOMER, ORDERITEM, ORDERS]", tables.toString());
+		Assert.assertEquals("[ORDER%, CUSTOMER]", dialect.tablePatterns.toString());
+	}
+
+	@Test
+	public void testNoPushdownWhenExcludeTableIsOverridden() {
+		ReverseEngineeringStrategy strategy = new DelegatingReverseEngineeringStrategy(
+				newOverrideRepository().getReverseEngineeringStrategy(new DefaultReverseEngineeringStrategy())) {
+			public boolean excludeTable(TableIdentifier ti) {
+				return "AUDITLOG".equals(ti.getName()) ? false : super.excludeTable(ti);
+			}
+		};
+		RecordingMetaDataDialect dialect = new RecordingMetaDataDialect();
+		List<String> tables = readTables(strategy, dialect);
+		Assert.assertEquals("[AUDITLOG, CUSTOMER, ORDERITEM, ORDERS]", tables.toString());
+		Assert.assertEquals(1, dialect.tablePatterns.size());
+		Assert.assertNull(dialect.tablePatterns.get(0));
+	}
+
+	private OverrideRepository newOverrideRepository() {
+		OverrideRepository or = new OverrideRepository();
+		or.addTableFilter(newTableFilter("ORDERARCHIVE", Boolean.TRUE));
+		or.addTableFilter(newTableFilter("ORDER.*", Boolean.FALSE));
+		or.addTableFilter(newTableFilter("CUSTOMER", Boolean.FALSE));
+		return or;
+	}
+
+	private TableFilter newTableFilter(String matchName, Boolean exclude) {
+		TableFilter filter = new TableFilter();
+		filter.setMatchName(matchName);
+		filter.setExclude(exclude);
+		return filter;
+	}
+
+	private List<String> readTables(ReverseEngineeringStrategy strategy, JDBCMetaDataDialect dialect) {
+		JDBCReader reader = JdbcReaderFactory.newJDBCReader(properties, strategy, dialect, serviceRegistry);
+		DatabaseCollector dc = new DefaultDatabaseCollector(reader.getMetaDataDialect());
+		reader.readDatabaseSchema(
+				dc,
+				properties.getProperty(AvailableSettings.DEFAULT_CATALOG),
+				properties.getProperty(AvailableSettings.DEFAULT_SCHEMA));
+		List<String> result = new ArrayList<String>();
+		Iterator<Table> iterator = dc.iterateTables();
+		while (iterator.hasNext()) {
+			result.add(iterator.next().getName());
+		}
+		Collections.sort(result);
+		return result;
+	}
+
+}
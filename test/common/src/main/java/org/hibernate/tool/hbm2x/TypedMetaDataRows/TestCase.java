@@ -0,0 +1,148 @@
+package org.hibernate.tool.hbm2x.TypedMetaDataRows;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Properties;
+
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Environment;
+import org.hibernate.engine.jdbc.connections.spi.ConnectionProvider;
+import org.hibernate.engine.jdbc.spi.JdbcServices;
+import org.hibernate.mapping.Column;
+import org.hibernate.mapping.ForeignKey;
+import org.hibernate.mapping.Index;
+import org.hibernate.mapping.Table;
+import org.hibernate.mapping.UniqueKey;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.tool.api.dialect.MetaDataDialect;
+import org.hibernate.tool.api.dialect.MetaDataDialectFactory;
+import org.hibernate.tool.api.dialect.TypedMetaDataDialect;
+import org.hibernate.tool.api.reveng.DatabaseCollector;
+import org.hibernate.tool.api.reveng.ReverseEngineeringRuntimeInfo;
+import org.hibernate.tool.internal.dialect.CachedMetaDataDialect;
+import org.hibernate.tool.internal.metadata.DefaultDatabaseCollector;
+import org.hibernate.tool.internal.reveng.DefaultReverseEngineeringStrategy;
+import org.hibernate.tool.internal.reveng.JDBCReader;
+import org.hibernate.tool.internal.reveng.JdbcReaderFactory;
+import org.hibernate.tools.test.util.JdbcUtil;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TestCase {
+
+	private ServiceRegistry serviceRegistry;
+	private Properties properties;
+
+	@Before
+	public void setUp() {
+		JdbcUtil.createDatabase(this);
+		properties = Environment.getProperties();
+		serviceRegistry = new StandardServiceRegistryBuilder().build();
+	}
+
+	@After
+	public void tearDown() {
+		JdbcUtil.dropDatabase(this);
+	}
+
+	@Test
+	public void testTypedRowsEqualMapElements() {
+		MetaDataDialect typed = newMetaDataDialect();
+		// CachedMetaDataDialect only offers the map based methods
+		MetaDataDialect mapBased = new CachedMetaDataDialect(newMetaDataDialect());
+		String typedSchema = describe(readDatabaseSchema(typed));
+		Assert.assertTrue(typedSchema.contains("INVOICE"));
+		Assert.assertTrue(typedSchema.contains("CUSTOMER_NAME"));
+		Assert.assertEquals(typedSchema, describe(readDatabaseSchema(mapBased)));
+	}
+
+	@Test
+	public void testMapElementsOfTypedDialect() {
+		MetaDataDialect dialect = newMetaDataDialect();
+		Assert.assertTrue(dialect instanceof TypedMetaDataDialect);
+		dialect.configure(ReverseEngineeringRuntimeInfo.createInstance(
+				serviceRegistry.getService(ConnectionProvider.class), 
+				serviceRegistry.getService(JdbcServices.class).getSqlExceptionHelper().getSqlExceptionConverter(), 
+				new DefaultDatabaseCollector(dialect)));
+		Iterator<Map<String, Object>> columns = dialect.getColumns(
+				properties.getProperty(AvailableSettings.DEFAULT_CATALOG), 
+				properties.getProperty(AvailableSettings.DEFAULT_SCHEMA), 
+				"CUSTOMER", 
+				"BALANCE");
+		try {
+			Assert.assertTrue(columns.hasNext());
+			Map<String, Object> column = columns.next();
+			Assert.assertEquals("CUSTOMER", column.get("TABLE_NAME"));
+			Assert.assertEquals("BALANCE", column.get("COLUMN_NAME"));
+			Assert.assertTrue(column.get("DATA_TYPE") instanceof Integer);
+			Assert.assertEquals(Integer.valueOf(12), column.get("COLUMN_SIZE"));
+			Assert.assertEquals(Integer.valueOf(2), column.get("DECIMAL_DIGITS"));
+			Assert.assertFalse(columns.hasNext());
+		} 
+		finally {
+			dialect.close(columns);
+			dialect.close();
+		}
+	}
+
+	private MetaDataDialect newMetaDataDialect() {
+		return MetaDataDialectFactory.createMetaDataDialect(
+				serviceRegistry.getService(JdbcServices.class).getDialect(),
+				properties);
+	}
+
+	private DatabaseCollector readDatabaseSchema(MetaDataDialect dialect) {
+		JDBCReader reader = JdbcReaderFactory.newJDBCReader(
+				properties,
+				new DefaultReverseEngineeringStrategy(),
+				dialect,
+				serviceRegistry);
+		DatabaseCollector dc = new DefaultDatabaseCollector(reader.getMetaDataDialect());
+		reader.readDatabaseSchema(
+				dc,
+				properties.getProperty(AvailableSettings.DEFAULT_CATALOG),
+				properties.getProperty(AvailableSettings.DEFAULT_SCHEMA));
+		return dc;
+	}
+
+	private String describe(DatabaseCollector dc) {
+		StringBuffer result = new StringBuffer();
+		Iterator<Table> tables = dc.iterateTables();
+		while (tables.hasNext()) {
+			Table table = tables.next();
+			result.append(table.getName()).append(" pk=").append(table.getPrimaryKey()).append('\n');
+			Iterator<?> columns = table.getColumnIterator();
+			while (columns.hasNext()) {
+				Column column = (Column) columns.next();
+				result.append("  column ").append(column.getName())
+					.append(' ').append(column.getSqlTypeCode())
+					.append(' ').append(column.getLength())
+					.append(' ').append(column.getPrecision())
+					.append(' ').append(column.getScale())
+					.append(' ').append(column.isNullable())
+					.append('\n');
+			}
+			Iterator<?> indexes = table.getIndexIterator();
+			while (indexes.hasNext()) {
+				Index index = (Index) indexes.next();
+				result.append("  index ").append(index.getName()).append('\n');
+			}
+			Iterator<?> uniqueKeys = table.getUniqueKeyIterator();
+			while (uniqueKeys.hasNext()) {
+				UniqueKey key = (UniqueKey) uniqueKeys.next();
+				result.append("  unique ").append(key.getName()).append(' ').append(key.getColumns()).append('\n');
+			}
+			Iterator<?> foreignKeys = table.getForeignKeyIterator();
+			while (foreignKeys.hasNext()) {
+				ForeignKey key = (ForeignKey) foreignKeys.next();
+				result.append("  fk ").append(key.getColumns())
+					.append(" -> ").append(key.getReferencedTable().getName()).append('\n');
+			}
+		}
+		return result.toString();
+	}
+
+}
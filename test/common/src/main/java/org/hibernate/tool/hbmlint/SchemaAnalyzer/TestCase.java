@@ -83,6 +83,45 @@ public class TestCase {
 
 	}
 			
+	@Test
+	public void testTablesAreReadOnce() {
+		MetadataSources metadataSources = new MetadataSources();
+		metadataSources.addResource("org/hibernate/tool/hbmlint/SchemaAnalyzer/SchemaIssues.hbm.xml");
+		Metadata metadata = metadataSources.buildMetadata();
+		SchemaByMetaDataDetector analyzer = new SchemaByMetaDataDetector();
+		analyzer.initialize( metadata );
+		MockCollector first = new MockCollector();
+		analyzer.visit(first);
+		Assert.assertTrue(describe(first).contains("MISSING_TABLE"));
+		Assert.assertTrue(describe(first).contains("does_not_exist"));
+		// visiting again checks against the same tables and reports the same issues
+		MockCollector second = new MockCollector();
+		analyzer.visit(second);
+		Assert.assertEquals(describe(first), describe(second));
+	}
+	
+	@Test
+	public void testLowerCaseNamesAreFound() {
+		MetadataSources metadataSources = new MetadataSources();
+		metadataSources.addResource("org/hibernate/tool/hbmlint/SchemaAnalyzer/LowerCaseNames.hbm.xml");
+		Metadata metadata = metadataSources.buildMetadata();
+		SchemaByMetaDataDetector analyzer = new SchemaByMetaDataDetector();
+		analyzer.initialize( metadata );
+		Table table = metadata.collectTableMappings().iterator().next();
+		Assert.assertEquals("category", table.getName());
+		MockCollector mc = new MockCollector();
+		analyzer.visit(table, mc);
+		Assert.assertEquals("", describe(mc));
+	}
+	
+	private String describe(MockCollector mc) {
+		StringBuffer result = new StringBuffer();
+		for (Iterator<Issue> iter = mc.problems.iterator(); iter.hasNext();) {
+			result.append(iter.next().getDescription()).append('\n');
+		}
+		return result.toString();
+	}
+			
 	static class MockCollector implements IssueCollector {
 		List<Issue> problems = new ArrayList<Issue>();		
 		public void reportIssue(Issue analyze) {			
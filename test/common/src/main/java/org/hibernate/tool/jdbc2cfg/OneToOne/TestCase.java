@@ -9,7 +9,9 @@ import java.net.MalformedURLException;
 import java.net.URL;
 import java.net.URLClassLoader;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Properties;
 
 import javax.persistence.Persistence;
 
@@ -29,8 +31,10 @@ import org.hibernate.tool.api.export.ExporterType;
 import org.hibernate.tool.api.metadata.MetadataDescriptor;
 import org.hibernate.tool.api.metadata.MetadataDescriptorFactory;
 import org.hibernate.tool.hbm2ddl.SchemaValidator;
+import org.hibernate.tool.internal.export.common.ModelFingerprints;
 import org.hibernate.tool.internal.export.hbm.HibernateMappingExporter;
 import org.hibernate.tool.internal.metadata.NativeMetadataDescriptor;
+import org.hibernate.tool.internal.reveng.RevengSettings;
 import org.hibernate.tools.test.util.HibernateUtil;
 import org.hibernate.tools.test.util.JavaUtil;
 import org.hibernate.tools.test.util.JdbcUtil;
@@ -230,6 +234,36 @@ public class TestCase {
         }		
 	}
 
+	@Test
+	public void testParallelBinding() {
+		Properties properties = new Properties();
+		properties.setProperty(RevengSettings.BINDING_PARALLELISM, "4");
+		assertSameModel(MetadataDescriptorFactory
+				.createJdbcDescriptor(null, properties, true)
+				.createMetadata());
+	}
+
+	@Test
+	public void testBoundedMemoryBinding() {
+		Properties properties = new Properties();
+		properties.setProperty(RevengSettings.METADATA_BOUNDED_MEMORY, "true");
+		properties.setProperty(RevengSettings.METADATA_BULK_READ, "true");
+		assertSameModel(MetadataDescriptorFactory
+				.createJdbcDescriptor(null, properties, true)
+				.createMetadata());
+	}
+
+	private void assertSameModel(Metadata other) {
+		Assert.assertEquals(metadata.getEntityBindings().size(), other.getEntityBindings().size());
+		for (Iterator<PersistentClass> iter = metadata.getEntityBindings().iterator(); iter.hasNext();) {
+			PersistentClass expected = iter.next();
+			PersistentClass actual = other.getEntityBinding(expected.getEntityName());
+			Assert.assertNotNull(expected.getEntityName(), actual);
+			Assert.assertEquals(ModelFingerprints.describe(expected), ModelFingerprints.describe(actual));
+		}
+		Assert.assertEquals(metadata.getCollectionBindings().size(), other.getCollectionBindings().size());
+	}
+
 	private void assertFileAndExists(File file) {
 		Assert.assertTrue(file + " does not exist", file.exists() );
 		Assert.assertTrue(file + " not a file", file.isFile() );		
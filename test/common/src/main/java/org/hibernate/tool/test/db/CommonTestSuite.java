@@ -33,6 +33,14 @@ import org.junit.runners.Suite.SuiteClasses;
 	org.hibernate.tool.hbm2x.GenerateFromJDBCWithJavaKeyword.TestCase.class,
 	org.hibernate.tool.hbm2x.JdbcHbm2JavaEjb3.TestCase.class,
 	org.hibernate.tool.hbm2x.IncrementalSchemaReading.TestCase.class,
+	org.hibernate.tool.hbm2x.ParallelSchemaReading.TestCase.class,
+	org.hibernate.tool.hbm2x.IdenticalSchemaReading.TestCase.class,
+	org.hibernate.tool.hbm2x.BulkSchemaReading.TestCase.class,
+	org.hibernate.tool.hbm2x.MetaDataSnapshot.TestCase.class,
+	org.hibernate.tool.hbm2x.IncrementalReverseEngineering.TestCase.class,
+	org.hibernate.tool.hbm2x.TypedMetaDataRows.TestCase.class,
+	org.hibernate.tool.hbm2x.TableFilterPushdown.TestCase.class,
+	org.hibernate.tool.hbm2x.ConnectionPooling.TestCase.class,
 	org.hibernate.tool.hbm2x.query.QueryExporterTest.TestCase.class,
 	org.hibernate.tool.hbmlint.HbmLintTest.TestCase.class,
 	org.hibernate.tool.hbmlint.SchemaAnalyzer.TestCase.class,
@@ -0,0 +1,6 @@
+CREATE TABLE ORDERS ( REGION CHAR(2) NOT NULL, ORDERNO INTEGER NOT NULL, PLACED DATE, PRIMARY KEY (REGION, ORDERNO) )
+CREATE TABLE ORDERLINE ( LINEID INTEGER NOT NULL, REGION CHAR(2), ORDERNO INTEGER, QTY INTEGER, PRIMARY KEY (LINEID), FOREIGN KEY (REGION, ORDERNO) REFERENCES ORDERS(REGION, ORDERNO) )
+CREATE INDEX ORDERLINE_QTY ON ORDERLINE(QTY, LINEID)
+CREATE TABLE PRODUCT ( CODE VARCHAR(10) NOT NULL, NAME VARCHAR(20), PRICE NUMERIC(10,2), PRIMARY KEY (CODE) )
+CREATE UNIQUE INDEX PRODUCT_NAME ON PRODUCT(NAME)
+CREATE VIEW PRODUCTNAMES AS SELECT CODE, NAME FROM PRODUCT
@@ -0,0 +1,4 @@
+DROP VIEW PRODUCTNAMES
+DROP TABLE PRODUCT
+DROP TABLE ORDERLINE
+DROP TABLE ORDERS
@@ -0,0 +1,2 @@
+CREATE TABLE CUSTOMER ( ID INTEGER NOT NULL, PRIMARY KEY (ID) )
+CREATE TABLE ORDERS ( ID INTEGER NOT NULL, CUSTOMER_ID INTEGER, PRIMARY KEY (ID), FOREIGN KEY (CUSTOMER_ID) REFERENCES CUSTOMER(ID) )
@@ -0,0 +1,2 @@
+DROP TABLE ORDERS
+DROP TABLE CUSTOMER
@@ -0,0 +1,27 @@
+CREATE SCHEMA SHARED
+CREATE SCHEMA TENANT_A
+CREATE SCHEMA TENANT_B
+CREATE SCHEMA TENANT_C
+CREATE SCHEMA TENANT_D
+CREATE TABLE SHARED.PRODUCT ( ID INT NOT NULL, NAME VARCHAR(20), PRIMARY KEY(ID))
+CREATE TABLE TENANT_A.ORDERS ( ID INT NOT NULL, CODE VARCHAR(10) NOT NULL, PRIMARY KEY(ID))
+CREATE TABLE TENANT_A.ITEM ( ID INT NOT NULL, ORDER_ID INT, PRODUCT_ID INT, AMOUNT DECIMAL(10,2), PRIMARY KEY(ID))
+CREATE INDEX TENANT_A.ITEM_AMOUNT ON TENANT_A.ITEM(AMOUNT)
+ALTER TABLE TENANT_A.ITEM ADD CONSTRAINT ITEM_ORDER FOREIGN KEY (ORDER_ID) REFERENCES TENANT_A.ORDERS(ID)
+CREATE TABLE TENANT_B.ORDERS ( ID INT NOT NULL, CODE VARCHAR(10) NOT NULL, PRIMARY KEY(ID))
+CREATE TABLE TENANT_B.ITEM ( ID INT NOT NULL, ORDER_ID INT, PRODUCT_ID INT, AMOUNT DECIMAL(10,2), PRIMARY KEY(ID))
+CREATE INDEX TENANT_B.ITEM_AMOUNT ON TENANT_B.ITEM(AMOUNT)
+ALTER TABLE TENANT_B.ITEM ADD CONSTRAINT ITEM_ORDER FOREIGN KEY (ORDER_ID) REFERENCES TENANT_B.ORDERS(ID)
+CREATE TABLE TENANT_C.ORDERS ( ID INT NOT NULL, CODE VARCHAR(10) NOT NULL, PRIMARY KEY(ID))
+CREATE TABLE TENANT_C.ITEM ( ID INT NOT NULL, ORDER_ID INT, PRODUCT_ID INT, AMOUNT DECIMAL(10,2), PRIMARY KEY(ID))
+CREATE INDEX TENANT_C.ITEM_AMOUNT ON TENANT_C.ITEM(AMOUNT)
+ALTER TABLE TENANT_C.ITEM ADD CONSTRAINT ITEM_ORDER FOREIGN KEY (ORDER_ID) REFERENCES TENANT_C.ORDERS(ID)
+ALTER TABLE TENANT_C.ITEM ADD CONSTRAINT ITEM_PRODUCT FOREIGN KEY (PRODUCT_ID) REFERENCES SHARED.PRODUCT(ID)
+CREATE TABLE TENANT_C.NOTE ( ID INT NOT NULL, TEXT VARCHAR(200), PRIMARY KEY(ID))
+CREATE TABLE SHARED.AUDIT ( ID INT NOT NULL, ORDER_ID INT, B_ORDER_ID INT, PRIMARY KEY(ID))
+ALTER TABLE SHARED.AUDIT ADD CONSTRAINT AUDIT_ORDER FOREIGN KEY (ORDER_ID) REFERENCES TENANT_A.ORDERS(ID)
+ALTER TABLE SHARED.AUDIT ADD CONSTRAINT AUDIT_ORDER_B FOREIGN KEY (B_ORDER_ID) REFERENCES TENANT_B.ORDERS(ID)
+CREATE TABLE TENANT_D.ORDERS ( ID INT NOT NULL, CODE VARCHAR(40) NOT NULL, PRIMARY KEY(ID))
+CREATE TABLE TENANT_D.ITEM ( ID INT NOT NULL, ORDER_ID INT, PRODUCT_ID INT, AMOUNT DECIMAL(10,2), PRIMARY KEY(ID))
+CREATE INDEX TENANT_D.ITEM_AMOUNT ON TENANT_D.ITEM(AMOUNT)
+ALTER TABLE TENANT_D.ITEM ADD CONSTRAINT ITEM_ORDER FOREIGN KEY (ORDER_ID) REFERENCES TENANT_D.ORDERS(ID)
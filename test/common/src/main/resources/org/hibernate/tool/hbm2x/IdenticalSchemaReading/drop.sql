@@ -0,0 +1,16 @@
+DROP TABLE SHARED.AUDIT
+DROP TABLE TENANT_C.NOTE
+DROP TABLE TENANT_A.ITEM
+DROP TABLE TENANT_A.ORDERS
+DROP TABLE TENANT_B.ITEM
+DROP TABLE TENANT_B.ORDERS
+DROP TABLE TENANT_C.ITEM
+DROP TABLE TENANT_C.ORDERS
+DROP TABLE TENANT_D.ITEM
+DROP TABLE TENANT_D.ORDERS
+DROP TABLE SHARED.PRODUCT
+DROP SCHEMA TENANT_A
+DROP SCHEMA TENANT_B
+DROP SCHEMA TENANT_C
+DROP SCHEMA TENANT_D
+DROP SCHEMA SHARED
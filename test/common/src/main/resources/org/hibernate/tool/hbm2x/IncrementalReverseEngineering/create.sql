@@ -0,0 +1,4 @@
+CREATE TABLE PARENT ( ID INTEGER NOT NULL, NAME VARCHAR(20), PRIMARY KEY (ID) )
+CREATE TABLE CHILD ( ID INTEGER NOT NULL, PARENTID INTEGER, PRIMARY KEY (ID), FOREIGN KEY (PARENTID) REFERENCES PARENT(ID) )
+CREATE TABLE LOOSE ( ID INTEGER NOT NULL, NAME VARCHAR(20), PRIMARY KEY (ID) )
+CREATE TABLE OTHER ( ID INTEGER NOT NULL, NAME VARCHAR(20), PRIMARY KEY (ID) )
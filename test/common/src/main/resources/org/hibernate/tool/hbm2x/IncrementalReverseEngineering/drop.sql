@@ -0,0 +1,4 @@
+DROP TABLE OTHER
+DROP TABLE LOOSE
+DROP TABLE CHILD
+DROP TABLE PARENT
@@ -0,0 +1,2 @@
+DROP TABLE CHILD
+DROP TABLE MASTER
@@ -0,0 +1,6 @@
+CREATE TABLE MASTER ( ID CHAR NOT NULL, NAME VARCHAR(20), PRIMARY KEY (ID) )
+CREATE TABLE CHILD  ( CHILDID CHAR NOT NULL, MASTERREF CHAR, PRIMARY KEY (CHILDID), FOREIGN KEY (MASTERREF) REFERENCES MASTER(ID) )
+CREATE TABLE ITEM ( ITEMID INTEGER NOT NULL, CHILDREF CHAR, CODE VARCHAR(10), PRICE NUMERIC(10,2), PRIMARY KEY (ITEMID), FOREIGN KEY (CHILDREF) REFERENCES CHILD(CHILDID) )
+CREATE UNIQUE INDEX ITEM_CODE ON ITEM(CODE)
+CREATE TABLE TAG ( TAGID INTEGER NOT NULL, LABEL VARCHAR(30), PRIMARY KEY (TAGID) )
+CREATE INDEX TAG_LABEL ON TAG(LABEL)
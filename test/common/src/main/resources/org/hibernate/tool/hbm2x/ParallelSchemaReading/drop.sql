@@ -0,0 +1,4 @@
+DROP TABLE TAG
+DROP TABLE ITEM
+DROP TABLE CHILD
+DROP TABLE MASTER
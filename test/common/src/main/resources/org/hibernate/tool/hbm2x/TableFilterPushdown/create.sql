@@ -0,0 +1,5 @@
+CREATE TABLE CUSTOMER ( ID INTEGER NOT NULL, PRIMARY KEY (ID) )
+CREATE TABLE ORDERS ( ID INTEGER NOT NULL, CUSTOMER_ID INTEGER, PRIMARY KEY (ID), FOREIGN KEY (CUSTOMER_ID) REFERENCES CUSTOMER(ID) )
+CREATE TABLE ORDERITEM ( ID INTEGER NOT NULL, ORDER_ID INTEGER, PRIMARY KEY (ID), FOREIGN KEY (ORDER_ID) REFERENCES ORDERS(ID) )
+CREATE TABLE ORDERARCHIVE ( ID INTEGER NOT NULL, PRIMARY KEY (ID) )
+CREATE TABLE AUDITLOG ( ID INTEGER NOT NULL, PRIMARY KEY (ID) )
@@ -0,0 +1,5 @@
+DROP TABLE AUDITLOG
+DROP TABLE ORDERARCHIVE
+DROP TABLE ORDERITEM
+DROP TABLE ORDERS
+DROP TABLE CUSTOMER
@@ -0,0 +1,4 @@
+CREATE TABLE CUSTOMER ( ID INTEGER NOT NULL, NAME VARCHAR(40) NOT NULL, BALANCE NUMERIC(12,2), PRIMARY KEY (ID) )
+CREATE UNIQUE INDEX CUSTOMER_NAME ON CUSTOMER(NAME)
+CREATE TABLE INVOICE ( ID INTEGER NOT NULL, CUSTOMER_ID INTEGER, TOTAL NUMERIC(12,2), PRIMARY KEY (ID), FOREIGN KEY (CUSTOMER_ID) REFERENCES CUSTOMER(ID) )
+CREATE INDEX INVOICE_TOTAL ON INVOICE(TOTAL)
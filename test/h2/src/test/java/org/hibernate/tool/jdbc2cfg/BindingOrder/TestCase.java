@@ -0,0 +1,70 @@
+package org.hibernate.tool.jdbc2cfg.BindingOrder;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+import org.hibernate.boot.Metadata;
+import org.hibernate.mapping.PersistentClass;
+import org.hibernate.tool.api.metadata.MetadataDescriptorFactory;
+import org.hibernate.tool.internal.export.common.ModelFingerprints;
+import org.hibernate.tool.internal.reveng.RevengSettings;
+import org.hibernate.tools.test.util.JdbcUtil;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Checks that JdbcBinder binds the same classes as it did before the binding could run in parallel,
+ * for a schema where type alignment, property naming and associations depend on the binding order.
+ */
+public class TestCase {
+
+	// the digest of the description of all classes bound by JdbcBinder before it could bind in parallel;
+	// e.g. the type of MEASURE_POINT.MEASURE_ID is aligned for the collection of Measure first
+	private static final String EXPECTED_FINGERPRINT = "862dab2e12ca3174f7809b1461ceed8cabe23299";
+
+	@Before
+	public void setUp() {
+		JdbcUtil.createDatabase(this);
+	}
+
+	@After
+	public void tearDown() {
+		JdbcUtil.dropDatabase(this);
+	}
+
+	@Test
+	public void testSerialBinding() {
+		assertFingerprint(new Properties());
+	}
+
+	@Test
+	public void testParallelBinding() {
+		Properties properties = new Properties();
+		properties.setProperty(RevengSettings.BINDING_PARALLELISM, "4");
+		assertFingerprint(properties);
+	}
+
+	private void assertFingerprint(Properties properties) {
+		Metadata metadata = MetadataDescriptorFactory
+				.createJdbcDescriptor(null, properties, true)
+				.createMetadata();
+		Map<String, String> descriptions = new TreeMap<String, String>();
+		for (Iterator<PersistentClass> iter = metadata.getEntityBindings().iterator(); iter.hasNext();) {
+			PersistentClass clazz = iter.next();
+			descriptions.put(clazz.getEntityName(), ModelFingerprints.describe(clazz, metadata));
+		}
+		StringBuilder description = new StringBuilder();
+		for (Iterator<String> iter = descriptions.values().iterator(); iter.hasNext();) {
+			description.append(iter.next());
+		}
+		Assert.assertEquals(
+				description.toString(), 
+				EXPECTED_FINGERPRINT, 
+				ModelFingerprints.digest(description.toString()));
+	}
+
+}
@@ -0,0 +1,8 @@
+CREATE TABLE MASTER (ID NUMERIC(10) NOT NULL, NAME VARCHAR(20), VERSION INT, PRIMARY KEY (ID))
+CREATE TABLE CHILD (ID INT NOT NULL, MASTER_ID NUMERIC(10), MASTER VARCHAR(20), AMOUNT NUMERIC(10), PRIMARY KEY (ID), FOREIGN KEY (MASTER_ID) REFERENCES MASTER(ID))
+CREATE TABLE CHILD_DETAIL (CHILD_ID INT NOT NULL, NOTE VARCHAR(50), PRIMARY KEY (CHILD_ID), FOREIGN KEY (CHILD_ID) REFERENCES CHILD(ID))
+CREATE TABLE LINE (CHILD_ID INT NOT NULL, LINE_NO SMALLINT NOT NULL, QUANTITY NUMERIC(5), PRIMARY KEY (CHILD_ID, LINE_NO), FOREIGN KEY (CHILD_ID) REFERENCES CHILD(ID))
+CREATE TABLE MASTER_CHILD (MASTER_ID NUMERIC(10) NOT NULL, CHILD_ID INT NOT NULL, PRIMARY KEY (MASTER_ID, CHILD_ID), FOREIGN KEY (MASTER_ID) REFERENCES MASTER(ID), FOREIGN KEY (CHILD_ID) REFERENCES CHILD(ID))
+CREATE TABLE NO_KEY (NAME VARCHAR(20), AMOUNT NUMERIC(10))
+CREATE TABLE MEASURE (ID REAL NOT NULL, NAME VARCHAR(20), PRIMARY KEY (ID))
+CREATE TABLE MEASURE_POINT (MEASURE_ID REAL NOT NULL, POINT_NO INT NOT NULL, VALUE REAL, PRIMARY KEY (MEASURE_ID, POINT_NO), FOREIGN KEY (MEASURE_ID) REFERENCES MEASURE(ID))
@@ -0,0 +1,8 @@
+DROP TABLE MEASURE_POINT
+DROP TABLE MEASURE
+DROP TABLE NO_KEY
+DROP TABLE MASTER_CHILD
+DROP TABLE LINE
+DROP TABLE CHILD_DETAIL
+DROP TABLE CHILD
+DROP TABLE MASTER
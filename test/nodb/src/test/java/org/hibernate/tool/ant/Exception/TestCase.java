@@ -46,6 +46,33 @@ public class TestCase {
 			
 		} catch (BuildException e) {
 			Assert.assertTrue(e.getMessage(), e.getMessage().contains("Error while processing Entity"));
+			String log = AntUtil.getLog(project);
+			Assert.assertTrue(log, log.contains("while running exporter #1:"));
+			
+		}
+		
+	}
+	
+	@Test
+	public void testMetadataException() throws Exception {
+
+		String[] resources = new String[] {"build.xml", "hibernate.properties", "Broken.hbm.xml"};
+		ResourceUtil.createResources(this, resources, resourcesDir);
+		File buildFile = new File(resourcesDir, "build.xml");	
+		
+		AntUtil.Project project = AntUtil.createProject(buildFile);
+		project.setProperty("destinationDir", destinationDir.getAbsolutePath());
+		project.setProperty("resourcesDir", resourcesDir.getAbsolutePath());
+		
+		try {
+		
+			project.executeTarget("testMetadataException");
+			Assert.fail("An exception should occur");
+			
+		} catch (BuildException e) {
+			String log = AntUtil.getLog(project);
+			Assert.assertTrue(log, log.contains("An exception occurred while building the metadata"));
+			Assert.assertFalse(log, log.contains("while running exporter"));
 			
 		}
 		
@@ -0,0 +1,68 @@
+package org.hibernate.tool.cfg.RowSpillFileTest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.hibernate.tool.internal.dialect.RowSpillFile;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class TestCase {
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private RowSpillFile spillFile;
+
+	@Before
+	public void setUp() throws Exception {
+		spillFile = new RowSpillFile(temporaryFolder.getRoot());
+	}
+
+	@After
+	public void tearDown() {
+		spillFile.clear();
+	}
+
+	@Test
+	public void testRowsAreSpilled() {
+		Map<String, List<Map<String, Object>>> map = spillFile.newMap();
+		List<Map<String, Object>> rows = rows("COLUMN_SIZE", Integer.valueOf(10));
+		map.put("ITEM", rows);
+		Assert.assertTrue(spillFile.length() > 0);
+		Assert.assertEquals(rows, map.get("ITEM"));
+		Assert.assertNotSame(rows.get(0), map.get("ITEM").get(0));
+	}
+
+	@Test
+	public void testUnsupportedValuesAreKeptOnTheHeap() {
+		Map<String, List<Map<String, Object>>> map = spillFile.newMap();
+		List<Map<String, Object>> rows = rows("DEFAULT_VALUE", new BigDecimal("1.5"));
+		map.put("ITEM", rows);
+		map.put("ORDERS", rows("COLUMN_SIZE", Integer.valueOf(10)));
+		Assert.assertEquals(rows, map.get("ITEM"));
+		Assert.assertNotSame(rows.get(0), map.get("ITEM").get(0));
+		Assert.assertEquals(rows("COLUMN_SIZE", Integer.valueOf(10)), map.get("ORDERS"));
+		Assert.assertEquals(2, map.size());
+		Assert.assertEquals(2, new HashMap<String, List<Map<String, Object>>>(map).size());
+		Assert.assertEquals(rows, map.remove("ITEM"));
+		Assert.assertFalse(map.containsKey("ITEM"));
+	}
+
+	private static List<Map<String, Object>> rows(String key, Object value) {
+		Map<String, Object> row = new HashMap<String, Object>();
+		row.put("TABLE_NAME", "ITEM");
+		row.put(key, value);
+		List<Map<String, Object>> result = new ArrayList<Map<String, Object>>();
+		result.add(row);
+		return result;
+	}
+
+}
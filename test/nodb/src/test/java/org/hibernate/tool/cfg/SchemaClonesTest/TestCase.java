@@ -0,0 +1,91 @@
+package org.hibernate.tool.cfg.SchemaClonesTest;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.hibernate.tool.api.dialect.MetaDataDialect;
+import org.hibernate.tool.internal.dialect.SchemaClones;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TestCase {
+
+	private List<String> columnRequests;
+	private SchemaClones clones;
+	private MetaDataDialect dialect;
+
+	@Before
+	public void setUp() {
+		columnRequests = new ArrayList<String>();
+		clones = new SchemaClones();
+		clones.addClone(null, "TENANT_B", null, "TENANT_A");
+		dialect = clones.wrap(newColumnsDialect(columnRequests));
+	}
+
+	@Test
+	public void testRowsAreSharedWithClones() {
+		Assert.assertEquals("TENANT_A", readColumn("TENANT_A").get("TABLE_SCHEM"));
+		Assert.assertEquals("TENANT_B", readColumn("TENANT_B").get("TABLE_SCHEM"));
+		Assert.assertEquals("TENANT_A", readColumn("TENANT_A").get("TABLE_SCHEM"));
+		Assert.assertEquals(1, columnRequests.size());
+	}
+
+	// what hibernatetool.metadata.boundedmemory=true sets up
+	@Test
+	public void testScopeReadTwiceWithReleasedRows() {
+		clones.setReleaseRows(true);
+		readColumn("TENANT_A");
+		readColumn("TENANT_A");
+		// a scope reading the rows again does not count for the clone
+		Assert.assertEquals("TENANT_B", readColumn("TENANT_B").get("TABLE_SCHEM"));
+		Assert.assertEquals(1, columnRequests.size());
+		// released once all scopes read them, and not kept when read again
+		readColumn("TENANT_A");
+		Assert.assertEquals(2, columnRequests.size());
+		readColumn("TENANT_B");
+		readColumn("TENANT_A");
+		Assert.assertEquals(4, columnRequests.size());
+	}
+
+	private Map<String, Object> readColumn(String schema) {
+		Iterator<Map<String, Object>> columns = dialect.getColumns(null, schema, "ORDERS", null);
+		try {
+			Assert.assertTrue(columns.hasNext());
+			Map<String, Object> result = columns.next();
+			Assert.assertFalse(columns.hasNext());
+			return result;
+		}
+		finally {
+			dialect.close(columns);
+		}
+	}
+
+	private MetaDataDialect newColumnsDialect(final List<String> requests) {
+		return (MetaDataDialect) Proxy.newProxyInstance(
+				getClass().getClassLoader(),
+				new Class<?>[] { MetaDataDialect.class },
+				new InvocationHandler() {
+					public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+						if("getColumns".equals(method.getName())) {
+							requests.add((String) args[1]);
+							Map<String, Object> row = new HashMap<String, Object>();
+							row.put("TABLE_SCHEM", args[1]);
+							row.put("TABLE_NAME", args[2]);
+							row.put("COLUMN_NAME", "ID");
+							List<Map<String, Object>> rows = new ArrayList<Map<String, Object>>();
+							rows.add(row);
+							return rows.iterator();
+						}
+						return null;
+					}
+				});
+	}
+
+}
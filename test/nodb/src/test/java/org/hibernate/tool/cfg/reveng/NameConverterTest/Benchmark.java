@@ -0,0 +1,72 @@
+package org.hibernate.tool.cfg.reveng.NameConverterTest;
+
+import org.hibernate.tool.internal.util.CachingNameConverter;
+import org.hibernate.tool.internal.util.NameConverter;
+
+/**
+ * Compares the time the substring based conversion, NameConverter and CachingNameConverter take to 
+ * convert the names of a schema with many repeated column names. Run it with
+ * 
+ *     java -cp ... org.hibernate.tool.cfg.reveng.NameConverterTest.Benchmark [columns] [rounds]
+ */
+public class Benchmark {
+
+	public static void main(String[] args) {
+		int columns = args.length > 0 ? Integer.parseInt(args[0]) : 200000;
+		int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+		String[] names = createNames(columns);
+		for (int round = 0; round < rounds; round++) {
+			long legacy = time(new Conversion() {
+				String convert(String name) {
+					return LegacyNameConverter.simplePluralize(LegacyNameConverter.toUpperCamelCase(name));
+				}
+			}, names);
+			long current = time(new Conversion() {
+				String convert(String name) {
+					return NameConverter.simplePluralize(NameConverter.toUpperCamelCase(name));
+				}
+			}, names);
+			final CachingNameConverter cache = new CachingNameConverter();
+			long cached = time(new Conversion() {
+				String convert(String name) {
+					return cache.simplePluralize(cache.toUpperCamelCase(name));
+				}
+			}, names);
+			System.out.println(
+					"round " + round + ": substrings " + legacy / 1000 + "us, " + 
+					"char array " + current / 1000 + "us, " +
+					"cached " + cached / 1000 + "us for " + names.length + " names");
+		}
+	}
+
+	/** column names of tables with a few dozen columns each, most of them repeated in every table */
+	private static String[] createNames(int columns) {
+		String[] common = { "ID", "NAME", "DESCRIPTION", "CREATED_AT", "CREATED_BY", "UPDATED_AT", 
+				"UPDATED_BY", "VERSION", "STATUS", "TENANT_ID", "EXTERNAL_REFERENCE", "is_active" };
+		String[] result = new String[columns];
+		for (int i = 0; i < columns; i++) {
+			int table = i / 40;
+			int column = i % 40;
+			result[i] = column < common.length ? common[column] : "TABLE_" + table % 500 + "_COLUMN_" + column;
+		}
+		return result;
+	}
+
+	private static long time(Conversion conversion, String[] names) {
+		long start = System.nanoTime();
+		int length = 0;
+		for (int i = 0; i < names.length; i++) {
+			length += conversion.convert(names[i]).length();
+		}
+		long result = System.nanoTime() - start;
+		if(length == 0) {
+			throw new IllegalStateException();
+		}
+		return result;
+	}
+
+	private static abstract class Conversion {
+		abstract String convert(String name);
+	}
+
+}
@@ -0,0 +1,87 @@
+package org.hibernate.tool.cfg.reveng.NameConverterTest;
+
+/**
+ * The conversions as NameConverter implemented them with one substring per character,
+ * the reference the current implementation has to agree with.
+ */
+class LegacyNameConverter {
+
+	static String toUpperCamelCase(String s) {
+		if ( "".equals(s) ) {
+			return s;
+		}
+		StringBuffer result = new StringBuffer();
+		
+		boolean capitalize = true;
+		boolean lastCapital = false;
+		boolean lastDecapitalized = false;
+		String p = null;
+		for (int i = 0; i < s.length(); i++) {
+			String c = s.substring(i, i + 1);
+			if ( "_".equals(c) || " ".equals(c) || "-".equals(c) ) {
+				capitalize = true;
+				continue;
+			}
+			
+			if ( c.toUpperCase().equals(c) ) {
+				if (lastDecapitalized && !lastCapital) {
+					capitalize = true;
+				}
+				lastCapital = true;
+			}
+			else {
+				lastCapital = false;
+			}
+			
+			if (capitalize) {
+				if (p == null || !p.equals("_") ) {
+					result.append(c.toUpperCase() );
+					capitalize = false;
+					p = c;
+				}
+				else {
+					result.append(c.toLowerCase() );
+					capitalize = false;
+					p = c;
+				}
+			}
+			else {
+				result.append(c.toLowerCase() );
+				lastDecapitalized = true;
+				p = c;
+			}
+			
+		}
+		return result.toString();
+	}
+
+	@SuppressWarnings("fallthrough")
+	static String simplePluralize(String singular) {
+		char last = singular.charAt( singular.length()-1 );
+		Character prev = singular.length() > 1 ? singular.charAt( singular.length() - 2 ) : null;
+		String vowels = "aeiouy";
+		switch (last) {
+			case 'x':
+			case 's':
+				singular += "es";
+				break;
+			case 'y':
+				if (prev != null && vowels.indexOf(prev) >= 0){
+					singular += "s";
+				} else {
+					singular = singular.substring( 0, singular.length()-1 ) + "ies";
+				}
+				break;
+			case 'h':
+				if (prev != null && (prev == 'c' || prev == 's')){
+					singular += "es";
+					break;
+				}
+				// fall through, as NameConverter did
+			default:
+				singular += "s";
+		}
+		return singular;
+	}
+
+}
@@ -1,5 +1,8 @@
 package org.hibernate.tool.cfg.reveng.NameConverterTest;
 
+import java.util.Locale;
+
+import org.hibernate.tool.internal.util.CachingNameConverter;
 import org.hibernate.tool.internal.util.NameConverter;
 import org.junit.Assert;
 import org.junit.Test;
@@ -7,6 +10,53 @@ import org.junit.Test;
 
 public class TestCase {
 
+	static final String[] NAMES = {
+			"a", "A", "_", "employee_name", "EMPLOYEE_NAME", "EmployeeName", "employeeName",
+			"employee name", "employee-name", "__leading", "trailing__", "ID", "Id", "iD", "i",
+			"nameIsValid", "NAME_IS_VALID", "x1_y2", "1st_place", "ORDER_ITEM_2", "aBC", "ABc",
+			"camelCASE_mixed", "status", "box", "day", "city", "church", "wish", "bach", "y",
+			"\u00e4rger_\u00dcbel", "stra\u00dfe", "STRASSE", "\u0130ndex", "i\u0307", "caf\u00e9_Bar",
+			"\u00df", "\u01c5ungla", "\ud801\udc00_name", "\u0149oo", "t\u0131tle_TITLE", "Z\u00fcrich",
+	};
+
+	@Test
+	public void testSameNamesAsBefore() {
+		assertSameNames();
+	}
+
+	@Test
+	public void testSameNamesAsBeforeInTurkish() {
+		Locale locale = Locale.getDefault();
+		try {
+			Locale.setDefault(new Locale("tr", "TR"));
+			assertSameNames();
+		}
+		finally {
+			Locale.setDefault(locale);
+		}
+	}
+
+	@Test
+	public void testCachingNameConverter() {
+		CachingNameConverter names = new CachingNameConverter(4);
+		for (int i = 0; i < 3; i++) {
+			for (int j = 0; j < NAMES.length; j++) {
+				Assert.assertEquals(NAMES[j], NameConverter.toUpperCamelCase(NAMES[j]), names.toUpperCamelCase(NAMES[j]));
+				Assert.assertEquals(NAMES[j], NameConverter.simplePluralize(NAMES[j]), names.simplePluralize(NAMES[j]));
+			}
+		}
+		names = new CachingNameConverter();
+		Assert.assertSame(names.toUpperCamelCase("order_item"), names.toUpperCamelCase(new String("order_item")));
+		Assert.assertSame(names.simplePluralize("orderItem"), names.simplePluralize(new String("orderItem")));
+	}
+
+	private void assertSameNames() {
+		for (int i = 0; i < NAMES.length; i++) {
+			Assert.assertEquals(NAMES[i], LegacyNameConverter.toUpperCamelCase(NAMES[i]), NameConverter.toUpperCamelCase(NAMES[i]));
+			Assert.assertEquals(NAMES[i], LegacyNameConverter.simplePluralize(NAMES[i]), NameConverter.simplePluralize(NAMES[i]));
+		}
+	}
+
 	@Test
     public void testSimplePluralizeWithSingleH() throws Exception {
         String plural = NameConverter.simplePluralize("h");
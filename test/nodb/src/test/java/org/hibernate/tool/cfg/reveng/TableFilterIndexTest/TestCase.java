@@ -0,0 +1,95 @@
+package org.hibernate.tool.cfg.reveng.TableFilterIndexTest;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import org.hibernate.tool.api.reveng.TableIdentifier;
+import org.hibernate.tool.internal.reveng.TableFilter;
+import org.hibernate.tool.internal.reveng.TableFilterIndex;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TestCase {
+
+	private static final String[] NAMES = {
+			"ORDERS", "ORDERLINE", "ORDER", "CUSTOMER", "CUSTOMER_AUDIT",
+			"AUDIT", "SYS_AUDIT", "PRODUCT_HISTORY", "HISTORY", "X", "" };
+
+	@Test
+	public void testSameResultAsLinearScan() {
+		List<TableFilter> filters = new ArrayList<TableFilter>();
+		filters.add(newTableFilter(".*", ".*", "CUSTOMER_AUDIT", Boolean.TRUE, null));
+		filters.add(newTableFilter(".*", ".*", ".*_AUDIT", Boolean.FALSE, "audit"));
+		filters.add(newTableFilter(".*", "OTHER", "ORDER.*", Boolean.TRUE, "other"));
+		filters.add(newTableFilter(".*", ".*", "ORDER.*", Boolean.FALSE, "orders"));
+		filters.add(newTableFilter(".*", ".*", "ORDERS", Boolean.TRUE, "never"));
+		filters.add(newTableFilter(".*", ".*", ".*HIST.*", Boolean.FALSE, "history"));
+		filters.add(newTableFilter(".*", ".*", "CUSTOMER", Boolean.FALSE, "customer"));
+		filters.add(newTableFilter(".*", ".*", ".*", Boolean.TRUE, "rest"));
+		assertSameAsLinearScan(filters);
+		assertSameAsLinearScan(filters.subList(0, 4));
+		assertSameAsLinearScan(filters.subList(4, 7));
+		assertSameAsLinearScan(new ArrayList<TableFilter>());
+	}
+
+	@Test
+	public void testFirstMatchWins() {
+		List<TableFilter> filters = new ArrayList<TableFilter>();
+		filters.add(newTableFilter(".*", ".*", "ORDER.*", Boolean.FALSE, "first"));
+		filters.add(newTableFilter(".*", ".*", "ORDERS", Boolean.TRUE, "second"));
+		TableFilterIndex index = new TableFilterIndex(filters);
+		TableIdentifier orders = new TableIdentifier(null, "PUBLIC", "ORDERS");
+		Assert.assertFalse(index.excludeTable(orders));
+		Assert.assertEquals("first", index.getPackageName(orders));
+		Assert.assertTrue(index.excludeTable(new TableIdentifier(null, "PUBLIC", "CUSTOMER")));
+	}
+
+	private void assertSameAsLinearScan(List<TableFilter> filters) {
+		TableFilterIndex index = new TableFilterIndex(filters);
+		String[] schemas = { "PUBLIC", "OTHER" };
+		for (int i = 0; i < schemas.length; i++) {
+			for (int j = 0; j < NAMES.length; j++) {
+				TableIdentifier identifier = new TableIdentifier(null, schemas[i], NAMES[j]);
+				Assert.assertEquals(identifier.toString(), excludeTable(filters, identifier), index.excludeTable(identifier));
+				Assert.assertEquals(identifier.toString(), getPackageName(filters, identifier), index.getPackageName(identifier));
+			}
+		}
+	}
+
+	private boolean excludeTable(List<TableFilter> filters, TableIdentifier identifier) {
+		boolean hasInclude = false;
+		for (Iterator<TableFilter> iter = filters.iterator(); iter.hasNext();) {
+			TableFilter tf = iter.next();
+			Boolean value = tf.exclude(identifier);
+			if(value!=null) {
+				return value.booleanValue();
+			}
+			if(!tf.getExclude().booleanValue()) {
+				hasInclude = true;
+			}
+		}
+		return hasInclude;
+	}
+
+	private String getPackageName(List<TableFilter> filters, TableIdentifier identifier) {
+		for (Iterator<TableFilter> iter = filters.iterator(); iter.hasNext();) {
+			String value = iter.next().getPackage(identifier);
+			if(value!=null) {
+				return value;
+			}
+		}
+		return null;
+	}
+
+	private TableFilter newTableFilter(String catalog, String schema, String name, Boolean exclude, String packageName) {
+		TableFilter result = new TableFilter();
+		result.setMatchCatalog(catalog);
+		result.setMatchSchema(schema);
+		result.setMatchName(name);
+		result.setExclude(exclude);
+		result.setPackage(packageName);
+		return result;
+	}
+
+}
@@ -0,0 +1,63 @@
+package org.hibernate.tool.hbm2x.ExporterPipelineTest;
+
+import java.io.File;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.hibernate.boot.Metadata;
+import org.hibernate.tool.api.export.ExporterPipeline;
+import org.hibernate.tool.api.metadata.MetadataDescriptor;
+import org.hibernate.tool.hbm2x.GenericExporterTest.ExporterFixture;
+import org.hibernate.tools.test.util.JUnitUtil;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class TestCase {
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private ExporterFixture fixture = null;
+
+	@Before
+	public void setUp() {
+		fixture = new ExporterFixture(temporaryFolder.getRoot());
+	}
+
+	@Test
+	public void testExporterPipeline() {
+		final AtomicInteger created = new AtomicInteger();
+		final MetadataDescriptor metadataDescriptor = fixture.getMetadataDescriptor();
+		MetadataDescriptor countingDescriptor = new MetadataDescriptor() {
+			public Metadata createMetadata() {
+				created.incrementAndGet();
+				return metadataDescriptor.createMetadata();
+			}
+			public Properties getProperties() {
+				return metadataDescriptor.getProperties();
+			}
+		};
+		ExporterPipeline pipeline = new ExporterPipeline();
+		pipeline.setThreads(3);
+		String[] prefixes = new String[] { "first", "second", "third" };
+		for (int i = 0; i < prefixes.length; i++) {
+			pipeline.addExporter(
+					prefixes[i], 
+					fixture.createGenericExporter(countingDescriptor, "generic-xml.ftl", prefixes[i] + "{class-name}.xml"));
+		}
+		ExporterPipeline.Report report = pipeline.run();
+		Assert.assertEquals(1, created.get());
+		Assert.assertEquals(3, report.getEntries().size());
+		Assert.assertNull(report.getFailure());
+		for (int i = 0; i < prefixes.length; i++) {
+			Assert.assertTrue(report.getEntries().get(i).isRun());
+			Assert.assertEquals(prefixes[i], report.getEntries().get(i).getName());
+			JUnitUtil.assertIsNonEmptyFile(new File(fixture.getOutputDir(), prefixes[i] + "HelloUniverse.xml"));
+		}
+		Assert.assertTrue(report.toString().startsWith("Metadata built in "));
+	}
+
+}
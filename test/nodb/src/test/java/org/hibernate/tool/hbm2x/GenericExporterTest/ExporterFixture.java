@@ -0,0 +1,124 @@
+package org.hibernate.tool.hbm2x.GenericExporterTest;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+import org.hibernate.tool.api.export.ExporterConstants;
+import org.hibernate.tool.api.metadata.MetadataDescriptor;
+import org.hibernate.tool.internal.export.common.GenericExporter;
+import org.hibernate.tool.internal.export.pojo.POJOExporter;
+import org.hibernate.tools.test.util.HibernateUtil;
+import org.hibernate.tools.test.util.ResourceUtil;
+
+/**
+ * The mappings and templates of this package, set up in a temporary folder for the tests
+ * of the features shared by all exporters.
+ */
+public class ExporterFixture {
+
+	private static final String[] HBM_XML_FILES = new String[] {
+			"Author.hbm.xml",
+			"Article.hbm.xml",
+			"HelloWorld.hbm.xml"
+	};
+
+	private final File root;
+	private final File outputDir;
+	private final MetadataDescriptor metadataDescriptor;
+	private final String resourcesLocation;
+	private int resourcesDirs = 0;
+
+	public ExporterFixture(File root) {
+		this.root = root;
+		outputDir = new File(root, "output");
+		outputDir.mkdir();
+		resourcesLocation = ResourceUtil.getResourcesLocation(this);
+		metadataDescriptor = createMetadataDescriptor(HBM_XML_FILES);
+	}
+
+	public MetadataDescriptor getMetadataDescriptor() {
+		return metadataDescriptor;
+	}
+
+	public File getOutputDir() {
+		return outputDir;
+	}
+
+	/**
+	 * @return a descriptor of only the given mappings of this package
+	 */
+	public MetadataDescriptor createMetadataDescriptor(String[] hbmXmlFiles) {
+		File resourcesDir = new File(root, "resources" + resourcesDirs++);
+		resourcesDir.mkdir();
+		return HibernateUtil.initializeMetadataDescriptor(this, hbmXmlFiles, resourcesDir);
+	}
+
+	/**
+	 * @param templateName the name of a template in this package, or an absolute resource name
+	 */
+	public GenericExporter createGenericExporter(String templateName, String filePattern) {
+		return createGenericExporter(metadataDescriptor, templateName, filePattern);
+	}
+
+	public GenericExporter createGenericExporter(MetadataDescriptor descriptor, String templateName, String filePattern) {
+		GenericExporter result = new GenericExporter();
+		result.getProperties().put(ExporterConstants.METADATA_DESCRIPTOR, descriptor);
+		result.getProperties().put(ExporterConstants.OUTPUT_FOLDER, outputDir);
+		result.setTemplateName(templateName.startsWith("/") ? templateName : resourcesLocation + templateName);
+		result.setFilePattern(filePattern);
+		return result;
+	}
+
+	/**
+	 * @return an exporter of the POJOs into the directory dirName of the temporary folder
+	 */
+	public POJOExporter createPOJOExporter(String dirName) {
+		POJOExporter result = new POJOExporter();
+		result.getProperties().put(ExporterConstants.METADATA_DESCRIPTOR, metadataDescriptor);
+		result.getProperties().put(ExporterConstants.OUTPUT_FOLDER, new File(root, dirName));
+		return result;
+	}
+
+	/**
+	 * @return the paths of all files below dir, sorted
+	 */
+	public static List<String> listFiles(File dir) {
+		return listFiles(dir, "");
+	}
+
+	private static List<String> listFiles(File dir, String path) {
+		List<String> result = new ArrayList<String>();
+		File[] files = dir.listFiles();
+		for (int i = 0; i < files.length; i++) {
+			if(files[i].isDirectory()) {
+				result.addAll(listFiles(files[i], path + files[i].getName() + "/"));
+			} else {
+				result.add(path + files[i].getName());
+			}
+		}
+		Collections.sort(result);
+		return result;
+	}
+
+	/**
+	 * @return the content of file without the lines holding the generation date
+	 */
+	public static String readContent(File file) throws IOException {
+		StringBuffer result = new StringBuffer();
+		List<String> lines = Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+		for (Iterator<String> iter = lines.iterator(); iter.hasNext();) {
+			String line = iter.next();
+			if(line.indexOf("Generated ")<0) {
+				result.append(line).append('\n');
+			}
+		}
+		return result.toString();
+	}
+
+}
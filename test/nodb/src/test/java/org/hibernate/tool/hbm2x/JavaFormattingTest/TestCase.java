@@ -0,0 +1,52 @@
+package org.hibernate.tool.hbm2x.JavaFormattingTest;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.List;
+
+import org.hibernate.tool.api.java.Formatter;
+import org.hibernate.tool.hbm2x.GenericExporterTest.ExporterFixture;
+import org.hibernate.tool.internal.export.common.ExporterSettings;
+import org.hibernate.tool.internal.export.pojo.POJOExporter;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class TestCase {
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private ExporterFixture fixture = null;
+
+	@Before
+	public void setUp() {
+		fixture = new ExporterFixture(temporaryFolder.getRoot());
+	}
+
+	@Test
+	public void testFormattedGeneration() throws IOException {
+		fixture.createPOJOExporter("unformatted").start();
+		POJOExporter formatted = fixture.createPOJOExporter("formatted");
+		formatted.getProperties().put(ExporterSettings.FORMAT_JAVA, "true");
+		formatted.getProperties().put(ExporterSettings.EXPORT_THREADS, "3");
+		formatted.start();
+		File unformattedDir = new File(temporaryFolder.getRoot(), "unformatted");
+		File formattedDir = new File(temporaryFolder.getRoot(), "formatted");
+		Formatter formatter = new Formatter(null);
+		List<String> files = ExporterFixture.listFiles(unformattedDir);
+		Assert.assertEquals(files, ExporterFixture.listFiles(formattedDir));
+		for (Iterator<String> iter = files.iterator(); iter.hasNext();) {
+			String file = iter.next();
+			Assert.assertTrue(file, formatter.formatFile(new File(unformattedDir, file)));
+			Assert.assertEquals(
+					file, 
+					ExporterFixture.readContent(new File(unformattedDir, file)), 
+					ExporterFixture.readContent(new File(formattedDir, file)));
+		}
+	}
+
+}
@@ -0,0 +1,104 @@
+package org.hibernate.tool.hbm2x.OutputSinkTest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.util.Arrays;
+import java.util.zip.ZipFile;
+
+import org.hibernate.tool.api.export.ExporterConstants;
+import org.hibernate.tool.api.export.OutputSink;
+import org.hibernate.tool.hbm2x.GenericExporterTest.ExporterFixture;
+import org.hibernate.tool.internal.export.common.AbstractExporter;
+import org.hibernate.tool.internal.export.common.GenericExporter;
+import org.hibernate.tool.internal.export.common.InMemoryOutputSink;
+import org.hibernate.tool.internal.export.common.ZipOutputSink;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class TestCase {
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private ExporterFixture fixture = null;
+
+	@Before
+	public void setUp() {
+		fixture = new ExporterFixture(temporaryFolder.getRoot());
+	}
+
+	@Test
+	public void testOutputSink() throws Exception {
+		File outputDir = fixture.getOutputDir();
+		InMemoryOutputSink memory = new InMemoryOutputSink();
+		GenericExporter ge = fixture.createGenericExporter("generic-xml.ftl", "generic{class-name}.xml");
+		ge.getProperties().put(ExporterConstants.OUTPUT_SINK, memory);
+		ge.start();
+		Assert.assertEquals(0, outputDir.list().length);
+		Assert.assertEquals(ge.getArtifactCollector().getFileCount("xml"), memory.getPaths().size());
+		Assert.assertTrue(memory.getPaths().contains("genericHelloUniverse.xml"));
+		Assert.assertTrue(memory.getContentAsString("genericHelloUniverse.xml").startsWith("<?xml"));
+		File zipFile = new File(temporaryFolder.getRoot(), "output.zip");
+		ZipOutputSink zip = new ZipOutputSink(zipFile);
+		ge = fixture.createGenericExporter("generic-xml.ftl", "generic{class-name}.xml");
+		ge.getProperties().put(ExporterConstants.OUTPUT_SINK, zip);
+		ge.start();
+		try {
+			zip.openStream("genericHelloUniverse.xml", true);
+			Assert.fail();
+		} catch(IOException e) {
+			// expected, zip entries cannot be appended to
+		}
+		zip.close();
+		Assert.assertEquals(0, outputDir.list().length);
+		ZipFile zipped = new ZipFile(zipFile);
+		try {
+			Assert.assertEquals(memory.getPaths().size(), zipped.size());
+			Assert.assertNotNull(zipped.getEntry("genericHelloUniverse.xml"));
+		}
+		finally {
+			zipped.close();
+		}
+	}
+
+	@Test
+	public void testOutputWriterStreamsToSink() {
+		final ByteArrayOutputStream opened = new ByteArrayOutputStream();
+		final OutputSink sink = new OutputSink() {
+			public OutputStream openStream(String path, boolean append) {
+				return opened;
+			}
+			public boolean exists(String path) {
+				return false;
+			}
+			public void close() {
+			}
+		};
+		final char[] line = new char[1000];
+		Arrays.fill(line, 'x');
+		AbstractExporter exporter = new AbstractExporter() {
+			protected void doStart() {
+				PrintWriter pw = new PrintWriter(newOutputWriter(new File(getOutputDirectory(), "query.txt"), "query-output", true));
+				for (int i = 0; i < 100; i++) {
+					pw.println(line);
+				}
+				// what was written so far already reached the sink
+				Assert.assertTrue(opened.size() > 0);
+				pw.close();
+			}
+		};
+		exporter.getProperties().put(ExporterConstants.METADATA_DESCRIPTOR, fixture.getMetadataDescriptor());
+		exporter.getProperties().put(ExporterConstants.OUTPUT_FOLDER, fixture.getOutputDir());
+		exporter.getProperties().put(ExporterConstants.OUTPUT_SINK, sink);
+		exporter.start();
+		Assert.assertEquals(100 * (line.length + System.lineSeparator().length()), opened.size());
+		Assert.assertEquals(1, exporter.getArtifactCollector().getFileCount("query-output"));
+	}
+
+}
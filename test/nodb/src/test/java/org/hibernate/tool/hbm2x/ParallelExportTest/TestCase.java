@@ -0,0 +1,53 @@
+package org.hibernate.tool.hbm2x.ParallelExportTest;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.List;
+
+import org.hibernate.tool.hbm2x.GenericExporterTest.ExporterFixture;
+import org.hibernate.tool.internal.export.common.ExporterSettings;
+import org.hibernate.tool.internal.export.pojo.POJOExporter;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class TestCase {
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private ExporterFixture fixture = null;
+
+	@Before
+	public void setUp() {
+		fixture = new ExporterFixture(temporaryFolder.getRoot());
+	}
+
+	@Test
+	public void testParallelGeneration() throws IOException {
+		POJOExporter serial = fixture.createPOJOExporter("serial");
+		serial.start();
+		POJOExporter parallel = fixture.createPOJOExporter("parallel");
+		parallel.getProperties().put(ExporterSettings.EXPORT_THREADS, "3");
+		parallel.start();
+		File serialDir = new File(temporaryFolder.getRoot(), "serial");
+		File parallelDir = new File(temporaryFolder.getRoot(), "parallel");
+		List<String> serialFiles = ExporterFixture.listFiles(serialDir);
+		Assert.assertEquals(serialFiles, ExporterFixture.listFiles(parallelDir));
+		Assert.assertEquals(5, serialFiles.size());
+		for (Iterator<String> iter = serialFiles.iterator(); iter.hasNext();) {
+			String file = iter.next();
+			Assert.assertEquals(
+					file, 
+					ExporterFixture.readContent(new File(serialDir, file)), 
+					ExporterFixture.readContent(new File(parallelDir, file)));
+		}
+		Assert.assertEquals(
+				serial.getArtifactCollector().getFileCount("java"), 
+				parallel.getArtifactCollector().getFileCount("java"));
+	}
+
+}
@@ -0,0 +1,49 @@
+package org.hibernate.tool.hbm2x.PostProcessorTest;
+
+import java.io.File;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.hibernate.tool.api.export.ArtifactPostProcessor;
+import org.hibernate.tool.hbm2x.GenericExporterTest.ExporterFixture;
+import org.hibernate.tool.internal.export.common.ExtendedArtifactCollector;
+import org.hibernate.tool.internal.export.common.GenericExporter;
+import org.hibernate.tools.test.util.FileUtil;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class TestCase {
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private ExporterFixture fixture = null;
+
+	@Before
+	public void setUp() {
+		fixture = new ExporterFixture(temporaryFolder.getRoot());
+	}
+
+	@Test
+	public void testPostProcessors() {
+		final AtomicInteger calls = new AtomicInteger();
+		GenericExporter ge = fixture.createGenericExporter("generic-class.ftl", "generic{class-name}.txt");
+		((ExtendedArtifactCollector) ge.getArtifactCollector()).addPostProcessor("txt", new ArtifactPostProcessor() {
+			public String process(File file, String content) {
+				calls.incrementAndGet();
+				return content.replace("pojo=", "processed pojo=");
+			}
+		});
+		ge.start();
+		int count = ge.getArtifactCollector().getFileCount("txt");
+		Assert.assertTrue(count > 0);
+		// applied once before writing, not again by formatFiles
+		Assert.assertEquals(count, calls.get());
+		Assert.assertEquals(
+				"processed pojo=Author", 
+				FileUtil.findFirstString("pojo=", new File(fixture.getOutputDir(), "genericAuthor.txt")));
+	}
+
+}
@@ -0,0 +1,84 @@
+package org.hibernate.tool.hbm2x.RegenerationManifestTest;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.hibernate.boot.Metadata;
+import org.hibernate.mapping.PersistentClass;
+import org.hibernate.tool.api.metadata.MetadataDescriptor;
+import org.hibernate.tool.hbm2x.GenericExporterTest.ExporterFixture;
+import org.hibernate.tool.internal.export.common.ExporterSettings;
+import org.hibernate.tool.internal.export.common.ExtendedArtifactCollector;
+import org.hibernate.tool.internal.export.common.GenericExporter;
+import org.hibernate.tool.internal.export.common.ModelFingerprints;
+import org.hibernate.tools.test.util.FileUtil;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class TestCase {
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private ExporterFixture fixture = null;
+
+	@Before
+	public void setUp() {
+		fixture = new ExporterFixture(temporaryFolder.getRoot());
+	}
+
+	@Test
+	public void testRegenerationManifest() throws IOException {
+		File outputDir = fixture.getOutputDir();
+		GenericExporter ge = createRegeneratingExporter(fixture.getMetadataDescriptor());
+		ge.start();
+		int count = ge.getArtifactCollector().getFileCount("txt");
+		Assert.assertTrue(count > 1);
+		File userFile = new File(outputDir, "user.txt");
+		Files.write(userFile.toPath(), "not generated".getBytes(StandardCharsets.UTF_8));
+		// nothing changed, so nothing is rendered again
+		ge = createRegeneratingExporter(fixture.getMetadataDescriptor());
+		ge.start();
+		Assert.assertEquals(count, ge.getArtifactCollector().getFileCount("txt"));
+		Assert.assertEquals(count, ((ExtendedArtifactCollector) ge.getArtifactCollector()).getSkippedFileCount("txt"));
+		// the exporter properties are an input of all files
+		ge = createRegeneratingExporter(fixture.getMetadataDescriptor());
+		ge.getProperties().put("proptest", "changed");
+		ge.start();
+		Assert.assertEquals(0, ((ExtendedArtifactCollector) ge.getArtifactCollector()).getSkippedFileCount("txt"));
+		Assert.assertEquals(
+				"proptest=changed", 
+				FileUtil.findFirstString("proptest=", new File(outputDir, "genericAuthor.txt")));
+		// files of entities that are gone are deleted, other files are left alone
+		MetadataDescriptor helloWorld = fixture.createMetadataDescriptor(new String[] { "HelloWorld.hbm.xml" });
+		ge = createRegeneratingExporter(helloWorld);
+		ge.getProperties().put("proptest", "changed");
+		ge.start();
+		Assert.assertTrue(new File(outputDir, "genericHelloUniverse.txt").exists());
+		Assert.assertFalse(new File(outputDir, "genericAuthor.txt").exists());
+		Assert.assertFalse(new File(outputDir, "genericArticle.txt").exists());
+		Assert.assertTrue(userFile.exists());
+	}
+
+	@Test
+	public void testInputHashCoversAssociatedEntities() {
+		Metadata metadata = fixture.getMetadataDescriptor().createMetadata();
+		PersistentClass author = metadata.getEntityBinding("org.hibernate.tool.hbm2x.Author");
+		String before = ModelFingerprints.describe(author, metadata);
+		// the POJO of Author reads the mappedBy property of its collection from Article
+		metadata.getEntityBinding("org.hibernate.tool.hbm2x.Article").getProperty("author").setName("writer");
+		Assert.assertNotEquals(before, ModelFingerprints.describe(author, metadata));
+	}
+
+	private GenericExporter createRegeneratingExporter(MetadataDescriptor descriptor) {
+		GenericExporter result = fixture.createGenericExporter(descriptor, "generic-class.ftl", "generic{class-name}.txt");
+		result.getProperties().put(ExporterSettings.REGENERATION_MANIFEST, "true");
+		return result;
+	}
+
+}
@@ -0,0 +1,90 @@
+package org.hibernate.tool.hbm2x.StreamedOutputTest;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.hibernate.tool.hbm2x.GenericExporterTest.ExporterFixture;
+import org.hibernate.tool.internal.export.common.ExtendedArtifactCollector;
+import org.hibernate.tool.internal.export.common.GenericExporter;
+import org.hibernate.tool.internal.export.common.StreamingArtifactPostProcessor;
+import org.hibernate.tools.test.util.FileUtil;
+import org.hibernate.tools.test.util.ResourceUtil;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class TestCase {
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private ExporterFixture fixture = null;
+
+	@Before
+	public void setUp() {
+		fixture = new ExporterFixture(temporaryFolder.getRoot());
+	}
+
+	@Test
+	public void testStreamedOutput() {
+		File outputDir = fixture.getOutputDir();
+		fixture.createGenericExporter("generic-class.ftl", "generic{class-name}.txt").start();
+		Assert.assertEquals(
+				"pojo=Author", 
+				FileUtil.findFirstString("pojo=", new File(outputDir, "genericAuthor.txt")));
+		GenericExporter blank = fixture.createGenericExporter(
+				ResourceUtil.getResourcesLocation(this) + "generic-blank.ftl", 
+				"blank{class-name}.txt");
+		blank.start();
+		Assert.assertFalse(new File(outputDir, "blankAuthor.txt").exists());
+		// regenerating replaces the files and leaves no temporary files behind
+		fixture.createGenericExporter("generic-class.ftl", "generic{class-name}.txt").start();
+		List<String> files = ExporterFixture.listFiles(outputDir);
+		for (Iterator<String> iter = files.iterator(); iter.hasNext();) {
+			String file = iter.next();
+			Assert.assertTrue(file, file.startsWith("generic") && file.endsWith(".txt"));
+		}
+	}
+
+	@Test
+	public void testStreamedPostProcessing() throws IOException {
+		final AtomicInteger calls = new AtomicInteger();
+		GenericExporter ge = fixture.createGenericExporter("generic-class.ftl", "generic{class-name}.txt");
+		((ExtendedArtifactCollector) ge.getArtifactCollector()).addPostProcessor("txt", new StreamingArtifactPostProcessor() {
+			public String process(File file, String content) {
+				throw new AssertionError("the content should be streamed");
+			}
+			public void process(File file, Reader input, OutputStream output) throws IOException {
+				calls.incrementAndGet();
+				int c;
+				while ((c = input.read()) != -1) {
+					output.write(Character.toUpperCase(c));
+				}
+			}
+			public void process(File file) {
+				throw new AssertionError("the file was processed when it was written");
+			}
+		});
+		ge.start();
+		Assert.assertEquals(ge.getArtifactCollector().getFileCount("txt"), calls.get());
+		Assert.assertEquals(
+				"POJO=AUTHOR", 
+				FileUtil.findFirstString("POJO=", new File(fixture.getOutputDir(), "genericAuthor.txt")));
+		// the XML pretty printer streams as well
+		ge = fixture.createGenericExporter("generic-xml.ftl", "generic{class-name}.xml");
+		ge.start();
+		List<String> lines = Files.readAllLines(new File(fixture.getOutputDir(), "genericAuthor.xml").toPath(), StandardCharsets.UTF_8);
+		Assert.assertTrue(lines.toString(), lines.contains("    <name>Author</name>"));
+		Assert.assertEquals(ExporterFixture.listFiles(fixture.getOutputDir()).size(), 2 * calls.get());
+	}
+
+}
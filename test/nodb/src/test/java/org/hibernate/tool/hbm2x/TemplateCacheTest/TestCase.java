@@ -0,0 +1,97 @@
+package org.hibernate.tool.hbm2x.TemplateCacheTest;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.hibernate.tool.internal.export.common.TemplateHelper;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import freemarker.template.Configuration;
+
+public class TestCase {
+
+	static class ExposingTemplateHelper extends TemplateHelper {
+		Configuration getFreeMarkerEngine() {
+			return freeMarkerEngine;
+		}
+	}
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private File templateDir;
+
+	@Before
+	public void setUp() throws IOException {
+		templateDir = temporaryFolder.newFolder("templates");
+	}
+
+	@Test
+	public void testConfigurationIsSharedPerTemplatePath() {
+		ExposingTemplateHelper first = newTemplateHelper(new String[] { templateDir.getPath() });
+		ExposingTemplateHelper second = newTemplateHelper(new String[] { templateDir.getPath() });
+		ExposingTemplateHelper other = newTemplateHelper(new String[0]);
+		Assert.assertSame(first.getFreeMarkerEngine(), second.getFreeMarkerEngine());
+		Assert.assertNotSame(first.getFreeMarkerEngine(), other.getFreeMarkerEngine());
+	}
+
+	@Test
+	public void testChangedTemplateIsReparsed() throws IOException {
+		File template = new File(templateDir, "cached.ftl");
+		write(template, "first ${value}");
+		Assert.assertEquals("first 1", process(newTemplateHelper(new String[] { templateDir.getPath() })));
+		write(template, "second ${value}");
+		template.setLastModified(template.lastModified() + 10000);
+		Assert.assertEquals("second 1", process(newTemplateHelper(new String[] { templateDir.getPath() })));
+	}
+
+	@Test
+	public void testConfigurationCacheIsBounded() throws IOException {
+		ExposingTemplateHelper first = newTemplateHelper(new String[] { templateDir.getPath() });
+		for (int i = 0; i < 16; i++) {
+			newTemplateHelper(new String[] { temporaryFolder.newFolder("templates" + i).getPath() });
+		}
+		ExposingTemplateHelper again = newTemplateHelper(new String[] { templateDir.getPath() });
+		Assert.assertNotSame(first.getFreeMarkerEngine(), again.getFreeMarkerEngine());
+	}
+
+	@Test
+	public void testTemplatePathOverridesCachedClasspathTemplate() throws IOException {
+		String name = "org/hibernate/tool/hbm2x/TemplateCacheTest/classpath.ftl";
+		Assert.assertEquals("classpath 1", process(newTemplateHelper(new String[] { templateDir.getPath() }), name));
+		Assert.assertEquals("classpath 1", process(newTemplateHelper(new String[] { templateDir.getPath() }), name));
+		File template = new File(templateDir, name);
+		template.getParentFile().mkdirs();
+		write(template, "file ${value}");
+		Assert.assertEquals("file 1", process(newTemplateHelper(new String[] { templateDir.getPath() }), name));
+	}
+
+	private ExposingTemplateHelper newTemplateHelper(String[] templatePaths) {
+		ExposingTemplateHelper result = new ExposingTemplateHelper();
+		result.init(temporaryFolder.getRoot(), templatePaths);
+		return result;
+	}
+
+	private String process(TemplateHelper helper) {
+		return process(helper, "cached.ftl");
+	}
+
+	private String process(TemplateHelper helper, String templateName) {
+		StringWriter result = new StringWriter();
+		helper.putInContext("value", Integer.valueOf(1));
+		helper.processTemplate(templateName, result, null);
+		return result.toString();
+	}
+
+	private void write(File file, String content) throws IOException {
+		Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+	}
+
+}
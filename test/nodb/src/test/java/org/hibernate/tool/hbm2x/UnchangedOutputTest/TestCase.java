@@ -0,0 +1,69 @@
+package org.hibernate.tool.hbm2x.UnchangedOutputTest;
+
+import java.io.File;
+import java.util.Arrays;
+
+import org.hibernate.tool.hbm2x.GenericExporterTest.ExporterFixture;
+import org.hibernate.tool.internal.export.common.ExporterSettings;
+import org.hibernate.tool.internal.export.common.ExtendedArtifactCollector;
+import org.hibernate.tool.internal.export.common.GenericExporter;
+import org.hibernate.tool.internal.export.common.OutputManifest;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class TestCase {
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private ExporterFixture fixture = null;
+
+	@Before
+	public void setUp() {
+		fixture = new ExporterFixture(temporaryFolder.getRoot());
+	}
+
+	@Test
+	public void testUnchangedFilesAreNotWritten() {
+		GenericExporter ge = fixture.createGenericExporter("generic-class.ftl", "generic{class-name}.txt");
+		ge.start();
+		File[] written = ge.getArtifactCollector().getFiles("txt");
+		Assert.assertTrue(written.length > 0);
+		for (int i = 0; i < written.length; i++) {
+			written[i].setLastModified(1000000000000L);
+		}
+		File changed = new File(fixture.getOutputDir(), "genericAuthor.txt");
+		changed.delete();
+		GenericExporter regenerate = fixture.createGenericExporter("generic-class.ftl", "generic{class-name}.txt");
+		regenerate.start();
+		ExtendedArtifactCollector collector = (ExtendedArtifactCollector) regenerate.getArtifactCollector();
+		Assert.assertEquals(written.length, collector.getFileCount("txt"));
+		Assert.assertEquals(written.length - 1, collector.getSkippedFileCount("txt"));
+		Assert.assertFalse(Arrays.asList(collector.getSkippedFiles("txt")).contains(changed));
+		Assert.assertTrue(changed.exists());
+		for (int i = 0; i < written.length; i++) {
+			if(!written[i].equals(changed)) {
+				Assert.assertEquals(written[i].getName(), 1000000000000L, written[i].lastModified());
+			}
+		}
+	}
+
+	@Test
+	public void testOutputManifest() {
+		GenericExporter ge = fixture.createGenericExporter("generic-xml.ftl", "generic{class-name}.xml");
+		ge.getProperties().put(ExporterSettings.OUTPUT_MANIFEST, "true");
+		ge.start();
+		int count = ge.getArtifactCollector().getFileCount("xml");
+		Assert.assertTrue(count > 0);
+		Assert.assertTrue(new File(fixture.getOutputDir(), OutputManifest.FILE_NAME).isFile());
+		// the manifest knows the files are unchanged without comparing them
+		GenericExporter regenerate = fixture.createGenericExporter("generic-xml.ftl", "generic{class-name}.xml");
+		regenerate.getProperties().put(ExporterSettings.OUTPUT_MANIFEST, "true");
+		regenerate.start();
+		Assert.assertEquals(count, ((ExtendedArtifactCollector) regenerate.getArtifactCollector()).getSkippedFileCount("xml"));
+	}
+
+}
@@ -14,6 +14,8 @@ import org.hibernate.tool.api.reveng.ReverseEngineeringStrategy;
 import org.hibernate.tool.api.reveng.TableIdentifier;
 import org.hibernate.tool.internal.reveng.DefaultReverseEngineeringStrategy;
 import org.hibernate.tool.internal.reveng.DelegatingReverseEngineeringStrategy;
+import org.hibernate.tool.internal.reveng.OverrideRepository;
+import org.hibernate.tool.internal.reveng.SQLTypeMapping;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -149,6 +151,26 @@ public class TestCase {
        	Assert.assertEquals("string",rns.columnToHibernateTypeName(new TableIdentifier("sdf"), "bogus",12,0,0,0, false, false));
     }
     
+	@Test
+	public void testMemoizedTypes() {
+		OverrideRepository or = new OverrideRepository();
+		or.setTypeNameForColumn(new TableIdentifier("orders"), "total", "big_decimal");
+		ReverseEngineeringStrategy strategy = or.getReverseEngineeringStrategy(rns);
+		for (int i = 0; i < 2; i++) {
+			Assert.assertEquals("int", strategy.columnToHibernateTypeName(new TableIdentifier("orders"), "id", Types.INTEGER, 0, 0, 0, false, false));
+			Assert.assertEquals("java.lang.Integer", strategy.columnToHibernateTypeName(new TableIdentifier("orders"), "id", Types.INTEGER, 0, 0, 0, true, false));
+			// explicit column types are never taken from the cache
+			Assert.assertEquals("big_decimal", strategy.columnToHibernateTypeName(new TableIdentifier("orders"), "total", Types.INTEGER, 0, 0, 0, false, false));
+		}
+		// a type mapping added after a lookup replaces the cached type
+		SQLTypeMapping mapping = new SQLTypeMapping(Types.INTEGER);
+		mapping.setHibernateType("long");
+		or.addTypeMapping(mapping);
+		Assert.assertEquals("long", strategy.columnToHibernateTypeName(new TableIdentifier("orders"), "id", Types.INTEGER, 0, 0, 0, false, false));
+		Assert.assertEquals("serializable", strategy.columnToHibernateTypeName(null, "bogus", Types.JAVA_OBJECT, 0, 0, 0, false, false));
+		Assert.assertEquals("serializable", strategy.columnToHibernateTypeName(null, "bogus", Types.JAVA_OBJECT, 0, 0, 0, false, false));
+	}
+
 	@Test
     public void testReservedKeywordsHandling() {
     	Assert.assertEquals("class_", rns.columnToPropertyName(new TableIdentifier("blah"), "class"));    	
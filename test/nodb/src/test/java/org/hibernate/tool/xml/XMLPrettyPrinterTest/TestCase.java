@@ -0,0 +1,104 @@
+package org.hibernate.tool.xml.XMLPrettyPrinterTest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.hibernate.tool.internal.xml.StAXPrettyPrinterStrategy;
+import org.hibernate.tool.internal.xml.TrAXPrettyPrinterStrategy;
+import org.hibernate.tool.internal.xml.XMLPrettyPrinter;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class TestCase {
+	
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+	
+	private static final String INPUT = 
+			"<?xml version=\"1.0\" encoding=\"ISO-8859-1\"?>" +
+			"<!DOCTYPE hibernate-mapping PUBLIC \"-//Hibernate/Hibernate Mapping DTD 3.0//EN\" " +
+			"\"http://www.hibernate.org/dtd/hibernate-mapping-3.0.dtd\">\n" +
+			"<hibernate-mapping>  <!-- a comment -->\n" +
+			"<class name=\"Foo\" table=\"&quot;FOO&quot;\">   <meta attribute=\"class-description\">a &lt; b</meta>\n" +
+			"  <id name=\"id\"/><sql-insert><![CDATA[insert into FOO values (?)]]></sql-insert>\n" +
+			"  <property name=\"bar\">\n\n</property></class></hibernate-mapping>";
+	
+	private static final String EXPECTED = 
+			"<?xml version=\"1.0\" encoding=\"ISO-8859-1\"?>\n" +
+			"<!DOCTYPE hibernate-mapping PUBLIC \"-//Hibernate/Hibernate Mapping DTD 3.0//EN\" " +
+			"\"http://www.hibernate.org/dtd/hibernate-mapping-3.0.dtd\">\n" +
+			"<hibernate-mapping>\n" +
+			"    <!-- a comment -->\n" +
+			"    <class name=\"Foo\" table=\"&quot;FOO&quot;\">\n" +
+			"        <meta attribute=\"class-description\">a &lt; b</meta>\n" +
+			"        <id name=\"id\"/>\n" +
+			"        <sql-insert><![CDATA[insert into FOO values (?)]]></sql-insert>\n" +
+			"        <property name=\"bar\"/>\n" +
+			"    </class>\n" +
+			"</hibernate-mapping>\n";
+	
+	@Test
+	public void testPrettyPrint() throws Exception {
+		// the DTD lives on a remote host, it must not be loaded
+		Assert.assertEquals(EXPECTED, new StAXPrettyPrinterStrategy().prettyPrint(INPUT));
+	}
+	
+	@Test
+	public void testPrettyPrintIsStable() throws Exception {
+		Assert.assertEquals(EXPECTED, XMLPrettyPrinter.prettyPrint(EXPECTED));
+	}
+	
+	@Test
+	public void testDefaultDeclaration() throws Exception {
+		Assert.assertEquals(
+				"<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<a>\n    <b>c</b>\n</a>\n", 
+				XMLPrettyPrinter.prettyPrint("<a><b>c</b></a>"));
+	}
+	
+	@Test
+	public void testSpacesBetweenEntitiesAreKept() throws Exception {
+		String input = "<a><q>x &lt; &gt; y</q><r>a &amp; &amp; b</r><s> &lt; </s></a>";
+		String expected = 
+				"<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" +
+				"<a>\n" +
+				"    <q>x &lt; &gt; y</q>\n" +
+				"    <r>a &amp; &amp; b</r>\n" +
+				"    <s> &lt; </s>\n" +
+				"</a>\n";
+		Assert.assertEquals(expected, new StAXPrettyPrinterStrategy().prettyPrint(input));
+		Assert.assertTrue(new TrAXPrettyPrinterStrategy().prettyPrint(input).contains("<q>x &lt; &gt; y</q>"));
+	}
+	
+	@Test
+	public void testPrettyPrintFileKeepsDeclaredEncoding() throws Exception {
+		File latin = temporaryFolder.newFile("latin.xml");
+		Files.write(latin.toPath(), "<?xml version=\"1.0\" encoding=\"ISO-8859-1\"?><a>caf\u00e9</a>".getBytes(StandardCharsets.ISO_8859_1));
+		XMLPrettyPrinter.prettyPrintFile(latin);
+		Assert.assertArrayEquals(
+				"<?xml version=\"1.0\" encoding=\"ISO-8859-1\"?>\n<a>caf\u00e9</a>\n".getBytes(StandardCharsets.ISO_8859_1), 
+				Files.readAllBytes(latin.toPath()));
+		File undeclared = temporaryFolder.newFile("undeclared.xml");
+		Files.write(undeclared.toPath(), "<a>caf\u00e9</a>".getBytes(StandardCharsets.UTF_8));
+		XMLPrettyPrinter.prettyPrintFile(undeclared);
+		Assert.assertArrayEquals(
+				"<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<a>caf\u00e9</a>\n".getBytes(StandardCharsets.UTF_8), 
+				Files.readAllBytes(undeclared.toPath()));
+	}
+	
+	@Test
+	public void testPrettyPrintStreamWritesDeclaredEncoding() throws Exception {
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		XMLPrettyPrinter.prettyPrint(
+				new StringReader("<?xml version=\"1.0\" encoding=\"ISO-8859-1\"?><a>caf\u00e9</a>"), 
+				output);
+		Assert.assertArrayEquals(
+				"<?xml version=\"1.0\" encoding=\"ISO-8859-1\"?>\n<a>caf\u00e9</a>\n".getBytes(StandardCharsets.ISO_8859_1), 
+				output.toByteArray());
+	}
+	
+}
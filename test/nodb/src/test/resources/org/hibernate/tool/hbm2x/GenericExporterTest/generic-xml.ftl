@@ -0,0 +1 @@
+<pojo><name>${pojo.getDeclarationName()}</name>   <package>${pojo.getPackageName()}</package></pojo>
@@ -0,0 +1,3 @@
+  
+<#-- nothing but whitespace -->
+	
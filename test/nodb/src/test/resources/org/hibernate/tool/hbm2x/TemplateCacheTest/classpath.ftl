@@ -0,0 +1 @@
+classpath ${value}
\ No newline at end of file